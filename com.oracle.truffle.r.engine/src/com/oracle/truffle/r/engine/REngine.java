@@ -95,6 +95,7 @@ import com.oracle.truffle.r.runtime.Utils.DebugExitException;
 import com.oracle.truffle.r.runtime.context.Engine;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.context.TruffleRLanguage;
+import com.oracle.truffle.r.runtime.data.Closure;
 import com.oracle.truffle.r.runtime.data.RArgsValuesAndNames;
 import com.oracle.truffle.r.runtime.data.RAttributable;
 import com.oracle.truffle.r.runtime.data.RBaseObject;
@@ -539,7 +540,8 @@ final class REngine implements Engine, Engine.Timings {
     @TruffleBoundary
     public Object eval(RPairList expr, REnvironment envir, Object callerFrame, RCaller caller, RFunction function) {
         assert expr.isLanguage();
-        return expr.getClosure().eval(envir, callerFrame, caller, function);
+        Closure closure = context.languageEvalCache.get(expr.getClosure());
+        return closure.eval(envir, callerFrame, caller, function);
     }
 
     @Override
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.ffi.impl.nfi;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.data.NativeDataAccess;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory;
+
+/**
+ * The PROTECT/UNPROTECT stack of the NFI backend. The stack itself lives in native memory and is
+ * manipulated by {@code Rf_protect}, {@code Rf_unprotect} and friends directly in native code (see
+ * {@code truffle_nfi/Rinternals.c}), so that these very frequent calls do not need an up-call.
+ * <p>
+ * The native code only records the lowest index that was changed since the last
+ * {@link #synchronize() synchronization}. The Java objects behind the native handles on the stack
+ * are looked up lazily, just before the list of references used in native code is cleared, i.e.,
+ * before the objects could be collected. Until then the protected objects are kept alive by that
+ * list anyway. The layout of the native memory must be kept in sync with {@code FastRProtectStack}
+ * in {@code Rinternals.c}:
+ *
+ * <pre>
+ * int top; int dirty; int size; int unused; SEXP stack[size];
+ * </pre>
+ */
+final class NativeProtectStack {
+
+    /**
+     * The same as GNU-R's default {@code R_PPStackSize}.
+     */
+    private static final int SIZE = 50000;
+
+    private static final int TOP_INDEX = 0;
+    private static final int DIRTY_INDEX = 1;
+    private static final int SIZE_INDEX = 2;
+    private static final long HEADER_BYTES = 4L * Integer.BYTES;
+
+    private final long address;
+    private Object[] protectedObjects = new Object[64];
+    private int protectedCount;
+
+    NativeProtectStack() {
+        address = NativeMemory.allocate(HEADER_BYTES + SIZE * (long) Long.BYTES, "protect stack");
+        NativeMemory.putInt(address, TOP_INDEX, 0);
+        NativeMemory.putInt(address, DIRTY_INDEX, 0);
+        NativeMemory.putInt(address, SIZE_INDEX, SIZE);
+    }
+
+    long getAddress() {
+        return address;
+    }
+
+    /**
+     * Makes the Java side reflect the current state of the native stack. Cheap if nothing was
+     * protected or unprotected since the last call.
+     */
+    void synchronize() {
+        int top = NativeMemory.getInt(address, TOP_INDEX);
+        int dirty = NativeMemory.getInt(address, DIRTY_INDEX);
+        if (dirty != top || top != protectedCount) {
+            synchronize(top, Math.min(dirty, protectedCount));
+        }
+    }
+
+    @TruffleBoundary
+    private void synchronize(int top, int from) {
+        if (top > protectedObjects.length) {
+            protectedObjects = Arrays.copyOf(protectedObjects, Math.max(top, protectedObjects.length * 2));
+        }
+        long stack = address + HEADER_BYTES;
+        for (int i = from; i < top; i++) {
+            long handle = NativeMemory.getLong(stack, i);
+            protectedObjects[i] = handle == 0 ? null : NativeDataAccess.lookup(handle);
+        }
+        if (top < protectedCount) {
+            Arrays.fill(protectedObjects, top, protectedCount, null);
+        }
+        protectedCount = top;
+        NativeMemory.putInt(address, DIRTY_INDEX, top);
+    }
+
+    void free() {
+        NativeMemory.free(address, "protect stack");
+    }
+}
@@ -239,7 +239,10 @@ public class TruffleNFI_Context extends RFFIContext {
     private void initCallbacks(RContext context) {
         if (context.getKind() == ContextKind.SHARE_NOTHING) {
             // create and fill a new callbacks table
-            callbacks = NativeMemory.allocate(Callbacks.values().length * (long) Long.BYTES, "callbacks");
+            // the slot after the last callback holds the address of the native protect stack
+            callbacks = NativeMemory.allocate((Callbacks.values().length + 1) * (long) Long.BYTES, "callbacks");
+            protectStack = new NativeProtectStack();
+            NativeMemory.putLong(callbacks, Callbacks.values().length, protectStack.getAddress());
             InteropLibrary interop = InteropLibrary.getFactory().getUncached();
             SignatureLibrary signatures = SignatureLibrary.getUncached();
             Object addCallback;
@@ -259,11 +262,14 @@ public class TruffleNFI_Context extends RFFIContext {
             }
         } else {
             // reuse the parent's callbacks table
-            callbacks = context.getParent().getStateRFFI().as(TruffleNFI_Context.class).callbacks;
+            TruffleNFI_Context parent = context.getParent().getStateRFFI().as(TruffleNFI_Context.class);
+            callbacks = parent.callbacks;
+            protectStack = parent.protectStack;
         }
     }
 
     private long callbacks;
+    private NativeProtectStack protectStack;
     @CompilationFinal private boolean singleThreadOnly = true;
     @CompilationFinal private long callbacksAddressThread;
     @CompilationFinal private long callbacksAddress;
@@ -384,6 +390,7 @@ public class TruffleNFI_Context extends RFFIContext {
         switch (context.getKind()) {
             case SHARE_NOTHING:
                 NativeMemory.free(callbacks, "callbacks");
+                protectStack.free();
                 break;
             case SHARE_ALL:
             case SHARE_PARENT_RO:
@@ -415,8 +422,20 @@ public class TruffleNFI_Context extends RFFIContext {
         context.gcTorture.runGC();
     }
 
+    @Override
+    public void afterUpcall(boolean canRunGc, Type rffiType) {
+        if (canRunGc) {
+            synchronizeProtectStack();
+        }
+        super.afterUpcall(canRunGc, rffiType);
+    }
+
     @Override
     public void afterDowncall(Object beforeValue, Type rffiType, AfterDownCallProfiles profiles) {
+        if (getCallDepth() == 1) {
+            // the references used in native code are going to be cleared
+            synchronizeProtectStack();
+        }
         Object[] tokens = (Object[]) beforeValue;
         super.afterDowncall(tokens[0], rffiType, profiles);
         popCallbacks((long) tokens[1]);
@@ -430,6 +449,12 @@ public class TruffleNFI_Context extends RFFIContext {
         }
     }
 
+    private void synchronizeProtectStack() {
+        if (protectStack != null) {
+            protectStack.synchronize();
+        }
+    }
+
     @TruffleBoundary
     private void freeCurrentTransientAllocations() {
         for (Long ptr : transientAllocations.pop()) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -24,11 +24,14 @@ package com.oracle.truffle.r.ffi.impl.nodes;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.Message;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.gnur.SEXPTYPE;
 
@@ -65,6 +68,17 @@ public abstract class RfAllocVectorNode extends FFIUpCallNode.Arg2 {
     }
 
     private static Object allocate(SEXPTYPE type, int ni) {
+        if (allocateInNative(ni)) {
+            // native code is going to access the data via REAL(), INTEGER(), etc. anyway, so we
+            // avoid allocating the Java array only to copy it to native memory later
+            return RDataFactory.createEmptyNativeVectorFromSEXPType(type, ni);
+        }
         return RDataFactory.createEmptyVectorFromSEXPType(type, ni);
     }
+
+    @TruffleBoundary
+    private static boolean allocateInNative(int length) {
+        int threshold = RContext.getInstance().getOption(FastROptions.NativeVectorAllocationThreshold);
+        return threshold >= 0 && length >= threshold;
+    }
 }
@@ -313,6 +313,7 @@ public final class FFIProcessor extends AbstractProcessor {
         }
         w.append("import com.oracle.truffle.r.runtime.ffi.RFFIContext;\n");
         w.append("import com.oracle.truffle.r.runtime.ffi.RFFILog;\n");
+        w.append("import com.oracle.truffle.r.runtime.ffi.RFFIStats;\n");
         w.append("import com.oracle.truffle.api.interop.InteropLibrary;\n");
         w.append("import com.oracle.truffle.api.library.ExportLibrary;\n");
         w.append("import com.oracle.truffle.api.library.ExportMessage;\n");
@@ -420,6 +421,7 @@ public final class FFIProcessor extends AbstractProcessor {
         }
         w.append("        UpCallsRFFI impl = upCallProfile.profile(upCallsImpl);\n");
         w.append("        rffiCtx.beforeUpcall(ctx, " + canRunGc + ", impl.getRFFIType());\n");
+        w.append("        long statsStart = RFFIStats.start();\n");
         w.append(unwrappedArgs);
         w.append("        try {\n");
 
@@ -469,6 +471,7 @@ public final class FFIProcessor extends AbstractProcessor {
         w.append("            handleExceptionNode.execute(ex);\n");
         appendCreateDummyResultObj(returnKind, needsReturnWrap, w);
         w.append("        }\n");
+        w.append("        RFFIStats.upCallEnd(\"" + name + "\", statsStart);\n");
         w.append("        rffiCtx.afterUpcall(" + canRunGc + ", impl.getRFFIType());\n");
         if (returnKind == TypeKind.VOID) {
             w.append("        if (RFFILog.logEnabled()) {\n");
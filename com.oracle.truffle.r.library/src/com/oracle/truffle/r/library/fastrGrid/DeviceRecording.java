@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.library.fastrGrid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext;
+import com.oracle.truffle.r.library.fastrGrid.device.DrawingContextDefaults;
+import com.oracle.truffle.r.library.fastrGrid.device.GridDevice;
+import com.oracle.truffle.r.runtime.data.RList;
+
+/**
+ * Compiled form of the grid display list: the device primitives, with the coordinates already
+ * transformed by the viewports, that were drawn by the last replay of the display list in
+ * {@link GridContext#redrawAll()}. As long as the display list, the current viewport and gpar and
+ * the size of the device stay the same, the next redraw can send the primitives to the device
+ * directly instead of evaluating the grid R code again.
+ */
+final class DeviceRecording {
+    /**
+     * Bigger recordings are dropped, the memory would be better spent elsewhere.
+     */
+    private static final int MAX_PRIMITIVES = 100_000;
+
+    private final ArrayList<Consumer<GridDevice>> primitives = new ArrayList<>();
+    private boolean overflow;
+
+    private double width;
+    private double height;
+    private int displayListVersion;
+    private RList viewPort;
+    private RList gpar;
+
+    /**
+     * Creates a device that forwards everything to the target device and records the drawn
+     * primitives since the last {@code openNewPage}.
+     */
+    GridDevice createRecorder(GridDevice target) {
+        return new Recorder(target);
+    }
+
+    /**
+     * Captures the state the recording corresponds to. Returns {@code false} if the recording is
+     * not usable.
+     */
+    boolean finish(GridDevice device, GridState state) {
+        if (overflow) {
+            primitives.clear();
+            return false;
+        }
+        primitives.trimToSize();
+        width = device.getWidth();
+        height = device.getHeight();
+        displayListVersion = state.getDisplayListVersion();
+        viewPort = state.getViewPort();
+        gpar = state.getGpar();
+        return true;
+    }
+
+    boolean isValid(GridDevice device, GridState state) {
+        return width == device.getWidth() && height == device.getHeight() && displayListVersion == state.getDisplayListVersion() && viewPort == state.getViewPort() &&
+                        gpar == state.getGpar();
+    }
+
+    void replay(GridDevice device) {
+        device.hold();
+        try {
+            device.openNewPage();
+            for (Consumer<GridDevice> primitive : primitives) {
+                primitive.accept(device);
+            }
+        } finally {
+            device.flush();
+        }
+    }
+
+    private void record(Consumer<GridDevice> primitive) {
+        if (overflow) {
+            return;
+        }
+        if (primitives.size() >= MAX_PRIMITIVES) {
+            overflow = true;
+            primitives.clear();
+            return;
+        }
+        primitives.add(primitive);
+    }
+
+    /**
+     * The arrays given to the device may be reused by the caller, so the recorder copies them.
+     */
+    private final class Recorder implements GridDevice {
+        private final GridDevice inner;
+
+        Recorder(GridDevice inner) {
+            this.inner = inner;
+        }
+
+        @Override
+        public void openNewPage() {
+            inner.openNewPage();
+            primitives.clear();
+            overflow = false;
+        }
+
+        @Override
+        public void hold() {
+            inner.hold();
+        }
+
+        @Override
+        public void flush() {
+            inner.flush();
+        }
+
+        @Override
+        public void close() throws DeviceCloseException {
+            inner.close();
+        }
+
+        @Override
+        public void drawRect(DrawingContext ctx, double leftX, double bottomY, double w, double h, double rotationAnticlockWise) {
+            inner.drawRect(ctx, leftX, bottomY, w, h, rotationAnticlockWise);
+            record(dev -> dev.drawRect(ctx, leftX, bottomY, w, h, rotationAnticlockWise));
+        }
+
+        @Override
+        public void drawPolyLines(DrawingContext ctx, double[] x, double[] y, int startIndex, int length) {
+            inner.drawPolyLines(ctx, x, y, startIndex, length);
+            double[] xCopy = Arrays.copyOfRange(x, startIndex, startIndex + length);
+            double[] yCopy = Arrays.copyOfRange(y, startIndex, startIndex + length);
+            record(dev -> dev.drawPolyLines(ctx, xCopy, yCopy, 0, length));
+        }
+
+        @Override
+        public void drawPolygon(DrawingContext ctx, double[] x, double[] y, int startIndex, int length) {
+            inner.drawPolygon(ctx, x, y, startIndex, length);
+            double[] xCopy = Arrays.copyOfRange(x, startIndex, startIndex + length);
+            double[] yCopy = Arrays.copyOfRange(y, startIndex, startIndex + length);
+            record(dev -> dev.drawPolygon(ctx, xCopy, yCopy, 0, length));
+        }
+
+        @Override
+        public void drawCircle(DrawingContext ctx, double centerX, double centerY, double radius) {
+            inner.drawCircle(ctx, centerX, centerY, radius);
+            record(dev -> dev.drawCircle(ctx, centerX, centerY, radius));
+        }
+
+        @Override
+        public void drawCircles(DrawingContext ctx, double[] centerX, double[] centerY, double[] radius, int count) {
+            inner.drawCircles(ctx, centerX, centerY, radius, count);
+            double[] xCopy = Arrays.copyOf(centerX, count);
+            double[] yCopy = Arrays.copyOf(centerY, count);
+            double[] radiusCopy = Arrays.copyOf(radius, count);
+            record(dev -> dev.drawCircles(ctx, xCopy, yCopy, radiusCopy, count));
+        }
+
+        @Override
+        public void drawSegments(DrawingContext ctx, double[] x0, double[] y0, double[] x1, double[] y1, int count) {
+            inner.drawSegments(ctx, x0, y0, x1, y1, count);
+            double[] x0Copy = Arrays.copyOf(x0, count);
+            double[] y0Copy = Arrays.copyOf(y0, count);
+            double[] x1Copy = Arrays.copyOf(x1, count);
+            double[] y1Copy = Arrays.copyOf(y1, count);
+            record(dev -> dev.drawSegments(ctx, x0Copy, y0Copy, x1Copy, y1Copy, count));
+        }
+
+        @Override
+        public void drawRaster(double leftX, double bottomY, double w, double h, int[] pixels, int pixelsColumnsCount, ImageInterpolation interpolation) {
+            inner.drawRaster(leftX, bottomY, w, h, pixels, pixelsColumnsCount, interpolation);
+            int[] pixelsCopy = pixels.clone();
+            record(dev -> dev.drawRaster(leftX, bottomY, w, h, pixelsCopy, pixelsColumnsCount, interpolation));
+        }
+
+        @Override
+        public void drawString(DrawingContext ctx, double leftX, double bottomY, double rotationAnticlockWise, String text) {
+            inner.drawString(ctx, leftX, bottomY, rotationAnticlockWise, text);
+            record(dev -> dev.drawString(ctx, leftX, bottomY, rotationAnticlockWise, text));
+        }
+
+        @Override
+        public double getWidth() {
+            return inner.getWidth();
+        }
+
+        @Override
+        public double getHeight() {
+            return inner.getHeight();
+        }
+
+        @Override
+        public int getNativeWidth() {
+            return inner.getNativeWidth();
+        }
+
+        @Override
+        public int getNativeHeight() {
+            return inner.getNativeHeight();
+        }
+
+        @Override
+        public DrawingContextDefaults getDrawingContextDefaults() {
+            return inner.getDrawingContextDefaults();
+        }
+
+        @Override
+        public double getStringWidth(DrawingContext ctx, String text) {
+            return inner.getStringWidth(ctx, text);
+        }
+
+        @Override
+        public double getStringHeight(DrawingContext ctx, String text) {
+            return inner.getStringHeight(ctx, text);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -57,6 +57,11 @@ public final class GridContext {
      */
     private final ArrayList<DeviceAndState> devices = new ArrayList<>(2);
     private int currentDeviceIdx = 0;
+    /**
+     * Set while {@link #redrawAll()} records the primitives drawn to the current device.
+     */
+    private GridDevice recorder;
+    private GridDevice recordedDevice;
 
     private GridContext() {
         devices.add(new DeviceAndState(null, null, null));
@@ -123,7 +128,8 @@ public final class GridContext {
 
     public GridDevice getCurrentDevice() {
         assert currentDeviceIdx >= 0 : "accessing devices before they were initialized";
-        return getDeviceAndState(currentDeviceIdx).device;
+        GridDevice device = getDeviceAndState(currentDeviceIdx).device;
+        return recorder != null && device == recordedDevice ? recorder : device;
     }
 
     public void setCurrentDevice(String name, GridDevice currentDevice) {
@@ -194,6 +200,36 @@ public final class GridContext {
         return getDeviceAndState(index).device;
     }
 
+    /**
+     * Redraws the current device from the display list, e.g., after the window was resized. If
+     * neither the display list, nor the size of the device changed since the previous redraw, the
+     * device primitives recorded by the previous redraw are replayed without running any R code,
+     * see {@link DeviceRecording}.
+     */
+    @TruffleBoundary
+    public void redrawAll() {
+        GridDevice device = getCurrentDevice();
+        GridState state = getGridState();
+        DeviceRecording cached = state.getRecording();
+        if (cached != null && cached.isValid(device, state)) {
+            cached.replay(device);
+            return;
+        }
+        state.setRecording(null);
+        DeviceRecording recording = new DeviceRecording();
+        recordedDevice = device;
+        recorder = recording.createRecorder(device);
+        try {
+            evalInternalRFunction("redrawAll");
+        } finally {
+            recorder = null;
+            recordedDevice = null;
+        }
+        if (recording.finish(device, state)) {
+            state.setRecording(recording);
+        }
+    }
+
     /**
      * Runs arbitrary function from 'fastrGrid.R' file and returns its result.
      */
@@ -1,7 +1,7 @@
 /*
  * Copyright (C) 2001-3 Paul Murrell
  * Copyright (c) 1998-2013, The R Core Team
- * Copyright (c) 2017, 2020, Oracle and/or its affiliates
+ * Copyright (c) 2017, 2022, Oracle and/or its affiliates
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -82,10 +82,28 @@ public final class GridState {
     public void setDisplayList(RList newList) {
         newList.makeSharedPermanent();
         devState.displayList = newList;
+        devState.displayListVersion++;
     }
 
     public void setDisplayListElement(Object element) {
         devState.displayList.setDataAt(devState.displayListIndex, element);
+        devState.displayListVersion++;
+    }
+
+    /**
+     * Incremented on every change of the display list, used to invalidate the
+     * {@link DeviceRecording}.
+     */
+    public int getDisplayListVersion() {
+        return devState.displayListVersion;
+    }
+
+    DeviceRecording getRecording() {
+        return devState.recording;
+    }
+
+    void setRecording(DeviceRecording recording) {
+        devState.recording = recording;
     }
 
     public boolean isDisplayListOn() {
@@ -102,6 +120,7 @@ public final class GridState {
 
     public void setDisplayListIndex(int newValue) {
         devState.displayListIndex = newValue;
+        devState.displayListVersion++;
     }
 
     public GridPalette getPalette() {
@@ -212,6 +231,8 @@ public final class GridState {
         private boolean isDisplayListOn = true;
         private RList displayList;
         private int displayListIndex = 0;
+        private int displayListVersion;
+        private DeviceRecording recording;
         private int pageIndex = 2;
         private String filenamePattern;
         private Map<String, Object> pars;
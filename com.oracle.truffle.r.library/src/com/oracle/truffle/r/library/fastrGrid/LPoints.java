@@ -1,7 +1,7 @@
 /*
  * Copyright (C) 2001-3 Paul Murrell
  * Copyright (c) 1998-2015, The R Core Team
- * Copyright (c) 2017, 2019, Oracle and/or its affiliates
+ * Copyright (c) 2017, 2022, Oracle and/or its affiliates
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -77,30 +77,45 @@ public abstract class LPoints extends RExternalBuiltinNode.Arg4 {
         // Note: unlike in other drawing primitives, we only consider length of x
         int length = Unit.getLength(xVec);
         ContextCache contextCache = new ContextCache(null);
+        CircleBatch circles = new CircleBatch(length);
         for (int i = 0; i < length; i++) {
             Point loc = TransformMatrix.transLocation(Point.fromUnits(xVec, yVec, i, conversionCtx), vpTransform.transform);
             double size = Unit.convertWidth(sizeVec, i, conversionCtx);
             if (loc.isFinite() && Double.isFinite(size)) {
                 contextCache = contextCache.from(gpar.getDrawingContext(i));
-                drawSymbol(contextCache, dev, pchVec.getDataAt(i % pchVec.getLength()), size * SIZE_FACTOR, loc.x, loc.y);
+                drawSymbol(contextCache, circles, dev, pchVec.getDataAt(i % pchVec.getLength()), size * SIZE_FACTOR, loc.x, loc.y);
             }
         }
+        circles.flush(dev);
         return RNull.instance;
     }
 
-    private static void drawSymbol(ContextCache ctxCache, GridDevice dev, int pch, double halfSize, double x, double y) {
+    private static void drawSymbol(ContextCache ctxCache, CircleBatch circles, GridDevice dev, int pch, double halfSize, double x, double y) {
         // pch 0 - 25 are interpreted as geometrical shapes, pch from ascii code of ' ' are
         // interpreted as corresponding ascii character, which should be drawn
         // the coordinates should be interpreted as the center of the symbol
         double fullSize = halfSize * 2;
         DrawingContext emptyFill = ctxCache.getTransparentFill();
+        switch (pch) {
+            case 1:
+                circles.add(dev, emptyFill, x, y, halfSize);
+                return;
+            case 16: // S filled circle (should be 'octagon')
+            case 19: // S filled circle
+            case 21: // S filled (with different color) circle
+                circles.add(dev, ctxCache.getFilled(), x, y, halfSize);
+                return;
+            case 20: // S smaller filled circle
+                circles.add(dev, ctxCache.getFilled(), x, y, halfSize * .6);
+                return;
+            default:
+                // keep the drawing order of the symbols
+                circles.flush(dev);
+        }
         switch (pch) {
             case 0:
                 drawSquare(emptyFill, dev, halfSize, x, y);
                 break;
-            case 1:
-                dev.drawCircle(emptyFill, x, y, halfSize);
-                break;
             case 2: // triangle up
                 triangleUp(emptyFill, dev, halfSize * TRIANGLE_SIZE_FACTOR, x, y);
                 break;
@@ -152,11 +167,6 @@ public abstract class LPoints extends RExternalBuiltinNode.Arg4 {
             case 22: // S filled (with different color) square
                 dev.drawRect(ctxCache.getFilled(), x - halfSize, y - halfSize, fullSize, fullSize, 0);
                 break;
-            case 16: // S filled circle (should be 'octagon')
-            case 19: // S filled circle
-            case 21: // S filled (with different color) circle
-                dev.drawCircle(ctxCache.getFilled(), x, y, halfSize);
-                break;
             case 17: // S filled triangle up
             case 24: // S filled (with different color) triangle up
                 triangleUp(ctxCache.getFilled(), dev, halfSize * TRIANGLE_SIZE_FACTOR, x, y);
@@ -165,9 +175,6 @@ public abstract class LPoints extends RExternalBuiltinNode.Arg4 {
             case 23: // S filled (with different color) diamond
                 drawDiamond(ctxCache.getFilled(), dev, halfSize, fullSize, x, y);
                 break;
-            case 20: // S smaller filled circle
-                dev.drawCircle(ctxCache.getFilled(), x, y, halfSize * .6);
-                break;
             case 25: // S triangle down filled
                 triangleDown(ctxCache.getFilled(), dev, halfSize * TRIANGLE_SIZE_FACTOR, x, y);
                 break;
@@ -238,6 +245,44 @@ public abstract class LPoints extends RExternalBuiltinNode.Arg4 {
         dev.drawPolyLines(ctx, new double[]{x1, x2}, new double[]{y1, y2}, 0, 2);
     }
 
+    /**
+     * Collects the consecutive circle symbols drawn with the same context, so that they can be
+     * passed to {@link GridDevice#drawCircles} at once.
+     */
+    private static final class CircleBatch {
+        private final double[] x;
+        private final double[] y;
+        private final double[] radius;
+        private DrawingContext ctx;
+        private int count;
+
+        private CircleBatch(int capacity) {
+            x = new double[capacity];
+            y = new double[capacity];
+            radius = new double[capacity];
+        }
+
+        void add(GridDevice dev, DrawingContext circleCtx, double centerX, double centerY, double r) {
+            if (circleCtx != ctx) {
+                flush(dev);
+                ctx = circleCtx;
+            }
+            x[count] = centerX;
+            y[count] = centerY;
+            radius[count] = r;
+            count++;
+        }
+
+        void flush(GridDevice dev) {
+            if (count == 1) {
+                dev.drawCircle(ctx, x[0], y[0], radius[0]);
+            } else if (count > 1) {
+                dev.drawCircles(ctx, x, y, radius, count);
+            }
+            count = 0;
+        }
+    }
+
     private static final class ContextCache {
         public final DrawingContext original;
         private DrawingContext filled;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -69,7 +69,7 @@ public final class WindowDevice {
         }
         ctx.schedule(() -> {
             Object prev = ctx.getEnv().getContext().enter(null);
-            GridContext.getContext(ctx).evalInternalRFunction("redrawAll");
+            GridContext.getContext(ctx).redrawAll();
             ctx.getEnv().getContext().leave(null, prev);
         });
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -94,6 +94,34 @@ public interface GridDevice {
 
     void drawCircle(DrawingContext ctx, double centerX, double centerY, double radius);
 
+    /**
+     * Draws the first {@code count} circles given by the arrays, all with the same drawing context.
+     * Devices that can draw many shapes at once should override this, the default implementation
+     * draws the circles one by one.
+     */
+    default void drawCircles(DrawingContext ctx, double[] centerX, double[] centerY, double[] radius, int count) {
+        for (int i = 0; i < count; i++) {
+            drawCircle(ctx, centerX[i], centerY[i], radius[i]);
+        }
+    }
+
+    /**
+     * Draws the first {@code count} line segments from ({@code x0}, {@code y0}) to ({@code x1},
+     * {@code y1}), all with the same drawing context. The default implementation draws them one by
+     * one as poly lines.
+     */
+    default void drawSegments(DrawingContext ctx, double[] x0, double[] y0, double[] x1, double[] y1, int count) {
+        double[] x = new double[2];
+        double[] y = new double[2];
+        for (int i = 0; i < count; i++) {
+            x[0] = x0[i];
+            x[1] = x1[i];
+            y[0] = y0[i];
+            y[1] = y1[i];
+            drawPolyLines(ctx, x, y, 0, 2);
+        }
+    }
+
     /**
      * Draws a raster image at specified position. The pixels array shall be treated as by row
      * matrix, the values are values compatible with the internal {@link GridColor} representation,
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -27,9 +27,9 @@ import static com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.INCH_
 import static java.lang.Math.round;
 
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.text.DecimalFormat;
+import java.nio.file.StandardCopyOption;
 import java.util.Base64;
 
 import com.oracle.truffle.api.TruffleFile;
@@ -37,15 +37,26 @@ import com.oracle.truffle.r.library.fastrGrid.GridColorUtils;
 import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.GridFontStyle;
 import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.GridLineEnd;
 import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.GridLineJoin;
+import com.oracle.truffle.r.runtime.RError;
+import com.oracle.truffle.r.runtime.RError.Message;
 import com.oracle.truffle.r.runtime.RInternalError;
-import com.oracle.truffle.r.runtime.Utils;
+import com.oracle.truffle.r.runtime.TempPathName;
 import com.oracle.truffle.r.runtime.context.RContext;
 
+/**
+ * Device that produces an SVG document. The document of the current page is streamed into a
+ * temporary spool file, {@link #data} only buffers the last few elements, so that the memory
+ * usage does not depend on the number of drawn primitives. The spool file is copied to the target
+ * file when the page is saved, or read back when the SVG code is requested from R by
+ * {@code svg.string} or {@code svg.off}.
+ */
 public class SVGDevice implements GridDevice, FileGridDevice {
-    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("0.000");
     private static final double COORD_FACTOR = INCH_TO_POINTS_FACTOR;
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
 
-    private final StringBuilder data = new StringBuilder(1024);
+    private final StringBuilder data = new StringBuilder(FLUSH_THRESHOLD + 1024);
+    private TruffleFile spoolFile;
+    private Writer spool;
     private String filename;
     private final double width;
     private final double height;
@@ -59,14 +70,24 @@ public class SVGDevice implements GridDevice, FileGridDevice {
     }
 
     public String closeAndGetContents() {
-        closeSVGDocument(data);
-        return data.toString();
+        String result = getContents();
+        discardSpool();
+        return result;
     }
 
     public String getContents() {
-        StringBuilder result = new StringBuilder(data);
-        closeSVGDocument(result);
-        return result.toString();
+        if (spool == null) {
+            return "";
+        }
+        try {
+            writeData();
+            spool.flush();
+            StringBuilder result = new StringBuilder(new String(spoolFile.readAllBytes(), StandardCharsets.UTF_8));
+            closeSVGDocument(result);
+            return result.toString();
+        } catch (IOException e) {
+            throw ioError(e);
+        }
     }
 
     @Override
@@ -75,11 +96,11 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         // saving it anywhere.
         data.setLength(0);
         cachedCtx = null;
+        openSpool();
         data.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
         data.append("<!DOCTYPE svg PUBLIC \"-//W3C//DTD SVG 1.1//EN\" \"http://www.w3.org/Graphics/SVG/1.1/DTD/svg11.dtd\">\n");
-        append("<svg xmlns='http://www.w3.org/2000/svg' xmlns:xlink='http://www.w3.org/1999/xlink' version='1.1' viewBox='0 0 %d %d' style='fill:transparent'>\n",
-                        trRound(width),
-                        trRound(height));
+        data.append("<svg xmlns='http://www.w3.org/2000/svg' xmlns:xlink='http://www.w3.org/1999/xlink' version='1.1' viewBox='0 0 ").append(trRound(width)).append(' ').append(
+                        trRound(height)).append("' style='fill:transparent'>\n");
     }
 
     @Override
@@ -104,6 +125,7 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         }
         appendColorStyle(ctx);
         data.append("/>\n"); // end of 'rect' tag
+        flushIfNeeded();
     }
 
     @Override
@@ -122,6 +144,72 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         data.append("<circle cx='").append(trRound(centerX)).append("' cy='").append(trRound(transY(centerY))).append("' r='").append(trRound(radius)).append('\'');
         appendColorStyle(ctx);
         data.append("/>\n");
+        flushIfNeeded();
+    }
+
+    /**
+     * Draws all the circles with the same style as a single {@code path} element made of two arcs
+     * per circle. This is only done for opaque colors, otherwise the overlapping circles would
+     * look different from individual elements.
+     */
+    @Override
+    public void drawCircles(DrawingContext ctx, double[] centerX, double[] centerY, double[] radius, int count) {
+        if (!isOpaque(ctx)) {
+            GridDevice.super.drawCircles(ctx, centerX, centerY, radius, count);
+            return;
+        }
+        appendStyle(ctx);
+        data.append("<path d='");
+        for (int i = 0; i < count; i++) {
+            int r = trRound(radius[i]);
+            if (r == 0) {
+                // consistent with circle elements, which are not rendered with zero radius
+                continue;
+            }
+            int cx = trRound(centerX[i]);
+            int cy = trRound(transY(centerY[i]));
+            data.append('M').append(cx - r).append(',').append(cy);
+            data.append('a').append(r).append(',').append(r).append(" 0 1,0 ").append(2 * r).append(",0");
+            data.append('a').append(r).append(',').append(r).append(" 0 1,0 ").append(-2 * r).append(",0");
+            if (data.length() >= FLUSH_THRESHOLD) {
+                writeData();
+            }
+        }
+        data.append('\'');
+        appendColorStyle(ctx);
+        data.append("/>\n");
+        flushIfNeeded();
+    }
+
+    /**
+     * Draws all the segments with the same style as a single {@code path} element. This is only
+     * done for opaque colors, otherwise the crossings of the segments would look different from
+     * individual elements.
+     */
+    @Override
+    public void drawSegments(DrawingContext ctx, double[] x0, double[] y0, double[] x1, double[] y1, int count) {
+        if (!isOpaque(ctx)) {
+            GridDevice.super.drawSegments(ctx, x0, y0, x1, y1, count);
+            return;
+        }
+        appendStyle(ctx);
+        data.append("<path d='");
+        for (int i = 0; i < count; i++) {
+            data.append('M').append(trRound(x0[i])).append(',').append(trRound(transY(y0[i])));
+            data.append('L').append(trRound(x1[i])).append(',').append(trRound(transY(y1[i])));
+            if (data.length() >= FLUSH_THRESHOLD) {
+                writeData();
+            }
+        }
+        data.append('\'');
+        appendColorStyle(ctx, true);
+        data.append("/>\n");
+        flushIfNeeded();
+    }
+
+    private static boolean isOpaque(DrawingContext ctx) {
+        GridColor fill = ctx.getFillColor();
+        return ctx.getColor().getAlpha() == GridColor.OPAQUE_ALPHA && (fill.equals(GridColor.TRANSPARENT) || fill.getAlpha() == GridColor.OPAQUE_ALPHA);
     }
 
     @Override
@@ -131,6 +219,7 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         data.append("<image x='").append(round(leftX * COORD_FACTOR)).append("' y='").append(trRound(transY(bottomY + h)));
         data.append("' width='").append(round(w * COORD_FACTOR)).append("' height='").append(trRound(h));
         data.append("' preserveAspectRatio='none' xlink:href='data:image/bmp;base64,").append(base64).append("'/>\n");
+        flushIfNeeded();
     }
 
     @Override
@@ -145,6 +234,7 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         data.append('>');
         xmlEncodeAppend(data, text);
         data.append("</text>\n");
+        flushIfNeeded();
     }
 
     @Override
@@ -212,25 +302,82 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         data.append('\'');
         appendColorStyle(ctx, noFill);
         data.append("/>\n");
+        flushIfNeeded();
     }
 
     private void saveFile() throws DeviceCloseException {
-        closeSVGDocument(data);
         try {
             TruffleFile file = RContext.getInstance().getSafeTruffleFile(filename);
-            if (FileGridDevice.isDevNull(file)) {
+            if (spool == null) {
+                // nothing was drawn
+                if (!FileGridDevice.isDevNull(file)) {
+                    file.newOutputStream().close();
+                }
                 return;
             }
-            try (OutputStream stream = file.newOutputStream()) {
-                stream.write(data.toString().getBytes(StandardCharsets.UTF_8));
+            closeSVGDocument(data);
+            writeData();
+            spool.close();
+            spool = null;
+            cachedCtx = null;
+            if (!FileGridDevice.isDevNull(file)) {
+                spoolFile.copy(file, StandardCopyOption.REPLACE_EXISTING);
             }
+            spoolFile.delete();
         } catch (IOException e) {
             throw new DeviceCloseException(e);
         }
     }
 
+    private void openSpool() {
+        try {
+            if (spool != null) {
+                spool.close();
+            }
+            if (spoolFile == null) {
+                RContext context = RContext.getInstance();
+                spoolFile = context.getSafeTruffleFile(TempPathName.createNonExistingFilePath(context, "Rsvg", TempPathName.tempDirPath(context), ".svg"));
+            }
+            spool = spoolFile.newBufferedWriter();
+        } catch (IOException e) {
+            throw ioError(e);
+        }
+    }
+
+    private void discardSpool() {
+        if (spool != null) {
+            try {
+                spool.close();
+                spoolFile.delete();
+            } catch (IOException e) {
+                // the contents were already read, the file is left behind in the temp directory
+            }
+            spool = null;
+            data.setLength(0);
+        }
+    }
+
+    private void flushIfNeeded() {
+        if (data.length() >= FLUSH_THRESHOLD) {
+            writeData();
+        }
+    }
+
+    private void writeData() {
+        try {
+            spool.append(data);
+            data.setLength(0);
+        } catch (IOException e) {
+            throw ioError(e);
+        }
+    }
+
+    private static RError ioError(IOException e) {
+        return RError.error(RError.NO_CALLER, Message.GENERIC, "Cannot write the SVG document: " + e.getMessage());
+    }
+
     private void closeSVGDocument(StringBuilder sb) {
-        if (sb.length() == 0) {
+        if (spool == null) {
             return;
         }
         if (cachedCtx != null) {
@@ -354,12 +501,25 @@ public class SVGDevice implements GridDevice, FileGridDevice {
             data.append(GridColorUtils.getHexDigit(color.getBlue()));
         } else {
             data.append("rgb(").append(color.getRed()).append(',').append(color.getGreen()).append(',').append(color.getBlue()).append(')').append(';');
-            data.append(prefix).append("-opacity:").append(DECIMAL_FORMAT.format(color.getAlpha() / 255d));
+            data.append(prefix).append("-opacity:");
+            appendFraction(color.getAlpha());
         }
     }
 
-    private void append(String fmt, Object... args) {
-        data.append(Utils.stringFormat(fmt, args));
+    /**
+     * Appends {@code value / 255} with three decimal places.
+     */
+    private void appendFraction(int value) {
+        int thousandths = (int) Math.round(value * 1000d / 255d);
+        data.append(thousandths / 1000).append('.');
+        int rest = thousandths % 1000;
+        if (rest < 100) {
+            data.append('0');
+        }
+        if (rest < 10) {
+            data.append('0');
+        }
+        data.append(rest);
     }
 
     private void appendTransform(int a, int b, int c) {
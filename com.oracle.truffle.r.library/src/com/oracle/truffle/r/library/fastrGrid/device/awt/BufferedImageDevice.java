@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -22,8 +22,6 @@
  */
 package com.oracle.truffle.r.library.fastrGrid.device.awt;
 
-import static java.awt.image.BufferedImage.TYPE_INT_RGB;
-
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
@@ -37,8 +35,14 @@ import com.oracle.truffle.r.library.fastrGrid.device.FileGridDevice;
 import com.oracle.truffle.r.library.fastrGrid.device.NotSupportedImageFormatException;
 import com.oracle.truffle.r.runtime.context.RContext;
 
+/**
+ * Device that draws into a {@link BufferedImage} and saves it in the given format. A finished page
+ * is handed over to the {@link ImageEncoder}, which compresses it in the background while the
+ * drawing continues into another image of the same size.
+ */
 public final class BufferedImageDevice extends Graphics2DDevice implements FileGridDevice {
-    private final BufferedImage image;
+    private final ImageEncoder encoder = new ImageEncoder();
+    private BufferedImage image;
     private final String fileType;
     private String filename;
 
@@ -47,7 +51,6 @@ public final class BufferedImageDevice extends Graphics2DDevice implements FileG
         this.filename = filename;
         this.fileType = fileType;
         this.image = image;
-        graphics.setBackground(new Color(255, 255, 255));
         graphics.clearRect(0, 0, width, height);
     }
 
@@ -55,29 +58,50 @@ public final class BufferedImageDevice extends Graphics2DDevice implements FileG
         if (!isSupportedFormat(fileType)) {
             throw new NotSupportedImageFormatException();
         }
-        BufferedImage image = new BufferedImage(width, height, TYPE_INT_RGB);
-        Graphics2D graphics = (Graphics2D) image.getGraphics();
+        BufferedImage image = ImageEncoder.acquireImage(width, height);
+        return new BufferedImageDevice(fileType, image, createGraphics(image), width, height, filename);
+    }
+
+    private static Graphics2D createGraphics(BufferedImage image) {
+        Graphics2D graphics = image.createGraphics();
         defaultInitGraphics(graphics);
-        return new BufferedImageDevice(fileType, image, graphics, width, height, filename);
+        graphics.setBackground(new Color(255, 255, 255));
+        return graphics;
     }
 
     @Override
     public void openNewPage(String newFilename) throws DeviceCloseException {
-        saveImage();
+        try {
+            saveImage();
+        } finally {
+            // the previous image belongs to the encoder now
+            image = ImageEncoder.acquireImage(image.getWidth(), image.getHeight());
+            setGraphics2D(createGraphics(image));
+            // a pooled image still shows its last page, it must be cleared even if saving failed
+            openNewPage();
+        }
         filename = newFilename;
-        openNewPage();
     }
 
     @Override
     public void close() throws DeviceCloseException {
-        saveImage();
+        try {
+            saveImage();
+        } finally {
+            encoder.finish();
+        }
     }
 
+    /**
+     * Submits the current image to the encoder, it must not be drawn into afterwards.
+     */
     private void saveImage() throws DeviceCloseException {
+        getGraphics2D().dispose();
         try {
             TruffleFile file = RContext.getInstance().getSafeTruffleFile(filename);
             TruffleFile parent = file.getParent();
             if (FileGridDevice.isDevNull(file)) {
+                ImageEncoder.releaseImage(image);
                 return;
             }
             if (parent != null && !parent.exists()) {
@@ -87,7 +111,7 @@ public final class BufferedImageDevice extends Graphics2DDevice implements FileG
                 // following Image.write are not atomic.
                 throw new DeviceCloseException(new FileNotFoundException("Path " + filename + " does not exist"));
             }
-            ImageIO.write(image, fileType, file.newOutputStream());
+            encoder.submit(image, fileType, file.newOutputStream());
         } catch (IOException e) {
             throw new DeviceCloseException(e);
         } catch (NullPointerException npe) {
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.library.fastrGrid.device.awt;
+
+import static java.awt.image.BufferedImage.TYPE_INT_RGB;
+
+import java.awt.image.BufferedImage;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+
+import com.oracle.truffle.r.library.fastrGrid.device.GridDevice.DeviceCloseException;
+
+/**
+ * Encodes the finished pages of a {@link BufferedImageDevice} on a pool of background threads
+ * shared by all the devices of all the contexts, so that the R thread can draw the next page while
+ * the previous one is being compressed. The encoded images are kept for the next pages of the same
+ * size. The output stream is opened by the R thread, the background threads do not access the
+ * context.
+ */
+public final class ImageEncoder {
+    private static final int THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+    /**
+     * Maximum number of pages of one device waiting for the encoding, the device blocks when it
+     * produces pages faster than they are encoded.
+     */
+    private static final int MAX_PENDING = 2 * THREADS;
+    private static final int MAX_POOLED_IMAGES = 4;
+
+    private static final ConcurrentHashMap<Long, ConcurrentLinkedQueue<BufferedImage>> imagePool = new ConcurrentHashMap<>();
+    private static ExecutorService executor;
+
+    private final ArrayDeque<Future<?>> pending = new ArrayDeque<>();
+
+    /**
+     * Returns an image from the pool or a new one. The contents of a pooled image are the last page
+     * drawn into it.
+     */
+    public static BufferedImage acquireImage(int width, int height) {
+        ConcurrentLinkedQueue<BufferedImage> images = imagePool.get(sizeKey(width, height));
+        BufferedImage image = images == null ? null : images.poll();
+        return image != null ? image : new BufferedImage(width, height, TYPE_INT_RGB);
+    }
+
+    public static void releaseImage(BufferedImage image) {
+        ConcurrentLinkedQueue<BufferedImage> images = imagePool.computeIfAbsent(sizeKey(image.getWidth(), image.getHeight()), k -> new ConcurrentLinkedQueue<>());
+        if (images.size() < MAX_POOLED_IMAGES) {
+            images.add(image);
+        }
+    }
+
+    private static long sizeKey(int width, int height) {
+        return ((long) width << 32) | height;
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(THREADS, r -> {
+                Thread thread = new Thread(r, "FastR image encoder");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Writes the image in the given format to the stream and closes it. The image must not be
+     * modified afterwards, it is returned to the pool once encoded. Reports the failures of the
+     * previously submitted images that are already known.
+     */
+    public void submit(BufferedImage image, String fileType, OutputStream stream) throws DeviceCloseException {
+        // the task owns the stream and the image from now on, even if a previous page failed
+        pending.add(getExecutor().submit(() -> {
+            try (OutputStream out = stream) {
+                ImageIO.write(image, fileType, out);
+            } finally {
+                releaseImage(image);
+            }
+            return null;
+        }));
+        if (pending.size() > MAX_PENDING) {
+            await(pending.removeFirst());
+        }
+        Iterator<Future<?>> it = pending.iterator();
+        while (it.hasNext()) {
+            Future<?> future = it.next();
+            if (future.isDone()) {
+                it.remove();
+                await(future);
+            }
+        }
+    }
+
+    /**
+     * Waits until all the submitted images are written, reports the first failure.
+     */
+    public void finish() throws DeviceCloseException {
+        DeviceCloseException error = null;
+        while (!pending.isEmpty()) {
+            try {
+                await(pending.removeFirst());
+            } catch (DeviceCloseException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private static void await(Future<?> future) throws DeviceCloseException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            throw new DeviceCloseException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeviceCloseException(e);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -722,6 +722,7 @@ int Rf_nrows(SEXP x) {
     return result;
 }
 
+#ifndef FASTR_NATIVE_PROTECT_STACK
 SEXP Rf_protect(SEXP x) {
     TRACE1(x);
     SEXP result = ((call_Rf_protect) callbacks[Rf_protect_x])(x);
@@ -752,6 +753,7 @@ void Rf_unprotect_ptr(SEXP x) {
     ((call_Rf_unprotect_ptr) callbacks[Rf_unprotect_ptr_x])(x);
     checkExitCall();
 }
+#endif
 
 void R_FlushConsole(void) {
     TRACE0();
@@ -1229,6 +1231,7 @@ int *FASTR_INTEGER(SEXP x) {
     return result;
 }
 
+#ifndef FASTR_NATIVE_ELT_ACCESS
 int INTEGER_ELT(SEXP x, R_xlen_t i) {
     TRACE0();
     int result = ((call_INTEGER_ELT) callbacks[INTEGER_ELT_x])(x, i);
@@ -1239,6 +1242,7 @@ int INTEGER_ELT(SEXP x, R_xlen_t i) {
 void SET_INTEGER_ELT(SEXP x, R_xlen_t i, int v) {
     FASTR_INTEGER(x)[i] = v;
 }
+#endif
 
 double *FASTR_REAL(SEXP x){
     TRACE(TARGp, x);
@@ -1247,6 +1251,7 @@ double *FASTR_REAL(SEXP x){
     return result;
 }
 
+#ifndef FASTR_NATIVE_ELT_ACCESS
 double REAL_ELT(SEXP x, R_xlen_t i) {
     TRACE0();
     double result = ((call_REAL_ELT) callbacks[REAL_ELT_x])(x, i);
@@ -1257,6 +1262,7 @@ double REAL_ELT(SEXP x, R_xlen_t i) {
 void SET_REAL_ELT(SEXP x, R_xlen_t i, double v) {
     FASTR_REAL(x)[i] = v;
 }
+#endif
 
 Rcomplex *COMPLEX(SEXP x) {
     TRACE0();
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -53,6 +53,10 @@ void *ensure_function(void *fptr) {
 	return fptr;
 }
 
+// the following functions are implemented directly in native code below
+#define FASTR_NATIVE_PROTECT_STACK
+#define FASTR_NATIVE_ELT_ACCESS
+
 #include "../truffle_common/Rinternals_truffle_common.h"
 
 #define ARRAY_CACHE_SIZE 5
@@ -129,6 +133,126 @@ double *REAL(SEXP x){
     return result;
 }
 
+// The element accessors read directly from the data of vectors for which native code already
+// obtained the data pointer, other vectors (e.g., ALTREP) still go through the up-call.
+
+int INTEGER_ELT(SEXP x, R_xlen_t i) {
+    TRACE0();
+    int idx = array_cache_lookup(int_cache, x);
+    if (idx >= 0) {
+        return ((int *) int_cache[idx].data)[i];
+    }
+    int result = ((call_INTEGER_ELT) callbacks[INTEGER_ELT_x])(x, i);
+    checkExitCall();
+    return result;
+}
+
+void SET_INTEGER_ELT(SEXP x, R_xlen_t i, int v) {
+    INTEGER(x)[i] = v;
+}
+
+double REAL_ELT(SEXP x, R_xlen_t i) {
+    TRACE0();
+    int idx = array_cache_lookup(real_cache, x);
+    if (idx >= 0) {
+        return ((double *) real_cache[idx].data)[i];
+    }
+    double result = ((call_REAL_ELT) callbacks[REAL_ELT_x])(x, i);
+    checkExitCall();
+    return result;
+}
+
+void SET_REAL_ELT(SEXP x, R_xlen_t i, double v) {
+    REAL(x)[i] = v;
+}
+
+/* PROTECT/UNPROTECT without up-calls.
+
+   The protect stack is allocated by the Java side (see NativeProtectStack.java) and its address is
+   stored in the slot right after the last up-call in the callbacks table. The Java side looks up
+   the objects on the stack lazily, before it releases the references used by native code, so we
+   only need to maintain the lowest index changed since the last synchronization in 'dirty'. */
+
+typedef struct {
+    int top;
+    int dirty;
+    int size;
+    int unused;
+    SEXP stack[];
+} FastRProtectStack;
+
+static inline FastRProtectStack *protect_stack() {
+    return (FastRProtectStack *) callbacks[UPCALLS_TABLE_SIZE];
+}
+
+static inline void protect_stack_changed(FastRProtectStack *ps, int index) {
+    if (index < ps->dirty) {
+        ps->dirty = index;
+    }
+}
+
+int getProtectStackTop() {
+    return callbacks == NULL ? 0 : protect_stack()->top;
+}
+
+void resetProtectStackTop(int top) {
+    FastRProtectStack *ps = protect_stack();
+    if (top < ps->top) {
+        ps->top = top;
+        protect_stack_changed(ps, top);
+    }
+}
+
+SEXP Rf_protect(SEXP x) {
+    TRACE1(x);
+    FastRProtectStack *ps = protect_stack();
+    if (ps->top >= ps->size) {
+        Rf_error("protect(): protection stack overflow");
+    }
+    ps->stack[ps->top++] = x;
+    return x;
+}
+
+void Rf_unprotect(int n) {
+    TRACE("%d", n);
+    FastRProtectStack *ps = protect_stack();
+    if (n > ps->top) {
+        Rf_warning("mismatched protect/unprotect (unprotect with empty protect stack)");
+        n = ps->top;
+    }
+    ps->top -= n;
+    protect_stack_changed(ps, ps->top);
+}
+
+void R_ProtectWithIndex(SEXP x, PROTECT_INDEX *y) {
+    TRACE1(x);
+    *y = protect_stack()->top;
+    Rf_protect(x);
+}
+
+void R_Reprotect(SEXP x, PROTECT_INDEX y) {
+    TRACE("%p %i", x, y);
+    FastRProtectStack *ps = protect_stack();
+    if (y < 0 || y >= ps->top) {
+        Rf_error("R_Reprotect: only %d protected items, can't reprotect index %d", ps->top, y);
+    }
+    ps->stack[y] = x;
+    protect_stack_changed(ps, y);
+}
+
+void Rf_unprotect_ptr(SEXP x) {
+    TRACE1(x);
+    FastRProtectStack *ps = protect_stack();
+    for (int i = ps->top - 1; i >= 0; i--) {
+        if (ps->stack[i] == x) {
+            memmove(&ps->stack[i], &ps->stack[i + 1], (ps->top - i - 1) * sizeof(SEXP));
+            ps->top--;
+            protect_stack_changed(ps, i);
+            return;
+        }
+    }
+}
+
 /* Unwind-protect mechanism to support C++ stack unwinding. */
 
 typedef struct {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -31,20 +31,27 @@
 #include <Rinternals.h>
 #include <trufflenfi.h>
 
+// when the call is exited because of an error, the protect stack is restored like in GNU-R
 #define DO_CALL_VOID(call)          \
     jmp_buf error_jmpbuf;           \
     pushJmpBuf(&error_jmpbuf);      \
+    int protect_top = getProtectStackTop(); \
     if (!setjmp(error_jmpbuf)) {    \
         call;                       \
+    } else {                        \
+        resetProtectStackTop(protect_top); \
     }                               \
     popJmpBuf();
 
 #define DO_CALL(call)               \
     jmp_buf error_jmpbuf;           \
     pushJmpBuf(&error_jmpbuf);      \
+    int protect_top = getProtectStackTop(); \
     SEXP result = R_NilValue;       \
     if (!setjmp(error_jmpbuf)) {    \
         result = call;              \
+    } else {                        \
+        resetProtectStackTop(protect_top); \
     }                               \
     popJmpBuf();                    \
     return result;
@@ -82,6 +89,11 @@ jmp_buf * peekJmpBuf();
 
 void popJmpBuf();
 
+// native protect stack, see Rinternals.c
+int getProtectStackTop();
+
+void resetProtectStackTop(int top);
+
 // use for any fatal error
 void fatalError(const char *msg) __attribute__((noreturn));
 
@@ -148,7 +148,12 @@ public final class RBuiltinPackages implements RBuiltinLookup {
     @Override
     public RFunction lookupBuiltin(TruffleRLanguage language, String methodName) {
         CompilerAsserts.neverPartOfCompilation();
-        RFunction function = language.getBuiltinFunctionCache().get(methodName);
+        // the cache of the language of the parent is used by child contexts that share its code
+        HashMap<String, RFunction> cache = language.getBuiltinFunctionCache();
+        RFunction function;
+        synchronized (cache) {
+            function = cache.get(methodName);
+        }
         if (function != null) {
             return function;
         }
@@ -172,14 +177,16 @@ public final class RBuiltinPackages implements RBuiltinLookup {
     private static RFunction createFunction(TruffleRLanguage language, RBuiltinFactory builtinFactory, String methodName) {
         try {
             HashMap<String, RFunction> cache = language.getBuiltinFunctionCache();
-            RFunction function = cache.get(methodName);
-            if (function != null) {
+            synchronized (cache) {
+                RFunction function = cache.get(methodName);
+                if (function != null) {
+                    return function;
+                }
+                RootCallTarget callTarget = createArgumentsCallTarget(language, builtinFactory);
+                function = RDataFactory.createFunction(builtinFactory.getName(), "base", callTarget, builtinFactory, null);
+                cache.put(methodName, function);
                 return function;
             }
-            RootCallTarget callTarget = createArgumentsCallTarget(language, builtinFactory);
-            function = RDataFactory.createFunction(builtinFactory.getName(), "base", callTarget, builtinFactory, null);
-            cache.put(methodName, function);
-            return function;
         } catch (Throwable t) {
             throw new RuntimeException("error while creating builtin " + methodName + " / " + builtinFactory, t);
         }
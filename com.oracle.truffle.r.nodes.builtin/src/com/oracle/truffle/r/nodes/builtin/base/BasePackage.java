@@ -105,10 +105,18 @@ import com.oracle.truffle.r.nodes.builtin.fastr.FastRContext;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRContextFactory;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRDebug;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRDebugNodeGen;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRDiff;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRDiffNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRDispatchNativeHandlers;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastREvalCacheStats;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastREvalCacheStatsNodeGen;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRFFIStats;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRFFIStatsNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRGDSetGraphics;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRGDSetGraphicsNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRGetExecutor;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRGroupReduce;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRGroupReduceNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRHelp.FastRAddHelpPath;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRHelp.FastRHelpPath;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRHelp.FastRHelpRd;
@@ -133,6 +141,8 @@ import com.oracle.truffle.r.nodes.builtin.fastr.FastRInteropFactory.FastRInterop
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRJavaGDResize;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRLibPaths;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRLibPathsNodeGen;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRMemoryStats;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRMemoryStatsNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastROptionBuiltin;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRPatchPackage;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRPatchPackageNodeGen;
@@ -145,6 +155,8 @@ import com.oracle.truffle.r.nodes.builtin.fastr.FastRRefCountInfo;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRRefCountInfoNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRRegisterFunctions;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRRegisterFunctionsNodeGen;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRS3CacheStats;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRS3CacheStatsNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRSVGFileName;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRSVGFileNameNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRSVGGetContent;
@@ -159,10 +171,14 @@ import com.oracle.truffle.r.nodes.builtin.fastr.FastRSetToolchain;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRSetToolchainNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRSlotAssign;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRSlotAssignNodeGen;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRSorted;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRSortedNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRSourceInfo;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRSourceInfoNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRStackTrace;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRStackTraceNodeGen;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRStringCacheStats;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRStringCacheStatsNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRSyntaxTree;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRSyntaxTreeNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRTestsTry;
@@ -523,20 +539,29 @@ public class BasePackage extends RBuiltinPackage {
         add(FastRInterop.JavaIsInstance.class, FastRInteropFactory.JavaIsInstanceNodeGen::create);
         add(FastRInterop.JavaAsTruffleObject.class, FastRInteropFactory.JavaAsTruffleObjectNodeGen::create);
         add(FastRInterop.ToJavaArray.class, FastRInteropFactory.ToJavaArrayNodeGen::create);
+        add(FastRInterop.ToJavaArrayView.class, FastRInteropFactory.ToJavaArrayViewNodeGen::create);
         add(FastRInterop.AsVector.class, FastRInteropFactory.AsVectorNodeGen::create);
         add(FastRInterop.ToByte.class, FastRInteropFactory.ToByteNodeGen::create);
         add(FastRInterop.ToChar.class, FastRInteropFactory.ToCharNodeGen::create);
         add(FastRInterop.ToFloat.class, FastRInteropFactory.ToFloatNodeGen::create);
         add(FastRInterop.ToLong.class, FastRInteropFactory.ToLongNodeGen::create);
         add(FastRInterop.ToShort.class, FastRInteropFactory.ToShortNodeGen::create);
+        add(FastRDiff.class, FastRDiffNodeGen::create);
+        add(FastREvalCacheStats.class, FastREvalCacheStatsNodeGen::create);
+        add(FastRFFIStats.class, FastRFFIStatsNodeGen::create);
+        add(FastRGroupReduce.class, FastRGroupReduceNodeGen::create);
+        add(FastRMemoryStats.class, FastRMemoryStatsNodeGen::create);
         add(FastRRefCountInfo.class, FastRRefCountInfoNodeGen::create);
         add(FastRPkgSource.class, FastRPkgSourceNodeGen::create);
         add(FastRPrintError.class, FastRPrintErrorNodeGen::create);
         add(FastRRCallerTrace.class, FastRRCallerTrace::create);
+        add(FastRS3CacheStats.class, FastRS3CacheStatsNodeGen::create);
+        add(FastRSorted.class, FastRSortedNodeGen::create);
         add(FastRSourceInfo.class, FastRSourceInfoNodeGen::create);
         add(FastRSetConsoleHandler.class, FastRSetConsoleHandlerNodeGen::create);
         add(FastRSetToolchain.class, FastRSetToolchainNodeGen::create);
         add(FastRStackTrace.class, FastRStackTraceNodeGen::create);
+        add(FastRStringCacheStats.class, FastRStringCacheStatsNodeGen::create);
         add(FastRSlotAssign.class, FastRSlotAssignNodeGen::create);
         add(FastRSyntaxTree.class, FastRSyntaxTreeNodeGen::create);
         add(FastRGDSetGraphics.class, FastRGDSetGraphicsNodeGen::create);
@@ -597,6 +622,7 @@ public class BasePackage extends RBuiltinPackage {
         add(GcFunctions.Gc.class, GcFunctionsFactory.GcNodeGen::create);
         add(GcFunctions.Gctorture.class, GcFunctionsFactory.GctortureNodeGen::create);
         add(GcFunctions.Gctorture2.class, GcFunctionsFactory.Gctorture2NodeGen::create);
+        add(GcFunctions.MemoryProfile.class, GcFunctionsFactory.MemoryProfileNodeGen::create);
         add(GetClass.class, GetClassNodeGen::create);
         add(GetFunctions.Get.class, GetFunctionsFactory.GetNodeGen::create);
         add(GetFunctions.Get0.class, GetFunctionsFactory.Get0NodeGen::create);
@@ -771,6 +797,7 @@ public class BasePackage extends RBuiltinPackage {
         add(RowMeans.class, RowMeansNodeGen::create);
         add(RowSums.class, RowSumsNodeGen::create);
         add(RowsumFunctions.Rowsum.class, RowsumFunctionsFactory.RowsumNodeGen::create);
+        add(RowsumFunctions.RowsumDf.class, RowsumFunctionsFactory.RowsumDfNodeGen::create);
         add(S3DispatchFunctions.NextMethod.class, S3DispatchFunctionsFactory.NextMethodNodeGen::create);
         add(S3DispatchFunctions.UseMethod.class, S3DispatchFunctionsFactory.UseMethodNodeGen::create);
         add(Sample.class, SampleNodeGen::create);
@@ -662,7 +662,7 @@ public abstract class ConnectionFunctions {
                 if (n > 0 && lines.length < n && !ok) {
                     throw error(RError.Message.TOO_FEW_LINES_READ_LINES);
                 }
-                return RDataFactory.createStringVector(lines, RDataFactory.COMPLETE_VECTOR);
+                return RDataFactory.createStringVector(getRContext().stringCache.deduplicate(lines), RDataFactory.COMPLETE_VECTOR);
             } catch (IOException x) {
                 throw error(RError.Message.ERROR_READING_CONNECTION, x.getMessage());
             }
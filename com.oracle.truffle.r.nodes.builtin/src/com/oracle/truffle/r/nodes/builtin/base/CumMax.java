@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2014, Purdue University
- * Copyright (c) 2014, 2020, Oracle and/or its affiliates
+ * Copyright (c) 2014, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -42,7 +42,9 @@ import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RIntSeqVectorData;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RIntVector;
@@ -53,6 +55,7 @@ import com.oracle.truffle.r.runtime.ops.na.NACheck;
 public abstract class CumMax extends RBuiltinNode.Arg1 {
 
     private final NACheck na = NACheck.create();
+    private final ConditionProfile arrayDataProfile = ConditionProfile.createBinaryProfile();
     @Child private ExtractNamesAttributeNode extractNamesNode = ExtractNamesAttributeNode.create();
 
     static {
@@ -103,6 +106,11 @@ public abstract class CumMax extends RBuiltinNode.Arg1 {
     @Specialization
     protected RDoubleVector cummax(RDoubleVector v) {
         double[] cmaxV = new double[v.getLength()];
+        Object data = v.getData();
+        if (arrayDataProfile.profile(data instanceof RDoubleArrayVectorData)) {
+            int flags = PrefixScan.cummax(((RDoubleArrayVectorData) data).getReadonlyDoubleData(), cmaxV, v.isComplete());
+            return RDataFactory.createDoubleVector(cmaxV, (flags & PrefixScan.NA_SEEN) == 0, extractNamesNode.execute(v));
+        }
         na.enable(v);
         double max = v.getDataAt(0);
         cmaxV[0] = max;
@@ -128,6 +136,11 @@ public abstract class CumMax extends RBuiltinNode.Arg1 {
     @Specialization(replaces = "cummaxIntSequence")
     protected RIntVector cummax(RIntVector v) {
         int[] cmaxV = new int[v.getLength()];
+        Object data = v.getData();
+        if (arrayDataProfile.profile(data instanceof RIntArrayVectorData)) {
+            int flags = PrefixScan.cummax(((RIntArrayVectorData) data).getReadonlyIntData(), cmaxV, v.isComplete());
+            return RDataFactory.createIntVector(cmaxV, (flags & PrefixScan.NA_SEEN) == 0, extractNamesNode.execute(v));
+        }
         na.enable(v);
         int max = v.getDataAt(0);
         na.check(max);
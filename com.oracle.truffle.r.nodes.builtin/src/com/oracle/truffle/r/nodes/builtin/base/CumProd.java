@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2014, Purdue University
- * Copyright (c) 2014, 2021, Oracle and/or its affiliates
+ * Copyright (c) 2014, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -31,6 +31,7 @@ import java.util.Arrays;
 
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.runtime.data.nodes.attributes.SpecialAttributesFunctions.ExtractNamesAttributeNode;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
 import com.oracle.truffle.r.runtime.RError;
@@ -38,6 +39,7 @@ import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RComplex;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RComplexVector;
@@ -50,6 +52,7 @@ public abstract class CumProd extends RBuiltinNode.Arg1 {
 
     @Child private ExtractNamesAttributeNode extractNamesNode = ExtractNamesAttributeNode.create();
     @Child private BinaryArithmetic mul = BinaryArithmetic.MULTIPLY.createOperation();
+    private final ConditionProfile arrayDataProfile = ConditionProfile.createBinaryProfile();
 
     static {
         Casts casts = new Casts(CumProd.class);
@@ -69,6 +72,12 @@ public abstract class CumProd extends RBuiltinNode.Arg1 {
     @Specialization(guards = "xAccess.supports(x)", limit = "getVectorAccessCacheSize()")
     protected RDoubleVector cumprodDouble(RDoubleVector x,
                     @Cached("x.access()") VectorAccess xAccess) {
+        Object xData = x.getData();
+        if (arrayDataProfile.profile(xData instanceof RDoubleArrayVectorData)) {
+            double[] array = new double[x.getLength()];
+            int flags = PrefixScan.cumprod(((RDoubleArrayVectorData) xData).getReadonlyDoubleData(), array, x.isComplete());
+            return RDataFactory.createDoubleVector(array, (flags & PrefixScan.NA_SEEN) == 0, extractNamesNode.execute(x));
+        }
         SequentialIterator iter = xAccess.access(x);
         double[] array = new double[xAccess.getLength(iter)];
         double prev = 1;
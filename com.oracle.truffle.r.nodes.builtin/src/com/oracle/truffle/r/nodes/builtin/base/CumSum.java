@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2020, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -40,6 +40,7 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.runtime.data.nodes.attributes.SpecialAttributesFunctions.ExtractNamesAttributeNode;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
 import com.oracle.truffle.r.runtime.RError;
@@ -48,11 +49,13 @@ import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RComplex;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary.SeqIterator;
 import com.oracle.truffle.r.runtime.data.RComplexVector;
+import com.oracle.truffle.r.runtime.data.RIntArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.WarningInfo;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
@@ -105,8 +108,18 @@ public abstract class CumSum extends RBuiltinNode.Arg1 {
     protected RIntVector cumsumInt(RIntVector x,
                     @Cached NACheck naCheck,
                     @CachedLibrary("x.getData()") VectorDataLibrary xDataLib,
-                    @Cached() BranchProfile hasWarningsBranchProfile) {
+                    @Cached() BranchProfile hasWarningsBranchProfile,
+                    @Cached("createBinaryProfile()") ConditionProfile arrayDataProfile) {
         Object xData = x.getData();
+        if (arrayDataProfile.profile(xData instanceof RIntArrayVectorData)) {
+            int[] array = new int[xDataLib.getLength(xData)];
+            int flags = PrefixScan.cumsum(xDataLib.getReadonlyIntData(xData), array, xDataLib.isComplete(xData));
+            if ((flags & PrefixScan.OVERFLOW) != 0) {
+                hasWarningsBranchProfile.enter();
+                RError.warning(RError.NO_CALLER, Message.INTEGER_OVERFLOW_USE_NUMERIC, "cumsum", "cumsum");
+            }
+            return RDataFactory.createIntVector(array, (flags & PrefixScan.NA_SEEN) == 0, extractNamesNode.execute(x));
+        }
         naCheck.enable(xDataLib, xData);
         SeqIterator iter = xDataLib.iterator(xData);
         int[] array = new int[iter.getLength()];
@@ -136,8 +149,14 @@ public abstract class CumSum extends RBuiltinNode.Arg1 {
     @Specialization(limit = "getVectorAccessCacheSize()")
     protected RDoubleVector cumsumDouble(RDoubleVector x,
                     @Cached NACheck naCheck,
-                    @CachedLibrary("x.getData()") VectorDataLibrary xDataLib) {
+                    @CachedLibrary("x.getData()") VectorDataLibrary xDataLib,
+                    @Cached("createBinaryProfile()") ConditionProfile arrayDataProfile) {
         Object xData = x.getData();
+        if (arrayDataProfile.profile(xData instanceof RDoubleArrayVectorData)) {
+            double[] array = new double[xDataLib.getLength(xData)];
+            int flags = PrefixScan.cumsum(xDataLib.getReadonlyDoubleData(xData), array, xDataLib.isComplete(xData));
+            return RDataFactory.createDoubleVector(array, (flags & PrefixScan.NA_SEEN) == 0, extractNamesNode.execute(x));
+        }
         naCheck.enable(xDataLib, xData);
         SeqIterator iter = xDataLib.iterator(xData);
         double[] array = new double[iter.getLength()];
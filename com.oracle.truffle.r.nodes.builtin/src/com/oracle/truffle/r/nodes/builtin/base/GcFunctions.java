@@ -28,6 +28,7 @@ import static com.oracle.truffle.r.runtime.builtins.RBehavior.COMPLEX;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
+import java.lang.management.MemoryUsage;
 import java.util.Arrays;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -36,12 +37,15 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
 import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.runtime.context.GCTortureState;
+import com.oracle.truffle.r.runtime.context.MemoryStatsState;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntVector;
 
 /**
  * Implementation of GC related builtins.
@@ -49,6 +53,9 @@ import com.oracle.truffle.r.runtime.data.RDoubleVector;
 
 public final class GcFunctions {
 
+    private static final long MEGA = 1024 * 1024;
+    private static final long VCELL_SIZE = 8;
+
     @RBuiltin(name = "gc", kind = INTERNAL, parameterNames = {"verbose", "reset", "full"}, behavior = COMPLEX)
     public abstract static class Gc extends RBuiltinNode.Arg3 {
 
@@ -59,9 +66,8 @@ public final class GcFunctions {
             casts.arg("full").asLogicalVector().findFirst().map(toBoolean());
         }
 
-        @SuppressWarnings("unused")
         @Specialization
-        protected RDoubleVector gc(boolean verbose, boolean reset, boolean full,
+        protected RDoubleVector gc(boolean verbose, boolean reset, @SuppressWarnings("unused") boolean full,
                         @Cached BranchProfile doRunGCProfile) {
             /*
              * It is rarely advisable to actually force a gc in Java, therefore we simply ignore
@@ -72,15 +78,97 @@ public final class GcFunctions {
                 doRunGCProfile.enter();
                 doRunGC();
             }
-            // produce at-least similarly shaped data:
+            return collectStats(ctx, verbose, reset);
+        }
+
+        @TruffleBoundary
+        private static void doRunGC() {
+            System.gc();
+        }
+
+        /**
+         * Produces the 14 values that {@code gc()} arranges into a 2x7 matrix. The "Ncells" row
+         * holds the number and size of the live R objects tracked by {@link MemoryStatsState},
+         * it is {@code NA} unless the tracking is enabled. The "Vcells" row is the Java heap in
+         * 8-byte units: used, committed ("gc trigger"), maximum ("limit") and peak usage.
+         */
+        @TruffleBoundary
+        private static RDoubleVector collectStats(RContext ctx, boolean verbose, boolean reset) {
+            MemoryStatsState stats = ctx.memoryStats;
+            if (reset) {
+                stats.resetMax();
+            }
+            MemoryUsage heap = MemoryStatsState.getHeapUsage();
+            long used = heap.getUsed();
+            long peak = Math.max(used, MemoryStatsState.getHeapPeakUsed());
             double[] data = new double[14];
             Arrays.fill(data, RRuntime.DOUBLE_NA);
+            if (stats.isEnabled()) {
+                long[] live = stats.getLiveTotals();
+                data[0] = live[0];
+                data[2] = toMb(live[1]);
+                data[10] = live[2];
+                data[12] = toMb(live[3]);
+            }
+            data[1] = used / VCELL_SIZE;
+            data[3] = toMb(used);
+            data[5] = heap.getCommitted() / VCELL_SIZE;
+            data[7] = toMb(heap.getCommitted());
+            if (heap.getMax() > 0) {
+                data[9] = toMb(heap.getMax());
+            }
+            data[11] = peak / VCELL_SIZE;
+            data[13] = toMb(peak);
+            if (verbose) {
+                printVerbose(ctx, used, heap.getMax() > 0 ? heap.getMax() : heap.getCommitted());
+            }
             return RDataFactory.createDoubleVector(data, RDataFactory.INCOMPLETE_VECTOR);
         }
 
+        private static void printVerbose(RContext ctx, long used, long limit) {
+            long[][] collections = MemoryStatsState.getCollections();
+            long count = 0;
+            long time = 0;
+            StringBuilder counts = new StringBuilder();
+            for (int i = 0; i < collections.length; i++) {
+                count += collections[i][0];
+                time += collections[i][1];
+                counts.append(i == 0 ? "" : "+").append(collections[i][0]);
+            }
+            ctx.getConsole().printf("Garbage collection %d = %s (%.3f secs)%n", count, counts, time / 1000.0);
+            ctx.getConsole().printf("%.1f Mbytes of heap used (%d%%)%n", toMb(used), (int) (100.0 * used / limit + 0.5));
+        }
+
+        private static double toMb(long bytes) {
+            // in 0.1Mb, rounded up as in GNU-R
+            return 0.1 * Math.ceil(10.0 * bytes / MEGA);
+        }
+    }
+
+    /**
+     * Counts the live R objects of each type, the counts are only available if the tracking of R
+     * objects in {@link MemoryStatsState} is enabled by the {@code MemoryStats} option, otherwise
+     * they are {@code NA}.
+     */
+    @RBuiltin(name = "memory.profile", kind = INTERNAL, parameterNames = {}, behavior = COMPLEX)
+    public abstract static class MemoryProfile extends RBuiltinNode.Arg0 {
+
+        private static final RType[] TYPES = {RType.Null, RType.Symbol, RType.PairList, RType.Closure, RType.Environment, RType.Promise, RType.Language, RType.Special, RType.Builtin,
+                        RType.Char, RType.Logical, RType.Integer, RType.Double, RType.Complex, RType.Character, RType.Dots, RType.Any, RType.Expression, RType.ExternalPtr, RType.WeakRef,
+                        RType.Raw, RType.S4Object};
+
+        @Specialization
         @TruffleBoundary
-        private static void doRunGC() {
-            System.gc();
+        protected RIntVector memoryProfile() {
+            MemoryStatsState stats = getRContext().memoryStats;
+            boolean enabled = stats.isEnabled();
+            int[] data = new int[TYPES.length];
+            String[] names = new String[TYPES.length];
+            for (int i = 0; i < TYPES.length; i++) {
+                data[i] = enabled ? (int) Math.min(Integer.MAX_VALUE, stats.getLiveCount(TYPES[i])) : RRuntime.INT_NA;
+                names[i] = TYPES[i].getName();
+            }
+            return RDataFactory.createIntVector(data, enabled, RDataFactory.createStringVector(names, RDataFactory.COMPLETE_VECTOR));
         }
     }
 
@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapCharacter;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapDouble;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapInt;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+
+/**
+ * Grouped aggregation of an integer or double vector in a single pass over the data: every element
+ * is added to the primitive accumulators of its group, so that the groups never have to be
+ * materialized as in {@code lapply(split(x, g), FUN)}. Used by {@code rowsum} and by the fast path
+ * of {@code tapply} for the built-in reducers (see {@code .fastr.group.reduce}).
+ * <p>
+ * The results follow the semantics of the corresponding R functions applied to each group, as far
+ * as they can be computed without a warning. Where R would warn (an integer overflow of
+ * {@code sum}, {@code min} or {@code max} of a group without non-NA values), the result is
+ * {@code null} and the caller has to take the general path.
+ * <p>
+ * {@link Op#VAR} needs the same three passes as {@code stats::var} (the sum, the correction of the
+ * mean and the sum of squared deviations), so that the results are identical, see
+ * {@link #nextPass()}.
+ */
+public final class GroupReduction {
+
+    public enum Op {
+        SUM,
+        MEAN,
+        MIN,
+        MAX,
+        LENGTH,
+        VAR;
+
+        public static Op fromName(String name) {
+            for (Op op : values()) {
+                if (op.name().equalsIgnoreCase(name)) {
+                    return op;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final byte NA_SEEN = 1;
+    private static final byte NAN_SEEN = 2;
+    private static final byte OVERFLOW = 4;
+
+    private final Op op;
+    private final boolean naRm;
+    private final int groupCount;
+    /** Number of elements in each group, including NAs. */
+    private final int[] total;
+    /** Number of elements in each group that were accumulated. */
+    private final int[] counts;
+    private final byte[] flags;
+    /** Integer sums, minima or maxima. */
+    private long[] intAcc;
+    /** Double sums, minima or maxima, or the sums of the current pass for {@link Op#VAR}. */
+    private double[] acc;
+    /** The means computed by the previous passes for {@link Op#VAR}. */
+    private double[] means;
+    private int pass;
+    /** The first NA or NaN of each group for {@link Op#MEAN}, which is its result. */
+    private double[] firstNaN;
+
+    public GroupReduction(Op op, int groupCount, boolean naRm) {
+        this.op = op;
+        this.naRm = naRm;
+        this.groupCount = groupCount;
+        this.total = new int[groupCount];
+        this.counts = new int[groupCount];
+        this.flags = new byte[groupCount];
+    }
+
+    /**
+     * Returns for each element of {@code g} the 0-based index of the equal element of
+     * {@code uniqueg} or {@code -1} if there is none.
+     */
+    @TruffleBoundary
+    public static int[] matchGroups(RAbstractVector g, RAbstractVector uniqueg) {
+        int n = g.getLength();
+        int ng = uniqueg.getLength();
+        int[] result = new int[n];
+        if (g instanceof RIntVector && uniqueg instanceof RIntVector) {
+            RIntVector gi = (RIntVector) g;
+            RIntVector ugi = (RIntVector) uniqueg;
+            NonRecursiveHashMapInt map = new NonRecursiveHashMapInt(ng);
+            for (int i = 0; i < ng; i++) {
+                map.put(ugi.getDataAt(i), i);
+            }
+            for (int i = 0; i < n; i++) {
+                result[i] = map.get(gi.getDataAt(i));
+            }
+        } else if (g instanceof RDoubleVector && uniqueg instanceof RDoubleVector) {
+            RDoubleVector gd = (RDoubleVector) g;
+            RDoubleVector ugd = (RDoubleVector) uniqueg;
+            NonRecursiveHashMapDouble map = new NonRecursiveHashMapDouble(ng);
+            for (int i = 0; i < ng; i++) {
+                map.put(ugd.getDataAt(i), i);
+            }
+            for (int i = 0; i < n; i++) {
+                result[i] = map.get(gd.getDataAt(i));
+            }
+        } else if (g instanceof RStringVector && uniqueg instanceof RStringVector) {
+            RStringVector gs = (RStringVector) g;
+            RStringVector ugs = (RStringVector) uniqueg;
+            NonRecursiveHashMapCharacter map = new NonRecursiveHashMapCharacter(ng);
+            for (int i = 0; i < ng; i++) {
+                map.put(ugs.getDataAt(i), i);
+            }
+            for (int i = 0; i < n; i++) {
+                result[i] = map.get(gs.getDataAt(i));
+            }
+        } else {
+            HashMap<Object, Integer> map = new HashMap<>();
+            for (int i = 0; i < ng; i++) {
+                // uniqueg has no duplicates (by definition)
+                map.put(uniqueg.getDataAtAsObject(i), i);
+            }
+            for (int i = 0; i < n; i++) {
+                Integer index = map.get(g.getDataAtAsObject(i));
+                result[i] = index == null ? -1 : index;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Accumulates {@code length} elements of {@code x} starting at {@code offset}. The group of the
+     * {@code i}-th element is {@code groups[i] - groupBase}, elements whose group is out of range
+     * (including NA) are ignored.
+     */
+    @TruffleBoundary
+    public void add(RAbstractVector x, int offset, int length, int[] groups, int groupBase) {
+        if (pass > 0) {
+            addDeviations(x, offset, length, groups, groupBase);
+        } else if (x instanceof RIntVector) {
+            addInt((RIntVector) x, offset, length, groups, groupBase);
+        } else {
+            addDouble((RDoubleVector) x, offset, length, groups, groupBase);
+        }
+    }
+
+    private void addInt(RIntVector x, int offset, int length, int[] groups, int groupBase) {
+        boolean intResult = op == Op.SUM || op == Op.MIN || op == Op.MAX;
+        if (intResult && intAcc == null) {
+            intAcc = new long[groupCount];
+            if (op != Op.SUM) {
+                Arrays.fill(intAcc, op == Op.MIN ? Integer.MAX_VALUE : Integer.MIN_VALUE);
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            int g = groups[i] - groupBase;
+            if (g < 0 || g >= groupCount) {
+                continue;
+            }
+            total[g]++;
+            int value = x.getDataAt(offset + i);
+            if (RRuntime.isNA(value)) {
+                if (!naRm) {
+                    flags[g] |= NA_SEEN;
+                }
+                continue;
+            }
+            counts[g]++;
+            switch (op) {
+                case SUM:
+                    if ((flags[g] & (NA_SEEN | OVERFLOW)) == 0) {
+                        long sum = intAcc[g] + value;
+                        // the same check as in rowsum, the sum must stay in the integer range
+                        if (sum < Integer.MIN_VALUE || sum > Integer.MAX_VALUE) {
+                            flags[g] |= OVERFLOW;
+                        } else {
+                            intAcc[g] = sum;
+                        }
+                    }
+                    break;
+                case MIN:
+                    intAcc[g] = Math.min(intAcc[g], value);
+                    break;
+                case MAX:
+                    intAcc[g] = Math.max(intAcc[g], value);
+                    break;
+                case LENGTH:
+                    break;
+                default:
+                    addDoubleValue(g, value);
+                    break;
+            }
+        }
+    }
+
+    private void addDouble(RDoubleVector x, int offset, int length, int[] groups, int groupBase) {
+        for (int i = 0; i < length; i++) {
+            int g = groups[i] - groupBase;
+            if (g < 0 || g >= groupCount) {
+                continue;
+            }
+            total[g]++;
+            double value = x.getDataAt(offset + i);
+            if (Double.isNaN(value)) {
+                if (naRm) {
+                    continue;
+                }
+                if (op == Op.SUM) {
+                    // NA and NaN propagate through the addition
+                    counts[g]++;
+                    accumulators()[g] += value;
+                } else if (op == Op.MEAN) {
+                    if ((flags[g] & (NA_SEEN | NAN_SEEN)) == 0) {
+                        if (firstNaN == null) {
+                            firstNaN = new double[groupCount];
+                        }
+                        firstNaN[g] = value;
+                    }
+                    flags[g] |= RRuntime.isNA(value) ? NA_SEEN : NAN_SEEN;
+                } else {
+                    flags[g] |= RRuntime.isNA(value) ? NA_SEEN : NAN_SEEN;
+                }
+                continue;
+            }
+            counts[g]++;
+            if (op == Op.MIN || op == Op.MAX) {
+                double[] a = accumulators();
+                if (counts[g] == 1) {
+                    a[g] = value;
+                } else {
+                    a[g] = op == Op.MIN ? Math.min(a[g], value) : Math.max(a[g], value);
+                }
+            } else if (op != Op.LENGTH) {
+                addDoubleValue(g, value);
+            }
+        }
+    }
+
+    private double[] accumulators() {
+        if (acc == null) {
+            acc = new double[groupCount];
+        }
+        return acc;
+    }
+
+    private void addDoubleValue(int g, double value) {
+        accumulators()[g] += value;
+    }
+
+    /**
+     * The second and third pass of {@link Op#VAR}: sums the differences from the mean computed so
+     * far, or their squares, in the same order and the same way as {@code Covcor}.
+     */
+    private void addDeviations(RAbstractVector x, int offset, int length, int[] groups, int groupBase) {
+        double[] a = accumulators();
+        boolean intInput = x instanceof RIntVector;
+        for (int i = 0; i < length; i++) {
+            int g = groups[i] - groupBase;
+            if (g < 0 || g >= groupCount || (flags[g] & (NA_SEEN | NAN_SEEN)) != 0) {
+                continue;
+            }
+            double value;
+            if (intInput) {
+                int intValue = ((RIntVector) x).getDataAt(offset + i);
+                if (RRuntime.isNA(intValue)) {
+                    continue;
+                }
+                value = intValue;
+            } else {
+                value = ((RDoubleVector) x).getDataAt(offset + i);
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+            }
+            double delta = value - means[g];
+            a[g] += pass == 1 ? delta : delta * delta;
+        }
+    }
+
+    /**
+     * Finishes the current pass over the data and returns {@code true} if the reduction needs
+     * another one, in which case the caller has to {@link #add} the same elements again.
+     */
+    @TruffleBoundary
+    public boolean nextPass() {
+        if (op != Op.VAR || pass == 2) {
+            return false;
+        }
+        double[] a = accumulators();
+        if (pass == 0) {
+            means = new double[groupCount];
+            for (int g = 0; g < groupCount; g++) {
+                means[g] = a[g] / counts[g];
+            }
+        } else {
+            for (int g = 0; g < groupCount; g++) {
+                if (Double.isFinite(means[g])) {
+                    means[g] = means[g] + a[g] / counts[g];
+                }
+            }
+        }
+        Arrays.fill(a, 0);
+        pass++;
+        return true;
+    }
+
+    /**
+     * Returns the sums for {@code rowsum}: zero for empty groups, NA for groups with an NA or an
+     * integer overflow.
+     */
+    @TruffleBoundary
+    public int[] getIntSums() {
+        assert op == Op.SUM;
+        int[] result = new int[groupCount];
+        for (int g = 0; g < groupCount; g++) {
+            result[g] = (flags[g] & (NA_SEEN | OVERFLOW)) != 0 ? RRuntime.INT_NA : intAcc == null ? 0 : (int) intAcc[g];
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    public double[] getDoubleSums() {
+        assert op == Op.SUM;
+        return acc == null ? new double[groupCount] : acc;
+    }
+
+    /**
+     * Returns the result of the reduction for each group, NA for empty groups, or {@code null} if
+     * the result of some group cannot be computed without a warning or if all groups are empty.
+     */
+    @TruffleBoundary
+    public RAbstractVector getResult(boolean intInput) {
+        boolean anyElements = false;
+        for (int g = 0; g < groupCount; g++) {
+            if (total[g] != 0) {
+                anyElements = true;
+                if ((flags[g] & OVERFLOW) != 0 || (counts[g] == 0 && (flags[g] & (NA_SEEN | NAN_SEEN)) == 0 && (op == Op.MIN || op == Op.MAX))) {
+                    return null;
+                }
+            }
+        }
+        if (!anyElements) {
+            return null;
+        }
+        boolean complete = true;
+        if (op == Op.LENGTH || (intInput && (op == Op.SUM || op == Op.MIN || op == Op.MAX))) {
+            int[] result = new int[groupCount];
+            for (int g = 0; g < groupCount; g++) {
+                if (total[g] == 0 || (op != Op.LENGTH && (flags[g] & NA_SEEN) != 0)) {
+                    result[g] = RRuntime.INT_NA;
+                    complete = false;
+                } else {
+                    result[g] = op == Op.LENGTH ? total[g] : (int) intAcc[g];
+                }
+            }
+            return RDataFactory.createIntVector(result, complete);
+        }
+        double[] result = new double[groupCount];
+        double[] a = accumulators();
+        for (int g = 0; g < groupCount; g++) {
+            double value;
+            if (total[g] == 0) {
+                value = RRuntime.DOUBLE_NA;
+            } else if ((flags[g] & NA_SEEN) != 0) {
+                value = op == Op.MEAN && !intInput ? firstNaN[g] : RRuntime.DOUBLE_NA;
+            } else if ((flags[g] & NAN_SEEN) != 0) {
+                value = op == Op.MEAN ? firstNaN[g] : op == Op.VAR ? RRuntime.DOUBLE_NA : Double.NaN;
+            } else {
+                switch (op) {
+                    case MEAN:
+                        value = counts[g] == 0 ? Double.NaN : a[g] / counts[g];
+                        break;
+                    case VAR:
+                        value = counts[g] < 2 ? RRuntime.DOUBLE_NA : a[g] / (counts[g] - 1);
+                        break;
+                    default:
+                        value = a[g];
+                        break;
+                }
+            }
+            complete &= !RRuntime.isNA(value);
+            result[g] = value;
+        }
+        return RDataFactory.createDoubleVector(result, complete);
+    }
+}
@@ -56,6 +56,7 @@ public abstract class IsUnsorted extends RBuiltinNode.Arg2 {
     @Child private BinaryMapBooleanFunctionNode gt = new BinaryMapBooleanFunctionNode(BinaryCompare.GREATER_THAN.createOperation());
 
     private final ConditionProfile strictlyProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile sortedProfile = ConditionProfile.createBinaryProfile();
 
     static {
         Casts casts = new Casts(IsUnsorted.class);
@@ -63,7 +64,11 @@ public abstract class IsUnsorted extends RBuiltinNode.Arg2 {
     }
 
     @Specialization
-    protected byte isUnsorted(RDoubleVector x, boolean strictly) {
+    protected byte isUnsorted(RDoubleVector x, boolean strictly,
+                    @CachedLibrary(limit = "getGenericDataLibraryCacheSize()") VectorDataLibrary dataLib) {
+        if (!strictly && sortedProfile.profile(dataLib.isSortedComplete(x.getData(), false))) {
+            return RRuntime.LOGICAL_FALSE;
+        }
         double last = x.getDataAt(0);
         for (int k = 1; k < x.getLength(); k++) {
             double current = x.getDataAt(k);
@@ -82,7 +87,11 @@ public abstract class IsUnsorted extends RBuiltinNode.Arg2 {
     }
 
     @Specialization
-    protected byte isUnsorted(RIntVector x, boolean strictly) {
+    protected byte isUnsorted(RIntVector x, boolean strictly,
+                    @CachedLibrary(limit = "getGenericDataLibraryCacheSize()") VectorDataLibrary dataLib) {
+        if (!strictly && sortedProfile.profile(dataLib.isSortedComplete(x.getData(), false))) {
+            return RRuntime.LOGICAL_FALSE;
+        }
         int last = x.getDataAt(0);
         for (int k = 1; k < x.getLength(); k++) {
             int current = x.getDataAt(k);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2020, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -29,8 +29,10 @@ import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.lengthGt;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.LoopConditionProfile;
 import com.oracle.truffle.r.runtime.data.nodes.attributes.SpecialAttributesFunctions.GetDimAttributeNode;
@@ -46,8 +48,9 @@ import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 
-// TODO interpret "type" and "allowNA" arguments
+// TODO interpret "allowNA" argument and the display width of wide characters for type "width"
 @RBuiltin(name = "nchar", kind = INTERNAL, parameterNames = {"x", "type", "allowNA", "keepNA"}, behavior = PURE)
 public abstract class NChar extends RBuiltinNode.Arg4 {
     private static final String[] TYPES = new String[]{"bytes", "chars", "width"};
@@ -107,27 +110,35 @@ public abstract class NChar extends RBuiltinNode.Arg4 {
     }
 
     @SuppressWarnings("unused")
-    @Specialization
+    @Specialization(limit = "getTypedVectorDataLibraryCacheSize()")
     protected RIntVector nchar(RStringVector vector, String type, byte allowNA, byte keepNAIn,
+                    @CachedLibrary("vector.getData()") VectorDataLibrary dataLib,
                     @Cached("createCountingProfile()") LoopConditionProfile loopProfile,
+                    @Cached("createBinaryProfile()") ConditionProfile asciiProfile,
                     @Cached("createBinaryProfile()") ConditionProfile nullDimNamesProfile,
                     @Cached("createBinaryProfile()") ConditionProfile keepNAProfile,
                     @Cached("create()") GetDimAttributeNode getDimNode,
                     @Cached("create()") SetDimNamesAttributeNode setDimNamesNode,
                     @Cached("create()") ExtractDimNamesAttributeNode extractDimNamesNode,
                     @Cached("create()") ExtractNamesAttributeNode extractNamesNode) {
-        boolean keepNA = keepNAProfile.profile(isNAKeptIn(keepNAIn, convertType(type)));
-        int len = vector.getLength();
+        int typeId = convertType(type);
+        boolean keepNA = keepNAProfile.profile(isNAKeptIn(keepNAIn, typeId));
+        Object data = vector.getData();
+        int len = dataLib.getLength(data);
         int[] result = new int[len];
         boolean isComplete = true;
+        // for ASCII data the number of bytes, chars and the width is the length of the string
+        boolean ascii = asciiProfile.profile(dataLib.isASCII(data));
         loopProfile.profileCounted(len);
         for (int i = 0; loopProfile.inject(i < len); i++) {
-            String item = vector.getDataAt(i);
+            String item = dataLib.getStringAt(data, i);
             if (RRuntime.isNA(item)) {
                 result[i] = keepNA ? RRuntime.INT_NA : 2;
                 isComplete = !keepNA;
-            } else {
+            } else if (ascii) {
                 result[i] = item.length();
+            } else {
+                result[i] = typeId == 0 ? utf8Length(item) : codePointCount(item);
             }
         }
         RIntVector resultVector = RDataFactory.createIntVector(result, isComplete, getDimNode.getDimensions(vector), extractNamesNode.execute(vector));
@@ -138,6 +149,34 @@ public abstract class NChar extends RBuiltinNode.Arg4 {
         return resultVector;
     }
 
+    @TruffleBoundary
+    private static int codePointCount(String s) {
+        return s.codePointCount(0, s.length());
+    }
+
+    /**
+     * Number of bytes of the string in UTF-8, the encoding of all strings in FastR.
+     */
+    @TruffleBoundary
+    private static int utf8Length(String s) {
+        int result = 0;
+        int i = 0;
+        while (i < s.length()) {
+            char c = s.charAt(i++);
+            if (c < 0x80) {
+                result++;
+            } else if (c < 0x800) {
+                result += 2;
+            } else if (Character.isHighSurrogate(c) && i < s.length() && Character.isLowSurrogate(s.charAt(i))) {
+                result += 4;
+                i++;
+            } else {
+                result += 3;
+            }
+        }
+        return result;
+    }
+
     private int convertType(String type) {
         // The string in type is matched partially e.g. 'c' is 'chars', but 'charsxyz' is invalid
         for (int i = 0; i < TYPES.length; i++) {
@@ -78,6 +78,7 @@ public abstract class Order extends RPrecedenceBuiltinNode {
     private final BranchProfile error = BranchProfile.create();
     private final ConditionProfile notRemoveNAs = ConditionProfile.createBinaryProfile();
     private final ValueProfile vectorProfile = ValueProfile.createClassProfile();
+    private final ConditionProfile sortedProfile = ConditionProfile.createBinaryProfile();
 
     /**
      * For use by {@link RadixSort}.
@@ -90,6 +91,10 @@ public abstract class Order extends RPrecedenceBuiltinNode {
         RAbstractVector v = vectorProfile.profile(vIn);
         Object vData = v.getData();
         int n = vecDataLib.getLength(vData);
+        if (sortedProfile.profile(vecDataLib.isSortedComplete(vData, dec))) {
+            // the sort is stable, so the order of sorted data is the identity
+            return RDataFactory.createIntSequence(1, 1, n);
+        }
         reportWork(n);
 
         int[] indx = createIndexes(v, vecDataLib, n, naLast);
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.RRuntime;
+
+/**
+ * Array kernels of the cumulative functions {@code cumsum}, {@code cumprod}, {@code cummax} and
+ * {@code cummin} and of their inverse, {@code diff}. The builtins use them for vectors backed by a
+ * Java array. If the input is complete, i.e., known to contain no NAs, the kernels use a loop
+ * without any NA checks.
+ * <p>
+ * {@code cummax} and {@code cummin} of complete inputs with at least {@link #PARALLEL_THRESHOLD}
+ * elements are computed by a parallel prefix scan. Their result does not depend on the order in
+ * which the elements are combined. That is not the case for the floating point {@code cumsum} and
+ * {@code cumprod}, whose rounding would depend on the blocks, nor for the integer {@code cumsum},
+ * which has to report the first overflow, so these are always computed sequentially.
+ * <p>
+ * The kernels return a combination of the {@link #NA_SEEN} and {@link #OVERFLOW} flags.
+ */
+public final class PrefixScan {
+
+    /**
+     * Inputs of {@code cummax} and {@code cummin} with at least this many elements are scanned in
+     * parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    /** The result contains NAs. */
+    public static final int NA_SEEN = 1;
+    /** An integer overflow produced an NA, for which R gives a warning. */
+    public static final int OVERFLOW = 2;
+
+    private PrefixScan() {
+        // only static methods
+    }
+
+    // cumsum
+
+    @TruffleBoundary
+    public static int cumsum(double[] x, double[] result, boolean complete) {
+        double sum = 0;
+        if (complete) {
+            for (int i = 0; i < result.length; i++) {
+                sum += x[i];
+                result[i] = sum;
+            }
+            return 0;
+        }
+        for (int i = 0; i < result.length; i++) {
+            double value = x[i];
+            if (Double.isNaN(value)) {
+                return fillNaN(result, i, value);
+            }
+            sum += value;
+            result[i] = sum;
+        }
+        return 0;
+    }
+
+    @TruffleBoundary
+    public static int cumsum(int[] x, int[] result, boolean complete) {
+        long sum = 0;
+        for (int i = 0; i < result.length; i++) {
+            int value = x[i];
+            if (!complete && value == RRuntime.INT_NA) {
+                Arrays.fill(result, i, result.length, RRuntime.INT_NA);
+                return NA_SEEN;
+            }
+            sum += value;
+            if (sum > Integer.MAX_VALUE || sum <= Integer.MIN_VALUE) {
+                Arrays.fill(result, i, result.length, RRuntime.INT_NA);
+                return NA_SEEN | OVERFLOW;
+            }
+            result[i] = (int) sum;
+        }
+        return 0;
+    }
+
+    // cumprod
+
+    @TruffleBoundary
+    public static int cumprod(double[] x, double[] result, boolean complete) {
+        double product = 1;
+        if (complete) {
+            for (int i = 0; i < result.length; i++) {
+                product *= x[i];
+                result[i] = product;
+            }
+            return 0;
+        }
+        for (int i = 0; i < result.length; i++) {
+            double value = x[i];
+            if (Double.isNaN(value)) {
+                return fillNaN(result, i, value);
+            }
+            product *= value;
+            result[i] = product;
+        }
+        return 0;
+    }
+
+    // cummax and cummin
+
+    @TruffleBoundary
+    public static int cummax(double[] x, double[] result, boolean complete) {
+        if (complete && result.length >= PARALLEL_THRESHOLD) {
+            System.arraycopy(x, 0, result, 0, result.length);
+            // the first NaN wins, as in the sequential scan
+            Arrays.parallelPrefix(result, (a, b) -> Double.isNaN(a) || (!Double.isNaN(b) && a >= b) ? a : b);
+            return 0;
+        }
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < result.length; i++) {
+            double value = x[i];
+            if (Double.isNaN(value)) {
+                return fillNaN(result, i, value);
+            }
+            if (value > max || i == 0) {
+                max = value;
+            }
+            result[i] = max;
+        }
+        return 0;
+    }
+
+    @TruffleBoundary
+    public static int cummin(double[] x, double[] result, boolean complete) {
+        if (complete && result.length >= PARALLEL_THRESHOLD) {
+            System.arraycopy(x, 0, result, 0, result.length);
+            // the first NaN wins, as in the sequential scan
+            Arrays.parallelPrefix(result, (a, b) -> Double.isNaN(a) || (!Double.isNaN(b) && a <= b) ? a : b);
+            return 0;
+        }
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < result.length; i++) {
+            double value = x[i];
+            if (Double.isNaN(value)) {
+                return fillNaN(result, i, value);
+            }
+            if (value < min || i == 0) {
+                min = value;
+            }
+            result[i] = min;
+        }
+        return 0;
+    }
+
+    @TruffleBoundary
+    public static int cummax(int[] x, int[] result, boolean complete) {
+        if (complete && result.length >= PARALLEL_THRESHOLD) {
+            System.arraycopy(x, 0, result, 0, result.length);
+            Arrays.parallelPrefix(result, Math::max);
+            return 0;
+        }
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < result.length; i++) {
+            int value = x[i];
+            if (!complete && value == RRuntime.INT_NA) {
+                Arrays.fill(result, i, result.length, RRuntime.INT_NA);
+                return NA_SEEN;
+            }
+            if (value > max) {
+                max = value;
+            }
+            result[i] = max;
+        }
+        return 0;
+    }
+
+    @TruffleBoundary
+    public static int cummin(int[] x, int[] result, boolean complete) {
+        if (complete && result.length >= PARALLEL_THRESHOLD) {
+            System.arraycopy(x, 0, result, 0, result.length);
+            Arrays.parallelPrefix(result, Math::min);
+            return 0;
+        }
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < result.length; i++) {
+            int value = x[i];
+            if (!complete && value == RRuntime.INT_NA) {
+                Arrays.fill(result, i, result.length, RRuntime.INT_NA);
+                return NA_SEEN;
+            }
+            if (value < min) {
+                min = value;
+            }
+            result[i] = min;
+        }
+        return 0;
+    }
+
+    /**
+     * Fills the result with NA or NaN, depending on {@code value}, from {@code index} on.
+     */
+    private static int fillNaN(double[] result, int index, double value) {
+        if (RRuntime.isNA(value)) {
+            Arrays.fill(result, index, result.length, RRuntime.DOUBLE_NA);
+            return NA_SEEN;
+        }
+        Arrays.fill(result, index, result.length, Double.NaN);
+        return 0;
+    }
+
+    // diff
+
+    /**
+     * Computes {@code differences} times the lagged differences {@code x[i + lag] - x[i]}, the
+     * result has {@code x.length - lag * differences} elements, which must be positive.
+     */
+    @TruffleBoundary
+    public static double[] diff(double[] x, int lag, int differences, boolean complete) {
+        double[] current = x;
+        for (int d = 0; d < differences; d++) {
+            double[] next = new double[current.length - lag];
+            if (complete) {
+                for (int i = 0; i < next.length; i++) {
+                    next[i] = current[i + lag] - current[i];
+                }
+            } else {
+                for (int i = 0; i < next.length; i++) {
+                    double a = current[i + lag];
+                    double b = current[i];
+                    next[i] = RRuntime.isNA(a) || RRuntime.isNA(b) ? RRuntime.DOUBLE_NA : a - b;
+                }
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    /**
+     * The integer variant of {@link #diff(double[], int, int, boolean)}, writes the flags of the
+     * result to {@code flags[0]}.
+     */
+    @TruffleBoundary
+    public static int[] diff(int[] x, int lag, int differences, boolean complete, int[] flags) {
+        int[] current = x;
+        boolean currentComplete = complete;
+        int resultFlags = 0;
+        for (int d = 0; d < differences; d++) {
+            int[] next = new int[current.length - lag];
+            int nextFlags = 0;
+            for (int i = 0; i < next.length; i++) {
+                int a = current[i + lag];
+                int b = current[i];
+                if (!currentComplete && (a == RRuntime.INT_NA || b == RRuntime.INT_NA)) {
+                    next[i] = RRuntime.INT_NA;
+                    nextFlags |= NA_SEEN;
+                } else {
+                    long value = (long) a - b;
+                    if (value > Integer.MAX_VALUE || value <= Integer.MIN_VALUE) {
+                        next[i] = RRuntime.INT_NA;
+                        nextFlags |= NA_SEEN | OVERFLOW;
+                    } else {
+                        next[i] = (int) value;
+                    }
+                }
+            }
+            current = next;
+            currentComplete = (nextFlags & NA_SEEN) == 0;
+            resultFlags = (resultFlags & OVERFLOW) | nextFlags;
+        }
+        flags[0] = resultFlags;
+        return current;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -98,6 +98,9 @@ import com.oracle.truffle.r.runtime.nodes.RBaseNode;
 @RBuiltin(name = "rep", kind = PRIMITIVE, parameterNames = {"x", "..."}, dispatch = INTERNAL_GENERIC, behavior = PURE)
 public abstract class Repeat extends RBuiltinNode.Arg2 {
 
+    private static final int MIN_COMPACT_LENGTH = 2;
+    private static final long NEGATIVE_ZERO_BITS = Double.doubleToRawLongBits(-0d);
+
     private static final PipelineBuilder PB_TIMES;
     private static final PipelineBuilder PB_LENGTH_OUT;
     private static final PipelineBuilder PB_EACH;
@@ -146,6 +149,45 @@ public abstract class Repeat extends RBuiltinNode.Arg2 {
         return new Object[]{RMissing.instance, RArgsValuesAndNames.EMPTY};
     }
 
+    /**
+     * Creates a vector of {@code length} copies of the non-NA {@code value} as a compact sequence
+     * with stride zero, which is only materialized when it is written to. Returns {@code null} if
+     * the result is too short to be worth it.
+     */
+    static RIntVector createCompactRepeat(int value, int length) {
+        if (length < MIN_COMPACT_LENGTH || RRuntime.isNA(value)) {
+            return null;
+        }
+        return RDataFactory.createIntSequence(value, 0, length);
+    }
+
+    /**
+     * Like {@link #createCompactRepeat(int, int)}, {@code NaN} and {@code -0} are not allowed
+     * since the elements of a sequence are computed as {@code start + stride * index}.
+     */
+    static RDoubleVector createCompactRepeat(double value, int length) {
+        if (length < MIN_COMPACT_LENGTH || Double.isNaN(value) || Double.doubleToRawLongBits(value) == NEGATIVE_ZERO_BITS) {
+            return null;
+        }
+        return RDataFactory.createDoubleSequence(value, 0, length);
+    }
+
+    /**
+     * Repeats the single element of the integer or double vector data {@code xData}, see
+     * {@link #createCompactRepeat(int, int)}.
+     */
+    static RAbstractVector createCompactRepeat(VectorDataLibrary xDataLib, Object xData, int length) {
+        assert xDataLib.getLength(xData) == 1;
+        switch (xDataLib.getType(xData)) {
+            case Integer:
+                return createCompactRepeat(xDataLib.getIntAt(xData, 0), length);
+            case Double:
+                return createCompactRepeat(xDataLib.getDoubleAt(xData, 0), length);
+            default:
+                return null;
+        }
+    }
+
     @Specialization
     protected RNull repeatNull(@SuppressWarnings("unused") RNull x, @SuppressWarnings("unused") RArgsValuesAndNames args) {
         return RNull.instance;
@@ -169,6 +211,7 @@ public abstract class Repeat extends RBuiltinNode.Arg2 {
 
         private final ConditionProfile lengthOutOrTimes = ConditionProfile.createBinaryProfile();
         private final ConditionProfile oneTimeGiven = ConditionProfile.createBinaryProfile();
+        private final ConditionProfile compactProfile = ConditionProfile.createBinaryProfile();
 
         @Child private GetNamesAttributeNode getNames = GetNamesAttributeNode.create();
         @Child private VectorDataLibrary resultDataLib;
@@ -203,8 +246,12 @@ public abstract class Repeat extends RBuiltinNode.Arg2 {
                         throw error(RError.Message.INVALID_ARGUMENT, "times");
                     }
                     int length = lengthOutOrTimes.profile(!RRuntime.isNA(lengthOut)) ? lengthOut : t;
-                    double[] data = new double[length];
                     double value = xDataLib.getDoubleAt(xData, 0);
+                    RDoubleVector compact = createCompactRepeat(value, length);
+                    if (compactProfile.profile(compact != null)) {
+                        return compact;
+                    }
+                    double[] data = new double[length];
                     Arrays.fill(data, value);
                     return RDataFactory.createDoubleVector(data, !RRuntime.isNA(value));
                 } else {
@@ -287,6 +334,12 @@ public abstract class Repeat extends RBuiltinNode.Arg2 {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
                 copyResizedNode = insert(CopyResizedToPreallocatedNodeGen.create());
             }
+            if (compactProfile.profile(xDataLib.getLength(xData) == 1)) {
+                RAbstractVector compact = createCompactRepeat(xDataLib, xData, length);
+                if (compact != null) {
+                    return compact;
+                }
+            }
             boolean fillWithNA = xDataLib.getLength(xData) == 0;
             RAbstractVector result = x.createEmptySameType(length, xDataLib.isComplete(xData) && !fillWithNA);
             copyResizedNode.execute(xDataLib, xData, result.getData(), fillWithNA);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -48,6 +48,7 @@ public abstract class RepeatInternal extends RBuiltinNode.Arg2 {
 
     private final ConditionProfile timesOneProfile = ConditionProfile.createBinaryProfile();
     private final ConditionProfile valueLen0Profile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile compactProfile = ConditionProfile.createBinaryProfile();
 
     static {
         Casts casts = new Casts(RepeatInternal.class);
@@ -78,6 +79,12 @@ public abstract class RepeatInternal extends RBuiltinNode.Arg2 {
                 throw error(RError.Message.INVALID_VALUE, "times");
             }
             int resultLen = timesValue * valueLen;
+            if (compactProfile.profile(valueLen == 1)) {
+                RAbstractVector compact = Repeat.createCompactRepeat(valueDataLib, valueData, resultLen);
+                if (compact != null) {
+                    return compact;
+                }
+            }
             result = factory.createVector(valueType, resultLen, false);
             Object resultData = result.getData();
             SeqWriteIterator resultIter = resultDataLib.writeIterator(resultData);
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2014, Purdue University
- * Copyright (c) 2014, 2021, Oracle and/or its affiliates
+ * Copyright (c) 2014, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -85,6 +85,10 @@ public abstract class RepeatLength extends RBuiltinNode.Arg2 {
 
     @Specialization
     protected RIntVector repLen(int value, int length) {
+        RIntVector compact = Repeat.createCompactRepeat(value, length);
+        if (compact != null) {
+            return compact;
+        }
         int[] array = new int[length];
         Arrays.fill(array, value);
         return RDataFactory.createIntVector(array, !RRuntime.isNA(value));
@@ -92,6 +96,10 @@ public abstract class RepeatLength extends RBuiltinNode.Arg2 {
 
     @Specialization
     protected RDoubleVector repLen(double value, int length) {
+        RDoubleVector compact = Repeat.createCompactRepeat(value, length);
+        if (compact != null) {
+            return compact;
+        }
         double[] array = new double[length];
         Arrays.fill(array, value);
         return RDataFactory.createDoubleVector(array, !RRuntime.isNA(value));
@@ -127,11 +135,19 @@ public abstract class RepeatLength extends RBuiltinNode.Arg2 {
                     @CachedLibrary("x") AbstractContainerLibrary xContainerLib,
                     @CachedLibrary("x.getData()") VectorDataLibrary xDataLib,
                     @CachedLibrary(limit = "getGenericDataLibraryCacheSize()") VectorDataLibrary resultDataLib,
-                    @Cached("createBinaryProfile()") ConditionProfile emptyProfile) {
+                    @Cached("createBinaryProfile()") ConditionProfile emptyProfile,
+                    @Cached("createBinaryProfile()") ConditionProfile singleProfile) {
         Object xData = x.getData();
-        if (emptyProfile.profile(xDataLib.getLength(xData) == 0)) {
+        int xLength = xDataLib.getLength(xData);
+        if (emptyProfile.profile(xLength == 0)) {
             return xContainerLib.createEmptySameType(x, length, true);
         }
+        if (singleProfile.profile(xLength == 1)) {
+            RAbstractVector compact = Repeat.createCompactRepeat(xDataLib, xData, length);
+            if (compact != null) {
+                return compact;
+            }
+        }
         SeqIterator xIt = xDataLib.iterator(xData);
         RAbstractVector result = xContainerLib.createEmptySameType(x, length, false);
         Object resultData = result.getData();
@@ -1,7 +1,7 @@
 /*
  * Copyright (c) 1995, 1996  Robert Gentleman and Ross Ihaka
  * Copyright (c) 1997-2015,  The R Core Team
- * Copyright (c) 2016, 2021, Oracle and/or its affiliates
+ * Copyright (c) 2016, 2022, Oracle and/or its affiliates
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -31,13 +31,10 @@ import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
-import java.util.HashMap;
-
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.library.CachedLibrary;
-import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.nodes.function.ClassHierarchyNode;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
@@ -48,21 +45,15 @@ import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RStringVector;
-import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
-import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 // Translated from main/unique.c
 
-// TODO rowsum_df
 public class RowsumFunctions {
 
     @RBuiltin(name = "rowsum_matrix", kind = INTERNAL, parameterNames = {"x", "g", "uniqueg", "snarm", "rn"}, behavior = PURE)
     public abstract static class Rowsum extends RBuiltinNode.Arg5 {
 
-        private final ConditionProfile typeProfile = ConditionProfile.createBinaryProfile();
-        private final NACheck na = NACheck.create();
-
         static {
             Casts casts = new Casts(Rowsum.class);
             casts.arg("x").mustBe(integerValue().or(doubleValue()), RError.Message.ROWSUM_NON_NUMERIC);
@@ -76,75 +67,32 @@ public class RowsumFunctions {
             casts.arg("rn").mustBe(stringValue(), RError.Message.ROWSUM_NAMES_NOT_CHAR).asStringVector();
         }
 
-        @Specialization(limit = "getGenericDataLibraryCacheSize()")
+        @Specialization
         @TruffleBoundary
-        protected Object rowsum(RAbstractVector xv, RAbstractVector g, RAbstractVector uniqueg, boolean narm, RStringVector rn,
-                        @CachedLibrary("xv.getData()") VectorDataLibrary xvDataLib) {
+        protected Object rowsum(RAbstractVector xv, RAbstractVector g, RAbstractVector uniqueg, boolean narm, RStringVector rn) {
             int p = xv.isMatrix() ? xv.getDimensions()[1] : 1;
             int n = g.getLength();
             int ng = uniqueg.getLength();
-            HashMap<Object, Integer> table = new HashMap<>();
-            for (int i = 0; i < ng; i++) {
-                // uniqueg has no duplicates (by definition)
-                table.put(uniqueg.getDataAtAsObject(i), i);
-            }
-            int[] matches = new int[n];
-            for (int i = 0; i < n; i++) {
-                Integer hi = table.get(g.getDataAtAsObject(i));
-                matches[i] = hi + 1;
-            }
-            int offset = 0;
-            int offsetg = 0;
+            int[] matches = GroupReduction.matchGroups(g, uniqueg);
 
             boolean isInt = xv instanceof RIntVector;
             RAbstractVector result;
-            na.enable(xv);
-            boolean complete = xvDataLib.isComplete(xv.getData());
-
-            if (typeProfile.profile(isInt)) {
-                RIntVector xi = (RIntVector) xv;
+            if (isInt) {
                 int[] ansi = new int[ng * p];
                 for (int i = 0; i < p; i++) {
-                    for (int j = 0; j < n; j++) {
-                        int midx = matches[j] - 1 + offsetg;
-                        int itmp = ansi[midx];
-                        if (na.check(xi.getDataAt(j + offset))) {
-                            if (!narm) {
-                                ansi[midx] = RRuntime.INT_NA;
-                                complete = RDataFactory.INCOMPLETE_VECTOR;
-                            }
-                        } else if (!na.check(itmp)) {
-                            long dtmp = itmp;
-                            int jtmp = xi.getDataAt(j + offset);
-                            dtmp += jtmp;
-                            if (dtmp < Integer.MIN_VALUE || dtmp > Integer.MAX_VALUE) {
-                                itmp = RRuntime.INT_NA;
-                                complete = RDataFactory.INCOMPLETE_VECTOR;
-                            } else {
-                                itmp += jtmp;
-                            }
-                            ansi[midx] = itmp;
-                        }
-                    }
-                    offset += n;
-                    offsetg += ng;
+                    GroupReduction sums = new GroupReduction(GroupReduction.Op.SUM, ng, narm);
+                    sums.add(xv, i * n, n, matches, 0);
+                    System.arraycopy(sums.getIntSums(), 0, ansi, i * ng, ng);
                 }
-                result = RDataFactory.createIntVector(ansi, complete, new int[]{ng, p});
+                result = RDataFactory.createIntVector(ansi, RDataFactory.INCOMPLETE_VECTOR, new int[]{ng, p});
             } else {
-                RDoubleVector xd = (RDoubleVector) xv;
                 double[] ansd = new double[ng * p];
                 for (int i = 0; i < p; i++) {
-                    for (int j = 0; j < n; j++) {
-                        int midx = matches[j] - 1 + offsetg;
-                        double dtmp = xd.getDataAt(j + offset);
-                        if (!narm || !Double.isNaN(dtmp)) {
-                            ansd[midx] += dtmp;
-                        }
-                    }
-                    offset += n;
-                    offsetg += ng;
+                    GroupReduction sums = new GroupReduction(GroupReduction.Op.SUM, ng, narm);
+                    sums.add(xv, i * n, n, matches, 0);
+                    System.arraycopy(sums.getDoubleSums(), 0, ansd, i * ng, ng);
                 }
-                result = RDataFactory.createDoubleVector(ansd, complete, new int[]{ng, p});
+                result = RDataFactory.createDoubleVector(ansd, RDataFactory.INCOMPLETE_VECTOR, new int[]{ng, p});
             }
             RList dn2 = xv.materialize().getDimNames();
             Object dn2Obj = RNull.instance;
@@ -156,4 +104,50 @@ public class RowsumFunctions {
             return result;
         }
     }
+
+    @RBuiltin(name = "rowsum_df", kind = INTERNAL, parameterNames = {"x", "g", "uniqueg", "snarm", "rn"}, behavior = PURE)
+    public abstract static class RowsumDf extends RBuiltinNode.Arg5 {
+
+        static {
+            Casts casts = new Casts(RowsumDf.class);
+            casts.arg("x").mustBe(RList.class, RError.Message.ROWSUM_NON_NUMERIC_DF);
+
+            casts.arg("g").mustNotBeMissing().mustBe(and(not(nullValue()), not(instanceOf(RFunction.class)))).asVector();
+
+            casts.arg("uniqueg").mustNotBeMissing().mustBe(and(not(nullValue()), not(instanceOf(RFunction.class)))).asVector();
+
+            casts.arg("snarm").asLogicalVector().findFirst().mustNotBeNA(RError.Message.INVALID_LOGICAL).map(toBoolean());
+
+            casts.arg("rn").mustBe(stringValue(), RError.Message.ROWSUM_NAMES_NOT_CHAR).asStringVector();
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected Object rowsum(RList x, RAbstractVector g, RAbstractVector uniqueg, boolean narm, RStringVector rn) {
+            int p = x.getLength();
+            int n = g.getLength();
+            int ng = uniqueg.getLength();
+            int[] matches = GroupReduction.matchGroups(g, uniqueg);
+            Object[] columns = new Object[p];
+            for (int i = 0; i < p; i++) {
+                Object column = x.getDataAt(i);
+                GroupReduction sums = new GroupReduction(GroupReduction.Op.SUM, ng, narm);
+                if (column instanceof RDoubleVector) {
+                    sums.add((RAbstractVector) column, 0, n, matches, 0);
+                    double[] data = sums.getDoubleSums();
+                    columns[i] = RDataFactory.createDoubleVector(data, RDataFactory.INCOMPLETE_VECTOR);
+                } else if (column instanceof RIntVector && !ClassHierarchyNode.hasClass((RIntVector) column, RRuntime.CLASS_FACTOR)) {
+                    sums.add((RAbstractVector) column, 0, n, matches, 0);
+                    int[] data = sums.getIntSums();
+                    columns[i] = RDataFactory.createIntVector(data, RDataFactory.INCOMPLETE_VECTOR);
+                } else {
+                    throw error(RError.Message.ROWSUM_NON_NUMERIC_DF);
+                }
+            }
+            RList result = RDataFactory.createList(columns, x.getNames());
+            result.setAttr(RRuntime.ROWNAMES_ATTR_KEY, rn);
+            result.setClassAttr(RDataFactory.createStringVectorFromScalar(RRuntime.CLASS_DATA_FRAME));
+            return result;
+        }
+    }
 }
@@ -131,12 +131,12 @@ public class SortFunctions {
 
     protected static RDoubleVector jdkSort(RDoubleVector vec, boolean decreasing, VectorDataLibrary vecDataLib) {
         double[] data = vec.materialize().getDataCopy();
-        return RDataFactory.createDoubleVector(sort(data, decreasing), vecDataLib.isComplete(vec.getData()));
+        return RDataFactory.createDoubleVector(sort(data, decreasing), vecDataLib.isComplete(vec.getData())).markSorted(decreasing);
     }
 
     protected static RIntVector jdkSort(RIntVector vec, boolean decreasing, VectorDataLibrary vecDataLib) {
         int[] data = vec.materialize().getDataCopy();
-        return RDataFactory.createIntVector(sort(data, decreasing), vecDataLib.isComplete(vec.getData()));
+        return RDataFactory.createIntVector(sort(data, decreasing), vecDataLib.isComplete(vec.getData())).markSorted(decreasing);
     }
 
     protected static RStringVector jdkSort(RStringVector vec, boolean decreasing, VectorDataLibrary vecDataLib) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -25,8 +25,6 @@ package com.oracle.truffle.r.nodes.builtin.base;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
-import java.util.Arrays;
-
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -51,7 +49,10 @@ import com.oracle.truffle.r.runtime.nodes.RBaseNode;
 
 /**
  * The {@code split} internal. Internal version of 'split' is invoked from 'split.default' function
- * implemented in R, which makes sure that the second argument is always a R factor.
+ * implemented in R, which makes sure that the second argument is always a R factor. The elements
+ * are counted per group first and then copied directly into the result vectors of the exact size.
+ * {@code split.data.frame} and {@code unsplit} are overridden in {@code base_overrides.R} to use
+ * this internal column by column.
  *
  * TODO Can we find a way to efficiently write the specializations as generics? The code is
  * identical except for the argument type.
@@ -66,9 +67,6 @@ public abstract class Split extends RBuiltinNode.Arg2 {
     @Child private RFactorNodes.GetLevels getLevelNode = new RFactorNodes.GetLevels();
     @Child private GetSplitNames getSplitNames = GetSplitNamesNodeGen.create();
 
-    private static final int INITIAL_SIZE = 5;
-    private static final int SCALE_FACTOR = 2;
-
     static {
         Casts.noCasts(Split.class);
     }
@@ -78,18 +76,24 @@ public abstract class Split extends RBuiltinNode.Arg2 {
                     @Cached("x.access()") VectorAccess xAccess,
                     @Cached("f.access()") VectorAccess fAccess,
                     @CachedLibrary("x.getData()") VectorDataLibrary xDataLib) {
-        SequentialIterator xIter = xAccess.access(x);
-        SequentialIterator fIter = fAccess.access(f);
         RStringVector names = getLevelNode.execute(f);
         int nLevels = getNLevels(names);
-        int[] collectResultSize = new int[nLevels];
         Object[] results = new Object[nLevels];
         boolean isXComplete = xDataLib.isComplete(x.getData());
 
+        // the first pass counts the elements of each group, so that the second pass can
+        // distribute them directly into result arrays of the exact size
+        int[] resultSizes = countGroups(x.getLength(), fAccess, f, nLevels);
+        int[] resultIndexes = new int[nLevels];
+        SequentialIterator xIter = xAccess.access(x);
+        SequentialIterator fIter = fAccess.access(f);
+
         switch (xAccess.getType()) {
             case Character: {
-                // Initialize result arrays
-                String[][] collectResults = new String[nLevels][INITIAL_SIZE];
+                String[][] collectResults = new String[nLevels][];
+                for (int i = 0; i < nLevels; i++) {
+                    collectResults[i] = new String[resultSizes[i]];
+                }
 
                 // perform split
                 while (xAccess.next(xIter)) {
@@ -97,24 +101,21 @@ public abstract class Split extends RBuiltinNode.Arg2 {
                     if (!fAccess.isNA(fIter)) {
                         // a factor is a 1-based int vector
                         int resultIndex = fAccess.getInt(fIter) - 1;
-                        String[] collect = collectResults[resultIndex];
-                        if (collect.length == collectResultSize[resultIndex]) {
-                            collectResults[resultIndex] = collect = Arrays.copyOf(collect, collect.length * SCALE_FACTOR);
-                        }
-                        collect[collectResultSize[resultIndex]++] = xAccess.getString(xIter);
+                        collectResults[resultIndex][resultIndexes[resultIndex]++] = xAccess.getString(xIter);
                     }
                 }
 
-                RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, fIter, nLevels, collectResultSize);
+                RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, f, nLevels, resultSizes);
                 for (int i = 0; i < nLevels; i++) {
-                    results[i] = RDataFactory.createStringVector(Arrays.copyOfRange(collectResults[i], 0, collectResultSize[i]), isXComplete,
-                                    (resultNames != null) ? resultNames[i] : null);
+                    results[i] = RDataFactory.createStringVector(collectResults[i], isXComplete, (resultNames != null) ? resultNames[i] : null);
                 }
                 break;
             }
             case Complex: {
-                // Initialize result arrays
-                double[][] collectResults = new double[nLevels][INITIAL_SIZE * 2];
+                double[][] collectResults = new double[nLevels][];
+                for (int i = 0; i < nLevels; i++) {
+                    collectResults[i] = new double[resultSizes[i] * 2];
+                }
 
                 // perform split
                 while (xAccess.next(xIter)) {
@@ -122,26 +123,23 @@ public abstract class Split extends RBuiltinNode.Arg2 {
                     if (!fAccess.isNA(fIter)) {
                         // a factor is a 1-based int vector
                         int resultIndex = fAccess.getInt(fIter) - 1;
-                        double[] collect = collectResults[resultIndex];
-                        if (collect.length == collectResultSize[resultIndex] * 2) {
-                            collectResults[resultIndex] = collect = Arrays.copyOf(collect, collect.length * SCALE_FACTOR);
-                        }
-                        collect[collectResultSize[resultIndex] * 2] = xAccess.getComplexR(xIter);
-                        collect[collectResultSize[resultIndex] * 2 + 1] = xAccess.getComplexI(xIter);
-                        collectResultSize[resultIndex]++;
+                        int index = resultIndexes[resultIndex]++;
+                        collectResults[resultIndex][index * 2] = xAccess.getComplexR(xIter);
+                        collectResults[resultIndex][index * 2 + 1] = xAccess.getComplexI(xIter);
                     }
                 }
 
-                RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, fIter, nLevels, collectResultSize);
+                RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, f, nLevels, resultSizes);
                 for (int i = 0; i < nLevels; i++) {
-                    results[i] = RDataFactory.createComplexVector(Arrays.copyOfRange(collectResults[i], 0, collectResultSize[i] * 2), isXComplete,
-                                    (resultNames != null) ? resultNames[i] : null);
+                    results[i] = RDataFactory.createComplexVector(collectResults[i], isXComplete, (resultNames != null) ? resultNames[i] : null);
                 }
                 break;
             }
             case Double: {
-                // Initialize result arrays
-                double[][] collectResults = new double[nLevels][INITIAL_SIZE];
+                double[][] collectResults = new double[nLevels][];
+                for (int i = 0; i < nLevels; i++) {
+                    collectResults[i] = new double[resultSizes[i]];
+                }
 
                 // perform split
                 while (xAccess.next(xIter)) {
@@ -149,24 +147,21 @@ public abstract class Split extends RBuiltinNode.Arg2 {
                     if (!fAccess.isNA(fIter)) {
                         // a factor is a 1-based int vector
                         int resultIndex = fAccess.getInt(fIter) - 1;
-                        double[] collect = collectResults[resultIndex];
-                        if (collect.length == collectResultSize[resultIndex]) {
-                            collectResults[resultIndex] = collect = Arrays.copyOf(collect, collect.length * SCALE_FACTOR);
-                        }
-                        collect[collectResultSize[resultIndex]++] = xAccess.getDouble(xIter);
+                        collectResults[resultIndex][resultIndexes[resultIndex]++] = xAccess.getDouble(xIter);
                     }
                 }
 
-                RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, fIter, nLevels, collectResultSize);
+                RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, f, nLevels, resultSizes);
                 for (int i = 0; i < nLevels; i++) {
-                    results[i] = RDataFactory.createDoubleVector(Arrays.copyOfRange(collectResults[i], 0, collectResultSize[i]), isXComplete,
-                                    (resultNames != null) ? resultNames[i] : null);
+                    results[i] = RDataFactory.createDoubleVector(collectResults[i], isXComplete, (resultNames != null) ? resultNames[i] : null);
                 }
                 break;
             }
             case Integer: {
-                // Initialize result arrays
-                int[][] collectResults = new int[nLevels][INITIAL_SIZE];
+                int[][] collectResults = new int[nLevels][];
+                for (int i = 0; i < nLevels; i++) {
+                    collectResults[i] = new int[resultSizes[i]];
+                }
 
                 // perform split
                 while (xAccess.next(xIter)) {
@@ -174,24 +169,21 @@ public abstract class Split extends RBuiltinNode.Arg2 {
                     if (!fAccess.isNA(fIter)) {
                         // a factor is a 1-based int vector
                         int resultIndex = fAccess.getInt(fIter) - 1;
-                        int[] collect = collectResults[resultIndex];
-                        if (collect.length == collectResultSize[resultIndex]) {
-                            collectResults[resultIndex] = collect = Arrays.copyOf(collect, collect.length * SCALE_FACTOR);
-                        }
-                        collect[collectResultSize[resultIndex]++] = xAccess.getInt(xIter);
+                        collectResults[resultIndex][resultIndexes[resultIndex]++] = xAccess.getInt(xIter);
                     }
                 }
 
-                RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, fIter, nLevels, collectResultSize);
+                RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, f, nLevels, resultSizes);
                 for (int i = 0; i < nLevels; i++) {
-                    results[i] = RDataFactory.createIntVector(Arrays.copyOfRange(collectResults[i], 0, collectResultSize[i]), isXComplete,
-                                    (resultNames != null) ? resultNames[i] : null);
+                    results[i] = RDataFactory.createIntVector(collectResults[i], isXComplete, (resultNames != null) ? resultNames[i] : null);
                 }
                 break;
             }
             case List: {
-                // Initialize result arrays
-                Object[][] collectResults = new Object[nLevels][INITIAL_SIZE];
+                Object[][] collectResults = new Object[nLevels][];
+                for (int i = 0; i < nLevels; i++) {
+                    collectResults[i] = new Object[resultSizes[i]];
+                }
 
                 // perform split
                 while (xAccess.next(xIter)) {
@@ -199,24 +191,21 @@ public abstract class Split extends RBuiltinNode.Arg2 {
                     if (!fAccess.isNA(fIter)) {
                         // a factor is a 1-based int vector
                         int resultIndex = fAccess.getInt(fIter) - 1;
-                        Object[] collect = collectResults[resultIndex];
-                        if (collect.length == collectResultSize[resultIndex]) {
-                            collectResults[resultIndex] = collect = Arrays.copyOf(collect, collect.length * SCALE_FACTOR);
-                        }
-                        collect[collectResultSize[resultIndex]++] = xAccess.getListElement(xIter);
+                        collectResults[resultIndex][resultIndexes[resultIndex]++] = xAccess.getListElement(xIter);
                     }
                 }
 
-                RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, fIter, nLevels, collectResultSize);
+                RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, f, nLevels, resultSizes);
                 for (int i = 0; i < nLevels; i++) {
-                    results[i] = RDataFactory.createList(Arrays.copyOfRange(collectResults[i], 0, collectResultSize[i]),
-                                    (resultNames != null) ? resultNames[i] : null);
+                    results[i] = RDataFactory.createList(collectResults[i], (resultNames != null) ? resultNames[i] : null);
                 }
                 break;
             }
             case Logical: {
-                // Initialize result arrays
-                byte[][] collectResults = new byte[nLevels][INITIAL_SIZE];
+                byte[][] collectResults = new byte[nLevels][];
+                for (int i = 0; i < nLevels; i++) {
+                    collectResults[i] = new byte[resultSizes[i]];
+                }
 
                 // perform split
                 while (xAccess.next(xIter)) {
@@ -224,24 +213,21 @@ public abstract class Split extends RBuiltinNode.Arg2 {
                     if (!fAccess.isNA(fIter)) {
                         // a factor is a 1-based int vector
                         int resultIndex = fAccess.getInt(fIter) - 1;
-                        byte[] collect = collectResults[resultIndex];
-                        if (collect.length == collectResultSize[resultIndex]) {
-                            collectResults[resultIndex] = collect = Arrays.copyOf(collect, collect.length * SCALE_FACTOR);
-                        }
-                        collect[collectResultSize[resultIndex]++] = xAccess.getLogical(xIter);
+                        collectResults[resultIndex][resultIndexes[resultIndex]++] = xAccess.getLogical(xIter);
                     }
                 }
 
-                RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, fIter, nLevels, collectResultSize);
+                RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, f, nLevels, resultSizes);
                 for (int i = 0; i < nLevels; i++) {
-                    results[i] = RDataFactory.createLogicalVector(Arrays.copyOfRange(collectResults[i], 0, collectResultSize[i]), isXComplete,
-                                    (resultNames != null) ? resultNames[i] : null);
+                    results[i] = RDataFactory.createLogicalVector(collectResults[i], isXComplete, (resultNames != null) ? resultNames[i] : null);
                 }
                 break;
             }
             case Raw: {
-                // Initialize result arrays
-                byte[][] collectResults = new byte[nLevels][INITIAL_SIZE];
+                byte[][] collectResults = new byte[nLevels][];
+                for (int i = 0; i < nLevels; i++) {
+                    collectResults[i] = new byte[resultSizes[i]];
+                }
 
                 // perform split
                 while (xAccess.next(xIter)) {
@@ -249,18 +235,13 @@ public abstract class Split extends RBuiltinNode.Arg2 {
                     if (!fAccess.isNA(fIter)) {
                         // a factor is a 1-based int vector
                         int resultIndex = fAccess.getInt(fIter) - 1;
-                        byte[] collect = collectResults[resultIndex];
-                        if (collect.length == collectResultSize[resultIndex]) {
-                            collectResults[resultIndex] = collect = Arrays.copyOf(collect, collect.length * SCALE_FACTOR);
-                        }
-                        collect[collectResultSize[resultIndex]++] = xAccess.getRaw(xIter);
+                        collectResults[resultIndex][resultIndexes[resultIndex]++] = xAccess.getRaw(xIter);
                     }
                 }
 
-                RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, fIter, nLevels, collectResultSize);
+                RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, f, nLevels, resultSizes);
                 for (int i = 0; i < nLevels; i++) {
-                    results[i] = RDataFactory.createRawVector(Arrays.copyOfRange(collectResults[i], 0, collectResultSize[i]),
-                                    (resultNames != null) ? resultNames[i] : null);
+                    results[i] = RDataFactory.createRawVector(collectResults[i], (resultNames != null) ? resultNames[i] : null);
                 }
                 break;
             }
@@ -270,6 +251,18 @@ public abstract class Split extends RBuiltinNode.Arg2 {
         return RDataFactory.createList(results, names);
     }
 
+    private static int[] countGroups(int length, VectorAccess fAccess, RIntVector f, int nLevels) {
+        int[] counts = new int[nLevels];
+        SequentialIterator fIter = fAccess.access(f);
+        for (int i = 0; i < length; i++) {
+            fAccess.nextWithWrap(fIter);
+            if (!fAccess.isNA(fIter)) {
+                counts[fAccess.getInt(fIter) - 1]++;
+            }
+        }
+        return counts;
+    }
+
     @Specialization(replaces = "split")
     protected RList splitGeneric(RAbstractVector x, RIntVector f) {
         return split(x, f, x.slowPathAccess(), f.slowPathAccess(), VectorDataLibrary.getFactory().getUncached());
@@ -281,15 +274,15 @@ public abstract class Split extends RBuiltinNode.Arg2 {
         @Child private GetNamesAttributeNode getNamesNode = GetNamesAttributeNode.create();
         @Child private VectorDataLibrary namesDataLib = VectorDataLibrary.getFactory().createDispatched(DSLConfig.getGenericDataLibraryCacheSize());
 
-        private RStringVector[] getNames(RAbstractVector x, VectorAccess fAccess, SequentialIterator fIter, int nLevels, int[] collectResultSize) {
+        private RStringVector[] getNames(RAbstractVector x, VectorAccess fAccess, RIntVector f, int nLevels, int[] resultSizes) {
             RStringVector xNames = getNamesNode.getNames(x);
             if (namesProfile.profile(xNames != null)) {
                 String[][] namesArr = new String[nLevels][];
                 int[] resultNamesIdxs = new int[nLevels];
                 for (int i = 0; i < nLevels; i++) {
-                    namesArr[i] = new String[collectResultSize[i]];
+                    namesArr[i] = new String[resultSizes[i]];
                 }
-                execute(fAccess, fIter, xNames, namesArr, resultNamesIdxs);
+                execute(fAccess, fAccess.access(f), xNames, namesArr, resultNamesIdxs);
                 RStringVector[] resultNames = new RStringVector[nLevels];
                 for (int i = 0; i < nLevels; i++) {
                     resultNames[i] = RDataFactory.createStringVector(namesArr[i], namesDataLib.isComplete(xNames.getData()));
@@ -307,9 +300,11 @@ public abstract class Split extends RBuiltinNode.Arg2 {
             SequentialIterator namesIter = namesAccess.access(names);
             while (namesAccess.next(namesIter)) {
                 fAccess.nextWithWrap(fIter);
-                int resultIndex = fAccess.getInt(fIter) - 1; // a factor is a 1-based int
-                                                             // vector
-                namesArr[resultIndex][resultNamesIdxs[resultIndex]++] = namesAccess.getString(namesIter);
+                if (!fAccess.isNA(fIter)) {
+                    // a factor is a 1-based int vector
+                    int resultIndex = fAccess.getInt(fIter) - 1;
+                    namesArr[resultIndex][resultNamesIdxs[resultIndex]++] = namesAccess.getString(namesIter);
+                }
             }
         }
 
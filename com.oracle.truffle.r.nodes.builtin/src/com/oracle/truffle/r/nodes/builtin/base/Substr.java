@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2020, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -26,7 +26,9 @@ import com.oracle.truffle.api.dsl.Cached;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.runtime.data.nodes.attributes.UnaryCopyAttributesNode;
@@ -39,6 +41,7 @@ import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 @RBuiltin(name = "substr", kind = INTERNAL, parameterNames = {"x", "start", "stop"}, behavior = PURE)
@@ -46,6 +49,7 @@ public abstract class Substr extends RBuiltinNode.Arg3 {
     private final NACheck na = NACheck.create();
     private final BranchProfile everSeenIllegalRange = BranchProfile.create();
     private final ConditionProfile naIndexesProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile asciiProfile = ConditionProfile.createBinaryProfile();
 
     static {
         Casts.noCasts(Substr.class);
@@ -65,30 +69,34 @@ public abstract class Substr extends RBuiltinNode.Arg3 {
         return RNull.instance; // dummy
     }
 
-    @Specialization(guards = {"!emptyArg(arg)", "!wrongParams(start, stop)"})
+    @Specialization(guards = {"!emptyArg(arg)", "!wrongParams(start, stop)"}, limit = "getTypedVectorDataLibraryCacheSize()")
     protected RStringVector substr(RStringVector arg, RIntVector start, RIntVector stop,
+                    @CachedLibrary("arg.getData()") VectorDataLibrary argDataLib,
                     @Cached("create()") UnaryCopyAttributesNode copyAttributesNode) {
-        String[] res = new String[arg.getLength()];
+        Object argData = arg.getData();
+        String[] res = new String[argDataLib.getLength(argData)];
         na.enable(arg);
         na.enable(start);
         na.enable(stop);
-        for (int i = 0, j, k; i < arg.getLength(); i++) {
+        // the indexes are in characters, which are the chars of the string only for ASCII data
+        boolean ascii = asciiProfile.profile(argDataLib.isASCII(argData));
+        for (int i = 0, j, k; i < res.length; i++) {
             // Checkstyle: stop modified control variable check
             j = i % start.getLength();
             k = i % stop.getLength();
             // Checkstyle: resume modified control variable check
-            res[i] = substr0(arg.getDataAt(i), start.getDataAt(j), stop.getDataAt(k));
+            res[i] = substr0(argDataLib.getStringAt(argData, i), start.getDataAt(j), stop.getDataAt(k), ascii);
         }
         RStringVector result = RDataFactory.createStringVector(res, na.neverSeenNA());
         copyAttributesNode.execute(result, arg);
         return result;
     }
 
-    private String substr0(String x, int start, int stop) {
+    private String substr0(String x, int start, int stop, boolean ascii) {
         if (naIndexesProfile.profile(na.check(x) || na.check(start) || na.check(stop))) {
             return RRuntime.STRING_NA;
         } else {
-            int length = x.length();
+            int length = ascii ? x.length() : codePointCount(x);
             boolean startGreaterThanStop = start > stop;
             boolean startLessOrEqualZero = start <= 0;
             boolean stopLessOrEqualZero = stop <= 0;
@@ -109,10 +117,21 @@ public abstract class Substr extends RBuiltinNode.Arg3 {
                     newStop = length;
                 }
             }
-            return x.substring(newStart - 1, newStop);
+            return ascii ? x.substring(newStart - 1, newStop) : codePointSubstring(x, newStart - 1, newStop);
         }
     }
 
+    @TruffleBoundary
+    private static int codePointCount(String x) {
+        return x.codePointCount(0, x.length());
+    }
+
+    @TruffleBoundary
+    private static String codePointSubstring(String x, int start, int end) {
+        int beginIndex = x.offsetByCodePoints(0, start);
+        return x.substring(beginIndex, x.offsetByCodePoints(beginIndex, end - start));
+    }
+
     // protected static boolean rangeOk(String x, int start, int stop) {
     // return start <= stop && start > 0 && stop > 0 && start <= x.length() && stop <= x.length();
     // }
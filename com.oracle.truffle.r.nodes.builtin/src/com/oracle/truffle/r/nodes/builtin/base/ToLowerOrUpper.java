@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -26,9 +26,12 @@ import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.stringValue;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
+import java.nio.charset.StandardCharsets;
+
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.LoopConditionProfile;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
 import com.oracle.truffle.r.nodes.profile.VectorLengthProfile;
@@ -50,6 +53,7 @@ public abstract class ToLowerOrUpper {
 
         private final VectorLengthProfile lengthProfile = VectorLengthProfile.create();
         private final LoopConditionProfile loopProfile = LoopConditionProfile.createCountingProfile();
+        private final ConditionProfile asciiProfile = ConditionProfile.createBinaryProfile();
         private final NACheck na = NACheck.create();
         @Child private ExtractNamesAttributeNode extractNames = ExtractNamesAttributeNode.create();
 
@@ -74,13 +78,22 @@ public abstract class ToLowerOrUpper {
         }
 
         public RStringVector apply(RStringVector vector, VectorDataLibrary vectorDataLib, Mapper function) {
+            return apply(vector, vectorDataLib, function, function);
+        }
+
+        /**
+         * Uses {@code asciiFunction} instead of {@code function} if the vector data is known to be
+         * ASCII, see {@link VectorDataLibrary#isASCII(Object)}.
+         */
+        public RStringVector apply(RStringVector vector, VectorDataLibrary vectorDataLib, Mapper function, Mapper asciiFunction) {
+            Mapper mapper = asciiProfile.profile(vectorDataLib.isASCII(vector.getData())) ? asciiFunction : function;
             na.enable(vector);
             int length = lengthProfile.profile(vectorDataLib.getLength(vector.getData()));
             String[] stringVector = new String[length];
             loopProfile.profileCounted(length);
             for (int i = 0; loopProfile.inject(i < length); i++) {
                 String value = vectorDataLib.getStringAt(vector.getData(), i);
-                stringVector[i] = elementFunction(value, i, function);
+                stringVector[i] = elementFunction(value, i, mapper);
             }
             RStringVector result = RDataFactory.createStringVector(stringVector, vectorDataLib.isComplete(vector.getData()), getDimNode.getDimensions(vector), extractNames.execute(vector));
             copyAttributes.execute(vector, result);
@@ -93,6 +106,35 @@ public abstract class ToLowerOrUpper {
         String apply(String t, int u);
     }
 
+    /**
+     * Maps the ASCII characters between {@code from} and {@code to} by adding {@code delta}, works
+     * on the bytes of the string, which must be ASCII. Returns the string itself if there is
+     * nothing to map.
+     */
+    @TruffleBoundary
+    private static String mapASCII(String value, char from, char to, int delta) {
+        int length = value.length();
+        int i = 0;
+        while (i < length) {
+            char c = value.charAt(i);
+            if (c >= from && c <= to) {
+                break;
+            }
+            i++;
+        }
+        if (i == length) {
+            return value;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+        for (; i < length; i++) {
+            byte b = bytes[i];
+            if (b >= from && b <= to) {
+                bytes[i] = (byte) (b + delta);
+            }
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
     @RBuiltin(name = "tolower", kind = INTERNAL, parameterNames = {"x"}, behavior = PURE)
     public abstract static class ToLower extends RBuiltinNode.Arg1 {
 
@@ -108,6 +150,10 @@ public abstract class ToLowerOrUpper {
             return value.toLowerCase();
         }
 
+        private static String processASCIIElement(String value, @SuppressWarnings("unused") int i) {
+            return mapASCII(value, 'A', 'Z', 'a' - 'A');
+        }
+
         @Specialization
         protected String toLower(String value) {
             return mapNode.apply(value, ToLower::processElement);
@@ -116,7 +162,7 @@ public abstract class ToLowerOrUpper {
         @Specialization(limit = "getTypedVectorDataLibraryCacheSize()")
         protected RStringVector toLower(RStringVector vector,
                         @CachedLibrary("vector.getData()") VectorDataLibrary vectorDataLib) {
-            return mapNode.apply(vector, vectorDataLib, ToLower::processElement);
+            return mapNode.apply(vector, vectorDataLib, ToLower::processElement, ToLower::processASCIIElement);
         }
     }
 
@@ -135,6 +181,10 @@ public abstract class ToLowerOrUpper {
             return value.toUpperCase();
         }
 
+        private static String processASCIIElement(String value, @SuppressWarnings("unused") int i) {
+            return mapASCII(value, 'a', 'z', 'A' - 'a');
+        }
+
         @Specialization
         protected String toLower(String value) {
             return mapNode.apply(value, ToUpper::processElement);
@@ -143,7 +193,7 @@ public abstract class ToLowerOrUpper {
         @Specialization(limit = "getTypedVectorDataLibraryCacheSize()")
         protected RStringVector toLower(RStringVector vector,
                         @CachedLibrary("vector.getData()") VectorDataLibrary vectorDataLib) {
-            return mapNode.apply(vector, vectorDataLib, ToUpper::processElement);
+            return mapNode.apply(vector, vectorDataLib, ToUpper::processElement, ToUpper::processASCIIElement);
         }
     }
 }
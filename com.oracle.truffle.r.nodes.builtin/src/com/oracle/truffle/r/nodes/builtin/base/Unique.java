@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -67,6 +67,7 @@ public abstract class Unique extends RBuiltinNode.Arg4 {
     private static final long BIG_THRESHOLD = 100;
 
     private final ConditionProfile bigProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile sortedProfile = ConditionProfile.createBinaryProfile();
 
     static {
         Casts casts = new Casts(Unique.class);
@@ -260,6 +261,10 @@ public abstract class Unique extends RBuiltinNode.Arg4 {
         Object vecData = vec.getData();
         int vecLength = vecLib.getLength(vecData);
         reportWork(vecLength);
+        boolean decreasing = vecLib.isSortedComplete(vecData, true);
+        if (sortedProfile.profile(decreasing || vecLib.isSortedComplete(vecData, false))) {
+            return uniqueSorted(vecLib, vecData, vecLength, decreasing);
+        }
         if (bigProfile.profile(vecLength * (long) vecLength > BIG_THRESHOLD)) {
             NonRecursiveHashSetInt set = new NonRecursiveHashSetInt();
             int[] data = new int[16];
@@ -288,6 +293,35 @@ public abstract class Unique extends RBuiltinNode.Arg4 {
         }
     }
 
+    /**
+     * The duplicates in sorted data are adjacent and the unique values are sorted as well.
+     */
+    private static RIntVector uniqueSorted(VectorDataLibrary vecLib, Object vecData, int vecLength, boolean decreasing) {
+        int[] data = new int[vecLength];
+        int ind = 0;
+        SeqIterator it = vecLib.iterator(vecData);
+        while (vecLib.nextLoopCondition(vecData, it)) {
+            int val = vecLib.getNextInt(vecData, it);
+            if (ind == 0 || data[ind - 1] != val) {
+                data[ind++] = val;
+            }
+        }
+        return RDataFactory.createIntVector(Arrays.copyOf(data, ind), RDataFactory.COMPLETE_VECTOR).markSorted(decreasing);
+    }
+
+    private static RDoubleVector uniqueSortedDouble(VectorDataLibrary vecLib, Object vecData, int vecLength, boolean decreasing) {
+        double[] data = new double[vecLength];
+        int ind = 0;
+        SeqIterator it = vecLib.iterator(vecData);
+        while (vecLib.nextLoopCondition(vecData, it)) {
+            double val = vecLib.getNextDouble(vecData, it);
+            if (ind == 0 || data[ind - 1] != val) {
+                data[ind++] = val;
+            }
+        }
+        return RDataFactory.createDoubleVector(Arrays.copyOf(data, ind), RDataFactory.COMPLETE_VECTOR).markSorted(decreasing);
+    }
+
     @SuppressWarnings("unused")
     @Specialization(guards = "lengthOne(list)")
     protected RList doUniqueL1(RList list, byte incomparables, byte fromLast, int nmax) {
@@ -393,6 +427,10 @@ public abstract class Unique extends RBuiltinNode.Arg4 {
         int vecLen = vecDataLib.getLength(vecData);
         boolean isVecComplete = vecDataLib.isComplete(vecData);
         reportWork(vecLen);
+        boolean decreasing = vecDataLib.isSortedComplete(vecData, true);
+        if (sortedProfile.profile(decreasing || vecDataLib.isSortedComplete(vecData, false))) {
+            return uniqueSortedDouble(vecDataLib, vecData, vecLen, decreasing);
+        }
         if (bigProfile.profile(vecLen * (long) vecLen > BIG_THRESHOLD)) {
             NonRecursiveHashSetDouble set = new NonRecursiveHashSetDouble(vecLen);
             double[] data = new double[vecLen];
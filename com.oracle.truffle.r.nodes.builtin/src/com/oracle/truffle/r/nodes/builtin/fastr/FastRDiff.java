@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.doubleValue;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.gte;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.integerValue;
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.nodes.builtin.base.PrefixScan;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.data.nodes.attributes.SpecialAttributesFunctions.GetNamesAttributeNode;
+
+/**
+ * Computes {@code diff(x, lag, differences)} of a plain integer or double vector with the
+ * {@link PrefixScan#diff(double[], int, int, boolean) diff kernel} instead of subsetting and
+ * subtracting the whole vector once per difference. The result keeps the names of the elements
+ * it corresponds to, as {@code diff.default} does. Returns {@code NULL} if an integer overflow
+ * occurred, so that the caller, the {@code diff.default} override in {@code base_overrides.R},
+ * falls back to the R code, which gives the warning. The caller guarantees that
+ * {@code lag * differences < length(x)}.
+ */
+@RBuiltin(name = ".fastr.diff", kind = PRIMITIVE, parameterNames = {"x", "lag", "differences"}, behavior = PURE)
+public abstract class FastRDiff extends RBuiltinNode.Arg3 {
+
+    static {
+        Casts casts = new Casts(FastRDiff.class);
+        casts.arg("x").mustBe(integerValue().or(doubleValue()));
+        casts.arg("lag").asIntegerVector().findFirst().mustNotBeNA().mustBe(gte(1));
+        casts.arg("differences").asIntegerVector().findFirst().mustNotBeNA().mustBe(gte(1));
+    }
+
+    @Specialization
+    protected Object diff(RIntVector x, int lag, int differences,
+                    @Cached("create()") GetNamesAttributeNode getNames) {
+        int[] flags = new int[1];
+        int[] result = PrefixScan.diff(x.getReadonlyData(), lag, differences, x.isComplete(), flags);
+        if ((flags[0] & PrefixScan.OVERFLOW) != 0) {
+            return RNull.instance;
+        }
+        return RDataFactory.createIntVector(result, (flags[0] & PrefixScan.NA_SEEN) == 0, getNames(getNames.getNames(x), result.length));
+    }
+
+    @Specialization
+    protected Object diff(RDoubleVector x, int lag, int differences,
+                    @Cached("create()") GetNamesAttributeNode getNames) {
+        double[] result = PrefixScan.diff(x.getReadonlyData(), lag, differences, x.isComplete());
+        // the kernel only produces NAs from NAs in x
+        return RDataFactory.createDoubleVector(result, x.isComplete(), getNames(getNames.getNames(x), result.length));
+    }
+
+    /**
+     * The names of the last {@code length} elements.
+     */
+    @TruffleBoundary
+    private static RStringVector getNames(RStringVector names, int length) {
+        if (names == null) {
+            return null;
+        }
+        String[] data = Arrays.copyOfRange(names.getReadonlyStringData(), names.getLength() - length, names.getLength());
+        return RDataFactory.createStringVector(data, names.isComplete());
+    }
+}
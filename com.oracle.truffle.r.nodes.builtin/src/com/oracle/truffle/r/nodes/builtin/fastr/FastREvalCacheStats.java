@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.COMPLEX;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.LanguageEvalCache;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+
+/**
+ * Returns the statistics of the {@link LanguageEvalCache} of the current context as a named numeric
+ * vector: the number of cached closures, the number of hits, misses and evictions and the number of
+ * evaluated language objects that could not be cached.
+ */
+@RBuiltin(name = ".fastr.eval.cache.stats", kind = PRIMITIVE, parameterNames = {"reset"}, behavior = COMPLEX)
+public abstract class FastREvalCacheStats extends FastRStatsBuiltin {
+
+    private static final RStringVector NAMES = names("size", "hits", "misses", "evictions", "uncacheable");
+
+    static {
+        Casts casts = new Casts(FastREvalCacheStats.class);
+        castReset(casts);
+    }
+
+    @Override
+    protected Object getStatistics() {
+        return namedVector(NAMES, getRContext().languageEvalCache.getStatistics());
+    }
+
+    @Override
+    protected void resetStatistics() {
+        getRContext().languageEvalCache.resetStatistics();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.COMPLEX;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import java.util.Map;
+
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.ffi.RFFIStats;
+import com.oracle.truffle.r.runtime.ffi.RFFIStats.CallStats;
+
+/**
+ * Returns the statistics of the calls between R and native code collected by {@link RFFIStats} as
+ * a list with elements {@code downcalls} and {@code upcalls}, lists of numeric vectors with the
+ * number of calls, the total time in seconds and the latency histogram for each native symbol or
+ * up-call, and {@code native}, the number of vectors copied to native memory and of the bytes
+ * copied in both directions. The statistics are only collected while there is a context with the
+ * {@code FFIStats} option, otherwise the result is empty.
+ */
+@RBuiltin(name = ".fastr.ffi.stats", kind = PRIMITIVE, parameterNames = {"reset"}, behavior = COMPLEX)
+public abstract class FastRFFIStats extends FastRStatsBuiltin {
+
+    private static final RStringVector CALL_NAMES;
+    private static final RStringVector NATIVE_NAMES = names("vectorsToNative", "bytesToNative", "bytesFromNative");
+
+    static {
+        String[] names = new String[2 + RFFIStats.BUCKET_NAMES.length];
+        names[0] = "count";
+        names[1] = "time";
+        System.arraycopy(RFFIStats.BUCKET_NAMES, 0, names, 2, RFFIStats.BUCKET_NAMES.length);
+        CALL_NAMES = names(names);
+
+        Casts casts = new Casts(FastRFFIStats.class);
+        castReset(casts);
+    }
+
+    @Override
+    protected Object getStatistics() {
+        return namedList(new Object[]{toList(RFFIStats.getDownCalls()), toList(RFFIStats.getUpCalls()),
+                        namedVector(NATIVE_NAMES, RFFIStats.getVectorsToNative(), RFFIStats.getBytesToNative(), RFFIStats.getBytesFromNative())},
+                        new String[]{"downcalls", "upcalls", "native"});
+    }
+
+    @Override
+    protected void resetStatistics() {
+        RFFIStats.reset();
+    }
+
+    private static RList toList(Map<String, CallStats> calls) {
+        Object[] data = new Object[calls.size()];
+        String[] names = new String[calls.size()];
+        int i = 0;
+        for (Map.Entry<String, CallStats> entry : calls.entrySet()) {
+            CallStats stats = entry.getValue();
+            double[] values = new double[CALL_NAMES.getLength()];
+            values[0] = stats.getCount();
+            values[1] = stats.getNanos() / 1e9;
+            for (int j = 2; j < values.length; j++) {
+                values[j] = stats.getHistogram(j - 2);
+            }
+            names[i] = entry.getKey();
+            data[i++] = namedVector(CALL_NAMES, values);
+        }
+        return namedList(data, names);
+    }
+}
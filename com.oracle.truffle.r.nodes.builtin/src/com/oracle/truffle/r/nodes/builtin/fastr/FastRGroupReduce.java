@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.doubleValue;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.integerValue;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.nodes.builtin.base.GroupReduction;
+import com.oracle.truffle.r.nodes.builtin.base.GroupReduction.Op;
+import com.oracle.truffle.r.runtime.RError;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+
+/**
+ * Computes {@code sum}, {@code mean}, {@code min}, {@code max}, {@code length} or {@code var} of
+ * the elements of {@code x} in each group given by the 1-based codes in {@code group} (typically a
+ * factor) without splitting it, see {@link GroupReduction}. Returns {@code NULL} if the result cannot be
+ * computed this way and the caller, the {@code tapply} override in {@code base_overrides.R} or the
+ * {@code aggregate.data.frame} override in {@code stats_overrides.R}, has to fall back to
+ * {@code lapply(split(x, group), FUN)}.
+ */
+@RBuiltin(name = ".fastr.group.reduce", kind = PRIMITIVE, parameterNames = {"x", "group", "ngroups", "op", "na.rm"}, behavior = PURE)
+public abstract class FastRGroupReduce extends RBuiltinNode.Arg5 {
+
+    static {
+        Casts casts = new Casts(FastRGroupReduce.class);
+        casts.arg("x").mustBe(integerValue().or(doubleValue()));
+        casts.arg("group").mustBe(integerValue()).asIntegerVector();
+        casts.arg("ngroups").asIntegerVector().findFirst().mustNotBeNA();
+        casts.arg("op").asStringVector().findFirst();
+        casts.arg("na.rm").asLogicalVector().findFirst().mustNotBeNA().map(toBoolean());
+    }
+
+    @Specialization
+    @TruffleBoundary
+    protected Object reduce(RAbstractVector x, RIntVector group, int ngroups, String opName, boolean naRm) {
+        Op op = Op.fromName(opName);
+        if (op == null) {
+            throw error(RError.Message.INVALID_ARGUMENT, "op");
+        }
+        if (group.getLength() != x.getLength()) {
+            throw error(RError.Message.ARGUMENT_LENGTHS_DIFFER);
+        }
+        GroupReduction reduction = new GroupReduction(op, ngroups, naRm);
+        int[] groups = group.getReadonlyData();
+        do {
+            reduction.add(x, 0, x.getLength(), groups, 1);
+        } while (reduction.nextPass());
+        RAbstractVector result = reduction.getResult(x instanceof RIntVector);
+        return result == null ? RNull.instance : result;
+    }
+}
@@ -969,6 +969,63 @@ public class FastRInterop {
         }
     }
 
+    /**
+     * Exports a double, integer or raw vector to Java as a {@code double[]}, {@code int[]} or
+     * {@code byte[]}. Unlike {@code .fastr.interop.asJavaArray}, the array of a vector backed by a
+     * Java array is passed as is without copying and the vector is made permanently shared, so that
+     * R modifies only its copies from then on. The Java side must not write to the array. Vectors
+     * with other data, e.g., sequences or native memory, are copied.
+     */
+    @RBuiltin(name = ".fastr.interop.asJavaArrayView", visibility = ON, kind = PRIMITIVE, parameterNames = {"x"}, behavior = COMPLEX)
+    public abstract static class ToJavaArrayView extends RBuiltinNode.Arg1 {
+
+        static {
+            Casts casts = new Casts(ToJavaArrayView.class);
+            casts.arg("x").mustNotBeMissing();
+        }
+
+        @Specialization
+        @TruffleBoundary
+        public Object view(RDoubleVector vec) {
+            double[] array = vec.isMaterialized() ? vec.getInternalManagedData() : null;
+            if (array != null && array.length == vec.getLength()) {
+                return share(vec, array);
+            }
+            return getRContext().getEnv().asGuestValue(vec.getReadonlyData());
+        }
+
+        @Specialization
+        @TruffleBoundary
+        public Object view(RIntVector vec) {
+            int[] array = vec.isMaterialized() ? vec.getInternalManagedData() : null;
+            if (array != null && array.length == vec.getLength()) {
+                return share(vec, array);
+            }
+            return getRContext().getEnv().asGuestValue(vec.getReadonlyData());
+        }
+
+        @Specialization
+        @TruffleBoundary
+        public Object view(RRawVector vec) {
+            byte[] array = vec.isMaterialized() ? vec.getInternalManagedData() : null;
+            if (array != null && array.length == vec.getLength()) {
+                return share(vec, array);
+            }
+            return getRContext().getEnv().asGuestValue(vec.getReadonlyData());
+        }
+
+        @SuppressWarnings("unused")
+        @Fallback
+        public Object view(Object x) {
+            throw error(RError.Message.GENERIC, "only double, integer and raw vectors can be viewed as Java arrays");
+        }
+
+        private Object share(RAbstractVector vec, Object array) {
+            vec.makeSharedPermanent();
+            return getRContext().getEnv().asGuestValue(array);
+        }
+    }
+
     @ImportStatic(RRuntime.class)
     @RBuiltin(name = ".fastr.interop.asVector", visibility = ON, kind = PRIMITIVE, parameterNames = {"array", "recursive", "dropDimensions", "charToInt"}, behavior = COMPLEX)
     public abstract static class AsVector extends RBuiltinNode.Arg4 {
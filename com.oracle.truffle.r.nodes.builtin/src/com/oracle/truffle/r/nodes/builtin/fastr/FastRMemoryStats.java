@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.COMPLEX;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.context.MemoryStatsState;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.NativeDataAccess;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory;
+
+/**
+ * Returns the memory accounting of the current context: the Java heap, the garbage collectors,
+ * the native memory blocks and bytes allocated by FastR and not freed yet, the lazy-load database
+ * cache and the number and size of the R objects of each type allocated since the last reset and
+ * still alive. The heap, the garbage collectors and the native memory are shared by all contexts of
+ * the process. The R objects and the native memory are only tracked with the {@code MemoryStats}
+ * option, otherwise there are no objects and the live native blocks and bytes are {@code NA}. The
+ * reset only clears the allocation counters.
+ */
+@RBuiltin(name = ".fastr.memory.stats", kind = PRIMITIVE, parameterNames = {"reset"}, behavior = COMPLEX)
+public abstract class FastRMemoryStats extends FastRStatsBuiltin {
+
+    private static final RStringVector HEAP_NAMES = names("used", "committed", "max", "peak");
+    private static final RStringVector GC_NAMES = names("count", "time");
+    private static final RStringVector NATIVE_NAMES = names("liveBlocks", "ownedBlocks", "liveBytes", "handles");
+    private static final RStringVector LAZY_LOAD_NAMES = names("entries", "bytes");
+    private static final RStringVector OBJECT_NAMES = names("allocated", "allocatedBytes", "live", "liveBytes");
+
+    static {
+        Casts casts = new Casts(FastRMemoryStats.class);
+        castReset(casts);
+    }
+
+    @Override
+    protected Object getStatistics() {
+        RContext ctx = getRContext();
+        MemoryStatsState stats = ctx.memoryStats;
+
+        MemoryUsage heap = MemoryStatsState.getHeapUsage();
+        double[] heapData = new double[]{heap.getUsed(), heap.getCommitted(), heap.getMax() > 0 ? heap.getMax() : RRuntime.DOUBLE_NA,
+                        Math.max(heap.getUsed(), MemoryStatsState.getHeapPeakUsed())};
+
+        long[][] collections = MemoryStatsState.getCollections();
+        Object[] gcData = new Object[collections.length];
+        for (int i = 0; i < collections.length; i++) {
+            gcData[i] = namedVector(GC_NAMES, collections[i][0], collections[i][1] / 1000.0);
+        }
+
+        ArrayList<Object> objects = new ArrayList<>();
+        ArrayList<String> types = new ArrayList<>();
+        for (RType type : RType.values()) {
+            long live = stats.getLiveCount(type);
+            long allocated = stats.getAllocatedCount(type);
+            if (live != 0 || allocated != 0) {
+                types.add(type.getName());
+                objects.add(namedVector(OBJECT_NAMES, allocated, stats.getAllocatedBytes(type), live, stats.getLiveBytes(type)));
+            }
+        }
+
+        Object[] result = new Object[]{
+                        RDataFactory.createDoubleVector(heapData, heap.getMax() > 0, HEAP_NAMES),
+                        namedList(gcData, MemoryStatsState.getCollectorNames()),
+                        getNativeStatistics(),
+                        namedVector(LAZY_LOAD_NAMES, ctx.stateLazyDBCache.getEntriesCount(), ctx.stateLazyDBCache.getCachedBytes()),
+                        namedList(objects.toArray(), types.toArray(new String[0]))};
+        return namedList(result, new String[]{"heap", "gc", "native", "lazyLoadCache", "objects"});
+    }
+
+    private static RDoubleVector getNativeStatistics() {
+        long blocks = NativeMemory.getLiveAllocations();
+        long bytes = NativeMemory.getLiveBytes();
+        boolean tracking = blocks >= 0;
+        double[] data = new double[]{tracking ? blocks : RRuntime.DOUBLE_NA, NativeMemory.getOwnedAllocations(), tracking ? bytes : RRuntime.DOUBLE_NA, NativeDataAccess.getLiveHandlesCount()};
+        return RDataFactory.createDoubleVector(data, tracking, NATIVE_NAMES);
+    }
+
+    @Override
+    protected void resetStatistics() {
+        getRContext().memoryStats.resetAllocated();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+
+/**
+ * Records in the data of an integer or double vector that it is sorted in the given direction, if
+ * it is and there are no {@code NA}s, see {@link RIntVector#markSorted(boolean)}, so that, e.g.,
+ * {@code is.unsorted}, {@code order}, {@code unique}, {@code match}, {@code min} or {@code max} of
+ * it do not need to look at all the elements. Returns {@code x}. Used by the {@code sort.int}
+ * override in {@code base_overrides.R}, the result of the radix sort is a subset of {@code x}
+ * created by {@code x[order(x)]}.
+ */
+@RBuiltin(name = ".fastr.sorted", kind = PRIMITIVE, parameterNames = {"x", "decreasing"}, behavior = PURE)
+public abstract class FastRSorted extends RBuiltinNode.Arg2 {
+
+    static {
+        Casts casts = new Casts(FastRSorted.class);
+        casts.arg("decreasing").asLogicalVector().findFirst().mustNotBeNA().map(toBoolean());
+    }
+
+    @Specialization
+    protected RIntVector sorted(RIntVector x, boolean decreasing) {
+        return x.markSorted(decreasing);
+    }
+
+    @Specialization
+    protected RDoubleVector sorted(RDoubleVector x, boolean decreasing) {
+        return x.markSorted(decreasing);
+    }
+
+    @Fallback
+    protected Object sorted(Object x, @SuppressWarnings("unused") Object decreasing) {
+        return x;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+
+/**
+ * Common code of the {@code .fastr.*.stats} builtins, which take a single argument {@code reset}
+ * and return the collected statistics as named numeric vectors. With {@code reset = TRUE} the
+ * statistics are cleared after they were retrieved.
+ */
+public abstract class FastRStatsBuiltin extends RBuiltinNode.Arg1 {
+
+    protected static void castReset(Casts casts) {
+        casts.arg("reset").asLogicalVector().findFirst().map(toBoolean());
+    }
+
+    @Override
+    public Object[] getDefaultParameterValues() {
+        return new Object[]{RRuntime.LOGICAL_FALSE};
+    }
+
+    /**
+     * Returns the current statistics, called before {@link #resetStatistics()}.
+     */
+    protected abstract Object getStatistics();
+
+    protected abstract void resetStatistics();
+
+    @Specialization
+    @TruffleBoundary
+    protected Object stats(boolean reset) {
+        Object result = getStatistics();
+        if (reset) {
+            resetStatistics();
+        }
+        return result;
+    }
+
+    protected static RStringVector names(String... names) {
+        return RDataFactory.createStringVector(names, RDataFactory.COMPLETE_VECTOR);
+    }
+
+    protected static RDoubleVector namedVector(RStringVector names, double... data) {
+        assert data.length == names.getLength();
+        return RDataFactory.createDoubleVector(data, RDataFactory.COMPLETE_VECTOR, names);
+    }
+
+    protected static RDoubleVector namedVector(RStringVector names, long... data) {
+        double[] values = new double[data.length];
+        for (int i = 0; i < data.length; i++) {
+            values[i] = data[i];
+        }
+        return namedVector(names, values);
+    }
+
+    protected static RList namedList(Object[] data, String[] names) {
+        return RDataFactory.createList(data, names(names));
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.test;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.r.nodes.RASTBuilder;
+import com.oracle.truffle.r.parser.DefaultRParserFactory;
+import com.oracle.truffle.r.runtime.ArgumentsSignature;
+import com.oracle.truffle.r.runtime.RParserFactory.Parser;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.context.Engine.IncompleteSourceException;
+import com.oracle.truffle.r.runtime.context.Engine.ParseException;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxCall;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxConstant;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxElement;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxFunction;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxLookup;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxVisitor;
+
+/**
+ * Checks that the hand-written recursive-descent parser produces the same ASTs, including source
+ * sections, and the same errors as the ANTLR generated parser.
+ */
+public class RParserTest extends TestBase {
+
+    private static final class DumpVisitor extends RSyntaxVisitor<Void> {
+
+        private final StringBuilder str = new StringBuilder();
+
+        String dump(List<RSyntaxNode> nodes) {
+            for (RSyntaxNode node : nodes) {
+                accept(node);
+                str.append('\n');
+            }
+            return str.toString();
+        }
+
+        private void section(RSyntaxElement element) {
+            SourceSection section = element.getLazySourceSection();
+            if (section != null && section.isAvailable()) {
+                str.append('@').append(section.getCharIndex()).append(':').append(section.getCharLength());
+            }
+        }
+
+        private void args(ArgumentsSignature signature, RSyntaxElement[] arguments) {
+            str.append('(');
+            for (int i = 0; i < arguments.length; i++) {
+                str.append(i == 0 ? "" : ", ");
+                if (signature.getName(i) != null) {
+                    str.append(signature.getName(i)).append('=');
+                }
+                if (arguments[i] != null) {
+                    accept(arguments[i]);
+                }
+            }
+            str.append(')');
+        }
+
+        @Override
+        protected Void visit(RSyntaxCall element) {
+            accept(element.getSyntaxLHS());
+            args(element.getSyntaxSignature(), element.getSyntaxArguments());
+            section(element);
+            return null;
+        }
+
+        @Override
+        protected Void visit(RSyntaxConstant element) {
+            Object value = element.getValue();
+            str.append('<').append(value.getClass().getSimpleName()).append(' ').append(value).append('>');
+            section(element);
+            return null;
+        }
+
+        @Override
+        protected Void visit(RSyntaxLookup element) {
+            str.append('`').append(element.getIdentifier()).append('`');
+            section(element);
+            return null;
+        }
+
+        @Override
+        protected Void visit(RSyntaxFunction element) {
+            str.append("function");
+            args(element.getSyntaxSignature(), element.getSyntaxArgumentDefaults());
+            str.append(' ');
+            accept(element.getSyntaxBody());
+            section(element);
+            return null;
+        }
+    }
+
+    private static String parse(Parser parser, String code) {
+        Source source = Source.newBuilder(RRuntime.R_LANGUAGE_ID, code, "<parser test>").build();
+        try {
+            return new DumpVisitor().dump(parser.script(source, new RASTBuilder(true), RContext.getInstance().getLanguage()));
+        } catch (IncompleteSourceException e) {
+            return "incomplete: " + e.getMessage();
+        } catch (ParseException e) {
+            return "error: " + e.getMessage();
+        }
+    }
+
+    private static void assertSameParse(String... codes) {
+        Parser antlr = DefaultRParserFactory.createANTLRParser();
+        Parser descent = DefaultRParserFactory.createRecursiveDescentParser();
+        for (String code : codes) {
+            Assert.assertEquals(code, parse(antlr, code), parse(descent, code));
+        }
+    }
+
+    @Test
+    public void testConstants() {
+        execInContext(() -> {
+            assertSameParse("1", "1L", "1.5e-3", "0x1F", "0x1p3", "1e5L", "1.5L", "0x10L", "3i", ".5", "1.", "1e", "100000000000L");
+            assertSameParse("TRUE; FALSE; T; F; NULL; NA; NA_integer_; NA_real_; NA_character_; Inf; NaN");
+            assertSameParse("'abc'", "\"a\\tb\\n\\\\\"", "'\\x41\\u00e9\\U0001F600'", "'\\101'");
+            return null;
+        });
+    }
+
+    @Test
+    public void testOperators() {
+        execInContext(() -> {
+            assertSameParse("a + b * c ^ d ^ e", "-a^2", "!a && b || c", "a %in% b %o% c", "a:b:c", "-1:2", "a ? b", "~ a + b", "y ~ x | z");
+            assertSameParse("a <- b <<- c", "a -> b ->> c", "a = b", "f(x) <- 1", "a == b; a != b; a <= b; a >= b; a < b; a > b");
+            assertSameParse("a$b@c$`d`", "a::b", "a:::b", "'a'::'b'", "a[b][[c]]", "a[, 1, drop = FALSE]", "a[[]]");
+            return null;
+        });
+    }
+
+    @Test
+    public void testStatements() {
+        execInContext(() -> {
+            assertSameParse("if (a) b else c", "if (a)\nb\nelse c", "{ if (a) b\n else c }", "for (i in 1:10) { x }", "while (TRUE) break", "repeat next");
+            assertSameParse("function(a, b = 2, ...) a + b", "function(x)\n{\n  x\n}\n", "f(a = 1, , b =, 'c' = 3, `d` = 4, NULL = 5)", "f(..., ..1, ..2)");
+            assertSameParse("x <- 1 # comment\n\ny <- 2;\n;z", "{\n a\n\n b; c }", "(a\n+\nb)", "f(\n a,\n b\n)");
+            return null;
+        });
+    }
+
+    @Test
+    public void testErrors() {
+        execInContext(() -> {
+            assertSameParse("a +", "f(a,", "{ a", "'abc", "`abc", "if (a) b\nelse c", "a b", "f(a b)", "1 ++", ")", "a <- ");
+            assertSameParse("x[[1]<-c(1) }'");
+            return null;
+        });
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -44,6 +44,8 @@ import com.oracle.truffle.r.runtime.data.AbstractContainerLibrary;
 import com.oracle.truffle.r.runtime.data.RAttributesLayout;
 import com.oracle.truffle.r.runtime.data.RBaseObject;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RIntSeqVectorData;
+import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RLogicalVector;
 import com.oracle.truffle.r.runtime.data.RNull;
@@ -106,6 +108,7 @@ final class CachedExtractVectorNode extends CachedVectorNode {
 
     private final ConditionProfile extractedLengthGTZeroProfile;
     private final ConditionProfile onePositionProfile;
+    private final ConditionProfile sequenceProfile;
 
     CachedExtractVectorNode(ElementAccessMode mode, RAbstractContainer vector, Object[] positions, RBaseObject exact, RBaseObject dropDimensions, boolean recursive) {
         super(mode, vector, positions, recursive);
@@ -123,6 +126,7 @@ final class CachedExtractVectorNode extends CachedVectorNode {
         this.droppedDimensionProfile = this.dropDimensions ? ConditionProfile.createBinaryProfile() : null;
         this.extractedLengthGTZeroProfile = mode.isSubset() ? ConditionProfile.createBinaryProfile() : null;
         this.onePositionProfile = mode.isSubset() ? ConditionProfile.createBinaryProfile() : null;
+        this.sequenceProfile = mode.isSubset() && numberOfPositions == 1 && targetDataClass == RIntSeqVectorData.class ? ConditionProfile.createBinaryProfile() : null;
     }
 
     public boolean isSupported(Object target, Object[] positions, Object exactValue, Object dropDimensionsValue) {
@@ -164,19 +168,25 @@ final class CachedExtractVectorNode extends CachedVectorNode {
         }
 
         int extractedVectorLength = positionsCheckNode.getSelectedPositionsCount(positionProfiles);
-        RAbstractVector extractedVector;
-        switch (vectorType) {
-            case Language:
-            case PairList:
-                extractedVector = RType.List.create(extractedVectorLength, false);
-                break;
-            default:
-                extractedVector = vectorType.create(extractedVectorLength, false);
-                break;
+        RAbstractVector extractedVector = null;
+        if (sequenceProfile != null) {
+            extractedVector = extractSequence((RIntVector) vector, positions[0], vectorLength);
+        }
+        boolean extractedSequence = sequenceProfile != null && sequenceProfile.profile(extractedVector != null);
+        if (!extractedSequence) {
+            switch (vectorType) {
+                case Language:
+                case PairList:
+                    extractedVector = RType.List.create(extractedVectorLength, false);
+                    break;
+                default:
+                    extractedVector = vectorType.create(extractedVectorLength, false);
+                    break;
+            }
         }
 
         if (mode.isSubset()) {
-            if (extractedLengthGTZeroProfile.profile(extractedVectorLength > 0)) {
+            if (!extractedSequence && extractedLengthGTZeroProfile.profile(extractedVectorLength > 0)) {
                 writeVectorNode.execute(extractedVector, positions, vector, dimensions);
                 RBaseNode.reportWork(this, extractedVectorLength);
             }
@@ -218,6 +228,27 @@ final class CachedExtractVectorNode extends CachedVectorNode {
         }
     }
 
+    /**
+     * Subsetting a compact integer sequence with a sequence of positions that are all within its
+     * bounds, e.g., {@code x[length(x):1]} in {@code rev(x)} or {@code x[2:10]}, gives again a
+     * compact sequence. Returns {@code null} if that is not the case.
+     */
+    private static RIntVector extractSequence(RIntVector vector, Object position, int vectorLength) {
+        if (!(position instanceof RIntVector) || !((RIntVector) position).isSequence()) {
+            return null;
+        }
+        RIntSeqVectorData positionSeq = ((RIntVector) position).getSequence();
+        int length = positionSeq.getLength();
+        int first = positionSeq.getStart();
+        int last = positionSeq.getEnd();
+        if (length == 0 || Math.min(first, last) < 1 || Math.max(first, last) > vectorLength) {
+            return null;
+        }
+        RIntSeqVectorData seq = vector.getSequence();
+        int stride = length == 1 ? 0 : seq.getStride() * positionSeq.getStride();
+        return RDataFactory.createIntSequence(seq.getStart() + seq.getStride() * (first - 1), stride, length);
+    }
+
     private int[] getDimensions(final RAbstractContainer vector) {
         int[] dimensions;
         if (numberOfPositions == 1) {
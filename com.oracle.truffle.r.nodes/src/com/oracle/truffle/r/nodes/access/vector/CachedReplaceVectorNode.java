@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -78,6 +78,7 @@ final class CachedReplaceVectorNode extends CachedVectorNode {
     private final VectorLengthProfile valueLengthProfile = VectorLengthProfile.create();
     private final BranchProfile warningBranch = BranchProfile.create();
     private final BranchProfile resizeProfile = BranchProfile.create();
+    private final ConditionProfile growInPlaceProfile = ConditionProfile.createBinaryProfile();
 
     private final ConditionProfile valueLengthOneProfile = ConditionProfile.createBinaryProfile();
     private final ConditionProfile emptyReplacementProfile = ConditionProfile.createBinaryProfile();
@@ -257,7 +258,11 @@ final class CachedReplaceVectorNode extends CachedVectorNode {
             if (isDeleteElements() && mode.isSubscript()) {
                 return vector;
             }
-            vector = resizeVector(vector, maxOutOfBounds);
+            // a vector without attributes owned by at most one variable can be extended in place,
+            // which makes appending in a loop amortized constant time
+            if (!growInPlaceProfile.profile(!vector.isShared() && vector.getAttributes() == null && vector.growInPlace(maxOutOfBounds))) {
+                vector = resizeVector(vector, maxOutOfBounds);
+            }
         } else {
             vector = (RAbstractVector) containerLibrary.materialize(vector);
         }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -346,7 +346,8 @@ abstract class WriteIndexedVectorAccessNode extends Node {
         int stride = strideProfile.profile(seq.getStride());
         int end = start + positionLength * stride;
 
-        if (start < 0 || end <= 0) {
+        if (start < 0 || end <= 0 || stride == 0) {
+            // constant positions, e.g., from rep(i, n), are not handled by the loop below
             throw new SlowPathException("rewrite to doIntegerPosition");
         }
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2020, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -113,8 +113,12 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
                     @Cached("create()") BranchProfile foundProfile,
                     @Cached("create()") BranchProfile notFoundProfile) {
         Object tableData = table.getData();
-        SeqIterator it = tableDataLib.iterator(tableData);
         int element = xDataLib.getIntAt(x.getData(), 0);
+        if (tableDataLib.isSortedComplete(tableData, false)) {
+            int index = findInSorted(tableDataLib, tableData, element);
+            return index == -1 ? nomatch : index + 1;
+        }
+        SeqIterator it = tableDataLib.iterator(tableData);
         if (naProfile.isNA(element)) {
             while (tableDataLib.nextLoopCondition(tableData, it)) {
                 if (tableDataLib.isNextNA(tableData, it)) {
@@ -137,8 +141,13 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
     @Specialization(guards = {"xDataLib.getLength(x.getData()) != 1", "!isSequence(table)"}, limit = "getTypedVectorDataLibraryCacheSize()")
     @CompilerDirectives.TruffleBoundary
     protected RIntVector match(RIntVector x, RIntVector table, int nomatch,
-                    @SuppressWarnings("unused") @CachedLibrary("x.getData()") VectorDataLibrary xDataLib,
+                    @CachedLibrary("x.getData()") VectorDataLibrary xDataLib,
+                    @CachedLibrary(limit = "getGenericDataLibraryCacheSize()") VectorDataLibrary tableDataLib,
                     @Cached() MatchAsIntVectorNode match) {
+        Object tableData = table.getData();
+        if (isSmallerThanSortedTable(xDataLib, x.getData(), tableDataLib, tableData)) {
+            return matchInSorted(x, xDataLib, tableData, tableDataLib, nomatch);
+        }
         return match.execute(x, table, nomatch);
     }
 
@@ -249,6 +258,10 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
                     @Cached("create()") BranchProfile notFoundProfile) {
         double element = xDataLib.getDoubleAt(x.getData(), 0);
         Object tableData = table.getData();
+        if (tableDataLib.isSortedComplete(tableData, false)) {
+            int index = findInSorted(tableDataLib, tableData, element);
+            return index == -1 ? nomatch : index + 1;
+        }
         if (naProfile.isNA(element)) {
             SeqIterator it = tableDataLib.iterator(tableData);
             while (tableDataLib.nextLoopCondition(tableData, it)) {
@@ -273,8 +286,13 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
     @Specialization(guards = "xDataLib.getLength(x.getData()) != 1", limit = "getTypedVectorDataLibraryCacheSize()")
     @CompilerDirectives.TruffleBoundary
     protected RIntVector match(RDoubleVector x, RDoubleVector table, int nomatch,
-                    @SuppressWarnings("unused") @CachedLibrary("x.getData()") VectorDataLibrary xDataLib,
+                    @CachedLibrary("x.getData()") VectorDataLibrary xDataLib,
+                    @CachedLibrary(limit = "getGenericDataLibraryCacheSize()") VectorDataLibrary tableDataLib,
                     @Cached() MatchAsDoubleVectorNode match) {
+        Object tableData = table.getData();
+        if (isSmallerThanSortedTable(xDataLib, x.getData(), tableDataLib, tableData)) {
+            return matchInSorted(x, xDataLib, tableData, tableDataLib, nomatch);
+        }
         return match.execute(x, table, nomatch);
     }
 
@@ -736,6 +754,68 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
         return match.execute(x, table, nomatch);
     }
 
+    /**
+     * Binary search is used instead of hashing if the table is complete, sorted in increasing order
+     * and much bigger than {@code x}.
+     */
+    private static boolean isSmallerThanSortedTable(VectorDataLibrary xDataLib, Object xData, VectorDataLibrary tableDataLib, Object tableData) {
+        return tableDataLib.getLength(tableData) > (long) xDataLib.getLength(xData) * TABLE_SIZE_FACTOR && tableDataLib.isSortedComplete(tableData, false);
+    }
+
+    /**
+     * Returns the index of the first occurrence of {@code value} in complete data sorted in
+     * increasing order, or {@code -1}. The table contains no {@code NA}, so there is no match for
+     * {@code NA}.
+     */
+    private static int findInSorted(VectorDataLibrary tableDataLib, Object tableData, int value) {
+        int low = 0;
+        int high = tableDataLib.getLength(tableData);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tableDataLib.getIntAt(tableData, mid) < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < tableDataLib.getLength(tableData) && tableDataLib.getIntAt(tableData, low) == value ? low : -1;
+    }
+
+    /**
+     * Double variant of {@link #findInSorted(VectorDataLibrary, Object, int)}, there is no match
+     * for {@code NaN} either, because all comparisons with it are false.
+     */
+    private static int findInSorted(VectorDataLibrary tableDataLib, Object tableData, double value) {
+        int low = 0;
+        int high = tableDataLib.getLength(tableData);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tableDataLib.getDoubleAt(tableData, mid) < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < tableDataLib.getLength(tableData) && tableDataLib.getDoubleAt(tableData, low) == value ? low : -1;
+    }
+
+    private static RIntVector matchInSorted(RAbstractVector x, VectorDataLibrary xDataLib, Object tableData, VectorDataLibrary tableDataLib, int nomatch) {
+        Object xData = x.getData();
+        int[] result = initResult(xDataLib.getLength(xData), nomatch);
+        boolean matchAll = true;
+        boolean isDouble = x instanceof RDoubleVector;
+        SeqIterator it = xDataLib.iterator(xData);
+        while (xDataLib.nextLoopCondition(xData, it)) {
+            int index = isDouble ? findInSorted(tableDataLib, tableData, xDataLib.getNextDouble(xData, it)) : findInSorted(tableDataLib, tableData, xDataLib.getNextInt(xData, it));
+            if (index != -1) {
+                result[it.getIndex()] = index + 1;
+            } else {
+                matchAll = false;
+            }
+        }
+        return RDataFactory.createIntVector(result, setCompleteState(matchAll, nomatch));
+    }
+
     private static int[] initResult(int length, int nomatch) {
         int[] result = new int[length];
         Arrays.fill(result, nomatch);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -93,7 +93,7 @@ import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
  * After that, the resulting arguments (potentially reordered and eventually wrapped into "...") are
  * wrapped into additional {@link PromiseNode}s which are basically an abstraction layer for normal
  * and inlined functions. See
- * {@link PromiseNode#create(RPromiseFactory, boolean, boolean, com.oracle.truffle.api.Assumption)}
+ * {@link PromiseNode#create(RPromiseFactory, boolean, boolean, boolean, com.oracle.truffle.api.Assumption)}
  * for details on the types of {@link PromiseNode promise nodes}.<br/>
  * The resulting {@link RNode}s are cached inside {@link RCallNode} and executed every call (the
  * cache is not invalidated): Depending on whether the function to be called is a normal or inlined
@@ -536,7 +536,7 @@ public class ArgumentMatcher {
              */
             RNode defaultArg = formals.getDefaultArgument(formalIndex);
             Closure defaultClosure = formals.getClosureCache().getOrCreatePromiseClosure(defaultArg);
-            return PromiseNode.create(RPromiseFactory.create(PromiseState.Default, defaultClosure), noOpt, false, allArgPromisesCanOptimize);
+            return PromiseNode.create(RPromiseFactory.create(PromiseState.Default, defaultClosure), noOpt, false, false, allArgPromisesCanOptimize);
         }
         return ConstantNode.create(formals.getInternalDefaultArgumentAt(formalIndex));
     }
@@ -556,7 +556,8 @@ public class ArgumentMatcher {
         } else {
             Closure closure = closureCache.getOrCreatePromiseClosure(suppliedArg);
             boolean forcedEager = fastPath != null && fastPath.forcedEagerPromise(formalIndex);
-            return PromiseNode.create(RPromiseFactory.create(PromiseState.Supplied, closure), noOpt, forcedEager, allArgPromisesCanOptimize);
+            boolean passValue = forcedEager && fastPath.passesForcedArgumentValues();
+            return PromiseNode.create(RPromiseFactory.create(PromiseState.Supplied, closure), noOpt, forcedEager, passValue, allArgPromisesCanOptimize);
         }
     }
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -103,11 +103,13 @@ public abstract class PromiseNode extends RNode {
 
     /**
      * @param factory {@link #factory}
+     * @param passValue whether the eagerly evaluated value of a {@code forcedEager} argument can be
+     *            passed instead of a promise
      * @return Depending on {@link RPromiseFactory#getState()}, the proper {@link PromiseNode}
      *         implementation
      */
     @TruffleBoundary
-    static RNode create(RPromiseFactory factory, boolean noOpt, boolean forcedEager, Assumption allArgPromisesCanOptimize) {
+    static RNode create(RPromiseFactory factory, boolean noOpt, boolean forcedEager, boolean passValue, Assumption allArgPromisesCanOptimize) {
         assert factory.getState() != PromiseState.Explicit;
 
         // For ARG_DEFAULT, expr == defaultExpr!
@@ -121,7 +123,7 @@ public abstract class PromiseNode extends RNode {
         boolean alwaysEager = expr != null && expr.forceEagerEvaluation();
         if (forcedEager || alwaysEager) {
             Assumption assumption = alwaysEager ? AlwaysValidAssumption.INSTANCE : allArgPromisesCanOptimize;
-            return new OptForcedEagerPromiseNode(factory, wrapIndex, assumption, alwaysEager);
+            return new OptForcedEagerPromiseNode(factory, wrapIndex, assumption, alwaysEager, passValue && !noOpt && !alwaysEager);
         } else {
             Object optimizableConstant = getOptimizableConstant(expr);
             if (optimizableConstant != null) {
@@ -393,7 +395,7 @@ public abstract class PromiseNode extends RNode {
                 if (RASTUtils.isLookup(nodes[i], ArgumentsSignature.VARARG_NAME)) {
                     this.promised[i] = nodes[i];
                 } else {
-                    this.promised[i] = PromiseNode.create(RPromiseFactory.create(PromiseState.Supplied, closure), noOpt, !noOpt && forcedEager, allArgPromisesCanOptimize);
+                    this.promised[i] = PromiseNode.create(RPromiseFactory.create(PromiseState.Supplied, closure), noOpt, !noOpt && forcedEager, false, allArgPromisesCanOptimize);
                 }
             }
             this.signature = signature;
@@ -23,16 +23,19 @@ package com.oracle.truffle.r.nodes.function;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
 import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.FrameSlotTypeException;
 import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.InvalidAssumptionException;
 import com.oracle.truffle.api.nodes.NodeCost;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.api.profiles.BranchProfile;
@@ -47,6 +50,8 @@ import com.oracle.truffle.r.runtime.RDispatch;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.S3MethodCache;
+import com.oracle.truffle.r.runtime.StableValue;
 import com.oracle.truffle.r.runtime.Utils;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
@@ -56,6 +61,8 @@ import com.oracle.truffle.r.runtime.data.RPromise;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.env.REnvironment;
 import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor;
+import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor.FrameAndSlotLookupResult;
+import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor.LookupResult;
 import com.oracle.truffle.r.runtime.nodes.RBaseNode;
 
 public abstract class S3FunctionLookupNode extends RBaseNode {
@@ -449,10 +456,6 @@ public abstract class S3FunctionLookupNode extends RBaseNode {
 
         @TruffleBoundary
         private Result executeInternal(String genericName, RStringVector type, String group, MaterializedFrame callerFrame, MaterializedFrame genericDefFrame) {
-            LookupOperation op = (lookupFrame, name, inMethodsTable) -> {
-                return ReadVariableNode.lookupFunction(name, lookupFrame, inMethodsTable, true);
-            };
-
             GetMethodsTable getTable = () -> {
                 FrameSlot slot = genericDefFrame == null ? null : genericDefFrame.getFrameDescriptor().findFrameSlot(RRuntime.RS3MethodsTable);
                 if (slot == null) {
@@ -465,7 +468,13 @@ public abstract class S3FunctionLookupNode extends RBaseNode {
                 }
             };
 
-            Result result = performLookup(callerFrame, genericName, group, type, nextMethod, defaultMethod, op, getTable);
+            S3MethodCache cache = getRContext().s3MethodCache;
+            Result result;
+            if (type != null && cache.isEnabled()) {
+                result = cachedLookup(cache, genericName, type, group, callerFrame, getTable);
+            } else {
+                result = performLookup(callerFrame, genericName, group, type, nextMethod, defaultMethod, UNCACHED_LOOKUP, getTable);
+            }
 
             if (result == null) {
                 if (throwsError) {
@@ -480,5 +489,111 @@ public abstract class S3FunctionLookupNode extends RBaseNode {
             }
             return result;
         }
+
+        /**
+         * Looks up the method in the {@link S3MethodCache} of the context. The lookups in the
+         * environment of the caller are described by {@link FrameSlotChangeMonitor#lookup}, which
+         * is based on the frame descriptors, so that the entry of a function applies to all its
+         * calls.
+         */
+        private Result cachedLookup(S3MethodCache cache, String genericName, RStringVector type, String group, MaterializedFrame callerFrame, GetMethodsTable getTable) {
+            Object methodsTable = getTable.get();
+            if (methodsTable instanceof RPromise) {
+                methodsTable = PromiseHelperNode.evaluateSlowPath((RPromise) methodsTable);
+            }
+            Object evaluatedTable = methodsTable;
+            GetMethodsTable getEvaluatedTable = () -> evaluatedTable;
+
+            FrameDescriptor callerDescriptor = callerFrame.getFrameDescriptor();
+            Object[] key = new Object[6 + type.getLength()];
+            key[0] = genericName;
+            key[1] = group;
+            key[2] = nextMethod;
+            key[3] = defaultMethod;
+            // the frame for environments, e.g., namespace:base shares the descriptor of package:base
+            key[4] = FrameSlotChangeMonitor.getSingletonFrame(callerDescriptor) == null ? callerDescriptor : callerFrame;
+            key[5] = methodsTable == null ? null : ((REnvironment) methodsTable).getFrame();
+            for (int i = 0; i < type.getLength(); i++) {
+                key[6 + i] = type.getDataAt(i);
+            }
+            Object cached = cache.get(key);
+            if (cached != null) {
+                return cached == RNull.instance ? null : (Result) cached;
+            }
+
+            RecordingLookup op = new RecordingLookup();
+            Result result = performLookup(callerFrame, genericName, group, type, nextMethod, defaultMethod, op, getEvaluatedTable);
+            if (op.cacheable) {
+                cache.put(key, result == null ? RNull.instance : result, op.assumptions.toArray(new Assumption[op.assumptions.size()]), op.lookups.toArray(new LookupResult[op.lookups.size()]));
+            }
+            return result;
+        }
     }
+
+    private static final LookupOperation UNCACHED_LOOKUP = (lookupFrame, name, inMethodsTable) -> ReadVariableNode.lookupFunction(name, lookupFrame, inMethodsTable, true);
+
+    /**
+     * Performs the same lookups as {@link ReadVariableNode#lookupFunction} and records what their
+     * results depend on: the {@link LookupResult}s of the lookups starting in the environment of
+     * the caller and the stable values or the absence of the entries in the methods table. The
+     * lookups are not cacheable if any of them is not fully described by these, e.g., because
+     * the name is bound to a promise that was not evaluated yet, to a value that is not a function
+     * or in a frame without stable values.
+     */
+    private static final class RecordingLookup implements LookupOperation {
+        private final ArrayList<Assumption> assumptions = new ArrayList<>();
+        private final ArrayList<LookupResult> lookups = new ArrayList<>();
+        private boolean cacheable = true;
+
+        @Override
+        public Object read(MaterializedFrame frame, String name, boolean inMethodsTable) {
+            if (cacheable) {
+                Object result = inMethodsTable ? readMethodsTable(frame, name) : read(frame, name);
+                if (result != NOT_CACHEABLE) {
+                    return result;
+                }
+                cacheable = false;
+            }
+            return UNCACHED_LOOKUP.read(frame, name, inMethodsTable);
+        }
+
+        private Object read(MaterializedFrame frame, String name) {
+            LookupResult lookup = FrameSlotChangeMonitor.lookup(frame, name);
+            if (lookup == null || lookup instanceof FrameAndSlotLookupResult) {
+                return NOT_CACHEABLE;
+            }
+            Object value;
+            try {
+                value = lookup.getValue();
+            } catch (InvalidAssumptionException e) {
+                return NOT_CACHEABLE;
+            }
+            if (value != null && !(value instanceof RFunction)) {
+                return NOT_CACHEABLE;
+            }
+            lookups.add(lookup);
+            return value;
+        }
+
+        private Object readMethodsTable(MaterializedFrame frame, String name) {
+            FrameDescriptor descriptor = frame.getFrameDescriptor();
+            if (FrameSlotChangeMonitor.getSingletonFrame(descriptor) != frame) {
+                return NOT_CACHEABLE;
+            }
+            FrameSlot slot = descriptor.findFrameSlot(name);
+            if (slot == null) {
+                assumptions.add(descriptor.getNotInFrameAssumption(name));
+                return null;
+            }
+            Object value = FrameSlotChangeMonitor.getValue(slot, frame);
+            StableValue<Object> stableValue = FrameSlotChangeMonitor.getStableValueAssumption(descriptor, slot, value);
+            if (stableValue == null || !(value == null || value instanceof RFunction)) {
+                return NOT_CACHEABLE;
+            }
+            assumptions.add(stableValue.getAssumption());
+            return value;
+        }
+    }
+
+    private static final Object NOT_CACHEABLE = new Object();
 }
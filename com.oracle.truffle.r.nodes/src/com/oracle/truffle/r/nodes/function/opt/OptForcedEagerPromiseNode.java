@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -109,6 +109,17 @@ import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
  * {@code allArgPromisesCanOptimize} assumption.
  *
  * <p>
+ * If the called function cannot observe whether it gets a promise or a value, which is decided in
+ * {@code EvaluatedArgumentsVisitor#isPromiseTransparent}, the eagerly evaluated value is passed
+ * directly and no promise is allocated at all. This is the case for typical small helper functions,
+ * e.g., {@code function(x, y) x * y + 1}. The decision is tied to the call target of the callee: if
+ * the call site calls another function, the arguments are matched and these nodes are created
+ * again. The value is still wrapped by the {@link WrapArgumentNode} so that the callee does not
+ * modify the vectors of the caller. Note: unlike an eager promise, a passed value cannot be
+ * re-evaluated in the callee if the eager evaluation of a later argument fails, which only matters
+ * if that argument has side effects on the variables read by this one.
+ *
+ * <p>
  * Known limitation: possible double error reporting if error handler is installed.
  *
  * <p>
@@ -159,17 +170,24 @@ public final class OptForcedEagerPromiseNode extends PromiseNode implements Eage
     private final Assumption allArgPromisesCanOptimize;
     private final boolean alwaysForce;
 
-    public OptForcedEagerPromiseNode(RPromiseFactory factory, int wrapIndex, Assumption allArgPromisesCanOptimize, boolean alwaysForce) {
+    /**
+     * Whether the value is passed to the callee instead of an eager promise.
+     */
+    private final boolean passValue;
+
+    public OptForcedEagerPromiseNode(RPromiseFactory factory, int wrapIndex, Assumption allArgPromisesCanOptimize, boolean alwaysForce, boolean passValue) {
         super(null);
         this.factory = factory;
         this.wrapIndex = wrapIndex;
         this.expr = (RNode) factory.getExpr();
         this.allArgPromisesCanOptimize = allArgPromisesCanOptimize;
         this.alwaysForce = alwaysForce;
+        this.passValue = passValue;
     }
 
     /**
-     * Creates a new {@link RPromise} every time.
+     * Creates a new {@link RPromise} every time, unless the value is {@link #passValue passed}
+     * directly.
      */
     @Override
     public Object execute(final VirtualFrame frame) {
@@ -222,6 +240,10 @@ public final class OptForcedEagerPromiseNode extends PromiseNode implements Eage
             return getFallback().execute(frame);
         }
         log("Eagerly evaluated");
+        if (passValue) {
+            // the value was computed without the wrapper, see above
+            return wrapIndex != ArgumentStatePush.INVALID_INDEX && expr instanceof WrapArgumentNode ? ((WrapArgumentNode) expr).execute(frame, value) : value;
+        }
         RCaller call = RCaller.unwrapPromiseCaller(currentCaller, unwrapCallerProfile);
         if (alwaysForce) {
             return factory.createEvaluatedPromise(value);
@@ -2,7 +2,7 @@
  * Copyright (c) 1995, 1996, 1997  Robert Gentleman and Ross Ihaka
  * Copyright (c) 1995-2014, The R Core Team
  * Copyright (c) 2002-2008, The R Foundation
- * Copyright (c) 2015, 2019, Oracle and/or its affiliates
+ * Copyright (c) 2015, 2022, Oracle and/or its affiliates
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -21,10 +21,15 @@
 package com.oracle.truffle.r.nodes.objects;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.ValueProfile;
@@ -32,16 +37,20 @@ import com.oracle.truffle.r.nodes.RASTUtils;
 import com.oracle.truffle.r.nodes.access.variables.LocalReadVariableNode;
 import com.oracle.truffle.r.nodes.access.variables.ReadVariableNode;
 import com.oracle.truffle.r.nodes.helpers.InheritsCheckNode;
+import com.oracle.truffle.r.runtime.DSLConfig;
 import com.oracle.truffle.r.runtime.RCaller;
 import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.StableValue;
 import com.oracle.truffle.r.runtime.Utils;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RFunction;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.env.REnvironment;
+import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor;
 import com.oracle.truffle.r.runtime.nodes.RBaseNode;
 
 // transcribed from /src/library/methods/src/methods_list_dispatch.c (R_dispatch_generic function)
+@ImportStatic(DSLConfig.class)
 public abstract class DispatchGeneric extends RBaseNode {
 
     public abstract Object executeObject(VirtualFrame frame, REnvironment mtable, RStringVector classes, RFunction fdef, String fname);
@@ -73,8 +82,69 @@ public abstract class DispatchGeneric extends RBaseNode {
         }
     }
 
-    protected LocalReadVariableNode createTableRead(String dispatchString) {
-        return LocalReadVariableNode.create(dispatchString, true);
+    protected MethodsTableRead createTableRead(String dispatchString) {
+        return new MethodsTableRead(dispatchString);
+    }
+
+    /**
+     * Reads the method for one signature from the methods table of a generic. The table is an
+     * environment whose entries are only changed by the methods package, when a method is defined
+     * or removed, or when the inherited methods are reset, e.g., by {@code setMethod},
+     * {@code removeMethod} or {@code setClass}. As long as the call site sees a single table, the
+     * method is therefore read from the stable value of the table's frame slot and is a compilation
+     * constant, which allows the method call to be inlined. Any assignment or removal of the entry
+     * invalidates the stable value and the method is read again. If the slot is not stable or the
+     * call site sees different tables, the entry is read from the frame on each call.
+     */
+    protected static final class MethodsTableRead extends Node {
+
+        /**
+         * The number of times the stable value is looked up again, e.g., after the entry was
+         * installed by {@code .InheritForDispatch} or was redefined, before giving up.
+         */
+        private static final int MAX_INITIALIZATIONS = 4;
+
+        private final String dispatchString;
+        @Child private LocalReadVariableNode read;
+
+        @CompilationFinal private MaterializedFrame stableTable;
+        @CompilationFinal private StableValue<Object> stableMethod;
+        @CompilationFinal private int initializations;
+
+        MethodsTableRead(String dispatchString) {
+            this.dispatchString = dispatchString;
+            this.read = LocalReadVariableNode.create(dispatchString, true);
+        }
+
+        public Object execute(VirtualFrame frame, MaterializedFrame table) {
+            if (initializations < MAX_INITIALIZATIONS) {
+                StableValue<Object> stable = stableMethod;
+                if (stable != null && table == stableTable && stable.getAssumption().isValid()) {
+                    return stable.getValue();
+                }
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                initialize(table);
+            }
+            return read.execute(frame, table);
+        }
+
+        private void initialize(MaterializedFrame table) {
+            initializations++;
+            stableMethod = null;
+            if (stableTable != null && stableTable != table) {
+                // polymorphic call site, e.g., several generics share the same body
+                initializations = MAX_INITIALIZATIONS;
+                return;
+            }
+            stableTable = table;
+            FrameSlot slot = table.getFrameDescriptor().findFrameSlot(dispatchString);
+            if (slot != null && FrameSlotChangeMonitor.isValidFrameDescriptor(table.getFrameDescriptor())) {
+                StableValue<Object> stable = FrameSlotChangeMonitor.getStableValueAssumption(table.getFrameDescriptor(), slot, FrameSlotChangeMonitor.getValue(slot, table));
+                if (stable != null && stable.getValue() instanceof RFunction) {
+                    stableMethod = stable;
+                }
+            }
+        }
     }
 
     private Object dispatchInternal(VirtualFrame frame, REnvironment mtable, RStringVector classes, RFunction fdef, String fname, RFunction f) {
@@ -96,11 +166,11 @@ public abstract class DispatchGeneric extends RBaseNode {
     }
 
     @SuppressWarnings("unused")
-    @Specialization(guards = "equalClasses(classes, cachedClasses)")
+    @Specialization(limit = "getCacheSize(8)", guards = "equalClasses(classes, cachedClasses)")
     protected Object dispatchCached(VirtualFrame frame, REnvironment mtable, RStringVector classes, RFunction fdef, String fname,
                     @Cached("classes") RStringVector cachedClasses,
                     @Cached("createDispatchString(cachedClasses)") String dispatchString,
-                    @Cached("createTableRead(dispatchString)") LocalReadVariableNode tableRead,
+                    @Cached("createTableRead(dispatchString)") MethodsTableRead tableRead,
                     @Cached("createClassProfile()") ValueProfile frameAccessProfile) {
         RFunction method = (RFunction) tableRead.execute(frame, mtable.getFrame(frameAccessProfile));
         return dispatchInternal(frame, mtable, classes, fdef, fname, method);
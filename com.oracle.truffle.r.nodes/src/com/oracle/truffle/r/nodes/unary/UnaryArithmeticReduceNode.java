@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -45,6 +45,7 @@ import com.oracle.truffle.r.runtime.data.RComplexVector;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RLogicalVector;
 import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
 import com.oracle.truffle.r.runtime.interop.ConvertForeignObjectNode;
@@ -83,12 +84,43 @@ public abstract class UnaryArithmeticReduceNode extends RBaseNodeWithWarnings {
 
     private final BranchProfile intNANoOverflowProfile = BranchProfile.create();
 
+    /**
+     * Only for {@code min} and {@code max}, whose result for complete sorted data is its first or
+     * last element.
+     */
+    @Child private VectorDataLibrary sortedDataLib;
+    private final boolean isMax;
+    private final ConditionProfile sortedProfile = ConditionProfile.createBinaryProfile();
+
     protected UnaryArithmeticReduceNode(ReduceSemantics semantics, BinaryArithmeticFactory factory) {
         this.factory = factory;
         this.semantics = semantics;
         this.arithmetic = factory.createOperation();
         this.supportString = semantics.supportString;
         this.supportComplex = semantics.supportComplex;
+        this.isMax = factory == BinaryArithmetic.MAX;
+        if (isMax || factory == BinaryArithmetic.MIN) {
+            this.sortedDataLib = VectorDataLibrary.getFactory().createDispatched(DSLConfig.getGenericDataLibraryCacheSize());
+        }
+    }
+
+    /**
+     * Returns the index of the result of {@code min} or {@code max} if the data of the vector is
+     * complete and sorted, or {@code -1}.
+     */
+    private int getSortedResultIndex(Object data) {
+        if (sortedDataLib == null) {
+            return -1;
+        }
+        int length = sortedDataLib.getLength(data);
+        if (length == 0) {
+            return -1;
+        } else if (sortedDataLib.isSortedComplete(data, false)) {
+            return isMax ? length - 1 : 0;
+        } else if (sortedDataLib.isSortedComplete(data, true)) {
+            return isMax ? 0 : length - 1;
+        }
+        return -1;
     }
 
     private void emptyWarning() {
@@ -264,11 +296,21 @@ public abstract class UnaryArithmeticReduceNode extends RBaseNodeWithWarnings {
     @Specialization(guards = "access.supports(vector)", limit = "getVectorAccessCacheSize()")
     protected Object doIntCached(RIntVector vector, boolean naRm, @SuppressWarnings("unused") boolean finite,
                     @Cached("vector.access()") VectorAccess access) {
+        Object data = vector.getData();
+        int sortedIndex = getSortedResultIndex(data);
+        if (sortedProfile.profile(sortedIndex >= 0)) {
+            return sortedDataLib.getIntAt(data, sortedIndex);
+        }
         return doInt(vector, naRm, access);
     }
 
     @Specialization(replaces = "doIntCached")
     protected Object doIntGeneric(RIntVector vector, boolean naRm, @SuppressWarnings("unused") boolean finite) {
+        Object data = vector.getData();
+        int sortedIndex = getSortedResultIndex(data);
+        if (sortedProfile.profile(sortedIndex >= 0)) {
+            return sortedDataLib.getIntAt(data, sortedIndex);
+        }
         return doInt(vector, naRm, vector.slowPathAccess());
     }
 
@@ -319,6 +361,12 @@ public abstract class UnaryArithmeticReduceNode extends RBaseNodeWithWarnings {
                     @Cached("createBinaryProfile()") ConditionProfile finiteProfile,
                     @Cached("createBinaryProfile()") ConditionProfile isInfiniteProfile,
                     @Cached("vector.access()") VectorAccess access) {
+        Object data = vector.getData();
+        // with 'finite' the first or last element may be an infinity that has to be skipped
+        int sortedIndex = finite ? -1 : getSortedResultIndex(data);
+        if (sortedProfile.profile(sortedIndex >= 0)) {
+            return sortedDataLib.getDoubleAt(data, sortedIndex);
+        }
         return doDouble(vector, naRm, finite, finiteProfile, isInfiniteProfile, access);
     }
 
@@ -326,6 +374,11 @@ public abstract class UnaryArithmeticReduceNode extends RBaseNodeWithWarnings {
     protected double doDoubleGeneric(RDoubleVector vector, boolean naRm, boolean finite,
                     @Cached("createBinaryProfile()") ConditionProfile finiteProfile,
                     @Cached("createBinaryProfile()") ConditionProfile isInfiniteProfile) {
+        Object data = vector.getData();
+        int sortedIndex = finite ? -1 : getSortedResultIndex(data);
+        if (sortedProfile.profile(sortedIndex >= 0)) {
+            return sortedDataLib.getDoubleAt(data, sortedIndex);
+        }
         return doDouble(vector, naRm, finite, finiteProfile, isInfiniteProfile, vector.slowPathAccess());
     }
 
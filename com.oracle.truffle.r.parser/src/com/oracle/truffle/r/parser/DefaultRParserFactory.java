@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2020, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -46,6 +46,7 @@ import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RParserFactory;
 import com.oracle.truffle.r.runtime.context.Engine.IncompleteSourceException;
 import com.oracle.truffle.r.runtime.context.Engine.ParseException;
+import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.context.TruffleRLanguage;
 import com.oracle.truffle.r.runtime.nodes.RCodeBuilder;
@@ -233,8 +234,53 @@ public class DefaultRParserFactory extends RParserFactory {
         }
     }
 
+    /**
+     * Uses the hand-written {@link RDescentParser}, which produces the same ASTs and parse data as
+     * the ANTLR generated {@link RParser}, but avoids its ATN interpretation and warm-up overhead.
+     */
+    private static final class RecursiveDescentParser implements Parser {
+
+        @Override
+        public List<RSyntaxNode> script(Source source, RCodeBuilder<RSyntaxNode> builder, TruffleRLanguage language) throws ParseException {
+            try {
+                return new RDescentParser(source, builder, language).script();
+            } catch (StackOverflowError e) {
+                DefaultParser.handleStackOverflow(source);
+                throw e;
+            }
+        }
+
+        @Override
+        public List<RSyntaxNode> statements(Source source, Source fullSource, int startLine, RCodeBuilder<RSyntaxNode> builder, TruffleRLanguage language) throws ParseException {
+            try {
+                return new RDescentParser(source, fullSource, startLine, builder, language).script();
+            } catch (StackOverflowError e) {
+                DefaultParser.handleStackOverflow(source);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Creates the ANTLR generated parser regardless of {@link FastROptions#RecursiveDescentParser}.
+     */
+    public static Parser createANTLRParser() {
+        return new DefaultParser();
+    }
+
+    /**
+     * Creates the hand-written recursive-descent parser regardless of
+     * {@link FastROptions#RecursiveDescentParser}.
+     */
+    public static Parser createRecursiveDescentParser() {
+        return new RecursiveDescentParser();
+    }
+
     @Override
     protected Parser createParser() {
+        if (RContext.getInstance().getOption(FastROptions.RecursiveDescentParser)) {
+            return new RecursiveDescentParser();
+        }
         return new DefaultParser();
     }
 }
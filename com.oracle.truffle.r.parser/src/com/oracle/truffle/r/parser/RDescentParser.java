@@ -0,0 +1,1173 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.parser;
+
+import static com.oracle.truffle.r.parser.RTokenizer.EOF;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.r.parser.RTokenizer.LexerException;
+import com.oracle.truffle.r.parser.RTokenizer.Token;
+import com.oracle.truffle.r.runtime.RError;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.RSource;
+import com.oracle.truffle.r.runtime.context.Engine.IncompleteSourceException;
+import com.oracle.truffle.r.runtime.context.Engine.ParseException;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.context.TruffleRLanguage;
+import com.oracle.truffle.r.runtime.data.RComplex;
+import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.nodes.RCodeBuilder;
+import com.oracle.truffle.r.runtime.nodes.RCodeBuilder.Argument;
+import com.oracle.truffle.r.runtime.nodes.RCodeBuilder.RCodeToken;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
+
+/**
+ * Hand-written recursive-descent parser for R that is a drop-in replacement for the ANTLR generated
+ * {@link RParser}: every rule of {@code R.g4} has a corresponding method here, which performs the
+ * same {@link RCodeBuilder} calls (including the {@link RCodeBuilder#token} calls for the parse
+ * data) in the same order and with the same source sections. The decisions that ANTLR makes by
+ * adaptive prediction are made with a fixed lookahead, which is at most one token past a sequence of
+ * line breaks and comments.
+ *
+ * Each instance parses a single source, the token stream is produced lazily by {@link RTokenizer}.
+ */
+final class RDescentParser {
+
+    private Source source;
+    private final Source initialSource;
+    private final RCodeBuilder<RSyntaxNode> builder;
+    private final TruffleRLanguage language;
+    private int fileStartOffset = 0;
+
+    private final RTokenizer tokenizer;
+    private final ArrayList<Token> tokens = new ArrayList<>();
+    /** Index of the next token to be consumed in {@link #tokens}. */
+    private int p;
+
+    RDescentParser(Source source, RCodeBuilder<RSyntaxNode> builder, TruffleRLanguage language) {
+        assert source != null && builder != null;
+        this.initialSource = source;
+        this.builder = builder;
+        this.language = language;
+        this.source = source;
+        this.tokenizer = new RTokenizer(source.getCharacters().toString());
+    }
+
+    RDescentParser(Source source, Source fullSource, int startLine, RCodeBuilder<RSyntaxNode> builder, TruffleRLanguage language) {
+        this(source, builder, language);
+        this.source = fullSource;
+        this.fileStartOffset = -fullSource.getLineStartOffset(startLine);
+    }
+
+    /**
+     * Parses the whole source, which corresponds to the {@code script} rule.
+     */
+    List<RSyntaxNode> script() throws ParseException {
+        try {
+            ArrayList<RSyntaxNode> v = new ArrayList<>();
+            n_();
+            while (startsExpression(la(1))) {
+                v.add(statement());
+            }
+            if (la(1) != EOF) {
+                throw syntaxError();
+            }
+            return v;
+        } catch (SyntaxError e) {
+            if (e.token.type != EOF) {
+                try {
+                    skipToEOF();
+                } catch (LexerException lexerException) {
+                    throw handleLexerException(lexerException);
+                }
+            }
+            throw handleSyntaxError(e.token);
+        } catch (LexerException e) {
+            throw handleLexerException(e);
+        }
+    }
+
+    // token stream
+
+    private Token lt(int k) {
+        int i = p + k - 1;
+        while (tokens.size() <= i) {
+            if (!tokens.isEmpty() && tokens.get(tokens.size() - 1).type == EOF) {
+                return tokens.get(tokens.size() - 1);
+            }
+            tokens.add(tokenizer.next());
+        }
+        return tokens.get(i);
+    }
+
+    private int la(int k) {
+        return lt(k).type;
+    }
+
+    /**
+     * Returns the last consumed token, usually used for building source sections.
+     */
+    private Token last() {
+        return tokens.get(p - 1);
+    }
+
+    private Token consume() {
+        Token t = lt(1);
+        if (t.type != EOF) {
+            p++;
+        }
+        return t;
+    }
+
+    private Token match(int type) {
+        if (la(1) != type) {
+            throw syntaxError();
+        }
+        return consume();
+    }
+
+    /**
+     * Returns the type of the first token after the {@code k}-th token that is not a line break or
+     * comment, i.e., the token that will be current after an {@link #n_()} at that position.
+     */
+    private int laSkipNewlines(int k) {
+        int i = k;
+        while (la(i) == RParser.NEWLINE || la(i) == RParser.COMMENT) {
+            i++;
+        }
+        return la(i);
+    }
+
+    private static boolean startsExpression(int type) {
+        switch (type) {
+            case RParser.TILDE:
+            case RParser.NOT:
+            case RParser.PLUS:
+            case RParser.MINUS:
+            case RParser.QM:
+            case RParser.ID:
+            case RParser.DD:
+            case RParser.VARIADIC:
+            case RParser.STRING:
+            case RParser.TRUE:
+            case RParser.FALSE:
+            case RParser.NA:
+            case RParser.NULL:
+            case RParser.INF:
+            case RParser.NAN:
+            case RParser.NAINT:
+            case RParser.NAREAL:
+            case RParser.NACHAR:
+            case RParser.NACOMPL:
+            case RParser.INTEGER:
+            case RParser.DOUBLE:
+            case RParser.COMPLEX:
+            case RParser.LPAR:
+            case RParser.LBRACE:
+            case RParser.WHILE:
+            case RParser.IF:
+            case RParser.FOR:
+            case RParser.REPEAT:
+            case RParser.FUNCTION:
+            case RParser.NEXT:
+            case RParser.BREAK:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // helpers shared with the semantic actions of R.g4
+
+    /**
+     * Reports the last token to the AST builder, see the comment in {@code R.g4}.
+     */
+    private void tok() {
+        Token t = last();
+        builder.token(src(t), TokensMap.MAP[t.type], t.text);
+    }
+
+    private void tok(RCodeToken tok) {
+        Token t = last();
+        builder.token(src(t), tok, t.text);
+    }
+
+    private void modifyTok(RCodeToken tok) {
+        builder.modifyLastToken(tok);
+    }
+
+    private static Argument<RSyntaxNode> argument(SourceSection source, String name, RSyntaxNode expression) {
+        return RCodeBuilder.argument(source, name, expression);
+    }
+
+    /**
+     * Creates a special function lookup for the symbol in a given token, used for functions like
+     * infix '+'.
+     */
+    private RSyntaxNode operator(Token op) {
+        return builder.specialLookup(src(op), argName(op.text), true);
+    }
+
+    private RSyntaxNode functionLookup(Token op) {
+        return builder.lookup(src(op), argName(op.text), true);
+    }
+
+    private static String argName(String name) {
+        if (name.length() == 0) {
+            throw RError.error(RError.NO_CALLER, RError.Message.ZERO_LENGTH_VARIABLE);
+        }
+        return name;
+    }
+
+    private SourceSection src(Token t) {
+        try {
+            return source.createSection(t.start - fileStartOffset, t.stop - t.start + 1);
+        } catch (IllegalArgumentException e) {
+            // fall back and use the initial source (the file being parsed)
+            resetSource();
+            return source.createSection(t.start, t.stop - t.start + 1);
+        }
+    }
+
+    private SourceSection src(Token start, Token stop) {
+        Token cstop = stop == null ? start : stop;
+        int startIndex = start.start;
+        int length = cstop.stop - startIndex + (cstop.type == EOF ? 0 : 1);
+        try {
+            return source.createSection(startIndex - fileStartOffset, length);
+        } catch (IllegalArgumentException e) {
+            // fall back and use the initial source (the file being parsed)
+            resetSource();
+            return source.createSection(startIndex, length);
+        }
+    }
+
+    /**
+     * Checks if the token is a comment token indicating that the following part of the source file
+     * was pasted from another file. The format of this file delimiter is '#line 1 "filename"'.
+     */
+    private void checkFileDelim(Token commentToken) {
+        String commentLine = commentToken.text;
+        if (commentLine.startsWith("#line 1")) {
+            int q0 = commentLine.indexOf('"');
+            int q1 = commentLine.indexOf('"', q0 + 1);
+            if (q0 != -1 && q1 != -1) {
+                String path = commentLine.substring(q0 + 1, q1);
+                try {
+                    RContext context = RContext.getInstance();
+                    String content = new String(context.getSafeTruffleFile(path).readAllBytes(), StandardCharsets.UTF_8);
+                    String lineEnding = detectLineEnding(initialSource.getCharacters());
+                    content = convertToLineEnding(content, lineEnding);
+                    source = RSource.fromFileName(context, content, path, false);
+                    fileStartOffset = commentToken.stop + 1;
+                } catch (IOException | URISyntaxException e) {
+                    resetSource();
+                }
+            } else {
+                // fall back and use the initial source (the file being parsed)
+                resetSource();
+            }
+        }
+    }
+
+    private void resetSource() {
+        source = initialSource;
+        fileStartOffset = 0;
+    }
+
+    private static String detectLineEnding(CharSequence code) {
+        int codeLen = code.length();
+        for (int i = 0; i < codeLen; i++) {
+            switch (code.charAt(i)) {
+                case '\r':
+                    if (i + 1 < codeLen && code.charAt(i + 1) == '\n') {
+                        return "\r\n";
+                    }
+                    break;
+                case '\n':
+                    return "\n";
+            }
+        }
+        return "\n";
+    }
+
+    private static String convertToLineEnding(String content, String lineEnding) {
+        if ("\n".equals(lineEnding)) {
+            return content.replaceAll("\\r\\n", "\n");
+        } else if ("\r\n".equals(lineEnding)) {
+            return content.replaceAll("\\n", "\r\n");
+        }
+        return content;
+    }
+
+    // error handling
+
+    @SuppressWarnings("serial")
+    private static final class SyntaxError extends RuntimeException {
+        private final Token token;
+
+        SyntaxError(Token token) {
+            super(null, null, false, false);
+            this.token = token;
+        }
+    }
+
+    /**
+     * The ANTLR parser looks ahead far beyond the offending token during prediction, so an
+     * unterminated string or backtick later in the input takes precedence and makes the source
+     * incomplete. This consumes the remaining input so that the same lexer error is reported.
+     */
+    private void skipToEOF() {
+        Token t = lt(1);
+        while (t.type != EOF) {
+            t = tokenizer.next();
+        }
+    }
+
+    private SyntaxError syntaxError() {
+        return new SyntaxError(lt(1));
+    }
+
+    /**
+     * Creates the same exception as {@code DefaultRParserFactory} does for a parser error reported
+     * by ANTLR on the given token; the line is computed from '\n' characters only, as in ANTLR.
+     */
+    private ParseException handleSyntaxError(Token token) {
+        CharSequence text = initialSource.getCharacters();
+        int lineNumber = 1;
+        int lineStart = 0;
+        for (int i = 0; i < token.start && i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lineNumber++;
+                lineStart = i + 1;
+            }
+        }
+        CharSequence line = lineNumber <= initialSource.getLineCount() ? initialSource.getCharacters(lineNumber) : "";
+        String substring = line.subSequence(0, Math.min(line.length(), token.start - lineStart + 1)).toString();
+        int lineNr = lineNumber > initialSource.getLineCount() ? initialSource.getLineCount() : lineNumber;
+        if (token.type == EOF) {
+            // the parser got stuck at the eof, request another line
+            return new IncompleteSourceException(null, initialSource, token.text, substring, lineNr);
+        } else {
+            return new ParseException(null, initialSource, token.text, substring, lineNr);
+        }
+    }
+
+    private ParseException handleLexerException(LexerException e) {
+        int start = e.startIndex;
+        int lineNumber = initialSource.getLineNumber(start);
+        CharSequence line = lineNumber <= initialSource.getLineCount() ? initialSource.getCharacters(lineNumber) : "";
+        String substring = line.subSequence(0, Math.min(line.length(), start - initialSource.getLineStartOffset(lineNumber) + 1)).toString();
+        String contents = substring.length() == 0 ? "" : substring.substring(substring.length() - 1);
+        int lineNr = lineNumber > initialSource.getLineCount() ? initialSource.getLineCount() : lineNumber;
+        if (e.atEOF) {
+            // the lexer got stuck at the eof, request another line
+            return new IncompleteSourceException(null, initialSource, contents, substring, lineNr);
+        } else {
+            return new ParseException(null, initialSource, contents, substring, lineNr);
+        }
+    }
+
+    // rules
+
+    private RSyntaxNode statement() {
+        RSyntaxNode e = exprOrAssign();
+        nOne();
+        return e;
+    }
+
+    private void n_() {
+        while (true) {
+            int type = la(1);
+            if (type == RParser.NEWLINE) {
+                consume();
+            } else if (type == RParser.COMMENT) {
+                checkFileDelim(consume());
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void nOne() {
+        switch (la(1)) {
+            case RParser.NEWLINE:
+            case RParser.COMMENT:
+                n_();
+                break;
+            case EOF:
+                break;
+            case RParser.SEMICOLON:
+                consume();
+                n_();
+                break;
+            default:
+                throw syntaxError();
+        }
+    }
+
+    /**
+     * Consumes a (possibly empty) sequence of line breaks, comments and semicolons, which is how
+     * {@code n_multi?} behaves.
+     */
+    private void nMultiOpt() {
+        while (true) {
+            int type = la(1);
+            if (type == RParser.NEWLINE || type == RParser.SEMICOLON) {
+                consume();
+            } else if (type == RParser.COMMENT) {
+                checkFileDelim(consume());
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static boolean isSeparator(int type) {
+        return type == RParser.NEWLINE || type == RParser.COMMENT || type == RParser.SEMICOLON;
+    }
+
+    private RSyntaxNode exprWoAssign() {
+        switch (la(1)) {
+            case RParser.WHILE:
+                return whileExpr();
+            case RParser.IF:
+                return ifExpr();
+            case RParser.FOR:
+                return forExpr();
+            case RParser.REPEAT:
+                return repeatExpr();
+            case RParser.FUNCTION:
+                return function(null);
+            case RParser.NEXT:
+            case RParser.BREAK: {
+                // break/next can be accompanied by arguments, but those are simply ignored
+                Token op = consume();
+                tok();
+                if (la(1) == RParser.LPAR) {
+                    consume();
+                    tok();
+                    args(null);
+                    match(RParser.RPAR);
+                    tok();
+                }
+                return builder.call(src(op), operator(op));
+            }
+            default:
+                throw syntaxError();
+        }
+    }
+
+    private RSyntaxNode sequence() {
+        ArrayList<Argument<RSyntaxNode>> stmts = new ArrayList<>();
+        Token op = match(RParser.LBRACE);
+        tok();
+        nMultiOpt();
+        if (startsExpression(la(1))) {
+            stmts.add(RCodeBuilder.argument(exprOrAssign()));
+            while (isSeparator(la(1)) && startsExpression(laSkipSeparators())) {
+                nMultiOpt();
+                stmts.add(RCodeBuilder.argument(exprOrAssign()));
+            }
+            nMultiOpt();
+        }
+        match(RParser.RBRACE);
+        tok();
+        return builder.call(src(op, last()), operator(op), stmts);
+    }
+
+    private int laSkipSeparators() {
+        int i = 1;
+        while (isSeparator(la(i))) {
+            i++;
+        }
+        return la(i);
+    }
+
+    private RSyntaxNode expr() {
+        Token start = lt(1);
+        RSyntaxNode l = tildeExpr();
+        switch (la(1)) {
+            case RParser.ARROW:
+            case RParser.SUPER_ARROW: {
+                Token op = consume();
+                tok();
+                n_();
+                RSyntaxNode rhs = la(1) == RParser.FUNCTION ? function(l) : expr();
+                return builder.call(src(start, last()), operator(op), l, rhs);
+            }
+            case RParser.RIGHT_ARROW: {
+                Token op = consume();
+                tok();
+                n_();
+                RSyntaxNode r = expr();
+                return builder.call(src(start, last()), builder.lookup(src(op), "<-", true), r, l);
+            }
+            case RParser.SUPER_RIGHT_ARROW: {
+                Token op = consume();
+                tok();
+                n_();
+                RSyntaxNode r = expr();
+                return builder.call(src(start, last()), builder.lookup(src(op), "<<-", true), r, l);
+            }
+            default:
+                return l;
+        }
+    }
+
+    private RSyntaxNode exprOrAssign() {
+        Token start = lt(1);
+        RSyntaxNode l = tildeExpr();
+        switch (la(1)) {
+            case RParser.ARROW:
+            case RParser.SUPER_ARROW:
+            case RParser.ASSIGN: {
+                Token op = consume();
+                tok();
+                n_();
+                RSyntaxNode rhs = la(1) == RParser.FUNCTION ? function(l) : exprOrAssign();
+                return builder.call(src(start, last()), operator(op), l, rhs);
+            }
+            case RParser.RIGHT_ARROW: {
+                Token op = consume();
+                tok();
+                n_();
+                RSyntaxNode r = exprOrAssign();
+                return builder.call(src(start, last()), builder.lookup(src(op), "<-", true), r, l);
+            }
+            case RParser.SUPER_RIGHT_ARROW: {
+                Token op = consume();
+                tok();
+                n_();
+                RSyntaxNode r = exprOrAssign();
+                return builder.call(src(start, last()), builder.lookup(src(op), "<<-", true), r, l);
+            }
+            default:
+                return l;
+        }
+    }
+
+    private RSyntaxNode ifExpr() {
+        Token op = match(RParser.IF);
+        tok();
+        n_();
+        match(RParser.LPAR);
+        tok();
+        n_();
+        RSyntaxNode cond = exprOrAssign();
+        n_();
+        match(RParser.RPAR);
+        tok();
+        n_();
+        RSyntaxNode t = exprOrAssign();
+        if (laSkipNewlines(1) == RParser.ELSE) {
+            n_();
+            consume();
+            tok();
+            n_();
+            RSyntaxNode f = exprOrAssign();
+            return builder.call(src(op, last()), operator(op), cond, t, f);
+        }
+        return builder.call(src(op, last()), operator(op), cond, t);
+    }
+
+    private RSyntaxNode whileExpr() {
+        Token op = match(RParser.WHILE);
+        tok();
+        n_();
+        match(RParser.LPAR);
+        tok();
+        n_();
+        RSyntaxNode c = exprOrAssign();
+        n_();
+        match(RParser.RPAR);
+        tok();
+        n_();
+        RSyntaxNode body = exprOrAssign();
+        return builder.call(src(op, last()), operator(op), c, body);
+    }
+
+    private RSyntaxNode forExpr() {
+        Token op = match(RParser.FOR);
+        tok();
+        n_();
+        match(RParser.LPAR);
+        tok();
+        n_();
+        Token i = match(RParser.ID);
+        n_();
+        match(RParser.IN);
+        tok();
+        n_();
+        RSyntaxNode in = exprOrAssign();
+        n_();
+        match(RParser.RPAR);
+        tok();
+        n_();
+        RSyntaxNode body = exprOrAssign();
+        return builder.call(src(op, last()), operator(op), builder.lookup(src(i), i.text, false), in, body);
+    }
+
+    private RSyntaxNode repeatExpr() {
+        Token op = match(RParser.REPEAT);
+        tok();
+        n_();
+        RSyntaxNode body = exprOrAssign();
+        return builder.call(src(op, last()), operator(op), body);
+    }
+
+    private RSyntaxNode function(RSyntaxNode assignedTo) {
+        List<Argument<RSyntaxNode>> params = new ArrayList<>();
+        Token op = match(RParser.FUNCTION);
+        tok();
+        n_();
+        match(RParser.LPAR);
+        tok();
+        n_();
+        int type = la(1);
+        if (type == RParser.ID || type == RParser.VARIADIC || type == RParser.DD) {
+            parDecl(params);
+            while (laSkipNewlines(1) == RParser.COMMA) {
+                n_();
+                consume();
+                tok();
+                n_();
+                parDecl(params);
+            }
+            n_();
+        }
+        match(RParser.RPAR);
+        tok();
+        n_();
+        RSyntaxNode body = exprOrAssign();
+        return builder.function(language, src(op, last()), params, body, assignedTo);
+    }
+
+    private void parDecl(List<Argument<RSyntaxNode>> l) {
+        switch (la(1)) {
+            case RParser.ID: {
+                Token i = consume();
+                tok();
+                if (laSkipNewlines(1) == RParser.ASSIGN) {
+                    n_();
+                    consume();
+                    tok(RCodeToken.EQ_FORMALS);
+                    n_();
+                    RSyntaxNode e = expr();
+                    l.add(argument(src(i, last()), i.text, e));
+                } else {
+                    l.add(argument(src(i), i.text, null));
+                }
+                break;
+            }
+            case RParser.VARIADIC:
+            case RParser.DD: {
+                /*
+                 * The default values of "..." and "..1" (e.g. "...=42") are weirdness of the
+                 * reference implementation, the formal argument must be actually created, because
+                 * it plays its role in positional argument matching, but the expression for the
+                 * default value (if any) is never executed.
+                 */
+                Token v = consume();
+                tok();
+                if (laSkipNewlines(1) == RParser.ASSIGN) {
+                    n_();
+                    consume();
+                    tok(RCodeToken.EQ_FORMALS);
+                    n_();
+                    expr();
+                }
+                l.add(argument(src(v), v.text, null));
+                break;
+            }
+            default:
+                throw syntaxError();
+        }
+    }
+
+    private RSyntaxNode tildeExpr() {
+        RSyntaxNode v = utildeExpr();
+        while (la(1) == RParser.TILDE) {
+            Token op = consume();
+            tok();
+            n_();
+            RSyntaxNode r = utildeExpr();
+            v = builder.call(src(op, last()), operator(op), v, r);
+        }
+        return v;
+    }
+
+    private RSyntaxNode utildeExpr() {
+        if (la(1) == RParser.TILDE) {
+            Token op = consume();
+            tok();
+            n_();
+            RSyntaxNode l1 = utildeExpr();
+            return builder.call(src(op, last()), operator(op), l1);
+        }
+        return orExpr();
+    }
+
+    private RSyntaxNode orExpr() {
+        Token start = lt(1);
+        RSyntaxNode v = andExpr();
+        while (la(1) == RParser.OR || la(1) == RParser.ELEMENTWISEOR) {
+            Token op = consume();
+            tok();
+            n_();
+            RSyntaxNode r = andExpr();
+            v = builder.call(src(start, last()), operator(op), v, r);
+        }
+        return v;
+    }
+
+    private RSyntaxNode andExpr() {
+        Token start = lt(1);
+        RSyntaxNode v = notExpr();
+        while (la(1) == RParser.AND || la(1) == RParser.ELEMENTWISEAND) {
+            Token op = consume();
+            tok();
+            n_();
+            RSyntaxNode r = notExpr();
+            v = builder.call(src(start, last()), operator(op), v, r);
+        }
+        return v;
+    }
+
+    private RSyntaxNode notExpr() {
+        if (la(1) == RParser.NOT) {
+            Token op = consume();
+            tok();
+            n_();
+            RSyntaxNode l = notExpr();
+            return builder.call(src(op, last()), operator(op), l);
+        }
+        return compExpr();
+    }
+
+    private static boolean isCompOperator(int type) {
+        switch (type) {
+            case RParser.GT:
+            case RParser.GE:
+            case RParser.LT:
+            case RParser.LE:
+            case RParser.EQ:
+            case RParser.NE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private RSyntaxNode compExpr() {
+        Token start = lt(1);
+        RSyntaxNode v = addExpr();
+        while (isCompOperator(la(1))) {
+            Token op = consume();
+            tok();
+            n_();
+            RSyntaxNode r = addExpr();
+            v = builder.call(src(start, last()), operator(op), v, r);
+        }
+        return v;
+    }
+
+    private RSyntaxNode addExpr() {
+        Token start = lt(1);
+        RSyntaxNode v = multExpr();
+        while (la(1) == RParser.PLUS || la(1) == RParser.MINUS) {
+            Token op = consume();
+            tok();
+            n_();
+            RSyntaxNode r = multExpr();
+            v = builder.call(src(start, last()), operator(op), v, r);
+        }
+        return v;
+    }
+
+    private RSyntaxNode multExpr() {
+        Token start = lt(1);
+        RSyntaxNode v = operatorExpr();
+        while (la(1) == RParser.MULT || la(1) == RParser.DIV) {
+            Token op = consume();
+            tok();
+            n_();
+            RSyntaxNode r = operatorExpr();
+            v = builder.call(src(start, last()), operator(op), v, r);
+        }
+        return v;
+    }
+
+    private RSyntaxNode operatorExpr() {
+        Token start = lt(1);
+        RSyntaxNode v = colonExpr();
+        while (la(1) == RParser.OP) {
+            Token op = consume();
+            tok();
+            n_();
+            RSyntaxNode r = colonExpr();
+            v = builder.call(src(start, last()), operator(op), v, r);
+        }
+        return v;
+    }
+
+    private RSyntaxNode colonExpr() {
+        Token start = lt(1);
+        RSyntaxNode v = unaryExpression();
+        while (la(1) == RParser.COLON) {
+            Token op = consume();
+            tok();
+            n_();
+            RSyntaxNode r = unaryExpression();
+            v = builder.call(src(start, last()), operator(op), v, r);
+        }
+        return v;
+    }
+
+    private RSyntaxNode unaryExpression() {
+        switch (la(1)) {
+            case RParser.PLUS:
+            case RParser.MINUS:
+            case RParser.NOT:
+            case RParser.QM: {
+                Token op = consume();
+                tok();
+                n_();
+                RSyntaxNode l1 = unaryExpression();
+                return builder.call(src(op, last()), operator(op), l1);
+            }
+            case RParser.TILDE: {
+                Token op = consume();
+                tok();
+                n_();
+                RSyntaxNode l2 = utildeExpr();
+                return builder.call(src(op, last()), operator(op), l2);
+            }
+            default:
+                return powerExpr();
+        }
+    }
+
+    private RSyntaxNode powerExpr() {
+        Token start = lt(1);
+        RSyntaxNode v = basicExpr();
+        if (la(1) == RParser.CARET) {
+            Token op = consume();
+            tok();
+            n_();
+            RSyntaxNode r = unaryExpression();
+            v = builder.call(src(start, last()), operator(op), v, r);
+        }
+        return v;
+    }
+
+    private RSyntaxNode basicExpr() {
+        Token start = lt(1);
+        RSyntaxNode v;
+        int type = la(1);
+        if ((type == RParser.ID || type == RParser.DD || type == RParser.VARIADIC || type == RParser.STRING) && la(2) == RParser.LPAR) {
+            // special case for simple function call to generate "function" mode lookups
+            Token lhsToken = consume();
+            tok(RCodeToken.SYMBOL_FUNCTION_CALL);
+            consume();
+            tok();
+            List<Argument<RSyntaxNode>> a = args(null);
+            Token y = match(RParser.RPAR);
+            tok();
+            v = builder.call(src(start, y), functionLookup(lhsToken), a);
+        } else {
+            v = simpleExpr();
+        }
+        while (true) {
+            switch (la(1)) {
+                case RParser.FIELD:
+                case RParser.AT: {
+                    Token op = consume();
+                    tok();
+                    n_();
+                    int nameType = la(1);
+                    if (nameType == RParser.ID || nameType == RParser.VARIADIC) {
+                        Token name = id();
+                        modifyTok(RCodeToken.SLOT);
+                        v = builder.call(src(start, last()), operator(op), v, builder.lookup(src(name), name.text, false));
+                    } else if (nameType == RParser.STRING) {
+                        RSyntaxNode sname = conststring();
+                        v = builder.call(src(start, last()), operator(op), v, sname);
+                    } else {
+                        throw syntaxError();
+                    }
+                    break;
+                }
+                case RParser.LBRAKET: {
+                    Token op = consume();
+                    tok();
+                    List<Argument<RSyntaxNode>> subset = args(v);
+                    Token y = match(RParser.RBRAKET);
+                    tok();
+                    if (subset.size() == 1) {
+                        subset.add(RCodeBuilder.argumentEmpty());
+                    }
+                    v = builder.call(src(start, y), operator(op), subset);
+                    break;
+                }
+                case RParser.LBB: {
+                    // must use RBRAKET twice instead of RBB because this is possible: a[b[1]]
+                    Token op = consume();
+                    tok();
+                    List<Argument<RSyntaxNode>> subscript = args(v);
+                    match(RParser.RBRAKET);
+                    tok();
+                    Token y = match(RParser.RBRAKET);
+                    tok();
+                    if (subscript.size() == 1) {
+                        subscript.add(RCodeBuilder.argumentEmpty());
+                    }
+                    v = builder.call(src(start, y), operator(op), subscript);
+                    break;
+                }
+                case RParser.LPAR: {
+                    consume();
+                    tok();
+                    List<Argument<RSyntaxNode>> a = args(null);
+                    Token y = match(RParser.RPAR);
+                    tok();
+                    v = builder.call(src(start, y), v, a);
+                    break;
+                }
+                default:
+                    return v;
+            }
+        }
+    }
+
+    private RSyntaxNode simpleExpr() {
+        Token start = lt(1);
+        switch (la(1)) {
+            case RParser.ID:
+            case RParser.VARIADIC: {
+                if (la(2) == RParser.NS_GET || la(2) == RParser.NS_GET_INT) {
+                    return namespaceAccess();
+                }
+                Token i = id();
+                return builder.lookup(src(i), i.text, false);
+            }
+            case RParser.TRUE:
+                consume();
+                tok();
+                return builder.constant(src(start, last()), RRuntime.LOGICAL_TRUE);
+            case RParser.FALSE:
+                consume();
+                tok();
+                return builder.constant(src(start, last()), RRuntime.LOGICAL_FALSE);
+            case RParser.NA:
+                consume();
+                tok();
+                return builder.constant(src(start, last()), RRuntime.LOGICAL_NA);
+            case RParser.DD: {
+                Token d = consume();
+                tok();
+                return builder.lookup(src(d), d.text, false);
+            }
+            case RParser.NULL:
+                return constant(RNull.instance);
+            case RParser.INF:
+                return constant(Double.POSITIVE_INFINITY);
+            case RParser.NAN:
+                return constant(Double.NaN);
+            case RParser.NAINT:
+                return constant(RRuntime.INT_NA);
+            case RParser.NAREAL:
+                return constant(RRuntime.DOUBLE_NA);
+            case RParser.NACHAR:
+                return constant(RRuntime.STRING_NA);
+            case RParser.NACOMPL:
+                return constant(RComplex.createNA());
+            case RParser.INTEGER:
+            case RParser.DOUBLE:
+            case RParser.COMPLEX:
+                return number();
+            case RParser.STRING:
+                return conststring();
+            case RParser.LPAR: {
+                Token op = consume();
+                tok();
+                n_();
+                RSyntaxNode ea = exprOrAssign();
+                n_();
+                Token y = match(RParser.RPAR);
+                tok();
+                return builder.call(src(op, y), operator(op), ea);
+            }
+            case RParser.LBRACE:
+                return sequence();
+            default:
+                return exprWoAssign();
+        }
+    }
+
+    private RSyntaxNode constant(Object value) {
+        Token t = consume();
+        tok();
+        return builder.constant(src(t), value);
+    }
+
+    private RSyntaxNode namespaceAccess() {
+        List<Argument<RSyntaxNode>> args = new ArrayList<>();
+        Token pkg = id();
+        modifyTok(RCodeToken.SYMBOL_PACKAGE);
+        Token op = consume();
+        tok();
+        n_();
+        SourceSection pkgSource = src(pkg);
+        args.add(argument(pkgSource, null, builder.lookup(pkgSource, pkg.text, false)));
+        Token compToken;
+        int type = la(1);
+        if (type == RParser.ID || type == RParser.VARIADIC) {
+            Token compId = id();
+            SourceSection compSource = src(compId);
+            compToken = compId;
+            args.add(argument(compSource, null, builder.lookup(compSource, compId.text, false)));
+        } else if (type == RParser.STRING) {
+            Token compString = consume();
+            tok();
+            SourceSection compSource = src(compString);
+            compToken = compString;
+            args.add(argument(compSource, null, builder.constant(compSource, compString.text)));
+        } else {
+            throw syntaxError();
+        }
+        return builder.call(src(pkg, compToken), operator(op), args);
+    }
+
+    private RSyntaxNode number() {
+        Token t = consume();
+        tok();
+        String text = t.text;
+        switch (t.type) {
+            case RParser.INTEGER: {
+                double value = RRuntime.string2doubleNoCheck(text);
+                if (value == (int) value) {
+                    if (text.indexOf('.') != -1) {
+                        RError.warning(RError.NO_CALLER, RError.Message.INTEGER_VALUE_UNNECESARY_DECIMAL, text + "L");
+                    }
+                    return builder.constant(src(t), (int) value);
+                } else {
+                    if (text.indexOf('.') != -1) {
+                        RError.warning(RError.NO_CALLER, RError.Message.INTEGER_VALUE_DECIMAL, text + "L");
+                    } else if (text.startsWith("0x")) {
+                        RError.warning(RError.NO_CALLER, RError.Message.NON_INTEGER_VALUE, text);
+                    } else {
+                        RError.warning(RError.NO_CALLER, RError.Message.NON_INTEGER_VALUE, text + "L");
+                    }
+                    return builder.constant(src(t), value);
+                }
+            }
+            case RParser.DOUBLE:
+                return builder.constant(src(t), RRuntime.string2doubleNoCheck(text));
+            default:
+                assert t.type == RParser.COMPLEX;
+                return builder.constant(src(t), RComplex.valueOf(0, RRuntime.string2doubleNoCheck(text)));
+        }
+    }
+
+    private RSyntaxNode conststring() {
+        Token s = match(RParser.STRING);
+        tok();
+        return builder.constant(src(s), s.text);
+    }
+
+    private Token id() {
+        int type = la(1);
+        if (type != RParser.ID && type != RParser.VARIADIC) {
+            throw syntaxError();
+        }
+        Token t = consume();
+        tok();
+        return t;
+    }
+
+    private List<Argument<RSyntaxNode>> args(RSyntaxNode firstArg) {
+        List<Argument<RSyntaxNode>> v = new ArrayList<>();
+        if (firstArg != null) {
+            v.add(RCodeBuilder.argument(firstArg));
+        }
+        n_();
+        if (la(1) == RParser.COMMA) {
+            v.add(RCodeBuilder.argumentEmpty());
+            while (la(1) == RParser.COMMA) {
+                argsTail(v);
+            }
+        } else if (startsExpression(la(1))) {
+            argExpr(v);
+            n_();
+            while (la(1) == RParser.COMMA) {
+                argsTail(v);
+            }
+        }
+        return v;
+    }
+
+    private void argsTail(List<Argument<RSyntaxNode>> v) {
+        consume();
+        tok();
+        if (startsExpression(laSkipNewlines(1))) {
+            n_();
+            argExpr(v);
+        } else {
+            v.add(RCodeBuilder.argumentEmpty());
+        }
+        n_();
+    }
+
+    private void argExpr(List<Argument<RSyntaxNode>> l) {
+        Token start = lt(1);
+        int type = la(1);
+        if ((type == RParser.ID || type == RParser.VARIADIC || type == RParser.NULL || type == RParser.STRING) && laSkipNewlines(2) == RParser.ASSIGN) {
+            Token name = consume();
+            if (type == RParser.ID) {
+                tok(RCodeToken.SYMBOL_SUB);
+            } else {
+                tok();
+            }
+            n_();
+            consume();
+            tok(RCodeToken.EQ_SUB);
+            RSyntaxNode value = null;
+            if (startsExpression(laSkipNewlines(1))) {
+                n_();
+                value = expr();
+            }
+            l.add(argument(src(name, last()), argName(name.text), value));
+        } else {
+            RSyntaxNode e = expr();
+            l.add(argument(src(start, last()), null, e));
+        }
+    }
+}
@@ -0,0 +1,571 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.parser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import com.oracle.truffle.r.runtime.RError;
+
+/**
+ * Hand-written lexer for R source code that produces the same token stream as the ANTLR generated
+ * {@link RLexer}: the token types are the constants generated into {@link RParser} (so that
+ * {@link TokensMap} can be used for both), the token text is post-processed in the same way (string
+ * literals and backtick names are unescaped, the {@code L} and {@code i} suffixes are removed) and
+ * line breaks and comments are skipped while inside of "(", "[" and "[[".
+ *
+ * The rules follow the lexer part of {@code R.g4}, including the longest-match disambiguation done
+ * by ANTLR, e.g. {@code 1.5e3L} is lexed as a {@link RParser#DOUBLE} followed by an {@link RParser#ID}.
+ * Escape sequences are validated and decoded in a single pass over the input.
+ */
+final class RTokenizer {
+
+    static final int EOF = -1;
+
+    static final class Token {
+        final int type;
+        /** Index of the first character of the token. */
+        final int start;
+        /** Index of the last character of the token. */
+        final int stop;
+        final String text;
+
+        Token(int type, int start, int stop, String text) {
+            this.type = type;
+            this.start = start;
+            this.stop = stop;
+            this.text = text;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + type + ":" + text + "@" + start + "]";
+        }
+    }
+
+    /**
+     * Thrown if no token can be recognized at the given position.
+     */
+    @SuppressWarnings("serial")
+    static final class LexerException extends RuntimeException {
+
+        /** Index of the first character of the token that could not be recognized. */
+        final int startIndex;
+        /** Whether the lexer failed because it reached the end of the input. */
+        final boolean atEOF;
+
+        LexerException(int startIndex, boolean atEOF) {
+            super(null, null, false, false);
+            this.startIndex = startIndex;
+            this.atEOF = atEOF;
+        }
+    }
+
+    private static final HashMap<String, Integer> KEYWORDS = new HashMap<>();
+
+    static {
+        KEYWORDS.put("function", RParser.FUNCTION);
+        KEYWORDS.put("NULL", RParser.NULL);
+        KEYWORDS.put("NA", RParser.NA);
+        KEYWORDS.put("NA_integer_", RParser.NAINT);
+        KEYWORDS.put("NA_real_", RParser.NAREAL);
+        KEYWORDS.put("NA_character_", RParser.NACHAR);
+        KEYWORDS.put("NA_complex_", RParser.NACOMPL);
+        KEYWORDS.put("TRUE", RParser.TRUE);
+        KEYWORDS.put("FALSE", RParser.FALSE);
+        KEYWORDS.put("Inf", RParser.INF);
+        KEYWORDS.put("NaN", RParser.NAN);
+        KEYWORDS.put("while", RParser.WHILE);
+        KEYWORDS.put("for", RParser.FOR);
+        KEYWORDS.put("repeat", RParser.REPEAT);
+        KEYWORDS.put("in", RParser.IN);
+        KEYWORDS.put("if", RParser.IF);
+        KEYWORDS.put("else", RParser.ELSE);
+        KEYWORDS.put("next", RParser.NEXT);
+        KEYWORDS.put("break", RParser.BREAK);
+    }
+
+    private final String input;
+    private final int length;
+    private int index;
+
+    /*
+     * The nesting level is maintained for "{", "(", "[" and "[[", so that line breaks can be
+     * ignored while the nesting is larger than zero.
+     */
+    private int incompleteNesting;
+    private final ArrayList<Integer> nestingStack = new ArrayList<>();
+
+    /**
+     * The decoded contents of the last string literal or backtick name.
+     */
+    private String decoded;
+
+    RTokenizer(String input) {
+        this.input = input;
+        this.length = input.length();
+    }
+
+    /**
+     * Returns the next token that is not skipped, or a token of type {@link #EOF}.
+     */
+    Token next() {
+        while (true) {
+            if (index >= length) {
+                return new Token(EOF, length, length - 1, "<EOF>");
+            }
+            int start = index;
+            char c = input.charAt(index);
+            switch (c) {
+                case '\t':
+                case ' ':
+                case '\u00A0':
+                    index++;
+                    continue;
+                case '\n':
+                case '\r':
+                case '\f':
+                    index = skipLineBreak(index);
+                    if (incompleteNesting > 0) {
+                        continue;
+                    }
+                    return token(RParser.NEWLINE, start);
+                case '#':
+                    while (index < length && !isLineBreak(input.charAt(index))) {
+                        index++;
+                    }
+                    if (index < length) {
+                        index = skipLineBreak(index);
+                    }
+                    if (incompleteNesting > 0) {
+                        continue;
+                    }
+                    return token(RParser.COMMENT, start);
+                case '"':
+                case '\'':
+                    index = scanString(start, c);
+                    return new Token(RParser.STRING, start, index - 1, decoded);
+                case '`':
+                    index = scanString(start, '`');
+                    if (index - start == 2) {
+                        throw RError.error(RError.NO_CALLER, RError.Message.ZERO_LENGTH_VARIABLE);
+                    }
+                    return new Token(RParser.ID, start, index - 1, decoded);
+                case '%':
+                    index++;
+                    while (true) {
+                        if (index >= length) {
+                            throw new LexerException(start, true);
+                        }
+                        char ch = input.charAt(index);
+                        if (ch == '%') {
+                            index++;
+                            return token(RParser.OP, start);
+                        } else if (isLineBreak(ch)) {
+                            throw new LexerException(start, false);
+                        }
+                        index++;
+                    }
+                case '<':
+                    if (at(1, '-')) {
+                        return operator(RParser.ARROW, start, 2);
+                    } else if (at(1, '<') && at(2, '-')) {
+                        return operator(RParser.SUPER_ARROW, start, 3);
+                    } else if (at(1, '=')) {
+                        return operator(RParser.LE, start, 2);
+                    }
+                    return operator(RParser.LT, start, 1);
+                case '-':
+                    if (at(1, '>')) {
+                        return at(2, '>') ? operator(RParser.SUPER_RIGHT_ARROW, start, 3) : operator(RParser.RIGHT_ARROW, start, 2);
+                    }
+                    return operator(RParser.MINUS, start, 1);
+                case ':':
+                    if (at(1, '=')) {
+                        return operator(RParser.ARROW, start, 2);
+                    } else if (at(1, ':')) {
+                        return at(2, ':') ? operator(RParser.NS_GET_INT, start, 3) : operator(RParser.NS_GET, start, 2);
+                    }
+                    return operator(RParser.COLON, start, 1);
+                case '=':
+                    return at(1, '=') ? operator(RParser.EQ, start, 2) : operator(RParser.ASSIGN, start, 1);
+                case '!':
+                    return at(1, '=') ? operator(RParser.NE, start, 2) : operator(RParser.NOT, start, 1);
+                case '>':
+                    return at(1, '=') ? operator(RParser.GE, start, 2) : operator(RParser.GT, start, 1);
+                case '&':
+                    return at(1, '&') ? operator(RParser.AND, start, 2) : operator(RParser.ELEMENTWISEAND, start, 1);
+                case '|':
+                    return at(1, '|') ? operator(RParser.OR, start, 2) : operator(RParser.ELEMENTWISEOR, start, 1);
+                case '*':
+                    return at(1, '*') ? operator(RParser.CARET, start, 2) : operator(RParser.MULT, start, 1);
+                case ';':
+                    return operator(RParser.SEMICOLON, start, 1);
+                case ',':
+                    return operator(RParser.COMMA, start, 1);
+                case '{':
+                    nestingStack.add(incompleteNesting);
+                    incompleteNesting = 0;
+                    return operator(RParser.LBRACE, start, 1);
+                case '}':
+                    if (!nestingStack.isEmpty()) {
+                        incompleteNesting = nestingStack.remove(nestingStack.size() - 1);
+                    }
+                    return operator(RParser.RBRACE, start, 1);
+                case '(':
+                    incompleteNesting++;
+                    return operator(RParser.LPAR, start, 1);
+                case ')':
+                    incompleteNesting--;
+                    return operator(RParser.RPAR, start, 1);
+                case '[':
+                    if (at(1, '[')) {
+                        incompleteNesting += 2;
+                        return operator(RParser.LBB, start, 2);
+                    }
+                    incompleteNesting++;
+                    return operator(RParser.LBRAKET, start, 1);
+                case ']':
+                    incompleteNesting--;
+                    return operator(RParser.RBRAKET, start, 1);
+                case '^':
+                    return operator(RParser.CARET, start, 1);
+                case '~':
+                    return operator(RParser.TILDE, start, 1);
+                case '?':
+                    return operator(RParser.QM, start, 1);
+                case '+':
+                    return operator(RParser.PLUS, start, 1);
+                case '/':
+                    return operator(RParser.DIV, start, 1);
+                case '$':
+                    return operator(RParser.FIELD, start, 1);
+                case '@':
+                    return operator(RParser.AT, start, 1);
+                case '.':
+                    return scanDots(start);
+                default:
+                    if (c >= '0' && c <= '9') {
+                        return scanNumber(start);
+                    } else if (isIdStart(input.codePointAt(index))) {
+                        index = scanIdName(index);
+                        String text = input.substring(start, index);
+                        Integer keyword = KEYWORDS.get(text);
+                        return new Token(keyword == null ? RParser.ID : keyword, start, index - 1, text);
+                    }
+                    throw new LexerException(start, false);
+            }
+        }
+    }
+
+    private Token token(int type, int start) {
+        return new Token(type, start, index - 1, input.substring(start, index));
+    }
+
+    private Token operator(int type, int start, int tokenLength) {
+        index = start + tokenLength;
+        return token(type, start);
+    }
+
+    private boolean at(int offset, char c) {
+        return index + offset < length && input.charAt(index + offset) == c;
+    }
+
+    private static boolean isLineBreak(char c) {
+        return c == '\n' || c == '\r' || c == '\f';
+    }
+
+    /**
+     * Line breaks are "\n", "\r", "\f", "\r\n", "\f\n", "\n\r" and "\n\f".
+     */
+    private int skipLineBreak(int i) {
+        char c = input.charAt(i);
+        if (i + 1 < length) {
+            char n = input.charAt(i + 1);
+            if (c == '\n' ? (n == '\r' || n == '\f') : n == '\n') {
+                return i + 2;
+            }
+        }
+        return i + 1;
+    }
+
+    private static boolean isIdStart(int cp) {
+        return cp == '_' || Character.isAlphabetic(cp);
+    }
+
+    private static boolean isIdPart(int cp) {
+        return cp == '_' || cp == '.' || Character.isAlphabetic(cp) || Character.isDigit(cp);
+    }
+
+    private int scanIdName(int i) {
+        int pos = i + Character.charCount(input.codePointAt(i));
+        while (pos < length) {
+            int cp = input.codePointAt(pos);
+            if (!isIdPart(cp)) {
+                break;
+            }
+            pos += Character.charCount(cp);
+        }
+        return pos;
+    }
+
+    private boolean isIdStartAt(int i) {
+        return i < length && isIdStart(input.codePointAt(i));
+    }
+
+    private boolean isDigitAt(int i) {
+        return i < length && input.charAt(i) >= '0' && input.charAt(i) <= '9';
+    }
+
+    private int scanDigits(int i) {
+        int pos = i;
+        while (isDigitAt(pos)) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Handles identifiers starting with dots, "...", "..1" and numbers like ".5".
+     */
+    private Token scanDots(int start) {
+        int afterDots = start;
+        while (afterDots < length && input.charAt(afterDots) == '.') {
+            afterDots++;
+        }
+        int dots = afterDots - start;
+        if (isIdStartAt(afterDots)) {
+            index = scanIdName(afterDots);
+            return token(RParser.ID, start);
+        }
+        if (dots == 1 && isDigitAt(afterDots)) {
+            return scanNumber(start);
+        }
+        if (dots >= 2 && isDigitAt(afterDots)) {
+            int afterDigits = scanDigits(afterDots);
+            if (isIdStartAt(afterDigits)) {
+                index = scanIdName(afterDigits);
+                return token(RParser.ID, start);
+            } else if (dots == 2) {
+                index = afterDigits;
+                return token(RParser.DD, start);
+            }
+        }
+        index = start + dots;
+        return token(dots == 3 ? RParser.VARIADIC : RParser.ID, start);
+    }
+
+    private int scanExponent(int i, char e1, char e2) {
+        if (i < length && (input.charAt(i) == e1 || input.charAt(i) == e2)) {
+            int pos = i + 1;
+            if (pos < length && (input.charAt(pos) == '+' || input.charAt(pos) == '-')) {
+                pos++;
+            }
+            if (isDigitAt(pos)) {
+                return scanDigits(pos);
+            }
+        }
+        return i;
+    }
+
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private int scanHexDigits(int i, int max) {
+        int pos = i;
+        while (pos < length && pos - i < max && isHexDigit(input.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private Token scanNumber(int start) {
+        if (input.startsWith("0x", start) && start + 2 < length && isHexDigit(input.charAt(start + 2))) {
+            int afterDigits = scanHexDigits(start + 2, Integer.MAX_VALUE);
+            if (afterDigits < length && input.charAt(afterDigits) == 'L') {
+                return suffixed(RParser.INTEGER, start, afterDigits);
+            }
+            int end = afterDigits;
+            int pos = afterDigits;
+            if (pos < length && input.charAt(pos) == '.') {
+                pos++;
+            }
+            pos = scanHexDigits(pos, Integer.MAX_VALUE);
+            int afterExponent = scanExponent(pos, 'p', 'P');
+            if (afterExponent != pos) {
+                end = afterExponent;
+            }
+            // hexadecimal integers cannot have a fraction or an exponent
+            return numberEnd(start, end, false);
+        }
+        boolean hasDot = false;
+        int pos = start;
+        if (input.charAt(pos) == '.') {
+            pos = scanDigits(pos + 1);
+        } else {
+            pos = scanDigits(pos);
+            if (pos < length && input.charAt(pos) == '.') {
+                hasDot = true;
+                pos = scanDigits(pos + 1);
+            }
+        }
+        int afterExponent = scanExponent(pos, 'e', 'E');
+        // "1.5L" and "1e5L" are integers, but "1.5e5L" is not
+        return numberEnd(start, afterExponent, !hasDot || afterExponent == pos);
+    }
+
+    private Token numberEnd(int start, int end, boolean allowInteger) {
+        if (end < length) {
+            char suffix = input.charAt(end);
+            if (suffix == 'i') {
+                return suffixed(RParser.COMPLEX, start, end);
+            } else if (suffix == 'L' && allowInteger) {
+                return suffixed(RParser.INTEGER, start, end);
+            }
+        }
+        index = end;
+        return token(RParser.DOUBLE, start);
+    }
+
+    private Token suffixed(int type, int start, int suffixIndex) {
+        index = suffixIndex + 1;
+        return new Token(type, start, suffixIndex, input.substring(start, suffixIndex));
+    }
+
+    /**
+     * Scans a string literal or a backtick name starting at the given position, stores the decoded
+     * contents into {@link #decoded} and returns the index after the closing quote.
+     */
+    private int scanString(int start, char quote) {
+        StringBuilder str = null;
+        int pos = start + 1;
+        int chunkStart = pos;
+        while (true) {
+            if (pos >= length) {
+                throw new LexerException(start, true);
+            }
+            char c = input.charAt(pos);
+            if (c == quote) {
+                if (str == null) {
+                    decoded = input.substring(chunkStart, pos);
+                } else {
+                    decoded = str.append(input, chunkStart, pos).toString();
+                }
+                return pos + 1;
+            } else if (c == '\\') {
+                if (str == null) {
+                    str = new StringBuilder(pos - start + 16);
+                }
+                str.append(input, chunkStart, pos);
+                pos = scanEscape(start, pos + 1, str);
+                chunkStart = pos;
+            } else {
+                pos++;
+            }
+        }
+    }
+
+    private int scanEscape(int start, int escapeIndex, StringBuilder str) {
+        if (escapeIndex >= length) {
+            throw new LexerException(start, true);
+        }
+        char c = input.charAt(escapeIndex);
+        int pos = escapeIndex + 1;
+        switch (c) {
+            case 't':
+                str.append('\t');
+                return pos;
+            case 'n':
+            case '\n':
+                str.append('\n');
+                return pos;
+            case 'a':
+                str.appendCodePoint(7);
+                return pos;
+            case 'v':
+                str.appendCodePoint(11);
+                return pos;
+            case 'r':
+                str.append('\r');
+                return pos;
+            case 'b':
+                str.append('\b');
+                return pos;
+            case 'f':
+                str.append('\f');
+                return pos;
+            case '"':
+            case '`':
+            case '\'':
+            case ' ':
+            case '\\':
+                str.append(c);
+                return pos;
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7': {
+                int number = c - '0';
+                for (int j = 0; j < 2 && pos < length && input.charAt(pos) >= '0' && input.charAt(pos) <= '7'; j++) {
+                    number = number * 8 + (input.charAt(pos) - '0');
+                    pos++;
+                }
+                str.appendCodePoint(number & 255);
+                return pos;
+            }
+            case 'x': {
+                int end = scanHexDigits(pos, 2);
+                if (end - pos != 2) {
+                    throw new LexerException(start, end >= length);
+                }
+                str.appendCodePoint(Integer.parseInt(input.substring(pos, end), 16));
+                return end;
+            }
+            case 'u':
+            case 'U': {
+                int max = c == 'u' ? 4 : 8;
+                boolean braces = pos < length && input.charAt(pos) == '{';
+                int digitsStart = braces ? pos + 1 : pos;
+                int end = scanHexDigits(digitsStart, max);
+                if (end == digitsStart) {
+                    throw new LexerException(start, end >= length);
+                }
+                str.appendCodePoint(Integer.parseUnsignedInt(input.substring(digitsStart, end), 16));
+                if (braces) {
+                    if (end >= length || input.charAt(end) != '}') {
+                        throw new LexerException(start, end >= length);
+                    }
+                    return end + 1;
+                }
+                return end;
+            }
+            default:
+                throw new LexerException(start, false);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -52,6 +52,21 @@ public class LazyDBCache {
             dbCache.remove(dbPath);
         }
 
+        public int getEntriesCount() {
+            return dbCache.size();
+        }
+
+        /**
+         * Total size of the cached lazy-load databases in bytes.
+         */
+        public long getCachedBytes() {
+            long result = 0;
+            for (byte[] data : dbCache.values()) {
+                result += data.length;
+            }
+            return result;
+        }
+
         public static ContextStateImpl newContextState() {
             return new ContextStateImpl();
         }
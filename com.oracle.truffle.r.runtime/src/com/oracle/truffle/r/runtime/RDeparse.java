@@ -1,7 +1,7 @@
 /*
  * Copyright (c) 1995-2012, The R Core Team
  * Copyright (c) 2003, The R Foundation
- * Copyright (c) 2013, 2020, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -1074,8 +1074,8 @@ public class RDeparse {
                 return null;
             }
             RIntVector intVec = (RIntVector) vec;
-            if (vec.isSequence()) {
-                return ((RIntVector) vec).getSequence();
+            if (vec.isSequence() && Math.abs(intVec.getSequence().getStride()) == 1) {
+                return intVec.getSequence();
             }
             assert vec.getLength() >= 2;
             int start = intVec.getDataAt(0);
@@ -1,7 +1,7 @@
 /*
  * Copyright (c) 1995-2015, The R Core Team
  * Copyright (c) 2003, The R Foundation
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -973,6 +973,7 @@ public final class RError extends AbstractTruffleException {
         ENVIRONMENTS_COERCE("environments cannot be coerced to other types"),
         ROWSUM_NAMES_NOT_CHAR("row names are not character"),
         ROWSUM_NON_NUMERIC("non-numeric matrix in rowsum(): this should not happen"),
+        ROWSUM_NON_NUMERIC_DF("non-numeric data frame in rowsum"),
         ARGUMENTS_REQUIRED_COUNT("%d arguments to '%s' which requires %d"),
         ARG_IS_NOT_OF_MODE("argument is not of mode %s"),
         ARGUMENT_LENGTH_0("argument of length 0"),
@@ -1,7 +1,7 @@
 /*
  * Copyright (c) 1995-2012, The R Core Team
  * Copyright (c) 2003, The R Foundation
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -938,7 +938,7 @@ public class RSerialize {
                     if (len == -1) {
                         return RRuntime.STRING_NA;
                     } else {
-                        result = stream.readString(len);
+                        result = RContext.getInstance().stringCache.get(stream.readString(len));
                     }
                     break;
                 }
@@ -1687,7 +1687,7 @@ public class RSerialize {
                     RPairList info = null;
                     Object data = null;
                     String cls = null;
-                    if (obj instanceof RIntVector && ((RIntVector) obj).isSequence()) {
+                    if (isCompactIntSeq(obj)) {
                         info = RDataFactory.createPairList(RDataFactory.createIntVectorFromScalar(SEXPTYPE.INTSXP.code));
                         RIntSeqVectorData vec = ((RIntVector) obj).getSequence();
                         data = RDataFactory.createDoubleVector(new double[]{vec.getLength(), vec.getStart(), vec.getStride()}, RDataFactory.COMPLETE_VECTOR);
@@ -2088,7 +2088,15 @@ public class RSerialize {
         }
 
         private static boolean isALTREP(Object obj) {
-            return (obj instanceof RIntVector && ((RIntVector) obj).isSequence()) || (obj instanceof RStringVector && ((RStringVector) obj).isClosure());
+            return isCompactIntSeq(obj) || (obj instanceof RStringVector && ((RStringVector) obj).isClosure());
+        }
+
+        /**
+         * GNU-R can only unserialize compact integer sequences with stride 1 or -1, other
+         * sequences, e.g., the constant ones created by {@code rep}, are written as plain vectors.
+         */
+        private static boolean isCompactIntSeq(Object obj) {
+            return obj instanceof RIntVector && ((RIntVector) obj).isSequence() && Math.abs(((RIntVector) obj).getSequence().getStride()) == 1;
         }
     }
 
@@ -2830,9 +2838,13 @@ public class RSerialize {
 
             MaterializedFrame enclosingFrame = environment.getFrame();
 
-            RootCallTarget callTarget = RContext.getASTBuilder().rootFunction(RContext.getInstance().getLanguage(), RSyntaxNode.LAZY_DEPARSE, processArguments(car, false), processBody(cdr),
-                            functionName == null ? "<deserialized function>" : functionName);
-            FrameSlotChangeMonitor.initializeEnclosingFrame(callTarget.getRootNode().getFrameDescriptor(), enclosingFrame);
+            RContext context = RContext.getInstance();
+            if (context.getOption(FastROptions.LazyFunctionBodies)) {
+                // the AST is built from the pairlists when the function is first called or inspected
+                RFunction.LazyTarget target = new RFunction.LazyTarget(() -> createCallTarget(context, car, cdr, enclosingFrame, functionName));
+                return RDataFactory.createLazyFunction(functionName, packageName, target, enclosingFrame);
+            }
+            RootCallTarget callTarget = createCallTarget(context, car, cdr, enclosingFrame, functionName);
             RFunction func = RDataFactory.createFunction(functionName, packageName, callTarget, null, enclosingFrame);
 
             /*
@@ -2841,6 +2853,13 @@ public class RSerialize {
             return func;
         }
 
+        private static RootCallTarget createCallTarget(RContext context, Object car, Object cdr, MaterializedFrame enclosingFrame, String functionName) {
+            RootCallTarget callTarget = RContext.getASTBuilder().rootFunction(context.getLanguage(), RSyntaxNode.LAZY_DEPARSE, processArguments(car, false), processBody(cdr),
+                            functionName == null ? "<deserialized function>" : functionName);
+            FrameSlotChangeMonitor.initializeEnclosingFrame(callTarget.getRootNode().getFrameDescriptor(), enclosingFrame);
+            return callTarget;
+        }
+
         public static RPairList processLanguage(Object car, Object cdr, Object tag) {
             Closure closure = Closure.createLanguageClosure(processCall(car, cdr, tag, null).asRNode());
             return RDataFactory.createLanguage(closure);
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor;
+import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor.LookupResult;
+
+/**
+ * Cache of the results of the S3 method lookups that are not cached in the AST, i.e., of the
+ * megamorphic {@code UseMethod} and {@code NextMethod} call sites like the ones in {@code print},
+ * {@code format} or {@code [}. The key identifies the lookup: the generic, the group, the class
+ * vector and the environments the lookup starts in. Each entry is guarded by the
+ * {@link FrameSlotChangeMonitor#lookup lookup results} of the names it looked up and by the
+ * assumptions that the entries of the methods table it read do not change. An entry that was
+ * invalidated, e.g., because a method was defined or registered in the
+ * {@code .__S3MethodsTable__.} or a package was attached, is removed on the next access. The cache
+ * holds at most {@code S3MethodCacheSize} entries and evicts the least recently used one.
+ * <p>
+ * There is one cache per context, because the keys and the cached methods refer to the environments
+ * of the context, which are not shared with other contexts. The statistics are returned by
+ * {@code .fastr.s3.cache.stats}.
+ */
+public final class S3MethodCache {
+
+    private static final class Key {
+        private final Object[] elements;
+        private final int hash;
+
+        Key(Object[] elements) {
+            this.elements = elements;
+            this.hash = Arrays.hashCode(elements);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key && ((Key) obj).hash == hash && Arrays.equals(((Key) obj).elements, elements);
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final Assumption[] assumptions;
+        private final LookupResult[] lookups;
+
+        Entry(Object value, Assumption[] assumptions, LookupResult[] lookups) {
+            this.value = value;
+            this.assumptions = assumptions;
+            this.lookups = lookups;
+        }
+
+        boolean isValid() {
+            for (Assumption assumption : assumptions) {
+                if (!assumption.isValid()) {
+                    return false;
+                }
+            }
+            for (LookupResult lookup : lookups) {
+                if (!lookup.isValid()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private int maxSize = -1;
+    private LinkedHashMap<Key, Entry> cache;
+
+    private long hits;
+    private long misses;
+    private long invalidated;
+
+    public boolean isEnabled() {
+        return getMaxSize() > 0;
+    }
+
+    /**
+     * Returns the value cached for the given key elements, which are compared with
+     * {@link Object#equals(Object)}, or {@code null} if there is none or its assumptions are no
+     * longer valid.
+     */
+    @TruffleBoundary
+    public synchronized Object get(Object[] key) {
+        if (getMaxSize() <= 0) {
+            return null;
+        }
+        Key k = new Key(key);
+        Entry entry = cache.get(k);
+        if (entry != null) {
+            if (entry.isValid()) {
+                hits++;
+                return entry.value;
+            }
+            invalidated++;
+            cache.remove(k);
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Caches {@code value} for the given key elements as long as all the given assumptions and
+     * lookup results are valid.
+     */
+    @TruffleBoundary
+    public synchronized void put(Object[] key, Object value, Assumption[] assumptions, LookupResult[] lookups) {
+        if (getMaxSize() > 0) {
+            cache.put(new Key(key), new Entry(value, assumptions, lookups));
+        }
+    }
+
+    private synchronized int getMaxSize() {
+        if (maxSize < 0) {
+            maxSize = Math.max(0, RContext.getInstance().getOption(FastROptions.S3MethodCacheSize));
+            cache = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of cached lookups, hits, misses and of the entries removed because they
+     * were invalidated.
+     */
+    public synchronized long[] getStatistics() {
+        return new long[]{cache == null ? 0 : cache.size(), hits, misses, invalidated};
+    }
+
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        invalidated = 0;
+    }
+}
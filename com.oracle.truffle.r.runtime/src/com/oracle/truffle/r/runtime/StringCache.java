@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
+
+/**
+ * Cache of the contents of character vectors read by a context, the counterpart of GNU-R's global
+ * {@code CHARSXP} hash table. The builtins that read many strings, which typically have only few
+ * distinct values, i.e., {@code scan} (and so {@code read.table}), {@code readLines} and
+ * {@code unserialize}, pass them through {@link #get(String)} or {@link #deduplicate(String[])} to
+ * replace them with an equal instance read earlier, so that the duplicates can be garbage
+ * collected. The cache is off unless enabled by the {@code StringCache} option, because the lookups
+ * are not free. It holds at most {@link #MAX_SIZE} strings and is cleared when full, so that it
+ * keeps the values seen recently.
+ * <p>
+ * Note: the NA string is identified by its identity and so it is never cached.
+ */
+public final class StringCache implements RContext.ContextState {
+
+    /**
+     * Estimated size of a {@code String} object and its array header, used to compute the amount of
+     * memory saved by the cache.
+     */
+    private static final long STRING_OVERHEAD = 40;
+
+    private static final int MAX_SIZE = 1 << 16;
+
+    private boolean enabled;
+
+    private final ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<>();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    private StringCache() {
+    }
+
+    public static StringCache newContextState() {
+        return new StringCache();
+    }
+
+    @Override
+    public RContext.ContextState initialize(RContext context) {
+        enabled = context.getOption(FastROptions.StringCache);
+        return this;
+    }
+
+    @Override
+    public void beforeDispose(RContext context) {
+        enabled = false;
+        strings.clear();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached string equal to {@code s} or {@code s} itself, which is then cached, if
+     * there is none or the cache is disabled.
+     */
+    public String get(String s) {
+        if (!enabled || s == null || RRuntime.isNA(s)) {
+            return s;
+        }
+        return lookup(s);
+    }
+
+    /**
+     * Replaces the elements of the given array with their cached instances, the array must not be
+     * shared yet. Returns the array.
+     */
+    public String[] deduplicate(String[] data) {
+        if (enabled) {
+            for (int i = 0; i < data.length; i++) {
+                String s = data[i];
+                if (s != null && !RRuntime.isNA(s)) {
+                    data[i] = lookup(s);
+                }
+            }
+        }
+        return data;
+    }
+
+    @TruffleBoundary
+    private String lookup(String s) {
+        lookups.increment();
+        String cached = strings.get(s);
+        if (cached == null) {
+            if (strings.size() >= MAX_SIZE) {
+                strings.clear();
+            }
+            cached = strings.putIfAbsent(s, s);
+            if (cached == null) {
+                return s;
+            }
+        }
+        if (cached != s) {
+            hits.increment();
+            bytesSaved.add(STRING_OVERHEAD + s.length());
+        }
+        return cached;
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Estimated number of bytes that were freed by replacing strings with cached instances,
+     * assuming compact (one byte per character) strings.
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    public int size() {
+        return strings.size();
+    }
+
+    /**
+     * Clears the statistics, the cached strings are kept.
+     */
+    public void resetStatistics() {
+        lookups.reset();
+        hits.reset();
+        bytesSaved.reset();
+    }
+}
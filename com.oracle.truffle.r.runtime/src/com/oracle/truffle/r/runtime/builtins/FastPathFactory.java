@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -148,6 +148,15 @@ public interface FastPathFactory {
 
     boolean forcedEagerPromise(int index);
 
+    /**
+     * Whether the arguments for which {@link #forcedEagerPromise(int)} holds can be passed as their
+     * eagerly evaluated values instead of as promises, because the function cannot tell the
+     * difference. This saves the allocation of the promises.
+     */
+    default boolean passesForcedArgumentValues() {
+        return false;
+    }
+
     /**
      * Visibility of the output. This corresponds to {@link RBuiltin#visibility()}
      */
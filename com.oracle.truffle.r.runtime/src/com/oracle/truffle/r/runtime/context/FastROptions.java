@@ -92,6 +92,8 @@ public class FastROptions {
     public static final OptionKey<Boolean> UseInternalGridGraphics = new OptionKey<>(false);
     @Option(category = OptionCategory.INTERNAL, help = "Whether the fast-path special call nodes should be created for simple enough arguments.") //
     public static final OptionKey<Boolean> UseSpecials = new OptionKey<>(true);
+    @Option(category = OptionCategory.EXPERT, help = "Parse R code with the hand-written recursive-descent parser instead of the ANTLR generated one") //
+    public static final OptionKey<Boolean> RecursiveDescentParser = new OptionKey<>(false);
     @Option(category = OptionCategory.EXPERT, help = "Generate source sections for unserialized code") //
     public static final OptionKey<Boolean> ForceSources = new OptionKey<>(false);
     @Option(category = OptionCategory.INTERNAL, help = "Whether all child contexts are to be shared contexts") //
@@ -111,6 +113,8 @@ public class FastROptions {
     public static final OptionKey<Boolean> EagerEvalDefault = new OptionKey<>(false);
     @Option(category = OptionCategory.INTERNAL, help = "Enables optimistic eager evaluation of trivial expressions") //
     public static final OptionKey<Boolean> EagerEvalExpressions = new OptionKey<>(false);
+    @Option(category = OptionCategory.INTERNAL, help = "Passes eagerly evaluated arguments as values instead of promises to functions that cannot observe the difference") //
+    public static final OptionKey<Boolean> EagerEvalPassValues = new OptionKey<>(true);
     @Option(category = OptionCategory.INTERNAL, help = "Enables inline caches for promises evaluation") //
     public static final OptionKey<Integer> PromiseCacheSize = new OptionKey<>(3);
     @Option(category = OptionCategory.INTERNAL, help = "Factor by which are multiplied all DSL 'limit' values where applicable.") //
@@ -141,6 +145,20 @@ public class FastROptions {
     public static final OptionKey<Boolean> TraceCallsToFile = new OptionKey<>(false);
     @Option(category = OptionCategory.INTERNAL, help = "Trace all native function calls (performed via .Call, .External, etc.)") //
     public static final OptionKey<Boolean> TraceNativeCalls = new OptionKey<>(false);
+    @Option(category = OptionCategory.EXPERT, help = "Vectors of at least this length allocated by native code (Rf_allocVector) are created directly in native memory, negative value disables it") //
+    public static final OptionKey<Integer> NativeVectorAllocationThreshold = new OptionKey<>(1024);
+    @Option(category = OptionCategory.EXPERT, help = "Collect statistics of the down-calls and up-calls between R and native code, see .fastr.ffi.stats") //
+    public static final OptionKey<Boolean> FFIStats = new OptionKey<>(false);
+    @Option(category = OptionCategory.EXPERT, help = "Deduplicate the strings read by scan, read.table, readLines and unserialize in a per-context cache, see .fastr.string.cache.stats") //
+    public static final OptionKey<Boolean> StringCache = new OptionKey<>(false);
+    @Option(category = OptionCategory.EXPERT, help = "Track the number and size of the live R objects in each context, reported by gc() and .fastr.memory.stats") //
+    public static final OptionKey<Boolean> MemoryStats = new OptionKey<>(false);
+    @Option(category = OptionCategory.EXPERT, help = "Maximum number of closures of language objects evaluated by eval that are shared by structurally equal language objects, 0 disables it, see .fastr.eval.cache.stats") //
+    public static final OptionKey<Integer> EvalCacheSize = new OptionKey<>(256);
+    @Option(category = OptionCategory.EXPERT, help = "Maximum number of S3 method lookups of megamorphic UseMethod and NextMethod calls that are cached, 0 disables it, see .fastr.s3.cache.stats") //
+    public static final OptionKey<Integer> S3MethodCacheSize = new OptionKey<>(1024);
+    @Option(category = OptionCategory.EXPERT, help = "Build the AST of the functions loaded from packages and deserialized only when they are first called or inspected") //
+    public static final OptionKey<Boolean> LazyFunctionBodies = new OptionKey<>(true);
 
     /**
      * The presence of the <code>NATIVE_DATA_INSPECTOR</code> variable in the environment activates
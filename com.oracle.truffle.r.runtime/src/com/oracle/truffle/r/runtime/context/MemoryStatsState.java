@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.context;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.RObjectSize;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.data.RBaseObject;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory;
+
+/**
+ * Memory accounting of a context, the source of the numbers reported by {@code gc()} and
+ * {@code .fastr.memory.stats}. The heap numbers are taken from the JVM management beans and are
+ * always available. The number and size of the R objects allocated and still alive in this context
+ * are only tracked in a context with the {@code MemoryStats} option, because every tracked
+ * allocation registers a {@link PhantomReference}. While there is such a context, the allocation
+ * listener is installed and the native memory blocks are tracked by {@link NativeMemory}.
+ */
+public final class MemoryStatsState implements RContext.ContextState {
+
+    private static final int TYPES = RType.values().length;
+
+    /**
+     * The allocation listener is shared by all contexts, it dispatches to the state of the current
+     * context. It is installed while this number of contexts with the tracking enabled is not zero.
+     */
+    private static int enabledContexts;
+
+    private static final RDataFactory.Listener LISTENER = new RDataFactory.Listener() {
+        @Override
+        public void reportAllocation(RBaseObject data) {
+            RContext context = RContext.getInstance();
+            if (context != null) {
+                context.memoryStats.allocated(data);
+            }
+        }
+    };
+
+    private static final class TrackedObject extends PhantomReference<RBaseObject> {
+        private final int type;
+        private final long size;
+
+        TrackedObject(RBaseObject referent, int type, long size, ReferenceQueue<? super RBaseObject> queue) {
+            super(referent, queue);
+            this.type = type;
+            this.size = size;
+        }
+    }
+
+    private volatile boolean enabled;
+
+    private final ReferenceQueue<RBaseObject> queue = new ReferenceQueue<>();
+    private final Set<TrackedObject> tracked = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLongArray allocatedCount = new AtomicLongArray(TYPES);
+    private final AtomicLongArray allocatedBytes = new AtomicLongArray(TYPES);
+    private final AtomicLongArray liveCount = new AtomicLongArray(TYPES);
+    private final AtomicLongArray liveBytes = new AtomicLongArray(TYPES);
+
+    private long maxLiveCount;
+    private long maxLiveBytes;
+
+    private MemoryStatsState() {
+    }
+
+    public static MemoryStatsState newContextState() {
+        return new MemoryStatsState();
+    }
+
+    @Override
+    public RContext.ContextState initialize(RContext context) {
+        if (context.getOption(FastROptions.MemoryStats)) {
+            enabled = true;
+            synchronized (MemoryStatsState.class) {
+                if (enabledContexts++ == 0) {
+                    RDataFactory.addListener(LISTENER);
+                }
+            }
+            NativeMemory.startTracking();
+        }
+        return this;
+    }
+
+    @Override
+    public void beforeDispose(RContext context) {
+        if (enabled) {
+            enabled = false;
+            tracked.clear();
+            synchronized (MemoryStatsState.class) {
+                if (--enabledContexts == 0) {
+                    RDataFactory.removeListener(LISTENER);
+                }
+            }
+            NativeMemory.stopTracking();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void allocated(RBaseObject data) {
+        if (!enabled) {
+            return;
+        }
+        expunge();
+        int type = data.getRType().ordinal();
+        long size = RObjectSize.getObjectSize(data);
+        allocatedCount.incrementAndGet(type);
+        allocatedBytes.addAndGet(type, size);
+        liveCount.incrementAndGet(type);
+        liveBytes.addAndGet(type, size);
+        tracked.add(new TrackedObject(data, type, size, queue));
+    }
+
+    /**
+     * Removes the objects collected by the GC from the live counters.
+     */
+    private void expunge() {
+        TrackedObject ref;
+        while ((ref = (TrackedObject) queue.poll()) != null) {
+            if (tracked.remove(ref)) {
+                liveCount.decrementAndGet(ref.type);
+                liveBytes.addAndGet(ref.type, -ref.size);
+            }
+        }
+    }
+
+    /**
+     * Updates and returns the totals over all types: live objects, live bytes, the maximum of
+     * both since the last {@link #resetMax()}.
+     */
+    @TruffleBoundary
+    public synchronized long[] getLiveTotals() {
+        expunge();
+        long count = 0;
+        long bytes = 0;
+        for (int i = 0; i < TYPES; i++) {
+            count += liveCount.get(i);
+            bytes += liveBytes.get(i);
+        }
+        maxLiveCount = Math.max(maxLiveCount, count);
+        maxLiveBytes = Math.max(maxLiveBytes, bytes);
+        return new long[]{count, bytes, maxLiveCount, maxLiveBytes};
+    }
+
+    public long getAllocatedCount(RType type) {
+        return allocatedCount.get(type.ordinal());
+    }
+
+    public long getAllocatedBytes(RType type) {
+        return allocatedBytes.get(type.ordinal());
+    }
+
+    @TruffleBoundary
+    public long getLiveCount(RType type) {
+        expunge();
+        return liveCount.get(type.ordinal());
+    }
+
+    @TruffleBoundary
+    public long getLiveBytes(RType type) {
+        expunge();
+        return liveBytes.get(type.ordinal());
+    }
+
+    /**
+     * Resets the maximum of the live objects and of the heap usage to the current values.
+     */
+    @TruffleBoundary
+    public synchronized void resetMax() {
+        maxLiveCount = 0;
+        maxLiveBytes = 0;
+        getLiveTotals();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Clears the allocation counters, the live objects stay tracked.
+     */
+    public void resetAllocated() {
+        for (int i = 0; i < TYPES; i++) {
+            allocatedCount.set(i, 0);
+            allocatedBytes.set(i, 0);
+        }
+    }
+
+    // JVM heap, shared by all contexts
+
+    @TruffleBoundary
+    public static MemoryUsage getHeapUsage() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    }
+
+    /**
+     * Sum of the peak usage of all heap memory pools since the last {@link #resetMax()}.
+     */
+    @TruffleBoundary
+    public static long getHeapPeakUsed() {
+        long result = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                MemoryUsage peak = pool.getPeakUsage();
+                if (peak != null) {
+                    result += peak.getUsed();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of collections and accumulated collection time in milliseconds of each collector.
+     */
+    @TruffleBoundary
+    public static long[][] getCollections() {
+        List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+        long[][] result = new long[beans.size()][];
+        for (int i = 0; i < result.length; i++) {
+            GarbageCollectorMXBean bean = beans.get(i);
+            result[i] = new long[]{Math.max(0, bean.getCollectionCount()), Math.max(0, bean.getCollectionTime())};
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    public static String[] getCollectorNames() {
+        List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+        String[] result = new String[beans.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = beans.get(i).getName();
+        }
+        return result;
+    }
+}
@@ -27,6 +27,7 @@ import static com.oracle.truffle.r.runtime.context.FastROptions.EagerEvalConstan
 import static com.oracle.truffle.r.runtime.context.FastROptions.EagerEvalDefault;
 import static com.oracle.truffle.r.runtime.context.FastROptions.EagerEvalExpressions;
 import static com.oracle.truffle.r.runtime.context.FastROptions.EagerEvalVariables;
+import static com.oracle.truffle.r.runtime.context.FastROptions.FFIStats;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -97,6 +98,8 @@ import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RRuntimeASTAccess;
 import com.oracle.truffle.r.runtime.RSerialize;
 import com.oracle.truffle.r.runtime.ReturnException;
+import com.oracle.truffle.r.runtime.S3MethodCache;
+import com.oracle.truffle.r.runtime.StringCache;
 import com.oracle.truffle.r.runtime.SuppressFBWarnings;
 import com.oracle.truffle.r.runtime.TempPathName;
 import com.oracle.truffle.r.runtime.Utils;
@@ -106,6 +109,7 @@ import com.oracle.truffle.r.runtime.builtins.RBuiltinLookup;
 import com.oracle.truffle.r.runtime.conn.ConnectionSupport;
 import com.oracle.truffle.r.runtime.conn.StdConnections;
 import com.oracle.truffle.r.runtime.data.LanguageClosureCache;
+import com.oracle.truffle.r.runtime.data.LanguageEvalCache;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RFunction;
 import com.oracle.truffle.r.runtime.data.RStringVector;
@@ -114,6 +118,7 @@ import com.oracle.truffle.r.runtime.env.REnvironment;
 import com.oracle.truffle.r.runtime.ffi.DLL;
 import com.oracle.truffle.r.runtime.ffi.RFFIContext;
 import com.oracle.truffle.r.runtime.ffi.RFFIFactory;
+import com.oracle.truffle.r.runtime.ffi.RFFIStats;
 import com.oracle.truffle.r.runtime.instrument.InstrumentationState;
 import com.oracle.truffle.r.runtime.interop.FastrInteropTryContextState;
 import com.oracle.truffle.r.runtime.nodes.RCodeBuilder;
@@ -251,13 +256,45 @@ public final class RContext {
     private final RStartParams startParameters;
     private final RCmdOptions cmdOptions;
     private final RContext.ContextKind contextKind;
-    private final Map<Class<?>, RootCallTarget> cachedCallTargets = new HashMap<>();
+    /**
+     * Concurrent, because the child contexts running in other threads use the map of their
+     * {@link #getCodeSharingRoot() root} through {@link #getOrCreateSharedCallTarget}.
+     */
+    private final ConcurrentHashMap<Class<?>, RootCallTarget> cachedCallTargets = new ConcurrentHashMap<>();
 
     public RootCallTarget getOrCreateCachedCallTarget(Class<?> clazz, Supplier<RootCallTarget> createFunction) {
         RootCallTarget result = cachedCallTargets.get(clazz);
         if (result == null) {
+            // not computeIfAbsent, the function may create other cached call targets
             result = createFunction.get();
-            cachedCallTargets.put(clazz, result);
+            RootCallTarget existing = cachedCallTargets.putIfAbsent(clazz, result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #getOrCreateCachedCallTarget} but the call target is shared by all the contexts
+     * that share their code with the {@link #getCodeSharingRoot() same context}, so that it is
+     * created and compiled only once. The root node must not refer to any context specific state
+     * other than through {@link RContext#getInstance(Node)}.
+     */
+    public RootCallTarget getOrCreateSharedCallTarget(Class<?> clazz, Supplier<RootCallTarget> createFunction) {
+        return getCodeSharingRoot().getOrCreateCachedCallTarget(clazz, createFunction);
+    }
+
+    /**
+     * Returns the context whose ASTs are executed by this context. All kinds of contexts except
+     * {@link ContextKind#SHARE_NOTHING} share the functions of the packages on the search path
+     * with their parent, the call targets of the builtins and other context independent code are
+     * then also taken from the parent instead of being created and compiled again for each child.
+     */
+    public RContext getCodeSharingRoot() {
+        RContext result = this;
+        while (result.contextKind != ContextKind.SHARE_NOTHING && result.parentContext != null) {
+            result = result.parentContext;
         }
         return result;
     }
@@ -369,6 +406,8 @@ public final class RContext {
     public final ContextStateImpl stateInternalCode;
     public final DLL.ContextStateImpl stateDLL;
     public final GCTortureState gcTorture;
+    public final MemoryStatsState memoryStats;
+    public final StringCache stringCache;
     public volatile EventLoopState eventLoopState;
     public final AltRepContext altRepContext;
 
@@ -388,6 +427,8 @@ public final class RContext {
     public final List<String> libraryPaths = new ArrayList<>(1);
     public final Map<Integer, Thread> threads = new ConcurrentHashMap<>();
     public final LanguageClosureCache languageClosureCache = new LanguageClosureCache();
+    public final LanguageEvalCache languageEvalCache = new LanguageEvalCache();
+    public final S3MethodCache s3MethodCache = new S3MethodCache();
     public final Map<String, Source> sourceCache = new ConcurrentHashMap<>();
 
     private final AllocationReporter allocationReporter;
@@ -397,7 +438,7 @@ public final class RContext {
     private ContextState[] contextStates() {
         return new ContextState[]{stateREnvVars, stateRLocale, stateRProfile, stateTempPath, stateROptions, stateREnvironment, stateRErrorHandling, stateRConnection, stateStdConnections, stateRNG,
                         stateRFFI,
-                        stateRSerialize, stateLazyDBCache, stateInstrumentation, stateDLL};
+                        stateRSerialize, stateLazyDBCache, stateInstrumentation, stateDLL, memoryStats, stringCache};
     }
 
     public static void setEmbedded() {
@@ -489,6 +530,8 @@ public final class RContext {
         this.rffiUpCallTargets = new RFFIUpCallTargets();
 
         this.gcTorture = GCTortureState.newContextState();
+        this.memoryStats = MemoryStatsState.newContextState();
+        this.stringCache = StringCache.newContextState();
         this.altRepContext = AltRepContext.newContextState();
         this.engine = RContext.getRRuntimeASTAccess().createEngine(this);
         state.add(State.CONSTRUCTED);
@@ -553,6 +596,9 @@ public final class RContext {
         }
         // separate in case initialize calls getStateRFFI()!
         getStateRFFI().initialize(this);
+        if (getOption(FFIStats)) {
+            RFFIStats.enable();
+        }
 
         if (!embedded) {
             doEnvOptionsProfileInitialization();
@@ -569,6 +615,8 @@ public final class RContext {
         stateInstrumentation.initialize(this);
         stateInternalCode.initialize(this);
         gcTorture.initialize(this);
+        memoryStats.initialize(this);
+        stringCache.initialize(this);
         state.add(State.INITIALIZED);
 
         if (!embedded) {
@@ -642,6 +690,9 @@ public final class RContext {
                 for (ContextState contextState : contextStates()) {
                     contextState.beforeDispose(this);
                 }
+                if (getOption(FFIStats)) {
+                    RFFIStats.disable();
+                }
             }
             if (contextKind == ContextKind.SHARE_PARENT_RW) {
                 parentContext.sharedChild = null;
@@ -901,7 +952,7 @@ public final class RContext {
      */
     @TruffleBoundary
     public RFunction lookupBuiltin(String name) {
-        return builtinLookup.lookupBuiltin(language, name);
+        return builtinLookup.lookupBuiltin(getCodeSharingRoot().language, name);
     }
 
     /**
@@ -159,7 +159,7 @@ public final class TruffleRLanguage extends TruffleLanguage<RContext> {
         if (rValue instanceof TruffleObject) {
             return null;
         }
-        RootCallTarget convertCallTarget = context.getOrCreateCachedCallTarget(ConvertForeignRootNode.class, () -> new ConvertForeignRootNode().getCallTarget());
+        RootCallTarget convertCallTarget = context.getOrCreateSharedCallTarget(ConvertForeignRootNode.class, () -> new ConvertForeignRootNode().getCallTarget());
         return convertCallTarget.call(rValue);
     }
 
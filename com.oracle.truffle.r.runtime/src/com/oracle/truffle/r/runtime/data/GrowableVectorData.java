@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+/**
+ * Array backed vector data that can be extended in place, which makes appending to a vector one
+ * element at a time, e.g., {@code x[length(x) + 1] <- v}, amortized constant time. The array may
+ * be longer than the data, the elements beyond the length are spare capacity. The arrays returned
+ * by the {@code getReadonly*Data} messages never have spare capacity, the data trims its array
+ * first if needed.
+ */
+public interface GrowableVectorData extends ShareableVectorData {
+
+    int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Extends the data to {@code newLength}, which must be greater than the current length, and
+     * sets the new elements to NA. The data must not be shared.
+     */
+    void grow(int newLength);
+
+    /**
+     * Returns the capacity of an array grown from {@code capacity} to hold at least
+     * {@code minCapacity} elements, which is at least one and a half times the old capacity.
+     */
+    static int newCapacity(int capacity, int minCapacity) {
+        int result = capacity + (capacity >> 1) + 1;
+        if (result < minCapacity) {
+            result = minCapacity;
+        }
+        if (result < 0 || result > MAX_ARRAY_SIZE) {
+            result = Math.max(minCapacity, MAX_ARRAY_SIZE);
+        }
+        return result;
+    }
+}
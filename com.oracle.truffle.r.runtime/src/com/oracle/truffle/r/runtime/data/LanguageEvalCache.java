@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.r.runtime.ArgumentsSignature;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxCall;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxConstant;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxElement;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxLookup;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
+
+/**
+ * Cache of the {@link Closure}s of the language objects evaluated by {@code eval}, keyed by the
+ * structure of the language object instead of its identity. Code that builds calls with
+ * {@code call}, {@code bquote} or {@code as.call} and evaluates them in a loop creates a new
+ * language object, and so a new closure with new call targets, in every iteration. Replacing the
+ * closure with a cached one of the same structure lets all of them share the call targets, which
+ * can then get compiled.
+ * <p>
+ * Only language objects consisting of calls, symbols and scalar constants without attributes are
+ * cached, anything else, e.g., a function definition, a vector or an environment inserted into the
+ * call, is evaluated with its own closure. So are language objects with a source section, i.e.,
+ * parsed code, so that errors and srcrefs refer to the right text. The cache holds at most
+ * {@code EvalCacheSize} closures and evicts the least recently used one.
+ */
+public final class LanguageEvalCache {
+
+    /**
+     * Language objects with more elements are not cached.
+     */
+    private static final int MAX_KEY_LENGTH = 4096;
+
+    // markers of the elements of the key, compared by identity
+    private static final Object CALL = new Object();
+    private static final Object LOOKUP = new Object();
+    private static final Object FUNCTION_LOOKUP = new Object();
+    private static final Object MISSING_ARG = new Object();
+    private static final Object DOUBLE = new Object();
+    private static final Object STRING_NA = new Object();
+
+    private static final class Key {
+        private final Object[] elements;
+        private final int hash;
+
+        Key(Object[] elements) {
+            this.elements = elements;
+            this.hash = Arrays.hashCode(elements);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key && ((Key) obj).hash == hash && Arrays.equals(((Key) obj).elements, elements);
+        }
+    }
+
+    private int maxSize = -1;
+    private LinkedHashMap<Key, Closure> cache;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long uncacheable;
+
+    /**
+     * Returns the cached closure with the same structure as {@code closure}, or {@code closure}
+     * itself, which is then cached, if there is none or the language object cannot be cached.
+     */
+    @TruffleBoundary
+    public Closure get(Closure closure) {
+        if (getMaxSize() <= 0) {
+            return closure;
+        }
+        RSyntaxElement element = closure.getSyntaxElement();
+        Object[] elements = hasSource(element) ? null : createKey(element);
+        synchronized (this) {
+            if (elements == null) {
+                uncacheable++;
+                return closure;
+            }
+            Key key = new Key(elements);
+            Closure cached = cache.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            cache.put(key, closure);
+            return closure;
+        }
+    }
+
+    private synchronized int getMaxSize() {
+        if (maxSize < 0) {
+            maxSize = Math.max(0, RContext.getInstance().getOption(FastROptions.EvalCacheSize));
+            cache = new LinkedHashMap<Key, Closure>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Closure> eldest) {
+                    if (size() > maxSize) {
+                        evictions++;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+        return maxSize;
+    }
+
+    private static boolean hasSource(RSyntaxElement element) {
+        SourceSection source = element.getLazySourceSection();
+        return source != null && source != RSyntaxNode.SOURCE_UNAVAILABLE && source != RSyntaxNode.LAZY_DEPARSE && !RSyntaxNode.isInternal(source);
+    }
+
+    private static Object[] createKey(RSyntaxElement element) {
+        ArrayList<Object> elements = new ArrayList<>();
+        return addElement(elements, element) ? elements.toArray() : null;
+    }
+
+    private static boolean addElement(ArrayList<Object> elements, RSyntaxElement element) {
+        if (elements.size() > MAX_KEY_LENGTH) {
+            return false;
+        }
+        if (element == null) {
+            elements.add(MISSING_ARG);
+            return true;
+        } else if (element instanceof RSyntaxLookup) {
+            RSyntaxLookup lookup = (RSyntaxLookup) element;
+            elements.add(lookup.isFunctionLookup() ? FUNCTION_LOOKUP : LOOKUP);
+            elements.add(lookup.getIdentifier());
+            return true;
+        } else if (element instanceof RSyntaxConstant) {
+            return addConstant(elements, ((RSyntaxConstant) element).getValue());
+        } else if (element instanceof RSyntaxCall) {
+            RSyntaxCall call = (RSyntaxCall) element;
+            RSyntaxElement[] args = call.getSyntaxArguments();
+            ArgumentsSignature signature = call.getSyntaxSignature();
+            elements.add(CALL);
+            elements.add(args.length);
+            if (!addElement(elements, call.getSyntaxLHS())) {
+                return false;
+            }
+            for (int i = 0; i < args.length; i++) {
+                elements.add(signature.getName(i));
+                if (!addElement(elements, args[i])) {
+                    return false;
+                }
+            }
+            return true;
+        } else {
+            // function definitions
+            return false;
+        }
+    }
+
+    private static boolean addConstant(ArrayList<Object> elements, Object constant) {
+        Object value = constant;
+        if (value instanceof RAbstractVector) {
+            RAbstractVector vector = (RAbstractVector) value;
+            if (vector.getLength() != 1 || vector.getAttributes() != null) {
+                return false;
+            }
+            value = vector.getDataAtAsObject(0);
+        }
+        if (value instanceof Double) {
+            // NA and NaN have to be distinguished
+            elements.add(DOUBLE);
+            elements.add(Double.doubleToRawLongBits((Double) value));
+        } else if (value instanceof String) {
+            elements.add(RRuntime.isNA((String) value) ? STRING_NA : value);
+        } else if (value instanceof Integer || value instanceof Byte || value == RNull.instance || value == RMissing.instance || value == REmpty.instance) {
+            elements.add(value);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of cached closures, hits, misses, evictions and of the language objects
+     * that could not be cached.
+     */
+    public synchronized long[] getStatistics() {
+        return new long[]{cache == null ? 0 : cache.size(), hits, misses, evictions, uncacheable};
+    }
+
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        uncacheable = 0;
+    }
+}
@@ -30,6 +30,7 @@ import java.lang.ref.WeakReference;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 
 import javax.management.MBeanServer;
@@ -63,6 +64,8 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractContainer;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.data.nodes.ShareObjectNode;
 import com.oracle.truffle.r.runtime.ffi.FFIMaterializeNode;
+import com.oracle.truffle.r.runtime.ffi.RFFIStats;
+import com.oracle.truffle.r.runtime.ffi.util.NativeHandleTable;
 import com.oracle.truffle.r.runtime.ffi.util.NativeMemory;
 import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.NativeMemoryWrapper;
@@ -118,20 +121,27 @@ public final class NativeDataAccess {
 
     /**
      * Wraps a handle (number) reserved for a {@link NativeMirror} that escaped to native memory.
-     * Takes care of putting and removing the mapping for that handle from {@link #nativeMirrors}.
+     * Takes care of putting and removing the mapping for that handle from {@link #nativeMirrors},
+     * or from {@link #addressMirrors} if the handle is an actual native address.
      */
     private static final class NativeHandleWrapper extends ReleasableWeakReference<RBaseObject> {
         private final long id;
 
-        private NativeHandleWrapper(long id, RBaseObject referent) {
+        private NativeHandleWrapper(RBaseObject referent) {
             super(referent);
-            this.id = id;
-            addToMirrors(id);
+            this.id = nativeMirrors.add(this);
+        }
+
+        private NativeHandleWrapper(long address, RBaseObject referent) {
+            super(referent);
+            assert !NativeHandleTable.isHandle(address);
+            this.id = address;
+            addToAddressMirrors(address);
         }
 
         @TruffleBoundary
-        private void addToMirrors(long thisId) {
-            nativeMirrors.put(thisId, this);
+        private void addToAddressMirrors(long address) {
+            addressMirrors.put(address, this);
         }
 
         public long getId() {
@@ -145,7 +155,11 @@ public final class NativeDataAccess {
                 // anyway
                 nativeMirrorInfo.remove(id);
             }
-            nativeMirrors.remove(id, this);
+            if (NativeHandleTable.isHandle(id)) {
+                nativeMirrors.release(id, this);
+            } else {
+                addressMirrors.remove(id, this);
+            }
         }
     }
 
@@ -156,9 +170,9 @@ public final class NativeDataAccess {
      * either via NFI or LLVM.
      * <p>
      * When native mirror leaks to actual native code, we create a handle for it (number) and put it
-     * into a hash map. Once a native code returns a value or calls back to Java passing some
-     * arguments, we convert the handles back to the NativeMirror object and to the corresponding
-     * {@link RBaseObject}.
+     * into a {@link NativeHandleTable}. Once a native code returns a value or calls back to Java
+     * passing some arguments, we convert the handles back to the NativeMirror object and to the
+     * corresponding {@link RBaseObject}.
      * <p>
      * For now, native mirror also holds reference to native memory allocated for "nativized"
      * vectors. See {@link com.oracle.truffle.r.runtime.ffi.RObjectDataPtr} for more details.
@@ -239,8 +253,7 @@ public final class NativeDataAccess {
         @TruffleBoundary
         private void initMirror() {
             assert nativeHandle == null;
-            long id = counter.addAndGet(2);
-            nativeHandle = new NativeHandleWrapper(id, delegate);
+            nativeHandle = new NativeHandleWrapper(delegate);
         }
 
         @TruffleBoundary
@@ -323,6 +336,7 @@ public final class NativeDataAccess {
             if (vectorLength != 0) {
                 setDataAddress(NativeMemory.allocate(type, elementsCount, source));
                 NativeMemory.copyMemory(source, dataAddress, type, elementsCount);
+                RFFIStats.vectorToNative(elementsCount * type.getBytes());
             } else {
                 setExternalDataAddress(getEmptyDataAddress());
             }
@@ -332,6 +346,17 @@ public final class NativeDataAccess {
             assert this.length == 0 || dataAddress.getAddress() != getEmptyDataAddress();
         }
 
+        @TruffleBoundary
+        void allocateNativeZeroed(int vectorLength, long elementsCount, ElementType type) {
+            assert getDataAddress() == 0;
+            if (vectorLength != 0) {
+                setDataAddress(NativeMemory.allocateZeroed(type, elementsCount, delegate));
+            } else {
+                setExternalDataAddress(getEmptyDataAddress());
+            }
+            this.length = vectorLength;
+        }
+
         @TruffleBoundary
         void initializeAltrep(RBaseObject altrepVec, long address, int altrepLength) {
             assert altrepVec.isAltRep();
@@ -394,11 +419,12 @@ public final class NativeDataAccess {
         }
     }
 
-    // The map from handles sent to the native code to the RBaseObjects they represent
-    // The counter is initialized to invalid address and incremented by 2 to always get invalid
-    // address value
-    private static final AtomicLong counter = new AtomicLong(0xdef000000000001L);
-    private static final ConcurrentHashMap<Long, NativeHandleWrapper> nativeMirrors = new ConcurrentHashMap<>(512);
+    // The table of handles sent to the native code to the RBaseObjects they represent. The handles
+    // are never valid addresses, mirrors that use an actual native address as their handle are kept
+    // in a separate map.
+    private static final NativeHandleTable<NativeHandleWrapper> nativeMirrors = new NativeHandleTable<>();
+    private static final ConcurrentHashMap<Long, NativeHandleWrapper> addressMirrors = new ConcurrentHashMap<>();
+    private static final LongAdder lookupCount = new LongAdder();
 
     // For debugging purposes:
     private static final ConcurrentHashMap<Long, NativeMirror> dataAddressToNativeMirrors = System.getenv(FastROptions.NATIVE_DATA_INSPECTOR) != null ? new ConcurrentHashMap<>(512) : null;
@@ -483,12 +509,12 @@ public final class NativeDataAccess {
     }
 
     /**
-     * For given native mirror ID returns the Java side object (vector). TruffleBoundary because it
-     * calls into HashMap.
+     * For given native mirror ID returns the Java side object (vector).
      */
     @TruffleBoundary
     public static Object lookup(long address) {
-        NativeHandleWrapper nativeMirror = nativeMirrors.get(address);
+        lookupCount.increment();
+        NativeHandleWrapper nativeMirror = NativeHandleTable.isHandle(address) ? nativeMirrors.get(address) : addressMirrors.get(address);
         RBaseObject result = nativeMirror != null ? nativeMirror.get() : null;
         if (result == null) {
             CompilerDirectives.transferToInterpreter();
@@ -501,7 +527,7 @@ public final class NativeDataAccess {
         if (TRACE_MIRROR_ALLOCATION_SITES) {
             printDataAccessErrorLocation(address);
         }
-        throw RInternalError.shouldNotReachHere("unknown native reference " + address + "L / 0x" + Long.toHexString(address) + " (current id count: " + Long.toHexString(counter.get()) + ")");
+        throw RInternalError.shouldNotReachHere("unknown native reference " + address + "L / 0x" + Long.toHexString(address) + " (current id count: " + Long.toHexString(nativeMirrors.getNextHandle()) + ")");
     }
 
     private static void printDataAccessErrorLocation(long address) {
@@ -514,6 +540,20 @@ public final class NativeDataAccess {
         }
     }
 
+    /**
+     * Number of handles of native mirrors that are currently registered.
+     */
+    public static int getLiveHandlesCount() {
+        return nativeMirrors.size() + addressMirrors.size();
+    }
+
+    /**
+     * Number of {@link #lookup(long)} calls so far.
+     */
+    public static long getLookupsCount() {
+        return lookupCount.sum();
+    }
+
     // methods operating on the native mirror object directly:
 
     public static int getIntNativeMirrorData(NativeMirror nativeMirror, int index) {
@@ -639,6 +679,7 @@ public final class NativeDataAccess {
         assert mirror.getDataAddress() != 0;
         double[] data = new double[(int) mirror.length];
         NativeMemory.copyMemory(mirror.dataAddress, data, ElementType.DOUBLE, data.length);
+        RFFIStats.bytesFromNative(data.length * (long) Double.BYTES);
         return data;
     }
 
@@ -646,6 +687,7 @@ public final class NativeDataAccess {
         assert mirror.getDataAddress() != 0;
         double[] data = new double[(int) (mirror.length << 1)];
         NativeMemory.copyMemory(mirror.dataAddress, data, ElementType.DOUBLE, data.length);
+        RFFIStats.bytesFromNative(data.length * (long) Double.BYTES);
         return data;
     }
 
@@ -653,6 +695,7 @@ public final class NativeDataAccess {
         assert mirror.getDataAddress() != 0;
         int[] data = new int[(int) mirror.length];
         NativeMemory.copyMemory(mirror.dataAddress, data, ElementType.INT, data.length);
+        RFFIStats.bytesFromNative(data.length * (long) Integer.BYTES);
         return data;
     }
 
@@ -660,6 +703,7 @@ public final class NativeDataAccess {
         assert mirror.getDataAddress() != 0;
         byte[] data = new byte[(int) mirror.length];
         NativeMemory.copyMemory(mirror.dataAddress, data, ElementType.BYTE, data.length);
+        RFFIStats.bytesFromNative(data.length);
         return data;
     }
 
@@ -704,18 +748,16 @@ public final class NativeDataAccess {
         }
     }
     // methods operating on vectors that may have a native mirror assigned:
+    // The numeric vectors pass null as data if and only if their data are in native memory, i.e.,
+    // the kind of storage is decided per vector by its VectorData implementation and there is no
+    // need for global "no native vectors" assumptions for them.
 
-    private static final Assumption noIntNative = Truffle.getRuntime().createAssumption("noIntNative");
-    private static final Assumption noLogicalNative = Truffle.getRuntime().createAssumption("noLogicalNative");
-    private static final Assumption noDoubleNative = Truffle.getRuntime().createAssumption("noDoubleNative");
-    private static final Assumption noComplexNative = Truffle.getRuntime().createAssumption("noComplexNative");
-    private static final Assumption noRawNative = Truffle.getRuntime().createAssumption("noRawNative");
     private static final Assumption noCharSXPNative = Truffle.getRuntime().createAssumption("noCharSXPNative");
     private static final Assumption noStringNative = Truffle.getRuntime().createAssumption("noStringNative");
     private static final Assumption noListNative = Truffle.getRuntime().createAssumption("noListNative");
 
     static int getData(RIntVector vector, int[] data, int index) {
-        if (noIntNative.isValid() || data != null) {
+        if (data != null) {
             return data[index];
         } else {
             return getIntNativeMirrorData(vector.getNativeMirror(), index);
@@ -723,7 +765,7 @@ public final class NativeDataAccess {
     }
 
     static int getDataLength(RIntVector vector, int[] data) {
-        if (noIntNative.isValid() || data != null) {
+        if (data != null) {
             return data.length;
         } else {
             return getDataLengthFromMirror(vector.getNativeMirror());
@@ -731,7 +773,7 @@ public final class NativeDataAccess {
     }
 
     static void setDataLength(RIntVector vector, int[] data, int length) {
-        if (noIntNative.isValid() || data != null) {
+        if (data != null) {
             toNative(vector);
             allocateNativeContents(vector, data, length);
         } else {
@@ -756,7 +798,7 @@ public final class NativeDataAccess {
     }
 
     static void setData(RIntVector vector, int[] data, int index, int value) {
-        if (noIntNative.isValid() || data != null) {
+        if (data != null) {
             data[index] = value;
         } else {
             NativeMirror mirror = vector.getNativeMirror();
@@ -766,7 +808,7 @@ public final class NativeDataAccess {
     }
 
     static byte getData(RLogicalVector vector, byte[] data, int index) {
-        if (noLogicalNative.isValid() || data != null) {
+        if (data != null) {
             return data[index];
         } else {
             NativeMirror mirror = vector.getNativeMirror();
@@ -776,7 +818,7 @@ public final class NativeDataAccess {
     }
 
     static int getDataLength(RLogicalVector vector, byte[] data) {
-        if (noLogicalNative.isValid() || data != null) {
+        if (data != null) {
             return data.length;
         } else {
             return (int) vector.getNativeMirror().length;
@@ -784,7 +826,7 @@ public final class NativeDataAccess {
     }
 
     static void setData(RLogicalVector vector, byte[] data, int index, byte value) {
-        if (noLogicalNative.isValid() || data != null) {
+        if (data != null) {
             data[index] = value;
         } else {
             NativeMirror mirror = vector.getNativeMirror();
@@ -794,7 +836,7 @@ public final class NativeDataAccess {
     }
 
     static void setDataLength(RLogicalVector vector, byte[] data, int length) {
-        if (noLogicalNative.isValid() || data != null) {
+        if (data != null) {
             toNative(vector);
             allocateNativeContents(vector, data, length);
         } else {
@@ -815,7 +857,7 @@ public final class NativeDataAccess {
     }
 
     static byte getData(RRawVector vector, byte[] data, int index) {
-        if (noRawNative.isValid() || data != null) {
+        if (data != null) {
             return data[index];
         } else {
             return getRawNativeMirrorData(vector.getNativeMirror(), index);
@@ -823,7 +865,7 @@ public final class NativeDataAccess {
     }
 
     static int getDataLength(RRawVector vector, byte[] data) {
-        if (noRawNative.isValid() || data != null) {
+        if (data != null) {
             return data.length;
         } else {
             return (int) vector.getNativeMirror().length;
@@ -831,7 +873,7 @@ public final class NativeDataAccess {
     }
 
     static void setDataLength(RRawVector vector, byte[] data, int length) {
-        if (noRawNative.isValid() || data != null) {
+        if (data != null) {
             toNative(vector);
             allocateNativeContents(vector, data, length);
         } else {
@@ -852,7 +894,7 @@ public final class NativeDataAccess {
     }
 
     static void setData(RRawVector vector, byte[] data, int index, byte value) {
-        if (noRawNative.isValid() || data != null) {
+        if (data != null) {
             data[index] = value;
         } else {
             NativeMirror mirror = vector.getNativeMirror();
@@ -862,7 +904,7 @@ public final class NativeDataAccess {
     }
 
     static double getData(RDoubleVector vector, double[] data, int index) {
-        if (noDoubleNative.isValid() || data != null) {
+        if (data != null) {
             return data[index];
         } else {
             return getDoubleNativeMirrorData(vector.getNativeMirror(), index);
@@ -870,7 +912,7 @@ public final class NativeDataAccess {
     }
 
     static int getDataLength(RDoubleVector vector, double[] data) {
-        if (noDoubleNative.isValid() || data != null) {
+        if (data != null) {
             return data.length;
         } else {
             return (int) vector.getNativeMirror().length;
@@ -878,7 +920,7 @@ public final class NativeDataAccess {
     }
 
     static void setDataLength(RDoubleVector vector, double[] data, int length) {
-        if (noDoubleNative.isValid() || data != null) {
+        if (data != null) {
             toNative(vector);
             allocateNativeContents(vector, data, length);
         } else {
@@ -899,7 +941,7 @@ public final class NativeDataAccess {
     }
 
     static void setData(RDoubleVector vector, double[] data, int index, double value) {
-        if (noDoubleNative.isValid() || data != null) {
+        if (data != null) {
             data[index] = value;
         } else {
             setNativeMirrorDoubleData(vector.getNativeMirror(), index, value);
@@ -907,7 +949,7 @@ public final class NativeDataAccess {
     }
 
     static RComplex getData(RComplexVector vector, double[] data, int index) {
-        if (noComplexNative.isValid() || data != null) {
+        if (data != null) {
             return RComplex.valueOf(data[index * 2], data[index * 2 + 1]);
         } else {
             return getComplexNativeMirrorData(vector.getNativeMirror(), index);
@@ -915,7 +957,7 @@ public final class NativeDataAccess {
     }
 
     static double getRawComplexData(RComplexVector vector, double[] data, int index) {
-        if (noComplexNative.isValid() || data != null) {
+        if (data != null) {
             return data[index];
         } else {
             return getComplexNativeMirrorRawData(vector.getNativeMirror(), index);
@@ -923,7 +965,7 @@ public final class NativeDataAccess {
     }
 
     static double getDataR(RComplexVector vector, double[] data, int index) {
-        if (noComplexNative.isValid() || data != null) {
+        if (data != null) {
             return data[index * 2];
         } else {
             return getComplexNativeMirrorDataR(vector.getNativeMirror(), index);
@@ -931,7 +973,7 @@ public final class NativeDataAccess {
     }
 
     static double getDataI(RComplexVector vector, double[] data, int index) {
-        if (noComplexNative.isValid() || data != null) {
+        if (data != null) {
             return data[index * 2 + 1];
         } else {
             return getComplexNativeMirrorDataI(vector.getNativeMirror(), index);
@@ -939,7 +981,7 @@ public final class NativeDataAccess {
     }
 
     static double getComplexPart(RComplexVector vector, double[] data, int index) {
-        if (noComplexNative.isValid() || data != null) {
+        if (data != null) {
             return data[index];
         } else {
             return getDoubleNativeMirrorData(vector.getNativeMirror(), index);
@@ -947,7 +989,7 @@ public final class NativeDataAccess {
     }
 
     static int getDataLength(RComplexVector vector, double[] data) {
-        if (noComplexNative.isValid() || data != null) {
+        if (data != null) {
             return data.length >> 1;
         } else {
             return (int) vector.getNativeMirror().length;
@@ -955,7 +997,7 @@ public final class NativeDataAccess {
     }
 
     static void setDataLength(RComplexVector vector, double[] data, int length) {
-        if (noComplexNative.isValid() || data != null) {
+        if (data != null) {
             toNative(vector);
             allocateNativeContents(vector, data, length);
         } else {
@@ -976,7 +1018,7 @@ public final class NativeDataAccess {
     }
 
     static void setData(RComplexVector vector, double[] data, int index, double re, double im) {
-        if (noComplexNative.isValid() || data != null) {
+        if (data != null) {
             data[index * 2] = re;
             data[index * 2 + 1] = im;
         } else {
@@ -988,7 +1030,7 @@ public final class NativeDataAccess {
     }
 
     static void setData(RComplexVector vector, double[] data, int index, double value) {
-        if (noComplexNative.isValid() || data != null) {
+        if (data != null) {
             data[index] = value;
         } else {
             NativeMirror mirror = vector.getNativeMirror();
@@ -1169,7 +1211,6 @@ public final class NativeDataAccess {
             for (int i = 0; i < data.length; i++) {
                 intArray[i] = RRuntime.logical2int(data[i]);
             }
-            noLogicalNative.invalidate();
             mirror.allocateNative(intArray, length, data.length, ElementType.INT);
         }
         return mirror.dataAddress.getAddress();
@@ -1181,12 +1222,22 @@ public final class NativeDataAccess {
         assert mirror.dataAddress == null ^ data == null : mirror;
         if (mirror.dataAddress == null) {
             assert mirror.length == 0 && mirror.truelength == 0 : "mirror.length=" + mirror.length + ", mirror.truelength=" + mirror.truelength;
-            noIntNative.invalidate();
             mirror.allocateNative(data, length, data.length, ElementType.INT);
         }
         return mirror.dataAddress.getAddress();
     }
 
+    /**
+     * Allocates zero-initialized native memory for a vector that has no data yet. The memory is
+     * owned by the vector, which can be passed to the native code without any copying.
+     */
+    static void allocateNativeContents(RBaseObject vector, int length, long elementsCount, ElementType type) {
+        toNative(vector);
+        NativeMirror mirror = vector.getNativeMirror();
+        assert mirror.dataAddress == null && mirror.length == 0 && mirror.truelength == 0 : mirror;
+        mirror.allocateNativeZeroed(length, elementsCount, type);
+    }
+
     /**
      * Prepares the given ALTREP vector for usage in native code. Does not allocate any native
      * memory.
@@ -1214,7 +1265,6 @@ public final class NativeDataAccess {
         assert mirror.dataAddress == null ^ data == null : mirror;
         if (mirror.dataAddress == null) {
             assert mirror.length == 0 && mirror.truelength == 0 : "mirror.length=" + mirror.length + ", mirror.truelength=" + mirror.truelength;
-            noRawNative.invalidate();
             mirror.allocateNative(data, length, data.length, ElementType.BYTE);
         }
         return mirror.dataAddress.getAddress();
@@ -1226,7 +1276,6 @@ public final class NativeDataAccess {
         assert mirror.dataAddress == null ^ data == null : mirror;
         if (mirror.dataAddress == null) {
             assert mirror.length == 0 && mirror.truelength == 0 : "mirror.length=" + mirror.length + ", mirror.truelength=" + mirror.truelength;
-            noDoubleNative.invalidate();
             mirror.allocateNative(data, length, data.length, ElementType.DOUBLE);
         }
         return mirror.dataAddress.getAddress();
@@ -1238,7 +1287,6 @@ public final class NativeDataAccess {
         assert mirror.dataAddress == null ^ data == null : mirror;
         if (mirror.dataAddress == null) {
             assert mirror.length == 0 && mirror.truelength == 0 : "mirror.length=" + mirror.length + ", mirror.truelength=" + mirror.truelength;
-            noComplexNative.invalidate();
             mirror.allocateNative(data, length, data.length * 2L, ElementType.DOUBLE);
         }
         return mirror.dataAddress.getAddress();
@@ -1332,17 +1380,7 @@ public final class NativeDataAccess {
 
     public static void setNativeContents(RBaseObject obj, long address, int length) {
         assert obj.getNativeMirror() != null;
-        if (noDoubleNative.isValid() && obj instanceof RDoubleVector) {
-            noDoubleNative.invalidate();
-        } else if (noComplexNative.isValid() && obj instanceof RComplexVector) {
-            noComplexNative.invalidate();
-        } else if (noIntNative.isValid() && obj instanceof RIntVector) {
-            noIntNative.invalidate();
-        } else if (noRawNative.isValid() && obj instanceof RRawVector) {
-            noRawNative.invalidate();
-        } else if (noLogicalNative.isValid() && obj instanceof RLogicalVector) {
-            noLogicalNative.invalidate();
-        } else if (noStringNative.isValid() && obj instanceof RStringVector) {
+        if (noStringNative.isValid() && obj instanceof RStringVector) {
             noStringNative.invalidate();
         }
         NativeMirror mirror = obj.getNativeMirror();
@@ -1381,6 +1419,8 @@ public final class NativeDataAccess {
     public interface NativeDataInspectorMBean {
         int getNativeMirrorsSize();
 
+        long getLookupsCount();
+
         String getObject(String idString);
 
         String getAttribute(String idString, String attrName);
@@ -1407,7 +1447,12 @@ public final class NativeDataAccess {
 
         @Override
         public int getNativeMirrorsSize() {
-            return NativeDataAccess.nativeMirrors.size();
+            return NativeDataAccess.getLiveHandlesCount();
+        }
+
+        @Override
+        public long getLookupsCount() {
+            return NativeDataAccess.getLookupsCount();
         }
 
         @Override
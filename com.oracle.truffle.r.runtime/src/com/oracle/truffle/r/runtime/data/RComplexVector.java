@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -50,6 +50,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector.RMaterializedVect
 import com.oracle.truffle.r.runtime.data.nodes.FastPathVectorAccess.FastPathFromComplexAccess;
 import com.oracle.truffle.r.runtime.data.nodes.SlowPathVectorAccess.SlowPathFromComplexAccess;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 @ExportLibrary(InteropLibrary.class)
@@ -105,6 +106,17 @@ public final class RComplexVector extends RAbstractAtomicVector implements RMate
         return result;
     }
 
+    /**
+     * Creates a vector with zero-initialized data in native memory, which can be passed to the
+     * native code without copying.
+     */
+    static RComplexVector createNative(int length) {
+        RComplexVector result = new RComplexVector();
+        NativeDataAccess.allocateNativeContents(result, length, length * 2L, ElementType.DOUBLE);
+        result.setData(new RComplexNativeVectorData(result), length);
+        return result;
+    }
+
     public static RComplexVector createAltComplex(AltComplexClassDescriptor descriptor, RAltRepData altRepData) {
         RAltComplexVectorData altComplexVectorData = new RAltComplexVectorData(descriptor, altRepData);
         RComplexVector altComplexVec = new RComplexVector();
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -675,6 +675,10 @@ public final class RDataFactory {
             return traceDataCreated(new RFunction(name, packageName, target, builtin, enclosingFrame));
         }
 
+        public final RFunction createLazyFunction(String name, String packageName, RFunction.LazyTarget target, MaterializedFrame enclosingFrame) {
+            return traceDataCreated(new RFunction(name, packageName, target, enclosingFrame));
+        }
+
         private static final AtomicInteger environmentCount = new AtomicInteger();
 
         @TruffleBoundary
@@ -791,6 +795,29 @@ public final class RDataFactory {
         }
     }
 
+    /**
+     * Like {@link #createEmptyVectorFromSEXPType(SEXPTYPE, int)}, but the data of numeric, logical
+     * and raw vectors are allocated in native memory, which is useful for vectors created by and
+     * for native code.
+     */
+    @TruffleBoundary
+    public static Object createEmptyNativeVectorFromSEXPType(SEXPTYPE type, int length) {
+        switch (type) {
+            case INTSXP:
+                return traceDataCreated(RIntVector.createNative(length));
+            case REALSXP:
+                return traceDataCreated(RDoubleVector.createNative(length));
+            case LGLSXP:
+                return traceDataCreated(RLogicalVector.createNative(length));
+            case CPLXSXP:
+                return traceDataCreated(RComplexVector.createNative(length));
+            case RAWSXP:
+                return traceDataCreated(RRawVector.createNative(length));
+            default:
+                return createEmptyVectorFromSEXPType(type, length);
+        }
+    }
+
     public static RIntVector createIntVectorFromNative(long address, int length) {
         return traceDataCreated(RIntVector.fromNative(address, length));
     }
@@ -1311,6 +1338,13 @@ public final class RDataFactory {
         return traceDataCreated(new RFunction(name, packageName, target, builtin, enclosingFrame));
     }
 
+    /**
+     * Creates a closure whose call target is created by {@code target} when it is first needed.
+     */
+    public static RFunction createLazyFunction(String name, String packageName, RFunction.LazyTarget target, MaterializedFrame enclosingFrame) {
+        return traceDataCreated(new RFunction(name, packageName, target, enclosingFrame));
+    }
+
     private static final AtomicInteger environmentCount = new AtomicInteger();
 
     @TruffleBoundary
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -47,6 +47,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector.RMaterializedVect
 import com.oracle.truffle.r.runtime.data.nodes.FastPathVectorAccess.FastPathFromDoubleAccess;
 import com.oracle.truffle.r.runtime.data.nodes.SlowPathVectorAccess.SlowPathFromDoubleAccess;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 @ExportLibrary(AbstractContainerLibrary.class)
@@ -117,6 +118,17 @@ public final class RDoubleVector extends RAbstractNumericVector implements RMate
         return result;
     }
 
+    /**
+     * Creates a vector with zero-initialized data in native memory, which can be passed to the
+     * native code without copying.
+     */
+    static RDoubleVector createNative(int length) {
+        RDoubleVector result = new RDoubleVector();
+        NativeDataAccess.allocateNativeContents(result, length, length, ElementType.DOUBLE);
+        result.setData(new RDoubleNativeVectorData(result), length);
+        return result;
+    }
+
     @Override
     @Ignore // AbstractContainerLibrary
     public boolean isMaterialized() {
@@ -128,6 +140,16 @@ public final class RDoubleVector extends RAbstractNumericVector implements RMate
         return data instanceof RDoubleForeignObjData;
     }
 
+    @Override
+    public boolean growInPlace(int newLength) {
+        if (data instanceof GrowableVectorData) {
+            ((GrowableVectorData) data).grow(newLength);
+            length = newLength;
+            return true;
+        }
+        return false;
+    }
+
     @Override
     public boolean isSequence() {
         return data instanceof RDoubleSeqVectorData;
@@ -251,6 +273,18 @@ public final class RDoubleVector extends RAbstractNumericVector implements RMate
         return VectorDataLibrary.getFactory().getUncached().getReadonlyDoubleData(data);
     }
 
+    /**
+     * Records in the data that the elements are sorted in the given direction, if they are and
+     * there are no {@code NA}s, see {@link VectorDataLibrary#isSortedComplete(Object, boolean)}.
+     * Only managed data can record it. Returns this vector.
+     */
+    public RDoubleVector markSorted(boolean decreasing) {
+        if (data instanceof RDoubleArrayVectorData) {
+            ((RDoubleArrayVectorData) data).markSorted(decreasing);
+        }
+        return this;
+    }
+
     private RDoubleVector updateDataAt(int index, double value, NACheck naCheck) {
         assert !this.isShared();
         assert !RRuntime.isNA(value) || naCheck.isEnabled();
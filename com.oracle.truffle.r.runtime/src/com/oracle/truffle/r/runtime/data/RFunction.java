@@ -22,6 +22,9 @@
  */
 package com.oracle.truffle.r.runtime.data;
 
+import java.util.function.Supplier;
+
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
@@ -54,7 +57,9 @@ import com.oracle.truffle.r.runtime.interop.R2ForeignNodeGen;
  * are as follows:
  * <ul>
  * <li>The {@link #name} is optional. It is only set initially for builtins (required).
- * <li>The {@link #target} represents the actually callable entry point to the function.
+ * <li>The {@link #target} represents the actually callable entry point to the function. It can be
+ * created lazily, on the first request, by a {@link LazyTarget}, see
+ * {@link RDataFactory#createLazyFunction}.
  * <li>Functions may represent builtins; this is indicated by the {@link #builtin} flag set to the
  * associated {@link RBuiltin} instance.
  * <li>The lexically enclosing environment of this function's definition is referenced by
@@ -69,6 +74,7 @@ public final class RFunction extends RSharingAttributeStorage implements Shareab
     private final String name;
     private final String packageName;
     @CompilationFinal private RootCallTarget target;
+    @CompilationFinal private LazyTarget lazyTarget;
     private final RBuiltinDescriptor builtin;
 
     @CompilationFinal private MaterializedFrame enclosingFrame;
@@ -85,6 +91,35 @@ public final class RFunction extends RSharingAttributeStorage implements Shareab
         this.enclosingFrame = enclosingFrame instanceof VirtualEvalFrame ? ((VirtualEvalFrame) enclosingFrame).getOriginalFrame() : enclosingFrame;
     }
 
+    RFunction(String name, String packageName, LazyTarget lazyTarget, MaterializedFrame enclosingFrame) {
+        this(name, packageName, (RootCallTarget) null, null, enclosingFrame);
+        this.lazyTarget = lazyTarget;
+    }
+
+    /**
+     * Creates the call target of a closure when it is needed for the first time. Functions that are
+     * deserialized from the lazy-load databases of packages keep their arguments and body in the
+     * compact pairlist form until they are called, inspected or copied, so that the functions of a
+     * package that are never called do not pay for building and keeping their AST. A lazy target
+     * can be shared by several {@link RFunction copies} and creates the call target only once.
+     */
+    public static final class LazyTarget {
+        private Supplier<RootCallTarget> factory;
+        private RootCallTarget target;
+
+        public LazyTarget(Supplier<RootCallTarget> factory) {
+            this.factory = factory;
+        }
+
+        synchronized RootCallTarget get() {
+            if (target == null) {
+                target = factory.get();
+                factory = null;
+            }
+            return target;
+        }
+    }
+
     @SuppressWarnings("static-method")
     @ExportMessage
     boolean isExecutable() {
@@ -135,11 +170,37 @@ public final class RFunction extends RSharingAttributeStorage implements Shareab
     }
 
     public RootCallTarget getTarget() {
+        if (lazyTarget != null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            return materializeTarget();
+        }
         return target;
     }
 
     public RootNode getRootNode() {
-        return target != null ? target.getRootNode() : null;
+        RootCallTarget callTarget = getTarget();
+        return callTarget != null ? callTarget.getRootNode() : null;
+    }
+
+    /**
+     * Returns {@code true} if the call target of this function was not created yet.
+     */
+    public boolean isLazy() {
+        return lazyTarget != null;
+    }
+
+    @TruffleBoundary
+    private synchronized RootCallTarget materializeTarget() {
+        LazyTarget lazy = lazyTarget;
+        if (lazy != null) {
+            RootCallTarget callTarget = lazy.get();
+            if (name != NO_NAME) {
+                RContext.getRRuntimeASTAccess().setFunctionName(callTarget.getRootNode(), name);
+            }
+            target = callTarget;
+            lazyTarget = null;
+        }
+        return target;
     }
 
     public MaterializedFrame getEnclosingFrame() {
@@ -148,12 +209,14 @@ public final class RFunction extends RSharingAttributeStorage implements Shareab
 
     @Override
     public String toString() {
-        return target.toString();
+        return getTarget().toString();
     }
 
     @Override
     public RFunction copy() {
-        RFunction newFunction = RDataFactory.createFunction(getName(), getPackageName(), getTarget(), getRBuiltin(), getEnclosingFrame());
+        LazyTarget lazy = lazyTarget;
+        RFunction newFunction = lazy != null ? RDataFactory.createLazyFunction(getName(), getPackageName(), lazy, getEnclosingFrame())
+                        : RDataFactory.createFunction(getName(), getPackageName(), getTarget(), getRBuiltin(), getEnclosingFrame());
         if (getAttributes() != null) {
             newFunction.initAttributes(RAttributesLayout.copy(getAttributes()));
         }
@@ -162,6 +225,7 @@ public final class RFunction extends RSharingAttributeStorage implements Shareab
     }
 
     public void reassignTarget(RootCallTarget newTarget) {
+        this.lazyTarget = null;
         this.target = newTarget;
     }
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -26,6 +26,7 @@ import static com.oracle.truffle.r.runtime.data.model.RAbstractVector.ENABLE_COM
 
 import java.util.Arrays;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.interop.TruffleObject;
@@ -44,12 +45,27 @@ import com.oracle.truffle.r.runtime.data.VectorDataLibrary.SeqWriteIterator;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 @ExportLibrary(VectorDataLibrary.class)
-public class RIntArrayVectorData implements TruffleObject, ShareableVectorData {
-    private final int[] data;
+public class RIntArrayVectorData implements TruffleObject, GrowableVectorData {
+    private static final byte SORTED_UNKNOWN = 0;
+    private static final byte SORTED_INCREASING = 1;
+    private static final byte SORTED_DECREASING = 2;
+
+    private int[] data;
+    /**
+     * The number of elements, the rest of {@link #data} is spare capacity, see
+     * {@link GrowableVectorData}.
+     */
+    private int length;
     private boolean complete;
+    /**
+     * Whether the elements are known to be sorted, only recorded for complete data by
+     * {@link #markSorted(boolean)} and reset by any write.
+     */
+    private byte sorted = SORTED_UNKNOWN;
 
     public RIntArrayVectorData(int[] data, boolean complete) {
         this.data = data;
+        this.length = data.length;
         this.complete = complete && ENABLE_COMPLETE;
     }
 
@@ -68,7 +84,7 @@ public class RIntArrayVectorData implements TruffleObject, ShareableVectorData {
 
     @ExportMessage
     public int getLength() {
-        return data.length;
+        return length;
     }
 
     @ExportMessage
@@ -83,7 +99,9 @@ public class RIntArrayVectorData implements TruffleObject, ShareableVectorData {
 
     @ExportMessage
     public RIntArrayVectorData copy(@SuppressWarnings("unused") boolean deep) {
-        return new RIntArrayVectorData(Arrays.copyOf(data, data.length), isComplete());
+        RIntArrayVectorData result = new RIntArrayVectorData(Arrays.copyOf(data, length), isComplete());
+        result.sorted = sorted;
+        return result;
     }
 
     @ExportMessage
@@ -91,14 +109,58 @@ public class RIntArrayVectorData implements TruffleObject, ShareableVectorData {
         return complete && ENABLE_COMPLETE;
     }
 
+    @ExportMessage
+    public boolean isSorted(boolean descending, @SuppressWarnings("unused") boolean naLast) {
+        return sorted == (descending ? SORTED_DECREASING : SORTED_INCREASING);
+    }
+
+    /**
+     * Records that the elements are sorted in the given direction if they are and there are no
+     * {@code NA}s. Scans the data, returns whether it is sorted.
+     */
+    @TruffleBoundary
+    public boolean markSorted(boolean descending) {
+        for (int i = 0; i < length; i++) {
+            if (RRuntime.isNA(data[i]) || (i > 0 && (descending ? data[i - 1] < data[i] : data[i - 1] > data[i]))) {
+                return false;
+            }
+        }
+        complete = ENABLE_COMPLETE;
+        setSorted(descending);
+        return true;
+    }
+
+    /**
+     * Records that the elements are sorted, which the caller guarantees.
+     */
+    void setSorted(boolean descending) {
+        assert complete || !ENABLE_COMPLETE;
+        sorted = descending ? SORTED_DECREASING : SORTED_INCREASING;
+    }
+
     @ExportMessage
     public int[] getReadonlyIntData() {
+        if (data.length != length) {
+            data = Arrays.copyOf(data, length);
+        }
         return data;
     }
 
     @ExportMessage
     public int[] getIntDataCopy() {
-        return Arrays.copyOf(data, data.length);
+        return Arrays.copyOf(data, length);
+    }
+
+    @Override
+    public void grow(int newLength) {
+        assert newLength > length;
+        if (newLength > data.length) {
+            data = Arrays.copyOf(data, GrowableVectorData.newCapacity(data.length, newLength));
+        }
+        Arrays.fill(data, length, newLength, RRuntime.INT_NA);
+        length = newLength;
+        complete = false;
+        sorted = SORTED_UNKNOWN;
     }
 
     // Read access to the elements:
@@ -107,7 +169,7 @@ public class RIntArrayVectorData implements TruffleObject, ShareableVectorData {
     public SeqIterator iterator(
                     @Shared("naCheck") @Cached() NACheck naCheck,
                     @Shared("SeqItLoopProfile") @Cached("createCountingProfile()") LoopConditionProfile loopProfile) {
-        SeqIterator it = new SeqIterator(data, data.length);
+        SeqIterator it = new SeqIterator(data, length);
         naCheck.enable(!isComplete());
         it.initLoopConditionProfile(loopProfile);
         return it;
@@ -160,11 +222,13 @@ public class RIntArrayVectorData implements TruffleObject, ShareableVectorData {
 
     @ExportMessage
     public SeqWriteIterator writeIterator() {
-        return new SeqWriteIterator(data, data.length);
+        sorted = SORTED_UNKNOWN;
+        return new SeqWriteIterator(data, length);
     }
 
     @ExportMessage
     public RandomAccessWriteIterator randomAccessWriteIterator() {
+        sorted = SORTED_UNKNOWN;
         return new RandomAccessWriteIterator(data);
     }
 
@@ -189,6 +253,7 @@ public class RIntArrayVectorData implements TruffleObject, ShareableVectorData {
     @ExportMessage
     public void setIntAt(int index, int value, @Shared("setCompleteProfile") @Cached BranchProfile setCompleteProfile) {
         data[index] = value;
+        sorted = SORTED_UNKNOWN;
         if (RRuntime.isNA(value)) {
             setCompleteProfile.enter();
             complete = false;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, 2020, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -105,6 +105,10 @@ public class RIntSeqVectorData implements RSeq, TruffleObject {
         if (element < first || element > last) {
             return -1;
         }
+        if (getStride() == 0) {
+            // constant vector, e.g., from rep(x, n)
+            return 0;
+        }
         if ((element - getStart()) % getStride() == 0) {
             return (element - getStart()) / getStride();
         }
@@ -119,7 +123,9 @@ public class RIntSeqVectorData implements RSeq, TruffleObject {
 
     @ExportMessage
     public RIntArrayVectorData materialize(@Shared("naCheck") @Cached() NACheck naCheck) {
-        return new RIntArrayVectorData(getIntDataCopy(naCheck), isComplete());
+        RIntArrayVectorData result = new RIntArrayVectorData(getIntDataCopy(naCheck), isComplete());
+        result.setSorted(stride < 0);
+        return result;
     }
 
     @ExportMessage
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -50,6 +50,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.data.nodes.FastPathVectorAccess.FastPathFromIntAccess;
 import com.oracle.truffle.r.runtime.data.nodes.SlowPathVectorAccess.SlowPathFromIntAccess;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 @ExportLibrary(AbstractContainerLibrary.class)
@@ -91,6 +92,17 @@ public final class RIntVector extends RAbstractNumericVector {
         return result;
     }
 
+    /**
+     * Creates a vector with zero-initialized data in native memory, which can be passed to the
+     * native code without copying.
+     */
+    static RIntVector createNative(int length) {
+        RIntVector result = new RIntVector();
+        NativeDataAccess.allocateNativeContents(result, length, length, ElementType.INT);
+        result.setData(new RIntNativeVectorData(result), length);
+        return result;
+    }
+
     public static RIntVector createSequence(int start, int stride, int length) {
         return new RIntVector(new RIntSeqVectorData(start, stride, length), length);
     }
@@ -154,6 +166,16 @@ public final class RIntVector extends RAbstractNumericVector {
         return data instanceof RIntForeignObjData;
     }
 
+    @Override
+    public boolean growInPlace(int newLength) {
+        if (data instanceof GrowableVectorData) {
+            ((GrowableVectorData) data).grow(newLength);
+            length = newLength;
+            return true;
+        }
+        return false;
+    }
+
     // ---------------------
 
     @Override
@@ -265,6 +287,18 @@ public final class RIntVector extends RAbstractNumericVector {
         return VectorDataLibrary.getFactory().getUncached().getReadonlyIntData(data);
     }
 
+    /**
+     * Records in the data that the elements are sorted in the given direction, if they are and
+     * there are no {@code NA}s, see {@link VectorDataLibrary#isSortedComplete(Object, boolean)}.
+     * Only managed data can record it. Returns this vector.
+     */
+    public RIntVector markSorted(boolean decreasing) {
+        if (data instanceof RIntArrayVectorData) {
+            ((RIntArrayVectorData) data).markSorted(decreasing);
+        }
+        return this;
+    }
+
     private RIntVector updateDataAt(int index, int value, NACheck valueNACheck) {
         assert !this.isShared();
         assert !RRuntime.isNA(value) || valueNACheck.isEnabled();
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -49,6 +49,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector.RMaterializedVect
 import com.oracle.truffle.r.runtime.data.nodes.FastPathVectorAccess.FastPathFromLogicalAccess;
 import com.oracle.truffle.r.runtime.data.nodes.SlowPathVectorAccess.SlowPathFromLogicalAccess;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 @ExportLibrary(InteropLibrary.class)
@@ -107,6 +108,17 @@ public final class RLogicalVector extends RAbstractAtomicVector implements RMate
         return result;
     }
 
+    /**
+     * Creates a vector with zero-initialized data in native memory, which can be passed to the
+     * native code without copying.
+     */
+    static RLogicalVector createNative(int length) {
+        RLogicalVector result = new RLogicalVector();
+        NativeDataAccess.allocateNativeContents(result, length, length, ElementType.INT);
+        result.setData(new RLogicalNativeVectorData(result), length);
+        return result;
+    }
+
     @ExportMessage
     boolean isNull(
                     @CachedLibrary(limit = DATA_LIB_LIMIT) VectorDataLibrary dataLib,
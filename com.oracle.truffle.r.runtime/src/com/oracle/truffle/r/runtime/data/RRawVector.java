@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -45,6 +45,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector.RMaterializedVect
 import com.oracle.truffle.r.runtime.data.nodes.FastPathVectorAccess.FastPathFromRawAccess;
 import com.oracle.truffle.r.runtime.data.nodes.SlowPathVectorAccess.SlowPathFromRawAccess;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 @ExportLibrary(AbstractContainerLibrary.class)
@@ -86,6 +87,17 @@ public final class RRawVector extends RAbstractNumericVector implements RMateria
         return result;
     }
 
+    /**
+     * Creates a vector with zero-initialized data in native memory, which can be passed to the
+     * native code without copying.
+     */
+    static RRawVector createNative(int length) {
+        RRawVector result = new RRawVector();
+        NativeDataAccess.allocateNativeContents(result, length, length, ElementType.BYTE);
+        result.setData(new RRawNativeVectorData(result), length);
+        return result;
+    }
+
     @CompilerDirectives.TruffleBoundary
     public static RRawVector createAltRaw(AltRawClassDescriptor descriptor, RAltRepData altRepData) {
         RAltRawVectorData altRawVectorData = new RAltRawVectorData(descriptor, altRepData);
@@ -191,7 +191,7 @@ public final class RS4Object extends RSharingAttributeStorage implements Shareab
     }
 
     protected static CallTarget createUpdateCallTarget() {
-        return RContext.getInstance().getOrCreateCachedCallTarget(UpdateSlotRootNode.class, () -> new UpdateSlotRootNode().getCallTarget());
+        return RContext.getInstance().getOrCreateSharedCallTarget(UpdateSlotRootNode.class, () -> new UpdateSlotRootNode().getCallTarget());
     }
 
     private static class UpdateSlotRootNode extends RootNode {
@@ -209,7 +209,7 @@ public final class RS4Object extends RSharingAttributeStorage implements Shareab
     }
 
     protected static CallTarget createAccessCallTarget() {
-        return RContext.getInstance().getOrCreateCachedCallTarget(AccessSlotRootNode.class, () -> new AccessSlotRootNode().getCallTarget());
+        return RContext.getInstance().getOrCreateSharedCallTarget(AccessSlotRootNode.class, () -> new AccessSlotRootNode().getCallTarget());
     }
 
     private static class AccessSlotRootNode extends RootNode {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -22,6 +22,7 @@
  */
 package com.oracle.truffle.r.runtime.data;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.interop.TruffleObject;
@@ -44,17 +45,31 @@ import java.util.Arrays;
 import static com.oracle.truffle.r.runtime.data.model.RAbstractVector.ENABLE_COMPLETE;
 
 @ExportLibrary(VectorDataLibrary.class)
-class RStringArrayVectorData implements TruffleObject, ShareableVectorData {
-    private final String[] data;
+class RStringArrayVectorData implements TruffleObject, GrowableVectorData {
+    private static final byte ASCII_UNKNOWN = 0;
+    private static final byte ASCII_YES = 1;
+    private static final byte ASCII_NO = 2;
+
+    private String[] data;
+    /**
+     * The number of elements, the rest of {@link #data} is spare capacity, see
+     * {@link GrowableVectorData}.
+     */
+    private int length;
     private boolean complete;
+    /**
+     * Whether all the strings are ASCII, determined on the first query and reset by any write.
+     */
+    private byte ascii = ASCII_UNKNOWN;
 
     RStringArrayVectorData(String[] data, boolean complete) {
         this.data = data;
+        this.length = data.length;
         this.complete = complete && ENABLE_COMPLETE;
     }
 
     public RStringCharSXPData wrapStrings() {
-        CharSXPWrapper[] result = new CharSXPWrapper[data.length];
+        CharSXPWrapper[] result = new CharSXPWrapper[length];
         for (int i = 0; i < result.length; i++) {
             result[i] = CharSXPWrapper.create(data[i]);
         }
@@ -76,7 +91,7 @@ class RStringArrayVectorData implements TruffleObject, ShareableVectorData {
 
     @ExportMessage
     public int getLength() {
-        return data.length;
+        return length;
     }
 
     @ExportMessage
@@ -96,7 +111,9 @@ class RStringArrayVectorData implements TruffleObject, ShareableVectorData {
 
     @ExportMessage
     public RStringArrayVectorData copy(@SuppressWarnings("unused") boolean deep) {
-        return new RStringArrayVectorData(Arrays.copyOf(data, data.length), isComplete());
+        RStringArrayVectorData result = new RStringArrayVectorData(Arrays.copyOf(data, length), isComplete());
+        result.ascii = ascii;
+        return result;
     }
 
     @ExportMessage
@@ -104,14 +121,47 @@ class RStringArrayVectorData implements TruffleObject, ShareableVectorData {
         return complete && ENABLE_COMPLETE;
     }
 
+    @ExportMessage
+    public boolean isASCII() {
+        if (ascii == ASCII_UNKNOWN) {
+            ascii = computeASCII(data, length) ? ASCII_YES : ASCII_NO;
+        }
+        return ascii == ASCII_YES;
+    }
+
+    @TruffleBoundary
+    private static boolean computeASCII(String[] data, int length) {
+        for (int i = 0; i < length; i++) {
+            String s = data[i];
+            if (!RRuntime.isNA(s) && !RRuntime.isASCII(s)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @ExportMessage
     public String[] getReadonlyStringData() {
+        if (data.length != length) {
+            data = Arrays.copyOf(data, length);
+        }
         return data;
     }
 
     @ExportMessage
     public String[] getStringDataCopy() {
-        return Arrays.copyOf(data, data.length);
+        return Arrays.copyOf(data, length);
+    }
+
+    @Override
+    public void grow(int newLength) {
+        assert newLength > length;
+        if (newLength > data.length) {
+            data = Arrays.copyOf(data, GrowableVectorData.newCapacity(data.length, newLength));
+        }
+        Arrays.fill(data, length, newLength, RRuntime.STRING_NA);
+        length = newLength;
+        complete = false;
     }
 
     // Read access to the elements:
@@ -120,7 +170,7 @@ class RStringArrayVectorData implements TruffleObject, ShareableVectorData {
     public SeqIterator iterator(
                     @Shared("naCheck") @Cached() NACheck naCheck,
                     @Shared("SeqItLoopProfile") @Cached("createCountingProfile()") LoopConditionProfile loopProfile) {
-        SeqIterator it = new SeqIterator(data, data.length);
+        SeqIterator it = new SeqIterator(data, length);
         naCheck.enable(!isComplete());
         it.initLoopConditionProfile(loopProfile);
         return it;
@@ -173,11 +223,13 @@ class RStringArrayVectorData implements TruffleObject, ShareableVectorData {
 
     @ExportMessage
     public SeqWriteIterator writeIterator() {
-        return new SeqWriteIterator(data, data.length);
+        ascii = ASCII_UNKNOWN;
+        return new SeqWriteIterator(data, length);
     }
 
     @ExportMessage
     public RandomAccessWriteIterator randomAccessWriteIterator() {
+        ascii = ASCII_UNKNOWN;
         return new RandomAccessWriteIterator(data);
     }
 
@@ -202,6 +254,7 @@ class RStringArrayVectorData implements TruffleObject, ShareableVectorData {
     @ExportMessage
     public void setStringAt(int index, String value, @Shared("setCompleteProfile") @Cached BranchProfile setCompleteProfile) {
         data[index] = value;
+        ascii = ASCII_UNKNOWN;
         if (RRuntime.isNA(value)) {
             setCompleteProfile.enter();
             complete = false;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2020, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -90,6 +90,9 @@ public class RStringSeqVectorData implements RSeq {
             if (current < first || current > last) {
                 return -1;
             }
+            if (getStride() == 0) {
+                return 0;
+            }
             if ((current - getStart()) % getStride() == 0) {
                 return (current - getStart()) / getStride();
             }
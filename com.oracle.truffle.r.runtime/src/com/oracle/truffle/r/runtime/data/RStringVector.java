@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -158,6 +158,16 @@ public final class RStringVector extends RAbstractAtomicVector implements RMater
         return data instanceof RStringForeignObjData;
     }
 
+    @Override
+    public boolean growInPlace(int newLength) {
+        if (data instanceof GrowableVectorData) {
+            ((GrowableVectorData) data).grow(newLength);
+            length = newLength;
+            return true;
+        }
+        return false;
+    }
+
     @Override
     public boolean isSequence() {
         return data instanceof RStringSeqVectorData;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2020, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -126,6 +126,26 @@ public abstract class VectorDataLibrary extends Library {
         return false;
     }
 
+    /**
+     * Returns {@code true} if this data is guaranteed to be {@link #isComplete(Object) complete}
+     * and {@link #isSorted(Object, boolean, boolean) sorted} in the given direction, e.g., its
+     * minimum and maximum are its first and last element.
+     */
+    public final boolean isSortedComplete(Object receiver, boolean descending) {
+        return isComplete(receiver) && isSorted(receiver, descending, true);
+    }
+
+    /**
+     * If this method returns {@code true}, then it is guaranteed that this data is character data
+     * whose non-{@code NA} elements consist of 7-bit ASCII characters only, i.e., every
+     * {@code char} is a whole character and a single byte in UTF-8. If this method returns
+     * {@code false}, then this data may or may not be ASCII.
+     */
+    @SuppressWarnings("unused")
+    public boolean isASCII(Object receiver) {
+        return false;
+    }
+
     /**
      * Returns {@code true} is this data object can be written to.
      */
@@ -1919,6 +1939,12 @@ public abstract class VectorDataLibrary extends Library {
             return delegate.isSorted(receiver, descending, naLast);
         }
 
+        @Override
+        public boolean isASCII(Object receiver) {
+            verifyIfSlowAssertsEnabled(receiver);
+            return delegate.isASCII(receiver);
+        }
+
         @Override
         public boolean isWriteable(Object data) {
             verifyIfSlowAssertsEnabled(data);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -47,6 +47,7 @@ import com.oracle.truffle.r.runtime.data.MemoryCopyTracer;
 import com.oracle.truffle.r.runtime.data.RAttributable;
 import com.oracle.truffle.r.runtime.data.RAttributesLayout;
 import com.oracle.truffle.r.runtime.data.RBaseObject;
+import com.oracle.truffle.r.runtime.data.GrowableVectorData;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RFFIAccess;
 import com.oracle.truffle.r.runtime.data.RIntVector;
@@ -122,6 +123,15 @@ public abstract class RAbstractVector extends RAbstractContainer implements RFFI
         throw RInternalError.shouldNotReachHere(getClass().getSimpleName());
     }
 
+    /**
+     * Extends this vector to {@code newLength} elements, the new ones set to NA, without copying
+     * the data if it is {@link GrowableVectorData}. The vector must not be shared. Returns
+     * {@code false} if the vector cannot grow in place and the caller has to create a resized copy.
+     */
+    public boolean growInPlace(@SuppressWarnings("unused") int newLength) {
+        return false;
+    }
+
     public RClosure getClosure() {
         return (RClosure) this;
     }
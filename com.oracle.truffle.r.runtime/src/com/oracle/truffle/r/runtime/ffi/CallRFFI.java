@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -43,9 +43,11 @@ public interface CallRFFI {
             LibHandle handle = dllInfo == null ? null : dllInfo.handle;
             Type rffiType = handle == null ? stateRFFI.getDefaultRFFIType() : handle.getRFFIType();
             Object before = stateRFFI.beforeDowncall(frame == null ? null : frame.materialize(), rffiType);
+            long start = RFFIStats.start();
             try {
                 return execute(nativeCallInfo, args);
             } finally {
+                RFFIStats.downCallEnd(nativeCallInfo.name, start);
                 stateRFFI.afterDowncall(before, rffiType, AfterDownCallProfiles.getUncached());
             }
         }
@@ -62,9 +64,11 @@ public interface CallRFFI {
         default void dispatch(VirtualFrame frame, NativeCallInfo nativeCallInfo, Object[] args) {
             RFFIContext stateRFFI = RContext.getInstance().getStateRFFI();
             Object before = stateRFFI.beforeDowncall(frame == null ? null : frame.materialize(), nativeCallInfo.dllInfo.handle.getRFFIType());
+            long start = RFFIStats.start();
             try {
                 execute(frame, nativeCallInfo, args);
             } finally {
+                RFFIStats.downCallEnd(nativeCallInfo.name, start);
                 stateRFFI.afterDowncall(before, nativeCallInfo.dllInfo.handle.getRFFIType(), AfterDownCallProfiles.getUncached());
             }
         }
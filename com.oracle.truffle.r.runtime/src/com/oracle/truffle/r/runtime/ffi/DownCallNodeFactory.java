@@ -75,12 +75,16 @@ public abstract class DownCallNodeFactory {
             CompilerAsserts.partialEvaluationConstant(f);
             TruffleObject target = createTarget(RContext.getInstance(this), f);
             Object before = -1;
+            long start = 0;
             try {
                 before = beforeCall(frame, f, target, args);
+                // not including the wait for the FFI lock in beforeCall
+                start = RFFIStats.start();
                 return InteropLibrary.getFactory().getUncached().execute(target, args);
             } catch (InteropException e) {
                 throw RInternalError.shouldNotReachHere(e);
             } finally {
+                RFFIStats.downCallEnd(f.getCallName(), start);
                 afterCall(frame, before, f, target, args);
             }
         }
@@ -103,7 +103,8 @@ public abstract class RFFIContext extends RFFI {
          * Stack used by RFFI to implement the PROTECT/UNPROTECT functions. Objects registered on
          * this stack do necessarily not have to be {@link #registerReferenceUsedInNative}, but once
          * popped off, they must be put into that list. The initial size should "reasonably" big.
-         * (Should a special FastR configuration property be introduced to control the size?)
+         * (Should a special FastR configuration property be introduced to control the size?) Not
+         * used by the NFI backend, which maintains the protect stack in native code.
          */
         public final Collections.ArrayListObj<RBaseObject> protectStack = new Collections.ArrayListObj<>(1000);
 
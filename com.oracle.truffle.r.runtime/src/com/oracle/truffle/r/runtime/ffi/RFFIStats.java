@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.ffi;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+
+/**
+ * Counters of the transitions between R and native code: the number and latency histogram of
+ * down-calls per native symbol and of up-calls per {@code UpCallsRFFI} method, and the amount of
+ * vector data copied between the Java heap and native memory. Unlike {@link RFFILog}, which prints
+ * every call, the statistics are cheap enough to be collected in production runs. The statistics
+ * are process-wide, they are collected while there is a context with the {@code FFIStats} option.
+ */
+public final class RFFIStats {
+
+    /**
+     * Upper bounds (exclusive) of the latency histogram buckets in nanoseconds, the last bucket
+     * has no upper bound.
+     */
+    private static final long[] BUCKET_LIMITS = {1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L};
+    public static final String[] BUCKET_NAMES = {"<1us", "<10us", "<100us", "<1ms", "<10ms", "<100ms", "<1s", ">=1s"};
+
+    /**
+     * Valid while the collection is off. When it is switched off again, this assumption is
+     * replaced and {@link #enabled} is invalidated, so that the compiled code that collects is
+     * deoptimized.
+     */
+    @CompilationFinal private static volatile Assumption disabled = Truffle.getRuntime().createAssumption("FFI stats disabled");
+    @CompilationFinal private static volatile Assumption enabled = Truffle.getRuntime().createAssumption("FFI stats enabled");
+    private static int enabledContexts;
+
+    private static final ConcurrentHashMap<String, CallStats> downCalls = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, CallStats> upCalls = new ConcurrentHashMap<>();
+    private static final LongAdder bytesToNative = new LongAdder();
+    private static final LongAdder bytesFromNative = new LongAdder();
+    private static final LongAdder vectorsToNative = new LongAdder();
+
+    private RFFIStats() {
+        // only static methods
+    }
+
+    public static final class CallStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKET_NAMES.length);
+
+        void record(long time) {
+            count.increment();
+            nanos.add(time);
+            int bucket = 0;
+            while (bucket < BUCKET_LIMITS.length && time >= BUCKET_LIMITS[bucket]) {
+                bucket++;
+            }
+            histogram.incrementAndGet(bucket);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getNanos() {
+            return nanos.sum();
+        }
+
+        public long getHistogram(int bucket) {
+            return histogram.get(bucket);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return !disabled.isValid() && enabled.isValid();
+    }
+
+    /**
+     * Called for each context created with the {@code FFIStats} option.
+     */
+    public static synchronized void enable() {
+        if (enabledContexts++ == 0) {
+            enabled = Truffle.getRuntime().createAssumption("FFI stats enabled");
+            disabled.invalidate();
+        }
+    }
+
+    /**
+     * Called when a context created with the {@code FFIStats} option is disposed.
+     */
+    public static synchronized void disable() {
+        assert enabledContexts > 0;
+        if (--enabledContexts == 0) {
+            disabled = Truffle.getRuntime().createAssumption("FFI stats disabled");
+            enabled.invalidate();
+        }
+    }
+
+    /**
+     * Returns the start timestamp to be passed to {@link #downCallEnd(String, long)} or
+     * {@link #upCallEnd(String, long)}, {@code 0} if the collection is disabled.
+     */
+    public static long start() {
+        return isEnabled() ? System.nanoTime() : 0;
+    }
+
+    public static void downCallEnd(String name, long start) {
+        if (start != 0) {
+            record(downCalls, name, System.nanoTime() - start);
+        }
+    }
+
+    public static void upCallEnd(String name, long start) {
+        if (start != 0) {
+            record(upCalls, name, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records a vector whose data were copied from the Java heap to native memory.
+     */
+    public static void vectorToNative(long bytes) {
+        if (isEnabled()) {
+            vectorsToNative.increment();
+            bytesToNative.add(bytes);
+        }
+    }
+
+    public static void bytesFromNative(long bytes) {
+        if (isEnabled()) {
+            bytesFromNative.add(bytes);
+        }
+    }
+
+    @TruffleBoundary
+    private static void record(ConcurrentHashMap<String, CallStats> map, String name, long time) {
+        map.computeIfAbsent(name, n -> new CallStats()).record(time);
+    }
+
+    /**
+     * The down-call statistics sorted by the native symbol name.
+     */
+    @TruffleBoundary
+    public static Map<String, CallStats> getDownCalls() {
+        return new TreeMap<>(downCalls);
+    }
+
+    /**
+     * The up-call statistics sorted by the up-call name.
+     */
+    @TruffleBoundary
+    public static Map<String, CallStats> getUpCalls() {
+        return new TreeMap<>(upCalls);
+    }
+
+    public static long getBytesToNative() {
+        return bytesToNative.sum();
+    }
+
+    public static long getBytesFromNative() {
+        return bytesFromNative.sum();
+    }
+
+    public static long getVectorsToNative() {
+        return vectorsToNative.sum();
+    }
+
+    @TruffleBoundary
+    public static void reset() {
+        downCalls.clear();
+        upCalls.clear();
+        bytesToNative.reset();
+        bytesFromNative.reset();
+        vectorsToNative.reset();
+    }
+}
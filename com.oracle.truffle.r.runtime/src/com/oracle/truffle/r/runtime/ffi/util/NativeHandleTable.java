@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.ffi.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.oracle.truffle.r.runtime.RInternalError;
+
+/**
+ * Table of the handles that represent Java objects in native code. A handle encodes the index of
+ * its slot in the table, so that the lookup is just two array reads without any hashing, boxing or
+ * locking. Handles are odd numbers starting at {@link #FIRST_HANDLE}, which makes them invalid
+ * addresses, i.e., they cannot clash with pointers to real native memory.
+ * <p>
+ * The slots are stored in fixed size segments, which are never moved once allocated, and the array
+ * of segments is only replaced by a larger copy. Allocation and release of the slots is
+ * synchronized. Released slots are first collected in a pending list and cleared and put to the
+ * free-list in batches, at the latest when there is no free slot left.
+ */
+public final class NativeHandleTable<T> {
+
+    public static final long FIRST_HANDLE = 0xdef000000000001L;
+
+    private static final int SEGMENT_SHIFT = 12;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    private static final int MAX_SEGMENTS = Integer.MAX_VALUE >> SEGMENT_SHIFT;
+    private static final int RELEASE_BATCH_SIZE = 256;
+
+    private volatile AtomicReferenceArray<?>[] segments = new AtomicReferenceArray<?>[16];
+
+    private int nextIndex;
+    private int liveCount;
+    private int[] freeList = new int[RELEASE_BATCH_SIZE];
+    private int freeCount;
+    private int[] pending = new int[RELEASE_BATCH_SIZE];
+    private int pendingCount;
+
+    /**
+     * Returns {@code true} if the given value has the form of a handle created by this table. It
+     * does not check whether the handle is currently in use.
+     */
+    public static boolean isHandle(long handle) {
+        long offset = handle - FIRST_HANDLE;
+        return offset >= 0 && (offset & 1) == 0 && (offset >>> 1) < Integer.MAX_VALUE;
+    }
+
+    private static long toHandle(int index) {
+        return FIRST_HANDLE + ((long) index << 1);
+    }
+
+    private static int toIndex(long handle) {
+        assert isHandle(handle);
+        return (int) ((handle - FIRST_HANDLE) >>> 1);
+    }
+
+    /**
+     * Stores the given entry into a free slot and returns the handle of that slot.
+     */
+    public long add(T entry) {
+        assert entry != null;
+        int index;
+        AtomicReferenceArray<Object> segment;
+        synchronized (this) {
+            if (freeCount == 0 && pendingCount > 0) {
+                reclaimPending();
+            }
+            if (freeCount > 0) {
+                index = freeList[--freeCount];
+            } else {
+                index = nextIndex++;
+                if ((index & SEGMENT_MASK) == 0) {
+                    allocateSegment(index >> SEGMENT_SHIFT);
+                }
+            }
+            liveCount++;
+            segment = segment(segments, index);
+        }
+        segment.set(index & SEGMENT_MASK, entry);
+        return toHandle(index);
+    }
+
+    /**
+     * Returns the entry stored under the given handle or {@code null} if there is none. Never
+     * blocks.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long handle) {
+        if (!isHandle(handle)) {
+            return null;
+        }
+        int index = toIndex(handle);
+        AtomicReferenceArray<?>[] s = segments;
+        int segmentIndex = index >> SEGMENT_SHIFT;
+        if (segmentIndex >= s.length || s[segmentIndex] == null) {
+            return null;
+        }
+        return (T) s[segmentIndex].get(index & SEGMENT_MASK);
+    }
+
+    /**
+     * Releases the slot of the given handle if it still holds the given entry. The slot is not
+     * reused before the next batch of released slots is reclaimed.
+     */
+    public synchronized void release(long handle, T entry) {
+        int index = toIndex(handle);
+        if (segment(segments, index).get(index & SEGMENT_MASK) != entry) {
+            return;
+        }
+        liveCount--;
+        pending[pendingCount++] = index;
+        if (pendingCount == RELEASE_BATCH_SIZE) {
+            reclaimPending();
+        }
+    }
+
+    /**
+     * Number of handles that were added and not released yet.
+     */
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    /**
+     * The handle that will be given out once there are no released slots to reuse, for debugging
+     * purposes.
+     */
+    public synchronized long getNextHandle() {
+        return toHandle(nextIndex);
+    }
+
+    private void reclaimPending() {
+        AtomicReferenceArray<?>[] s = segments;
+        if (freeCount + pendingCount > freeList.length) {
+            freeList = Arrays.copyOf(freeList, Math.max(freeList.length * 2, freeCount + pendingCount));
+        }
+        for (int i = 0; i < pendingCount; i++) {
+            int index = pending[i];
+            segment(s, index).set(index & SEGMENT_MASK, null);
+            freeList[freeCount++] = index;
+        }
+        pendingCount = 0;
+    }
+
+    private void allocateSegment(int segmentIndex) {
+        if (segmentIndex >= MAX_SEGMENTS) {
+            throw RInternalError.shouldNotReachHere("native handle table is full");
+        }
+        AtomicReferenceArray<?>[] s = segments;
+        if (segmentIndex >= s.length) {
+            s = Arrays.copyOf(s, Math.min(s.length * 2, MAX_SEGMENTS));
+        }
+        s[segmentIndex] = new AtomicReferenceArray<>(SEGMENT_SIZE);
+        // publish the (possibly new) array of segments only after the segment is in place
+        segments = s;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AtomicReferenceArray<Object> segment(AtomicReferenceArray<?>[] s, int index) {
+        return (AtomicReferenceArray<Object>) s[index >> SEGMENT_SHIFT];
+    }
+}
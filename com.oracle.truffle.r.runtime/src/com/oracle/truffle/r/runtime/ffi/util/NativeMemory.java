@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2020, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -32,6 +32,7 @@ import java.util.Arrays;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -68,10 +69,29 @@ public abstract class NativeMemory {
             this.bytes = bytes;
             this.offset = offset;
         }
+
+        public int getBytes() {
+            return bytes;
+        }
     }
 
     private static final Unsafe UNSAFE = initUnsafe();
 
+    /**
+     * Sizes of the blocks allocated by {@link #allocate(long, Object)} and not freed yet, so that
+     * {@link #free(long, Object)} can subtract them from the live bytes. These statistics, reported
+     * by {@code .fastr.memory.stats}, are process-wide: the blocks do not belong to a context, e.g.,
+     * they are freed by the {@link ResourcesCleaner} thread. The blocks are only tracked while
+     * there is a context with the {@code MemoryStats} option, otherwise this is {@code null}.
+     */
+    private static volatile BlockTracker blockTracker;
+    private static int trackingContexts;
+
+    private static final class BlockTracker {
+        private final ConcurrentHashMap<Long, Long> sizes = new ConcurrentHashMap<>();
+        private final LongAdder bytes = new LongAdder();
+    }
+
     private static Unsafe initUnsafe() {
         assert Integer.BYTES == Unsafe.ARRAY_INT_INDEX_SCALE;
         assert Double.BYTES == Unsafe.ARRAY_DOUBLE_INDEX_SCALE;
@@ -92,6 +112,9 @@ public abstract class NativeMemory {
     public static long allocate(long size, Object debugInfo) {
         traceAllocateStart(size, debugInfo);
         long result = UNSAFE.allocateMemory(size);
+        if (blockTracker != null) {
+            recordBlock(result, size);
+        }
         traceAllocate(result, size, debugInfo);
         return result;
     }
@@ -99,16 +122,100 @@ public abstract class NativeMemory {
     public static long allocate(ElementType type, long size, Object debugInfo) {
         traceAllocateStart(size, debugInfo);
         long result = UNSAFE.allocateMemory(size * type.bytes);
+        if (blockTracker != null) {
+            recordBlock(result, size * type.bytes);
+        }
         traceAllocate(result, size, debugInfo);
         return result;
     }
 
+    public static long allocateZeroed(ElementType type, long size, Object debugInfo) {
+        long result = allocate(type, size, debugInfo);
+        UNSAFE.setMemory(result, size * type.bytes, (byte) 0);
+        return result;
+    }
+
     public static void free(long address, Object debugInfo) {
         traceFree(address, debugInfo);
+        // released first, once freed the address can be reused by a concurrent allocation
+        if (blockTracker != null) {
+            releaseBlock(address);
+        }
         UNSAFE.freeMemory(address);
         traceFreeDone(address, debugInfo);
     }
 
+    @TruffleBoundary
+    private static void recordBlock(long address, long size) {
+        BlockTracker tracker = blockTracker;
+        if (tracker != null) {
+            tracker.sizes.put(address, size);
+            tracker.bytes.add(size);
+        }
+    }
+
+    @TruffleBoundary
+    private static void releaseBlock(long address) {
+        BlockTracker tracker = blockTracker;
+        if (tracker != null) {
+            Long size = tracker.sizes.remove(address);
+            if (size != null) {
+                tracker.bytes.add(-size);
+            }
+        }
+    }
+
+    /**
+     * Starts tracking the allocated blocks for a context with the {@code MemoryStats} option, the
+     * blocks allocated before are not counted.
+     */
+    public static synchronized void startTracking() {
+        if (trackingContexts++ == 0) {
+            blockTracker = new BlockTracker();
+        }
+    }
+
+    /**
+     * Stops tracking the allocated blocks once no context with the {@code MemoryStats} option is
+     * left.
+     */
+    public static synchronized void stopTracking() {
+        assert trackingContexts > 0;
+        if (--trackingContexts == 0) {
+            blockTracker = null;
+        }
+    }
+
+    public static boolean isTracking() {
+        return blockTracker != null;
+    }
+
+    /**
+     * Number of blocks allocated by {@link #allocate(long, Object)} since the tracking started and
+     * not freed yet in the whole process, {@code -1} if the blocks are not tracked.
+     */
+    public static long getLiveAllocations() {
+        BlockTracker tracker = blockTracker;
+        return tracker == null ? -1 : tracker.sizes.mappingCount();
+    }
+
+    /**
+     * Number of bytes in the blocks allocated since the tracking started and not freed yet in the
+     * whole process, {@code -1} if the blocks are not tracked.
+     */
+    public static long getLiveBytes() {
+        BlockTracker tracker = blockTracker;
+        return tracker == null ? -1 : tracker.bytes.sum();
+    }
+
+    /**
+     * Number of blocks that will be freed once their owning object, typically the native mirror of
+     * a vector, is collected.
+     */
+    public static int getOwnedAllocations() {
+        return FreeingNativeMemoryWrapper.active.size();
+    }
+
     @TruffleBoundary
     public static NativeMemoryWrapper wrapNativeMemory(long address, Object owner) {
         return new FreeingNativeMemoryWrapper(address, owner);
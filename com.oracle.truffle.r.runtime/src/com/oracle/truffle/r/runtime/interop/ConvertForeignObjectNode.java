@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -29,6 +29,7 @@ import java.util.List;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage.Env;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -37,11 +38,13 @@ import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnknownIdentifierException;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.Utils;
+import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RForeignVectorWrapper;
@@ -78,7 +81,9 @@ import com.oracle.truffle.r.runtime.nodes.RBaseNode;
  * </p>
  *
  * <b>Note</b> currently are {@link RForeignVectorWrapper}-s used only in case of homogenous
- * 1-dimensional arrays resulting to a logical, double, integer or character vector.
+ * 1-dimensional arrays resulting to a logical, double, integer or character vector. Java
+ * {@code double[]}, {@code int[]} and, if bytes are converted to raw, {@code byte[]} arrays are not
+ * wrapped, the vector uses the Java array directly, see {@link #wrapHostPrimitiveArray(Object)}.
  */
 @ImportStatic({RRuntime.class, RType.class})
 public abstract class ConvertForeignObjectNode extends RBaseNode {
@@ -209,6 +214,45 @@ public abstract class ConvertForeignObjectNode extends RBaseNode {
         return RRuntime.isForeignObject(obj) && interop.hasArrayElements(obj);
     }
 
+    /**
+     * Returns the Java array wrapped by the given host object if it is a {@code double[]}, an
+     * {@code int[]} or, if {@code byteToRaw} is set, a {@code byte[]}, otherwise {@code null}.
+     */
+    @TruffleBoundary
+    public static Object getHostPrimitiveArray(Object obj, boolean byteToRaw) {
+        Env env = RContext.getInstance().getEnv();
+        if (env.isHostObject(obj)) {
+            Object array = env.asHostObject(obj);
+            if (array instanceof double[] || array instanceof int[] || (byteToRaw && array instanceof byte[])) {
+                return array;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a vector that uses the given Java array as its data, so that the elements do not have
+     * to be read one by one through interop. The vector is permanently shared, any modification on
+     * the R side copies the data first and the Java array is never written by R. Changes of the
+     * array done on the Java side are visible in the vector, like with a foreign wrapper.
+     *
+     * @param array a {@code double[]}, {@code int[]} or {@code byte[]}, see
+     *            {@link #getHostPrimitiveArray(Object, boolean)}
+     */
+    @TruffleBoundary
+    public static RAbstractVector wrapHostPrimitiveArray(Object array) {
+        RAbstractVector result;
+        if (array instanceof double[]) {
+            result = RDataFactory.createDoubleVector((double[]) array, RDataFactory.INCOMPLETE_VECTOR);
+        } else if (array instanceof int[]) {
+            result = RDataFactory.createIntVector((int[]) array, RDataFactory.INCOMPLETE_VECTOR);
+        } else {
+            result = RDataFactory.createRawVector((byte[]) array);
+        }
+        result.makeSharedPermanent();
+        return result;
+    }
+
     /**
      * Creates a vector. It has to be assured by the caller that the elements and type corresponds
      * to each other. Null values are replaced by NA.
@@ -376,7 +420,12 @@ public abstract class ConvertForeignObjectNode extends RBaseNode {
     @Specialization(guards = {"isForeignArray(truffleObject, interop)", "!toList"}, limit = "getInteropLibraryCacheSize()")
     protected Object convertArray(TruffleObject truffleObject, boolean recursive, boolean dropDimensions, @SuppressWarnings("unused") boolean toList, boolean byteToRaw,
                     @Cached("create(byteToRaw)") InspectForeignArrayNode inspectTruffleObject,
-                    @SuppressWarnings("unused") @CachedLibrary("truffleObject") InteropLibrary interop) {
+                    @SuppressWarnings("unused") @CachedLibrary("truffleObject") InteropLibrary interop,
+                    @Cached("createBinaryProfile()") ConditionProfile hostArrayProfile) {
+        Object hostArray = getHostPrimitiveArray(truffleObject, byteToRaw);
+        if (hostArrayProfile.profile(hostArray != null)) {
+            return wrapHostPrimitiveArray(hostArray);
+        }
         ArrayInfo arrayInfo = new ArrayInfo(byteToRaw);
         inspectTruffleObject.execute(truffleObject, recursive, arrayInfo, 0, true);
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -27,14 +27,17 @@ import java.util.Arrays;
 import com.oracle.truffle.r.runtime.ArgumentsSignature;
 import com.oracle.truffle.r.runtime.RVisibility;
 import com.oracle.truffle.r.runtime.builtins.FastPathFactory;
+import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.runtime.context.RContext;
 
 final class EvaluatedArgumentsFastPath implements FastPathFactory {
 
     private final boolean[] forcedArguments;
+    private final boolean promiseTransparent;
 
-    EvaluatedArgumentsFastPath(boolean[] forcedArguments) {
+    EvaluatedArgumentsFastPath(boolean[] forcedArguments, boolean promiseTransparent) {
         this.forcedArguments = forcedArguments;
+        this.promiseTransparent = promiseTransparent;
     }
 
     @Override
@@ -57,6 +60,11 @@ final class EvaluatedArgumentsFastPath implements FastPathFactory {
         return RContext.getInstance().noEagerEvalOption() ? false : forcedArguments[index];
     }
 
+    @Override
+    public boolean passesForcedArgumentValues() {
+        return promiseTransparent && RContext.getInstance().getOption(FastROptions.EagerEvalPassValues);
+    }
+
     public String toString(ArgumentsSignature signature) {
         StringBuilder str = new StringBuilder();
         for (int i = 0; i < signature.getLength(); i++) {
@@ -69,12 +77,15 @@ final class EvaluatedArgumentsFastPath implements FastPathFactory {
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(forcedArguments);
+        return Arrays.hashCode(forcedArguments) * 31 + Boolean.hashCode(promiseTransparent);
     }
 
     @Override
     public boolean equals(Object obj) {
         EvaluatedArgumentsFastPath other = (EvaluatedArgumentsFastPath) obj;
+        if (promiseTransparent != other.promiseTransparent) {
+            return false;
+        }
         return forcedArguments == null && other.forcedArguments == null || forcedArguments != null && other.forcedArguments != null && Arrays.equals(forcedArguments, other.forcedArguments);
     }
 }
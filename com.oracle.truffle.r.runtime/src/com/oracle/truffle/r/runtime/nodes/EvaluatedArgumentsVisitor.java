@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -83,6 +83,12 @@ public final class EvaluatedArgumentsVisitor extends RSyntaxVisitor<Info> {
                     "*", "/", "%%", "^", ":", ">=", ">", "<=", "<", "==", "!=", "||", "|", "&&", "&", "!", "%o%", "%*%", "%/%", "%in%", "{", "for", "while", "repeat", "if", "attributes", "attr",
                     "nchar"));
 
+    /**
+     * Syntax elements that are allowed in the body of a function that cannot observe the promises
+     * of its arguments, see {@link #isPromiseTransparent(RSyntaxElement)}.
+     */
+    private static final Set<String> controlFunctions = new HashSet<>(Arrays.asList("{", "(", "if", "for", "while", "repeat", "break", "next", "return"));
+
     private EvaluatedArgumentsVisitor() {
         // private constructor
     }
@@ -237,8 +243,47 @@ public final class EvaluatedArgumentsVisitor extends RSyntaxVisitor<Info> {
         if (cnt == 0) {
             return null;
         } else {
-            return new EvaluatedArgumentsFastPath(forcedArguments);
+            return new EvaluatedArgumentsFastPath(forcedArguments, isPromiseTransparent(body));
+        }
+    }
+
+    /**
+     * Returns whether a function with the given body cannot observe whether its arguments are
+     * passed as promises or as values: the body only consists of control flow, assignments to local
+     * variables and calls of well-known primitive functions, which do not inspect the arguments of
+     * their caller like {@code substitute}, {@code missing}, {@code sys.call} or S3/S4 dispatch do.
+     * It also cannot define nested functions that could capture its frame.
+     */
+    public static boolean isPromiseTransparent(RSyntaxElement node) {
+        if (node instanceof RSyntaxCall) {
+            RSyntaxCall call = (RSyntaxCall) node;
+            RSyntaxElement lhs = call.getSyntaxLHS();
+            if (!(lhs instanceof RSyntaxLookup)) {
+                return false;
+            }
+            String symbol = ((RSyntaxLookup) lhs).getIdentifier();
+            RSyntaxElement[] arguments = call.getSyntaxArguments();
+            if (symbol.equals("<-") || symbol.equals("=")) {
+                // replacement calls may invoke arbitrary functions
+                return arguments.length == 2 && arguments[0] instanceof RSyntaxLookup && isPromiseTransparent(arguments[1]);
+            }
+            if (!controlFunctions.contains(symbol)) {
+                if (!wellKnownFunctions.contains(symbol) || symbol.startsWith(".")) {
+                    return false;
+                }
+                RBuiltinDescriptor builtin = RContext.lookupBuiltinDescriptor(symbol);
+                if (builtin == null || builtin.getKind() != RBuiltinKind.PRIMITIVE) {
+                    return false;
+                }
+            }
+            for (RSyntaxElement argument : arguments) {
+                if (argument != null && !isPromiseTransparent(argument)) {
+                    return false;
+                }
+            }
+            return true;
         }
+        return node instanceof RSyntaxLookup || node instanceof RSyntaxConstant;
     }
 
     public static boolean isSimpleArgument(RSyntaxElement node) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -228,4 +228,15 @@ public class TestS4 extends TestRBase {
     public void testValidityFunction() {
         assertEval("{ setClass('A11', slots=c(data='numeric'), validity=function(object) {class(object); TRUE}); B11 <- setClass('B11', contains='A11'); B11(data=42) }");
     }
+
+    @Test
+    public void testDispatchTable() {
+        // several signatures, an inherited method and redefinitions after the first calls
+        assertEval("{ setGeneric('testDispatchGen', function(x) standardGeneric('testDispatchGen')); for (n in c('DT1', 'DT2', 'DT3', 'DT4', 'DT5')) setClass(n, representation(v = 'numeric')); " +
+                        "setClass('DT6', contains = 'DT1'); setMethod('testDispatchGen', 'numeric', function(x) 'numeric'); setMethod('testDispatchGen', 'DT1', function(x) 'DT1'); " +
+                        "for (n in c('DT2', 'DT3', 'DT4', 'DT5')) setMethod('testDispatchGen', n, eval(substitute(function(x) n, list(n = n)))); " +
+                        "objs <- list(new('DT1'), new('DT2'), new('DT3'), new('DT4'), new('DT5'), new('DT6'), 1); f <- function() vapply(objs, testDispatchGen, ''); " +
+                        "r1 <- f(); r2 <- f(); setMethod('testDispatchGen', 'DT6', function(x) 'DT6'); setMethod('testDispatchGen', 'DT3', function(x) 'DT3 again'); r3 <- f(); " +
+                        "removeMethod('testDispatchGen', 'DT6'); list(r1, r2, r3, f()) }");
+    }
 }
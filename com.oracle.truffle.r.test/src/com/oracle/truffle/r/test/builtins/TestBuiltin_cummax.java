@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -84,5 +84,10 @@ public class TestBuiltin_cummax extends TestBase {
         assertEval("values <- c(1,2,NA,1, NaN); cummax(values); cummax(as.integer(values))");
 
         assertEval("a <- structure(1:3, names=c('a1','a2','a3')); b<-cummax(a); names(b)[1]<-'x'; a; ");
+
+        // parallel scan of large complete vectors
+        assertEval("{ x <- sin(seq_len(2^21)) * seq_len(2^21); r <- cummax(x); c(length(unique(r)), r[c(1, 2^20, 2^21)]) }");
+        assertEval("{ x <- c(seq_len(2^21), 0L); r <- cummax(rev(x)); c(sum(r), r[c(1, 2^21)]) }");
+        assertEval("{ x <- sin(seq_len(2^21)); x[2^20] <- NaN; r <- cummax(x); c(sum(is.nan(r)), r[2^20 - 1] == max(x[1:(2^20 - 1)])) }");
     }
 }
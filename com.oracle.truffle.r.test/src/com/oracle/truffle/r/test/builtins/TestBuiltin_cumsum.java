@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -122,6 +122,7 @@ public class TestBuiltin_cumsum extends TestBase {
         assertEval("{ cumsum(c(1e308, 1e308, NA, 1, 2)) }");
         assertEval("{ cumsum(c(2000000000L, 2000000000L)) }");
         assertEval("{ cumsum(c(-2147483647L, -1L)) }");
+        assertEval("{ x <- c(a = 2147483646L, b = 1L, c = 1L, d = NA); list(cumsum(x), cumsum(x[-3])) }");
 
         assertEval("values <- c(1,2,NaN,1, NA); cumsum(values); cumsum(as.integer(values))");
         assertEval("values <- c(1,2,NA,1, NaN); cumsum(values); cumsum(as.integer(values))");
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -39,5 +39,11 @@ public class TestBuiltin_diff extends TestBase {
         assertEval("{ diff(1:10, 2, 2) }");
         assertEval("{ x <- cumsum(cumsum(1:10)) ; diff(x, lag = 2) }");
         assertEval("{ x <- cumsum(cumsum(1:10)) ; diff(x, differences = 2) }");
+        assertEval("{ diff(c(a = 1, b = 4, c = 9, d = 16), differences = 2) }");
+        assertEval("{ diff(c(1L, NA, 3L, 7L, 2L)) }");
+        assertEval("{ diff(c(1, NA, 3, NaN, 2, Inf, Inf), 2) }");
+        assertEval("{ diff(c(-2147483647L, 2147483647L)) }");
+        assertEval("{ diff(1:3, 2, 2) }");
+        assertEval("{ diff(c(1.5, 2.5, 4), lag = 2.0) }");
     }
 }
@@ -14,15 +14,20 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2019, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
 package com.oracle.truffle.r.test.builtins;
 
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
 import org.junit.Test;
 
+import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.test.TestBase;
+import com.oracle.truffle.r.test.generate.FastRSession;
 
 // Checkstyle: stop line length check
 
@@ -91,4 +96,21 @@ public class TestBuiltin_eval extends TestBase {
         assertEval("eval(parse(text='x<-1'))");
         assertEval("eval(parse(text='1+1'))");
     }
+
+    @Test
+    public void testEvalCache() {
+        // every structurally equal call built in the loop hits the closure cached by the warm-up
+        assertEvalFastR("{ f <- function(x) x + 1L; g <- function(k) for (i in 1:10) eval(call('f', k)); g(7919L); invisible(.fastr.eval.cache.stats(reset = TRUE)); g(7919L); .fastr.eval.cache.stats()[c('hits', 'misses', 'uncacheable')] }",
+                        "c(hits = 10, misses = 0, uncacheable = 0)");
+        assertEvalFastR("{ fastrEvalCacheTest <- function(x) x; invisible(.fastr.eval.cache.stats(reset = TRUE)); eval(call('fastrEvalCacheTest', 1L)); eval(call('fastrEvalCacheTest', 1L)); eval(call('fastrEvalCacheTest', 2L)); eval(call('fastrEvalCacheTest', 1:2)); " +
+                        ".fastr.eval.cache.stats()[c('hits', 'misses', 'uncacheable')] }", "c(hits = 1, misses = 2, uncacheable = 1)");
+        // the results do not depend on the cache, even for values the cache must tell apart
+        String code = "{ f <- function(x) x + 1; x <- 1; e <- new.env(); assign('x', 2, envir = e); r <- 0; for (i in 1:5) r <- r + eval(bquote(.(i) * 2)); " +
+                        "paste(deparse(list(r, eval(call('f', NA_real_)), eval(call('f', NaN)), eval(call('f', 1)), eval(call('f', 1L)), eval(call('+', quote(x), 1), e), eval(call('+', quote(x), 1)))), collapse = '') }";
+        assertEvalFastR(code, "'list(30, NA_real_, NaN, 2, 2, 3, 2)'");
+        try (Context cached = FastRSession.getContextBuilder("R", "llvm").build();
+                        Context uncached = FastRSession.getContextBuilder("R", "llvm").option(FastROptions.getName(FastROptions.EvalCacheSize), "0").build()) {
+            assertEquals(uncached.eval("R", code).asString(), cached.eval("R", code).asString());
+        }
+    }
 }
@@ -14,15 +14,20 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2014, Purdue University
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2014, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
 package com.oracle.truffle.r.test.builtins;
 
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
 import org.junit.Test;
 
+import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.test.TestBase;
+import com.oracle.truffle.r.test.generate.FastRSession;
 
 // Checkstyle: stop line length check
 public class TestBuiltin_gcinfo extends TestBase {
@@ -38,4 +43,25 @@ public class TestBuiltin_gcinfo extends TestBase {
         // FIXME com.oracle.truffle.r.runtime.RInternalError: not implemented: .Internal gcinfo
         assertEval(Ignored.Unimplemented, "argv <- list(FALSE); .Internal(gcinfo(argv[[1]]))");
     }
+
+    @Test
+    public void testGc() {
+        assertEvalFastR("{ g <- gc(); c(rownames(g), colnames(g)[1:4]) }", "c('Ncells', 'Vcells', 'used', '(Mb)', 'gc trigger', '(Mb)')");
+        assertEvalFastR("{ g <- gc(reset = TRUE); g['Vcells', 'used'] > 0 && g['Vcells', 'max used'] >= g['Vcells', 'used'] }", "TRUE");
+        assertEvalFastR("{ s <- .fastr.memory.stats()$heap; c(s[['used']] <= s[['committed']], s[['peak']] >= s[['used']]) }", "c(TRUE, TRUE)");
+        // reading the statistics does not switch the tracking of R objects and native memory on
+        assertEvalFastR("{ invisible(.fastr.memory.stats()); g <- gc(); s <- .fastr.memory.stats(); .fastr.option('MemoryStats') || c(is.na(g['Ncells', 'used']), length(s$objects) == 0, is.na(s$native[['liveBytes']]), is.na(memory.profile()[['double']])) }",
+                        "c(TRUE, TRUE, TRUE, TRUE)");
+    }
+
+    @Test
+    public void testMemoryStats() {
+        // the reset clears the allocation counters, the live objects stay tracked
+        String code = "x <- lapply(1:100, function(i) double(1000)); s <- .fastr.memory.stats(reset = TRUE); y <- double(1000); t <- .fastr.memory.stats(); g <- gc(); " +
+                        "all(s$objects$double[['allocated']] >= 100, s$objects$double[['liveBytes']] >= 8e5, t$objects$double[['allocatedBytes']] < 8e5, t$objects$double[['liveBytes']] >= 8e5, " +
+                        "!is.na(g['Ncells', 'used']), t$native[['liveBytes']] >= 0, memory.profile()[['double']] >= 101)";
+        try (Context context = FastRSession.getContextBuilder("R", "llvm").option(FastROptions.getName(FastROptions.MemoryStats), "true").build()) {
+            assertTrue(context.eval("R", code).asBoolean());
+        }
+    }
 }
@@ -14,15 +14,20 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
 package com.oracle.truffle.r.test.builtins;
 
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
 import org.junit.Test;
 
+import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.test.TestBase;
+import com.oracle.truffle.r.test.generate.FastRSession;
 
 // Checkstyle: stop line length check
 public class TestBuiltin_grepl extends TestBase {
@@ -112,4 +117,18 @@ public class TestBuiltin_grepl extends TestBase {
         assertEval(Output.IgnoreErrorMessage, "{ grepl('x{2,  3}', 'xxx', perl=FALSE) }");
         assertEval("{ grepl('x{2,  3}', 'xxx', perl=TRUE) }");
     }
+
+    @Test
+    public void testFFIStats() {
+        // reading the statistics does not switch the collection on
+        assertEvalFastR("{ f <- function() grepl('a+b', 'xaab', perl = TRUE); f(); s <- .fastr.ffi.stats(); f(); .fastr.option('FFIStats') || identical(s, .fastr.ffi.stats()) }", "TRUE");
+        // every match makes the same down-calls, the statistics are returned before they are reset
+        String code = "f <- function() grepl('a+b', 'xaab', perl = TRUE); invisible(f()); invisible(.fastr.ffi.stats(reset = TRUE)); invisible(f()); " +
+                        "one <- sapply(.fastr.ffi.stats(reset = TRUE)$downcalls, function(s) s[['count']]); for (i in 1:5) invisible(f()); s <- .fastr.ffi.stats(reset = TRUE); " +
+                        "counts <- sapply(s$downcalls, function(s) s[['count']]); histogram <- sapply(s$downcalls, function(s) sum(s[-(1:2)])); " +
+                        "length(one) > 0 && identical(counts, one * 5) && identical(histogram, counts) && length(.fastr.ffi.stats()$downcalls) == 0";
+        try (Context context = FastRSession.getContextBuilder("R", "llvm").option(FastROptions.getName(FastROptions.FFIStats), "true").build()) {
+            assertTrue(context.eval("R", code).asBoolean());
+        }
+    }
 }
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -121,4 +121,12 @@ public class TestBuiltin_isunsorted extends TestBase {
         assertEval("{ is.unsorted(c(1+1i,2+1i,2+1i), strictly=TRUE) }");
         assertEval("{ is.unsorted(c(1,2,2), strictly=NA) }");
     }
+
+    @Test
+    public void testIsUnsortedSorted() {
+        assertEval("{ x <- sort(c(3L,1L,2L,2L)); c(is.unsorted(x), is.unsorted(x, strictly=TRUE)) }");
+        assertEval("{ x <- sort(c(3,1,2)); x[2] <- 10; is.unsorted(x) }");
+        assertEval("{ x <- sort(c(3,1,2), decreasing=TRUE); c(is.unsorted(x), is.unsorted(rev(x))) }");
+        assertEval("{ x <- sort(c(3L,NA,1L), na.last=TRUE); is.unsorted(x) }");
+    }
 }
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2020, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -472,4 +472,13 @@ public class TestBuiltin_match extends TestBase {
         table = String.format("paste('%1$s', seq(from=1, to=10, by=4), '%2$s', sep='')", preffix, suffix);
         assertEval("{ match(" + x + "," + table + ")}");
     }
+
+    @Test
+    public void testMatchSorted() {
+        assertEval("{ x <- sort(c(5L,3L,3L,1L)); c(match(3L, x), match(4L, x), match(NA_integer_, x), match(6L, x)) }");
+        assertEval("{ x <- sort(c(5,3,3,1,-0)); c(match(3, x), match(0, x), match(NaN, x), match(NA, x)) }");
+        assertEval("{ t <- sort(rep(c(5L,1L,3L), 20)); match(c(3L,4L,NA,1L,5L), t) }");
+        assertEval("{ t <- sort(rep(c(5,1,3), 20)); match(c(3,4,NA,1,5), t, nomatch=0L) }");
+        assertEval("{ t <- sort(rep(c(5,1,3), 20)); t[30] <- 2; match(c(3,2), t) }");
+    }
 }
@@ -122,4 +122,10 @@ public class TestBuiltin_nchar extends TestBase {
         assertEval("nchar(wrongArg=\"a\")");
         assertEval("nchar(wrongArg='a')");
     }
+
+    @Test
+    public void testNonASCII() {
+        assertEval("x <- c('abc', 'd\\u00e9f', NA, '\\u20ac1'); list(nchar(x), nchar(x, type='bytes'), nchar(x, type='chars'))");
+        assertEval("x <- c('abc', 'xyz'); x[2] <- '\\u00fc'; nchar(x, type='bytes')");
+    }
 }
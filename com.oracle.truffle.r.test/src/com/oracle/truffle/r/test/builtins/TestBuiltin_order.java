@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -180,4 +180,12 @@ public class TestBuiltin_order extends TestBase {
         assertEval("order(NULL)");
         assertEval("order(c(NULL, c(1,2,0)))");
     }
+
+    @Test
+    public void testOrderSorted() {
+        assertEval("{ x <- sort(c(2,1,2,3)); list(order(x), order(x, decreasing=TRUE)) }");
+        assertEval("{ x <- sort(c(2L,1L,2L,3L), decreasing=TRUE); list(order(x), order(x, decreasing=TRUE)) }");
+        assertEval("{ x <- sort(c(2L,1L,2L,3L)); x[1] <- 4L; order(x) }");
+        assertEval("{ order(10:1) }");
+    }
 }
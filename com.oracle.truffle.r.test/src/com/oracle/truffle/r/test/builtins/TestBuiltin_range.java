@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2014, Purdue University
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2014, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -208,4 +208,14 @@ public class TestBuiltin_range extends TestBase {
         assertEval("range(list(1,2,3,6), 44, 1)");
         assertEval("range(list(1,2,3,'a'), 44, 'zz')");
     }
+
+    @Test
+    public void testRangeSorted() {
+        assertEval("{ x <- sort(c(3L,1L,2L)); c(range(x), min(x), max(x)) }");
+        assertEval("{ x <- sort(c(3,1,2), decreasing=TRUE); c(range(x), min(x), max(x)) }");
+        assertEval("{ x <- sort(c(3,1,2)); x[3] <- 0; c(range(x), min(x), max(x)) }");
+        assertEval("{ x <- sort(c(-Inf,1,2,Inf)); list(range(x), range(x, finite=TRUE)) }");
+        assertEval("{ x <- sort(c(3,1,NA,2), na.last=TRUE); list(range(x), max(x, na.rm=TRUE)) }");
+        assertEval("{ x <- seq(10L, 1L); c(range(x), min(x[-1]), max(x[-10])) }");
+    }
 }
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -269,6 +269,24 @@ public class TestBuiltin_rep extends TestBase {
         assertEval("rep(4, x=3)");
     }
 
+    @Test
+    public void testRepCompact() {
+        assertEval("{ x <- rep(3L, 5); x[2] <- 7L; x }");
+        assertEval("{ x <- rep(2.5, times=4); x[[4]] <- 1; x }");
+        assertEval("{ x <- rep(-0, 3); 1 / x }");
+        assertEval("{ rep(NaN, 3) }");
+        assertEval("{ rep(NA_integer_, length.out=3) }");
+        assertEval("{ x <- rep(5L, 4); x + 1:4 }");
+        assertEval("{ x <- rep(5L, 4); deparse(x) }");
+        assertEval("{ x <- rep(5L, 4); unserialize(serialize(x, NULL)) }");
+        assertEval("{ match(c(4L, 5L), rep(5L, 3)) }");
+        assertEval("{ rep.int(2L, 3L) }");
+        assertEval("{ rep_len(4, 3) }");
+        assertEval("{ x <- rep(c(a=1), 3); x }");
+        assertEval("{ x <- c(5, 6, 7); x[rep(2L, 3)] }");
+        assertEval("{ x <- c(5, 6, 7); x[rep(2L, 3)] <- c(1, 2, 3); x }");
+    }
+
     @Test
     public void testSideEffect() {
         assertEval(Ignored.ReferenceError, "{ x <- c(1,2,3); f <- function() { x[1] <<- 10; 2 }; rep(x, f()) }");
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -37,5 +37,12 @@ public class TestBuiltin_rev extends TestBase {
     public void testRev() {
         assertEval("{ rev(1:3) }");
         assertEval("{ rev(c(1+1i, 2+2i)) }");
+        assertEval("{ rev(seq(2L, 20L, by=3L)) }");
+        assertEval("{ x <- rev(1:5); x[1] <- 10L; x }");
+        assertEval("{ x <- 1:10; names(x) <- letters[1:10]; rev(x) }");
+        assertEval("{ x <- rev(1:5); deparse(x) }");
+        assertEval("{ x <- 1:10; x[3:7] }");
+        assertEval("{ x <- 1:10; x[c(9:11)] }");
+        assertEval("{ x <- 10:1; x[rep(2L, 3)] }");
     }
 }
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2014, Purdue University
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2014, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -69,6 +69,13 @@ public class TestBuiltin_rowsum extends TestBase {
         assertEval("argv <- list(structure(c(1.33333333333333, -1.33333333333333, 1, 1.33333333333333, -2, 0.666666666666667, -0.666666666666667, 0.666666666666667, -0.666666666666667), .Dim = c(9L, 1L), .Dimnames = list(c('1', '2', '3', '4', '5', '6', '7', '8', '9'), 'x')), structure(c(1, 1, 2, 2, 2, 2, 3, 4, 5), .Names = c('1', '2', '3', '4', '5', '6', '7', '8', '9')), c(1, 2, 3, 4, 5), FALSE, c('1', '2', '3', '4', '5')); .Internal(rowsum_matrix(argv[[1]], argv[[2]], argv[[3]], argv[[4]], argv[[5]]))");
     }
 
+    @Test
+    public void testRowsumDataFrame() {
+        assertEval("rowsum(data.frame(a = c(1, 2, NA, 4), b = c(1L, 2L, 3L, 4L)), c('x', 'y', 'x', 'x'))");
+        assertEval("rowsum(data.frame(a = c(1, 2, NA, 4), b = c(1L, NA, 3L, 4L)), c(2, 1, 2, 2), na.rm = TRUE)");
+        assertEval("rowsum(data.frame(a = factor(c('u', 'v'))), c(1, 2))");
+    }
+
     @Test
     public void testRowsumArgCoverage() {
         assertEval("x <- matrix(1:10, ncol=2); g <- c(1,2,3,2,1); ug <-unique(g); .Internal(rowsum_matrix(x, g, ug, FALSE, as.character(ug)))");
@@ -14,15 +14,20 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2019, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
 package com.oracle.truffle.r.test.builtins;
 
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
 import org.junit.Test;
 
+import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.test.TestBase;
+import com.oracle.truffle.r.test.generate.FastRSession;
 import java.io.File;
 import org.junit.After;
 
@@ -109,4 +114,20 @@ public class TestBuiltin_scan extends TestBase {
     public void testPooling() {
         assertEvalFastR("s <- scan(textConnection(paste0(rep('asdf\\n', 1000))), character(0), quiet=T); all(sapply(s, function(x) .fastr.identity(x) == .fastr.identity(s[[1]])))", "TRUE");
     }
+
+    @Test
+    public void testStringCache() {
+        assertEvalFastR("{ invisible(.fastr.string.cache.stats(reset = TRUE)); x <- scan(text = 'fastrA fastrB fastrA', what = 'character', quiet = TRUE); s <- .fastr.string.cache.stats(); .fastr.option('StringCache') || identical(s[c('enabled', 'lookups', 'hits', 'bytesSaved')], c(enabled = 0, lookups = 0, hits = 0, bytesSaved = 0)) }",
+                        "TRUE");
+        // the scan is repeated once so that the lazily loaded code does not count, only the first
+        // 'fastrA' and 'fastrB' are not replaced with a cached instance
+        String code = "f <- function() scan(text = 'fastrA fastrB fastrA fastrB fastrA', what = 'character', quiet = TRUE); invisible(f()); " +
+                        "invisible(.fastr.string.cache.stats(reset = TRUE)); x <- f(); s <- .fastr.string.cache.stats(reset = TRUE); " +
+                        "t <- read.table(text = 'fastrC 1\\nfastrC 2\\nfastrD 3', stringsAsFactors = FALSE); " +
+                        "identical(x, c('fastrA', 'fastrB', 'fastrA', 'fastrB', 'fastrA')) && identical(s[c('enabled', 'lookups', 'hits', 'bytesSaved')], c(enabled = 1, lookups = 5, hits = 3, bytesSaved = 3 * (40 + 6))) && " +
+                        "identical(t, data.frame(V1 = c('fastrC', 'fastrC', 'fastrD'), V2 = 1:3, stringsAsFactors = FALSE)) && .fastr.string.cache.stats()[['lookups']] > 0";
+        try (Context context = FastRSession.getContextBuilder("R", "llvm").option(FastROptions.getName(FastROptions.StringCache), "true").build()) {
+            assertTrue(context.eval("R", code).asBoolean());
+        }
+    }
 }
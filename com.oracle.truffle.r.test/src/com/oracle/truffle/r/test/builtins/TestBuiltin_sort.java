@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -161,4 +161,12 @@ public class TestBuiltin_sort extends TestBase {
         assertEval("{ .Internal(qsort(c(1), F)) }");
         assertEval(Ignored.ImplementationError, "sort(c('FUN', 'simplify', 'USENAMES', 'X'))");
     }
+
+    @Test
+    public void testSortSorted() {
+        assertEval("{ x <- sort(c(3L,1L,2L)); list(sort(x), sort(x, decreasing=TRUE)) }");
+        assertEval("{ x <- sort(c(b=3,a=1,c=2)); x[2] <- 5; sort(x) }");
+        assertEval("{ x <- .Internal(sort(c(3,1,2,1), FALSE)); c(is.unsorted(x), min(x), max(x), unique(x)) }");
+        assertEval("{ x <- sort(c(3,1,2,NaN,NA), na.last=TRUE); list(x, max(x), is.unsorted(x)) }");
+    }
 }
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -132,6 +132,23 @@ public class TestBuiltin_split extends TestBase {
         assertEval("{ split(1, NA); }");
         assertEval("{ split(1:2, c(NA, NA)); }");
         assertEval("{ split(c(5,1,2,6,3,6), c(NA,2)); }");
+        assertEval("{ split(c(a=1, b=2, c=3, d=4), c(1, NA, 2, 1)); }");
+    }
+
+    @Test
+    public void testSplitDataFrame() {
+        assertEval("{ df <- data.frame(a = 1:6, b = c(1.5, 2, NA, 4, 5, 6), c = letters[1:6], stringsAsFactors = FALSE); split(df, c(2, 1, 2, NA, 1, 3)) }");
+        assertEval("{ df <- data.frame(a = 1:4, b = c('x', 'y', 'x', 'y')); attributes(split(df, factor(c('u', 'v', 'u', 'u'), levels = c('u', 'v', 'w')))$u) }");
+        assertEval("{ df <- data.frame(a = 1:4, row.names = c('r1', 'r2', 'r3', 'r4')); split(df, c(1, 2, 1, 2)) }");
+        assertEval("{ df <- data.frame(a = 1:4, b = factor(c('x', 'y', 'x', 'y'))); split(df, df$b, drop = TRUE) }");
+    }
+
+    @Test
+    public void testUnsplit() {
+        assertEval("{ g <- c(2, 1, 2, NA, 1, 3); x <- c(10, 20, 30, 40, 50, 60); unsplit(split(x, g), g) }");
+        assertEval("{ g <- factor(c('a', 'b', 'a', 'b')); unsplit(split(c('p', 'q', 'r', 's'), g), g) }");
+        assertEval("{ g <- factor(c('a', 'b', 'a', 'b')); unsplit(list(1L, 2.5), g) }");
+        assertEval("{ df <- data.frame(a = 1:4, b = c(4, 3, 2, 1)); g <- c(1, 2, 1, 2); unsplit(split(df, g), g) }");
     }
 
     @Test
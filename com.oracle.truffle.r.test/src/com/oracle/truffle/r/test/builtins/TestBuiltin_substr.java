@@ -121,4 +121,11 @@ public class TestBuiltin_substr extends TestBase {
 
         assertEval("{ x<-c(\"abcdef\"); substr(x[1], 2, 3)<-\"0\"; x }");
     }
+
+    @Test
+    public void testNonASCII() {
+        assertEval("substr(c('abcdef', 'd\\u00e9f\\u00e8g', NA), 2, 4)");
+        assertEval("substr(c('ab', '\\U0001F600xy'), 1, 2)");
+        assertEval("substring('\\u00e9t\\u00e9', 1:3, 1:3)");
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.builtins;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+public class TestBuiltin_tapply extends TestBase {
+
+    @Test
+    public void testReducers() {
+        String init = "x <- c(3L, 1L, NA, 7L, 2L, 5L, 4L); xd <- c(1.5, NaN, 2, NA, -3, 0.25, 8); g <- factor(c('b', 'a', 'b', 'c', 'a', 'b', 'a'), levels = c('a', 'b', 'c', 'd')); ";
+        for (String fun : new String[]{"sum", "mean", "min", "max", "length", "var"}) {
+            assertEval(init + "tapply(x, g, " + fun + ")");
+            assertEval(init + "tapply(xd, g, " + fun + ")");
+            if (!fun.equals("length")) {
+                assertEval(init + "tapply(x, g, " + fun + ", na.rm = TRUE)");
+                assertEval(init + "tapply(xd, list(grp = g), " + fun + ", na.rm = TRUE)");
+            }
+        }
+        assertEval("tapply(c(1, 2, 3, 4), c(2, 1, 2, NA), sum)");
+        assertEval("tapply(c(.Machine$integer.max, 1L), c(1, 1), sum)");
+        assertEval("tapply(c(NA, 1, 2), c('x', 'x', 'y'), min, na.rm = TRUE)");
+        assertEval("tapply(1:6, rep(1:3, 2), function(v) sum(v))");
+        assertEval("tapply(1:6, list(rep(1:3, 2), rep(1:2, 3)), sum)");
+    }
+
+    @Test
+    public void testVar() {
+        // the results must be identical to stats::var, not just equal up to rounding
+        String init = "x <- c(0.1, 1e8 + 0.1, 1/3, 0.2, 1e8 + 0.2, 2/3, 0.3, 1e8 + 0.3, 1e-8, 0.7, 1e8 + 0.7, 5/7, Inf, NA); g <- factor(c(rep(1:3, 4), 4, 4)); ";
+        assertEval(init + "identical(tapply(x, g, var), sapply(split(x, g), var))");
+        assertEval(init + "identical(tapply(x, g, var, na.rm = TRUE), sapply(split(x, g), var, na.rm = TRUE))");
+        assertEval("x <- c(123456789L, 987654321L, 3L, 123456790L, 7L, 987654322L, 5L); g <- c(1, 2, 3, 1, 3, 2, 3); identical(tapply(x, g, var), sapply(split(x, g), var))");
+    }
+
+    @Test
+    public void testAggregate() {
+        String init = "df <- data.frame(x = c(3L, 1L, NA, 7L, 2L, 5L, 4L), y = c(1.5, NaN, 2, NA, -3, 0.25, 8)); g <- c('b', 'a', 'b', NA, 'a', 'b', 'a'); ";
+        for (String fun : new String[]{"sum", "mean", "min", "max", "length", "var"}) {
+            assertEval(init + "aggregate(df, list(g), " + fun + ")");
+            if (!fun.equals("length")) {
+                assertEval(init + "aggregate(df, list(grp = factor(g, levels = c('b', 'a', 'c'))), " + fun + ", na.rm = TRUE)");
+            }
+        }
+        assertEval("aggregate(data.frame(v = c(.Machine$integer.max, 1L)), list(c(1, 1)), sum)");
+        assertEval("aggregate(data.frame(v = 1:6), list(k = c(10, 2, 10, 2, 1, 1)), function(v) sum(v))");
+        assertEval("aggregate(data.frame(v = 1:6, w = 6:1), list(rep(1:3, 2), rep(1:2, 3)), sum)");
+        assertEval("aggregate(data.frame(v = 1:4, s = letters[1:4]), list(c(1, 2, 1, 2)), length)");
+        assertEval("aggregate(weight ~ feed, data = chickwts, mean)");
+    }
+}
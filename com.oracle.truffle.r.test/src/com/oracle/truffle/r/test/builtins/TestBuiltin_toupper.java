@@ -63,4 +63,12 @@ public class TestBuiltin_toupper extends TestBase {
         assertEval("{ toupper(c(a=\"hi\", \"hello\")) }");
         assertEval("a <- structure(c('x', 'y'), names=c('a1','a2')); b<-toupper(a); names(b)[1]<-'bb'; a; ");
     }
+
+    @Test
+    public void testASCII() {
+        assertEval("{ toupper(c('abc', 'ABC', 'a1b2-c3', '', NA)) }");
+        assertEval("{ toupper(c('abc', '\\u00e9t\\u00e9')) }");
+        assertEval("{ tolower(c('ABC', 'abc', 'A1B2-C3', '', NA)) }");
+        assertEval("{ x <- c('ab', 'cd'); y <- toupper(x); x[2] <- '\\u00e9'; toupper(x) }");
+    }
 }
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2020, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -209,4 +209,12 @@ public class TestBuiltin_unique extends TestBase {
 
         assertEval("unique(list(list(1), 1, 1L))");
     }
+
+    @Test
+    public void testUniqueSorted() {
+        assertEval("{ x <- sort(c(3L,1L,3L,2L,1L)); unique(x) }");
+        assertEval("{ x <- sort(c(3,1,3,2,1), decreasing=TRUE); unique(x, fromLast=TRUE) }");
+        assertEval("{ x <- sort(c(0,-0,1,1)); unique(x) }");
+        assertEval("{ x <- unique(sort(c(3L,1L,3L,2L))); x[1] <- 5L; c(unique(x), is.unsorted(x)) }");
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2016, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -97,6 +97,14 @@ public class TestBuiltin_unserialize extends TestBase {
                         VERSIONS));
     }
 
+    @Test
+    public void testunserializeLazyClosure() {
+        // the AST of a deserialized closure is built on the first use
+        assertEval(template("f <- unserialize(serialize(function(x, y = 2) x + y, NULL, version=%0)); g <- f; attr(g, 'a') <- 1; g(40); f(1, 1); formals(f)", VERSIONS));
+        assertEval(template("f <- unserialize(serialize(function(x) { if (x > 0) x * Recall(x - 1) else 1 }, NULL, version=%0)); body(f); f(5)", VERSIONS));
+        assertEval(template("f <- unserialize(serialize(function(n) { g <- function(k) k * 2; g(n) }, NULL, version=%0)); environment(f) <- new.env(); f(21)", VERSIONS));
+    }
+
     @Test
     public void testunserializeSeq() {
         assertEval(template("unserialize(serialize(1L:10L, connection=NULL, version=%0))", VERSIONS));
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2019, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -250,6 +250,17 @@ public class TestFunctions extends TestBase {
         assertEval("{ x <- rep(80, 1); f <- function(arg, defArg = x) {print(arg + defArg); print(defArg)}; f(80L); f(80L); f(80L) }");
     }
 
+    @Test
+    public void testPassedArgumentValues() {
+        // arguments of functions that cannot observe their promises are passed as values
+        assertEval("{ f <- function(x, y) { z <- x * y; z + 1 }; s <- 0; for (i in 1:100) s <- s + f(i, i + 1); s }");
+        assertEval("{ f <- function(x) { y <- x; y }; a <- c(1, 2); b <- f(a); b[1] <- 10; a }");
+        assertEval("{ f <- function(x) x + 1; g <- function(y) f(y * 2); g(1); g(2) }");
+        assertEval("{ f <- function(x) { x; substitute(x) }; a <- 1; f(a + 1) }");
+        assertEval("{ f <- function(x) { x; missing(x) }; a <- 1; f(a) }");
+        assertEval("{ foo <- function(x) { is.null(x); UseMethod('foo') }; foo.default <- function(x) deparse(substitute(x)); a <- 1; foo(a + 1) }");
+    }
+
     @Test
     public void testVarArgPromises() {
         assertEval("g <- function(e) get(\"ex\", e);f <- function(e, en) {  exports <- g(e);  unlist(lapply(en, get, envir = exports, inherits = FALSE))}; " +
@@ -14,15 +14,20 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2022, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
 package com.oracle.truffle.r.test.functions;
 
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
 import org.junit.Test;
 
+import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.test.TestRBase;
+import com.oracle.truffle.r.test.generate.FastRSession;
 
 public class TestS3Dispatch extends TestRBase {
 
@@ -179,6 +184,38 @@ public class TestS3Dispatch extends TestRBase {
         assertEval("{ glob_flag <- FALSE; my_generic <- function(x) UseMethod('my_generic', x); my_generic.array <- function(x) glob_flag <<- TRUE; m <- 1:9; dim(m) <- c(3,3); my_generic(x); glob_flag }");
     }
 
+    @Test
+    public void testMegamorphicDispatch() {
+        // more classes than the call site caches, methods defined and removed after the first calls
+        assertEval("{ gen <- function(x) UseMethod('gen'); gen.default <- function(x) 'default'; for (n in c('a', 'b', 'c', 'd', 'e')) assign(paste0('gen.', n), eval(substitute(function(x) n, list(n = n)))); " +
+                        "objs <- lapply(c('a', 'b', 'c', 'd', 'e', 'f'), function(n) structure(1, class = n)); f <- function() vapply(objs, gen, ''); r1 <- f(); r2 <- f(); " +
+                        "gen.f <- function(x) 'f'; rm(gen.b); r3 <- f(); gen.b <- function(x) 'b again'; list(r1, r2, r3, f()) }");
+        assertEval("{ gen <- function(x) UseMethod('gen'); gen.default <- function(x) 'default'; objs <- lapply(c('a', 'b', 'c', 'd', 'e'), function(n) structure(1, class = c(n, 'base'))); " +
+                        "gen.base <- function(x) paste('base', NextMethod()); f <- function() vapply(objs, gen, ''); r1 <- f(); " +
+                        "assign('gen.c', function(x) 'c', envir = .__S3MethodsTable__.); r2 <- f(); rm('gen.c', envir = .__S3MethodsTable__.); list(r1, r2, f()) }");
+    }
+
+    private static final String MEGAMORPHIC = "gen <- function(x) UseMethod('gen'); for (n in c('a', 'b', 'c', 'd', 'e')) assign(paste0('gen.', n), eval(substitute(function(x) n, list(n = n)))); " +
+                    "objs <- lapply(c('a', 'b', 'c', 'd', 'e'), function(n) structure(1, class = n)); f <- function() vapply(objs, gen, ''); invisible(f()); invisible(f()); ";
+
+    @Test
+    public void testS3MethodCache() {
+        // after the warm-up the call site in gen is generic and all its lookups are cached
+        assertEvalFastR("{ " + MEGAMORPHIC + "invisible(.fastr.s3.cache.stats(reset = TRUE)); r <- f(); s <- .fastr.s3.cache.stats(); list(r, s[c('hits', 'misses', 'invalidated')]) }",
+                        "list(c('a', 'b', 'c', 'd', 'e'), c(hits = 5, misses = 0, invalidated = 0))");
+        // redefining a method invalidates only its entry
+        assertEvalFastR("{ " + MEGAMORPHIC + "invisible(.fastr.s3.cache.stats(reset = TRUE)); gen.c <- function(x) 'c2'; r <- f(); s <- .fastr.s3.cache.stats(); list(r, s[c('hits', 'misses', 'invalidated')]) }",
+                        "list(c('a', 'b', 'c2', 'd', 'e'), c(hits = 4, misses = 1, invalidated = 1))");
+        // the dispatch gives the same results with the cache disabled
+        String code = "{ gen <- function(x) UseMethod('gen'); gen.default <- function(x) 'default'; for (n in c('a', 'b', 'c', 'd', 'e')) assign(paste0('gen.', n), eval(substitute(function(x) n, list(n = n)))); " +
+                        "objs <- lapply(c('a', 'b', 'c', 'd', 'e', 'f'), function(n) structure(1, class = c(n, 'base'))); gen.base <- function(x) paste('base', NextMethod()); f <- function() vapply(objs, gen, ''); " +
+                        "r1 <- f(); r2 <- f(); gen.f <- function(x) 'f'; rm(gen.b); r3 <- f(); assign('gen.c', function(x) 'c', envir = .__S3MethodsTable__.); paste(deparse(list(r1, r2, r3, f())), collapse = '') }";
+        try (Context cached = FastRSession.getContextBuilder("R", "llvm").build();
+                        Context uncached = FastRSession.getContextBuilder("R", "llvm").option(FastROptions.getName(FastROptions.S3MethodCacheSize), "0").build()) {
+            assertEquals(uncached.eval("R", code).asString(), cached.eval("R", code).asString());
+        }
+    }
+
     @Override
     public String getTestDir() {
         return "S3";
@@ -2431,4 +2431,15 @@ public class TestSimpleVectors extends TestBase {
     public void testLargeNames() {
         assertEval("v <- runif(1000); names(v) <- paste0('a', 1:1000); v[paste0('a', 1:1000)] <- 42; length(v); sum(v)");
     }
+
+    @Test
+    public void testAppendInLoop() {
+        assertEval("{ x <- numeric(); for (i in 1:100) x[length(x) + 1] <- i; list(length(x), sum(x), x[c(1, 50, 100)]) }");
+        assertEval("{ x <- integer(); for (i in 1:100) x[i] <- i; list(length(x), sum(x), typeof(x)) }");
+        assertEval("{ x <- character(); for (i in 1:20) x[i] <- as.character(i); paste(x, collapse='') }");
+        assertEval("{ x <- c(1, 2); y <- x; x[3] <- 3; list(x, y) }");
+        assertEval("{ x <- c(1L, 2L); x[5] <- 5L; y <- x; x[6] <- 6L; list(x, y) }");
+        assertEval("{ x <- c(1, 2); x[3] <- 3; x[5] <- 5; f <- function(v) { v[1] <- 42; v }; list(f(x), x, is.na(x)) }");
+        assertEval("{ x <- 'a'; x[2] <- 'b'; x[4] <- 'd'; list(x, nchar(x), toupper(x)) }");
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -64,6 +64,14 @@ public class TestContextKind extends TestBase {
         assertEval(Context.NonShared, "{ non_existing_var }");
     }
 
+    @Test
+    public void testSharedBuiltins() {
+        // a child context looks the builtins up in the context it shares its code with, so it gets
+        // the same function objects, and their call targets, as the parent
+        assertEvalFastR("{ ids <- \"sapply(c('sum', 'c', 'length'), function(n) .fastr.identity(.Primitive(n)))\"; identical(.fastr.context.eval(ids, 'SHARE_ALL')[[1]], eval(parse(text = ids))) }",
+                        "TRUE");
+    }
+
     @Test
     public void testResetSeed() {
         assertEval("{ set.seed(11, 'Marsaglia-Multicarry') }");
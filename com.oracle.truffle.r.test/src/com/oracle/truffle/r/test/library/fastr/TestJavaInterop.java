@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -144,6 +144,17 @@ public class TestJavaInterop extends TestBase {
         assertEvalFastR("v <- .fastr.interop.asChar('a'); v;", "'a'");
     }
 
+    @Test
+    public void testToArrayView() {
+        assertEvalFastR("a <- .fastr.interop.asJavaArrayView(c(1.1, 1.2)); a$getClass()$getName();", "'[D'");
+        assertEvalFastR("a <- .fastr.interop.asJavaArrayView(c(1L, 2L)); a;", getRValue(new int[]{1, 2}));
+        assertEvalFastR("a <- .fastr.interop.asJavaArrayView(1:3); a;", getRValue(new int[]{1, 2, 3}));
+        assertEvalFastR("a <- .fastr.interop.asJavaArrayView(as.raw(1:3)); a$getClass()$getName();", "'[B'");
+        assertEvalFastR("x <- c(1.1, 1.2); a <- .fastr.interop.asJavaArrayView(x); x[1] <- 3; .fastr.interop.asVector(a)", "c(1.1, 1.2)");
+        assertEvalFastR("a <- .fastr.interop.asJavaArray(c(1.1, 1.2)); v <- .fastr.interop.asVector(a); v[1] <- 3; list(v, .fastr.interop.asVector(a))", "list(c(3, 1.2), c(1.1, 1.2))");
+        assertEvalFastR("a <- .fastr.interop.asJavaArray(c(1L, NA)); v <- .fastr.interop.asVector(a); v[2] <- 3L; list(v, .fastr.interop.asVector(a))", "list(c(1L, 3L), c(1L, NA))");
+    }
+
     @Test
     public void testToArray() {
         assertEvalFastR("a <- .fastr.interop.asJavaArray(1L); a;", getRValue(new int[]{1}));
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastrGrid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.library.fastrGrid.device.GridDevice.DeviceCloseException;
+import com.oracle.truffle.r.library.fastrGrid.device.awt.ImageEncoder;
+
+public class ImageEncoderTests {
+    private static final int WIDTH = 7;
+    private static final int HEIGHT = 5;
+    private static final int PAGES = 16;
+
+    /**
+     * All the pages block in the encoder until the device waits for the failing first one while
+     * submitting a later page. Every page must still be written and closed and the failure reported
+     * exactly once.
+     */
+    @Test
+    public void testFailedPage() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        ImageEncoder encoder = new ImageEncoder();
+        List<BufferedImage> images = new ArrayList<>();
+        List<PageStream> streams = new ArrayList<>();
+        int errors = 0;
+
+        PageStream failing = new PageStream(latch, true);
+        errors += submit(encoder, images, failing);
+        Thread device = Thread.currentThread();
+        Thread release = new Thread(() -> {
+            // the device only waits in the encoder, for the first page once too many are pending
+            while (device.getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+            latch.countDown();
+        });
+        release.start();
+        for (int i = 0; i < PAGES; i++) {
+            PageStream stream = new PageStream(latch, false);
+            streams.add(stream);
+            errors += submit(encoder, images, stream);
+        }
+        try {
+            encoder.finish();
+        } catch (DeviceCloseException e) {
+            errors++;
+        }
+        release.join();
+
+        assertEquals(1, errors);
+        assertTrue(failing.closed);
+        for (PageStream stream : streams) {
+            assertTrue(stream.closed);
+            assertTrue(stream.size() > 0);
+        }
+        assertTrue(images.contains(ImageEncoder.acquireImage(WIDTH, HEIGHT)));
+    }
+
+    private static int submit(ImageEncoder encoder, List<BufferedImage> images, PageStream stream) {
+        BufferedImage image = ImageEncoder.acquireImage(WIDTH, HEIGHT);
+        images.add(image);
+        try {
+            encoder.submit(image, "png", stream);
+            return 0;
+        } catch (DeviceCloseException e) {
+            return 1;
+        }
+    }
+
+    private static final class PageStream extends ByteArrayOutputStream {
+        private final CountDownLatch latch;
+        private final boolean fail;
+        private volatile boolean closed;
+
+        PageStream(CountDownLatch latch, boolean fail) {
+            this.latch = latch;
+            this.fail = fail;
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            awaitLatch();
+            super.write(b, off, len);
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            awaitLatch();
+            super.write(b);
+        }
+
+        private void awaitLatch() {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (fail) {
+                throw new UncheckedIOException(new IOException("write failed"));
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.runtime.ffi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.runtime.ffi.util.NativeHandleTable;
+
+public class NativeHandleTableTests {
+
+    @Test
+    public void testAddAndGet() {
+        NativeHandleTable<String> table = new NativeHandleTable<>();
+        String[] entries = new String[10000];
+        long[] handles = new long[entries.length];
+        HashSet<Long> seen = new HashSet<>();
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = "entry" + i;
+            handles[i] = table.add(entries[i]);
+            assertTrue(NativeHandleTable.isHandle(handles[i]));
+            // handles are never valid (aligned) addresses
+            assertEquals(1, handles[i] & 1);
+            assertTrue(seen.add(handles[i]));
+        }
+        assertEquals(entries.length, table.size());
+        for (int i = 0; i < entries.length; i++) {
+            assertSame(entries[i], table.get(handles[i]));
+        }
+    }
+
+    @Test
+    public void testInvalidHandles() {
+        NativeHandleTable<String> table = new NativeHandleTable<>();
+        long handle = table.add("a");
+        assertNull(table.get(0));
+        assertNull(table.get(handle + 2));
+        assertNull(table.get(handle + 2 * 100000));
+        assertFalse(NativeHandleTable.isHandle(handle + 1));
+        assertFalse(NativeHandleTable.isHandle(0x7f0012345678L));
+        assertFalse(NativeHandleTable.isHandle(-1));
+    }
+
+    @Test
+    public void testReleaseAndReuse() {
+        NativeHandleTable<String> table = new NativeHandleTable<>();
+        int count = 1000;
+        String[] entries = new String[count];
+        long[] handles = new long[count];
+        for (int i = 0; i < count; i++) {
+            entries[i] = "entry" + i;
+            handles[i] = table.add(entries[i]);
+        }
+        long next = table.getNextHandle();
+
+        // releasing with a different entry is ignored
+        table.release(handles[0], "other");
+        assertEquals(count, table.size());
+
+        for (int i = 0; i < count; i += 2) {
+            table.release(handles[i], entries[i]);
+        }
+        assertEquals(count / 2, table.size());
+        for (int i = 1; i < count; i += 2) {
+            assertSame(entries[i], table.get(handles[i]));
+        }
+
+        // the released slots are reused before the table grows
+        HashSet<Long> released = new HashSet<>();
+        for (int i = 0; i < count; i += 2) {
+            released.add(handles[i]);
+        }
+        for (int i = 0; i < count / 2; i++) {
+            String entry = "new" + i;
+            long handle = table.add(entry);
+            assertTrue(released.remove(handle));
+            assertSame(entry, table.get(handle));
+        }
+        assertEquals(next, table.getNextHandle());
+        assertEquals(count, table.size());
+        assertEquals(next, table.add("next"));
+    }
+}
@@ -278,6 +278,52 @@ def rscript(args, parser=None, **kwargs):
     '''run Rscript'''
     return run_r(args, 'rscript', parser=parser, **kwargs)
 
+_PARSER_BENCHMARK_CODE = """
+files <- commandArgs(trailingOnly = TRUE)
+for (i in seq_len({0})) {{
+    t1 <- system.time(for (f in files) parse(f, keep.source = FALSE))[["elapsed"]]
+    t2 <- system.time(for (j in 1:20000) str2lang("f(x, y = 2)[[1L]] + g(z, ...)"))[["elapsed"]]
+    cat(sprintf("iteration %d: parse %.3fs, str2lang %.3fs\\n", i, t1, t2))
+}}
+"""
+
+def r_parser_benchmark(args):
+    '''compare the parse times of the ANTLR generated and the recursive-descent R parser'''
+    parser = ArgumentParser(prog='mx r-parser-benchmark')
+    parser.add_argument('--iterations', action='store', type=int, default=10, help='number of measured iterations')
+    parser.add_argument('files', nargs='*', help='R files to parse, defaults to the base package sources', metavar='<file>')
+    ns, rargs = parser.parse_known_args(args)
+    files = ns.files if ns.files else [join(_fastr_suite.dir, 'library', 'base', 'R', 'base')]
+    code = _PARSER_BENCHMARK_CODE.format(ns.iterations)
+    for recursiveDescent in ['false', 'true']:
+        print('RecursiveDescentParser=' + recursiveDescent)  # pylint: disable=superfluous-parens
+        env = os.environ.copy()
+        env['FASTR_OPTION_RecursiveDescentParser'] = recursiveDescent
+        rscript(rargs + ['-e', code, '--args'] + files, env=env)
+
+_FFI_BENCHMARK_CODE = """
+if (!requireNamespace("data.table", quietly = TRUE)) stop("the benchmark needs the data.table package")
+library(data.table)
+n <- {1}
+dt <- data.table(g = sample(1000L, n, TRUE), k = sample(n), v = runif(n), s = sample(letters, n, TRUE))
+f <- tempfile(fileext = ".csv")
+for (i in seq_len({0})) {{
+    t1 <- system.time(dt[, .(m = sum(v), c = .N), by = g])[["elapsed"]]
+    t2 <- system.time(setkey(copy(dt), k, s))[["elapsed"]]
+    t3 <- system.time({{ fwrite(dt, f); fread(f) }})[["elapsed"]]
+    cat(sprintf("iteration %d: group by %.3fs, setkey %.3fs, fwrite/fread %.3fs\\n", i, t1, t2, t3))
+}}
+unlink(f)
+"""
+
+def r_ffi_benchmark(args):
+    '''measure operations of the data.table package, which are dominated by the R API calls from native code'''
+    parser = ArgumentParser(prog='mx r-ffi-benchmark')
+    parser.add_argument('--iterations', action='store', type=int, default=10, help='number of measured iterations')
+    parser.add_argument('--rows', action='store', type=int, default=1000000, help='number of rows of the data.table')
+    ns, rargs = parser.parse_known_args(args)
+    rscript(rargs + ['-e', _FFI_BENCHMARK_CODE.format(ns.iterations, ns.rows)])
+
 def rrepl(args, nonZeroIsFatal=True, extraVmArgs=None):
     '''run R repl'''
     run_r(args, 'rrepl')
@@ -994,6 +1040,8 @@ _commands = {
     'rbcheck' : [rbcheck, '--filter [gnur-only,fastr-only,both,both-diff]'],
     'rbdiag' : [rbdiag, '(builtin)* [-v] [-n] [-m] [--sweep | --sweep=lite | --sweep=total] [--mnonly] [--noSelfTest] [--matchLevel=same | --matchLevel=error] [--maxSweeps=N] [--outMaxLev=N]'],
     'rrepl' : [rrepl, '[options]'],
+    'r-parser-benchmark' : [r_parser_benchmark, '[--iterations N] [<file>...]'],
+    'r-ffi-benchmark' : [r_ffi_benchmark, '[--iterations N] [--rows N]'],
     'rembed' : [rembed, '[options]'],
     'rembedtest' : [rembedtest, '[options]'],
     'r-cp' : [r_classpath, '[options]'],